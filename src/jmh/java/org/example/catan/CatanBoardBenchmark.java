@@ -0,0 +1,39 @@
+package org.example.catan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of a complete random board on the shared topology of its radius.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CatanBoardBenchmark {
+
+    @Param({"3", "4", "5", "6", "7", "8", "9", "10"})
+    private int radius;
+
+    /**
+     * Builds a new board of the configured radius.
+     *
+     * @return the board, so the construction cannot be eliminated
+     */
+    @Benchmark
+    public CatanBoard construct() {
+        return new CatanBoard(radius);
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.catan.bot;
+
+import javafx.scene.paint.Color;
+import org.example.catan.engine.GameEngine;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the playouts per second of the bot for different numbers of search threads, i.e. how the
+ * search scales with cores. Each operation is one search of 100 ms in the build phase of a new game;
+ * the {@code playouts} counter is the figure of interest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MctsBotBenchmark {
+    private static final List<Color> COLORS = List.of(Color.BLUE, Color.RED, Color.YELLOW, Color.WHITE);
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private ForkJoinPool pool;
+    private MctsBot bot;
+    private GameEngine engine;
+
+    /**
+     * Playouts counted per benchmark iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        /** Playouts run by all search threads. */
+        public long playouts;
+
+        /**
+         * Resets the counter before each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            playouts = 0;
+        }
+    }
+
+    /**
+     * Creates the bot and a four-player game in which the first player has rolled.
+     */
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+        bot = new MctsBot(Duration.ofMillis(100), MctsBot.DEFAULT_EXPLORATION, pool, new TranspositionTable(18), 42);
+        engine = GameEngine.newGame(3, COLORS, 42);
+        engine.rollDice();
+        if (engine.isWaitingForBandit()) {
+            engine.placeBandit(engine.getRobberPosition());
+        }
+    }
+
+    /**
+     * Shuts the search threads down.
+     */
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Runs one search for the current player.
+     *
+     * @param counters receives the number of playouts
+     * @return the chosen move, so the work cannot be eliminated
+     */
+    @Benchmark
+    public int search(Counters counters) {
+        int move = bot.chooseMove(engine);
+        counters.playouts += bot.getLastPlayouts();
+        return move;
+    }
+}
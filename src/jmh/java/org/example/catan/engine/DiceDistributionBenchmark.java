@@ -0,0 +1,82 @@
+package org.example.catan.engine;
+
+import javafx.scene.paint.Color;
+import org.example.catan.CatanBoard;
+import org.example.catan.gamepieces.Bank;
+import org.example.catan.gamepieces.Player;
+import org.example.catan.gamepieces.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the resource distribution that follows a dice roll.
+ * Every third node holds a settlement; after each distribution the players hand their cards back
+ * to the bank, so the bank never runs dry and every invocation does the same amount of work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DiceDistributionBenchmark {
+    private static final List<Color> COLORS = List.of(Color.BLUE, Color.RED, Color.YELLOW, Color.WHITE);
+    private static final int[] TOTALS = {2, 3, 4, 5, 6, 8, 9, 10, 11, 12};
+    private static final Resources[] RESOURCES = Resources.values();
+
+    @Param({"3", "5", "8", "10"})
+    private int radius;
+
+    @Param({"2", "3", "4"})
+    private int players;
+
+    private GameEngine engine;
+    private int next;
+
+    /**
+     * Creates a game and spreads settlements over the board.
+     */
+    @Setup
+    public void setUp() {
+        CatanBoard board = new CatanBoard(radius);
+        List<Player> seated = COLORS.subList(0, players).stream().map(Player::new).toList();
+        engine = new GameEngine(board, seated, new Random(42));
+        for (int node = 0; node < board.getNodes().length; node += 3) {
+            engine.getProductionIndex().addSettlement(node, (node / 3) % players);
+        }
+    }
+
+    /**
+     * Distributes the resources for the next dice total and returns them to the bank.
+     *
+     * @return the dice total, so the work cannot be eliminated
+     */
+    @Benchmark
+    public int distribute() {
+        int total = TOTALS[next++ % TOTALS.length];
+        engine.distributeResources(total);
+
+        Bank bank = engine.getBank();
+        for (Player player : engine.getPlayers()) {
+            for (int r = 0; r < ProductionIndex.RESOURCE_COUNT; r++) {
+                int amount = player.getResourceCount(RESOURCES[r]);
+                player.removeResource(RESOURCES[r], amount);
+                bank.returnResource(RESOURCES[r], amount);
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.catan.engine;
+
+import javafx.scene.paint.Color;
+import org.example.catan.CatanBoard;
+import org.example.catan.gamepieces.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures move generation in the build phase, where the current player holds the starting hand and
+ * can afford both streets and settlements, so every vertex and edge is enumerated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MoveGeneratorBenchmark {
+    private static final List<Color> COLORS = List.of(Color.BLUE, Color.RED, Color.YELLOW, Color.WHITE);
+
+    @Param({"3", "5", "8", "10"})
+    private int radius;
+
+    private GameEngine engine;
+    private MoveList moves;
+
+    /**
+     * Creates a four-player game and rolls for the first player.
+     */
+    @Setup
+    public void setUp() {
+        CatanBoard board = new CatanBoard(radius);
+        List<Player> seated = COLORS.stream().map(Player::new).toList();
+        engine = new GameEngine(board, seated, new Random(42));
+        moves = new MoveList(MoveGenerator.maxMoves(board));
+
+        engine.rollDice();
+        if (engine.isWaitingForBandit()) {
+            engine.placeBandit(engine.getRobberPosition());
+        }
+    }
+
+    /**
+     * Generates all legal moves of the current player into the reused buffer.
+     *
+     * @return the buffer, so the work cannot be eliminated
+     */
+    @Benchmark
+    public MoveList generate() {
+        MoveGenerator.generate(engine, moves);
+        return moves;
+    }
+}
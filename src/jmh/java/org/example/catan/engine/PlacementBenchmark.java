@@ -0,0 +1,106 @@
+package org.example.catan.engine;
+
+import javafx.scene.paint.Color;
+import org.example.catan.CatanBoard;
+import org.example.catan.gamepieces.Player;
+import org.example.catan.gamepieces.Resources;
+import org.example.catan.gamepieces.buildings.Buildings;
+import org.example.catan.graph.StreetGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures placement validation: every node and edge of the board is checked for the current player,
+ * who has no cards left, so all commands run through the full validation and are rejected.
+ * Also measures the raw {@code Player.claimPiece} bookkeeping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PlacementBenchmark {
+    private static final List<Color> COLORS = List.of(Color.BLUE, Color.RED, Color.YELLOW, Color.WHITE);
+
+    @Param({"3", "5", "8", "10"})
+    private int radius;
+
+    @Param({"2", "4"})
+    private int players;
+
+    private GameEngine engine;
+    private StreetGraph graph;
+
+    /**
+     * Creates a game, rolls for the first player and empties that player's hand.
+     */
+    @Setup
+    public void setUp() {
+        CatanBoard board = new CatanBoard(radius);
+        List<Player> seated = COLORS.subList(0, players).stream().map(Player::new).toList();
+        engine = new GameEngine(board, seated, new Random(42));
+        graph = board.getGraph();
+
+        engine.rollDice();
+        if (engine.isWaitingForBandit()) {
+            engine.placeBandit(engine.getRobberPosition());
+        }
+        Player current = engine.getCurrentPlayer();
+        for (Resources res : Resources.values()) {
+            current.removeResource(res, current.getResourceCount(res));
+        }
+    }
+
+    /**
+     * Validates a settlement on every node.
+     *
+     * @param blackhole sink for the results
+     */
+    @Benchmark
+    public void validateSettlements(Blackhole blackhole) {
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            blackhole.consume(engine.buildSettlement(node));
+        }
+    }
+
+    /**
+     * Validates a street on every edge.
+     *
+     * @param blackhole sink for the results
+     */
+    @Benchmark
+    public void validateStreets(Blackhole blackhole) {
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            blackhole.consume(engine.buildStreet(graph.getNodeA(edge), graph.getNodeB(edge)));
+        }
+    }
+
+    /**
+     * Buys one settlement and two streets for a fresh player with the starting hand.
+     *
+     * @return the player, so the work cannot be eliminated
+     */
+    @Benchmark
+    public Player placePieces() {
+        Player player = new Player(Color.BLUE);
+        player.claimPiece(Buildings.SETTLEMENT);
+        player.claimPiece(Buildings.STREET);
+        player.claimPiece(Buildings.STREET);
+        return player;
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.catan.engine;
+
+import javafx.scene.paint.Color;
+import org.example.catan.gamepieces.Player;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.gamepieces.TradeOffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one trade action against a book holding many open offers: finding a match for a new offer,
+ * listing it, looking up its position and taking it off again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TradeBookBenchmark {
+    private static final int PLAYERS = 4;
+    private static final int PROBES = 64;
+
+    @Param({"16", "256", "4096"})
+    private int offers;
+
+    private TradeBook book;
+    private TradeOffer[] probes;
+    private int next;
+
+    /**
+     * Fills the book with random single-resource offers of all players and prepares the probing offers.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Player[] players = new Player[PLAYERS];
+        for (int p = 0; p < PLAYERS; p++) {
+            players[p] = new Player(Color.gray(p / (double) PLAYERS));
+        }
+        book = new TradeBook(PLAYERS);
+        for (int i = 0; i < offers; i++) {
+            book.add(randomOffer(players[i % PLAYERS], random), i % PLAYERS);
+        }
+        probes = new TradeOffer[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = randomOffer(players[0], random);
+        }
+    }
+
+    /**
+     * Creates an offer of one to three cards of a resource for one card of another.
+     *
+     * @param sender the sending player
+     * @param random source for the resources
+     * @return the offer
+     */
+    private static TradeOffer randomOffer(Player sender, Random random) {
+        int give = random.nextInt(ResourceVector.SIZE);
+        int want = (give + 1 + random.nextInt(ResourceVector.SIZE - 1)) % ResourceVector.SIZE;
+        return new TradeOffer(sender, ResourceVector.of(ResourceVector.resourceAt(give), 1 + random.nextInt(3)),
+                ResourceVector.of(ResourceVector.resourceAt(want), 1), false);
+    }
+
+    /**
+     * Matches, lists, locates and removes one offer.
+     *
+     * @return the position of the listed offer, so the work cannot be eliminated
+     */
+    @Benchmark
+    public int matchListAndRemove() {
+        TradeOffer offer = probes[next++ & (PROBES - 1)];
+        TradeOffer match = book.findMatch(offer, 0, candidate -> true);
+        book.add(offer, 0);
+        int index = book.indexOf(offer);
+        book.remove(offer);
+        return index + (match == null ? 0 : 1);
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.catan.gamepieces;
+
+import org.example.catan.gamepieces.buildings.Buildings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures taking a card from the bank and putting it back, for every resource type,
+ * and multi-resource transactions with several threads sharing one bank.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BankBenchmark {
+    private static final Resources[] RESOURCES = {
+            Resources.WOOD, Resources.SHEEP, Resources.WHEAT, Resources.BRICK, Resources.STONE
+    };
+
+    private final Bank bank = new Bank();
+    private final ResourceVector production = ResourceVector.of(2, 1, 1, 0, 3);
+
+    /**
+     * Takes and returns one card of each resource.
+     *
+     * @return the number of successful takes
+     */
+    @Benchmark
+    public int takeAndReturn() {
+        int taken = 0;
+        for (Resources res : RESOURCES) {
+            if (bank.takeResource(res, 1)) {
+                taken++;
+                bank.returnResource(res, 1);
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Pays out a roll's production and deposits it again, with four threads competing for the same bank.
+     *
+     * @return the mask of resources paid
+     */
+    @Benchmark
+    @Threads(4)
+    public int payoutContended() {
+        int covered = bank.takeCovered(production);
+        for (int r = 0; r < ResourceVector.SIZE; r++) {
+            if ((covered & 1 << r) != 0) {
+                bank.returnResource(ResourceVector.resourceAt(r), production.get(r));
+            }
+        }
+        return covered;
+    }
+
+    /**
+     * Sells a settlement and takes it back, with four threads competing for the same bank.
+     *
+     * @return whether the piece was sold
+     */
+    @Benchmark
+    @Threads(4)
+    public boolean sellPieceContended() {
+        boolean sold = bank.sellPiece(Buildings.SETTLEMENT);
+        if (sold) {
+            bank.refundPiece(Buildings.SETTLEMENT);
+        }
+        return sold;
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.catan.generator;
+
+import org.example.catan.CatanBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many boards satisfying {@link BoardConstraints#STANDARD} can be generated per second.
+ * Run with {@code -t} to measure several threads sharing one generator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FairBoardGeneratorBenchmark {
+
+    @Param({"3", "4", "5", "6"})
+    private int radius;
+
+    private FairBoardGenerator generator;
+
+    /**
+     * Per-thread random source, so threads do not contend on one generator state.
+     */
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+        private SplittableRandom random;
+
+        /**
+         * Seeds the random source of a thread.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            random = new SplittableRandom();
+        }
+    }
+
+    /**
+     * Creates the generator for the configured radius.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = new FairBoardGenerator(radius, BoardConstraints.STANDARD);
+    }
+
+    /**
+     * Generates one fair board.
+     *
+     * @param thread the calling thread's random source
+     * @return the board, so the generation cannot be eliminated
+     */
+    @Benchmark
+    public CatanBoard generate(ThreadRandom thread) {
+        return generator.generate(thread.random);
+    }
+}
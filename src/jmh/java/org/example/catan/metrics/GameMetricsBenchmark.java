@@ -0,0 +1,68 @@
+package org.example.catan.metrics;
+
+import org.example.catan.engine.ActionResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost the instrumentation adds to every game action, with the histograms switched off
+ * (only the checks remain) and on, from one thread and from four threads recording the same action.
+ * No JFR recording is running, as in normal operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GameMetricsBenchmark {
+    @Param({"false", "true"})
+    private boolean enabled;
+
+    /**
+     * Switches the histograms on or off for the trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameMetrics.setEnabled(enabled);
+        GameMetrics.reset();
+    }
+
+    /**
+     * Takes a start timestamp and records an action right away.
+     *
+     * @return the start timestamp
+     */
+    @Benchmark
+    public long startAndRecord() {
+        long start = GameMetrics.start();
+        GameMetrics.record(GameAction.ROLL_DICE, 1, start, ActionResult.OK);
+        return start;
+    }
+
+    /**
+     * Records the same action from four threads at once.
+     *
+     * @return the start timestamp
+     */
+    @Benchmark
+    @Threads(4)
+    public long startAndRecordContended() {
+        long start = GameMetrics.start();
+        GameMetrics.record(GameAction.ROLL_DICE, 1, start, ActionResult.OK);
+        return start;
+    }
+}
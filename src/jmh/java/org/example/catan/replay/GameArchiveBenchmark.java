@@ -0,0 +1,138 @@
+package org.example.catan.replay;
+
+import javafx.scene.paint.Color;
+import org.example.catan.engine.GameEngine;
+import org.example.catan.engine.Move;
+import org.example.catan.engine.MoveGenerator;
+import org.example.catan.engine.MoveList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures random access to an archive of played games. A few hundred random games are played once and
+ * appended repeatedly until the archive holds the requested number of games, so the cost of loading one game
+ * can be compared across archive sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GameArchiveBenchmark {
+    private static final List<Color> COLORS = List.of(Color.BLUE, Color.RED, Color.YELLOW, Color.WHITE);
+    private static final int DISTINCT_GAMES = 256;
+
+    @Param({"1000", "1000000"})
+    private int games;
+
+    private Path path;
+    private GameArchiveReader reader;
+    private final ArchivedGame game = new ArchivedGame();
+    private final Random random = new Random(42);
+
+    /**
+     * Plays the distinct games, writes the archive and opens it for reading.
+     *
+     * @throws IOException if the archive cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        path = Files.createTempFile("catan-archive", ".cga");
+        Files.delete(path);
+        List<GameEngine> played = new ArrayList<>();
+        List<int[]> moves = new ArrayList<>();
+        for (int seed = 0; seed < DISTINCT_GAMES; seed++) {
+            GameEngine engine = GameEngine.newGame(3, COLORS, seed);
+            played.add(engine);
+            moves.add(play(engine, seed));
+        }
+        try (GameArchiveWriter writer = new GameArchiveWriter(path)) {
+            for (int i = 0; i < games; i++) {
+                int seed = i % DISTINCT_GAMES;
+                int[] gameMoves = moves.get(seed);
+                writer.append(seed, played.get(seed).getBoard(), COLORS, gameMoves, gameMoves.length);
+            }
+        }
+        reader = new GameArchiveReader(path);
+    }
+
+    /**
+     * Closes and deletes the archive.
+     *
+     * @throws IOException if the files cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        reader.close();
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(GameArchiveWriter.indexPathOf(path));
+    }
+
+    /**
+     * Decodes a random game into the reused instance.
+     *
+     * @return the decoded game, so the work cannot be eliminated
+     * @throws IOException if the record is corrupt
+     */
+    @Benchmark
+    public ArchivedGame read() throws IOException {
+        reader.read(random.nextInt(games), game);
+        return game;
+    }
+
+    /**
+     * Decodes a random game and rebuilds its engine by executing all its moves again.
+     *
+     * @return the rebuilt game
+     * @throws IOException if the record is corrupt
+     */
+    @Benchmark
+    public GameEngine load() throws IOException {
+        return reader.load(random.nextInt(games));
+    }
+
+    /**
+     * Plays random moves until the game is over or a move limit is reached.
+     *
+     * @param engine the game
+     * @param seed   seed for the choice of moves
+     * @return the moves executed
+     */
+    private static int[] play(GameEngine engine, long seed) {
+        Random choices = new Random(seed);
+        MoveList legal = new MoveList(MoveGenerator.maxMoves(engine.getBoard()));
+        int[] moves = new int[2000];
+        int count = 0;
+        while (count < moves.length && !engine.isGameOver()) {
+            MoveGenerator.generate(engine, legal);
+            int move = legal.get(choices.nextInt(legal.size()));
+            if (Move.type(move) == Move.END_TURN && legal.size() > 1 && choices.nextInt(3) > 0) {
+                move = legal.get(0);
+            }
+            if (engine.applyMove(move).isAccepted()) {
+                moves[count++] = move;
+            }
+        }
+        return Arrays.copyOf(moves, count);
+    }
+}
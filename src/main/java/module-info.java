@@ -1,6 +1,8 @@
 module org.example.catan {
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.jfr;
+    requires java.management;
 
     requires static lombok;
 
@@ -10,4 +12,12 @@ module org.example.catan {
     opens org.example.catan.gamepieces.buildings to javafx.fxml;
     exports org.example.catan.gamepieces;
     opens org.example.catan.gamepieces to javafx.fxml;
+    exports org.example.catan.engine;
+    exports org.example.catan.lobby;
+    exports org.example.catan.replay;
+    exports org.example.catan.bot;
+    exports org.example.catan.generator;
+    exports org.example.catan.server;
+    exports org.example.catan.metrics;
+    exports org.example.catan.stats;
 }
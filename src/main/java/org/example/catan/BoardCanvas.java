@@ -0,0 +1,567 @@
+package org.example.catan;
+
+import javafx.geometry.VPos;
+import javafx.scene.Group;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.StrokeLineCap;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import lombok.Setter;
+import org.example.catan.engine.VertexYield;
+import org.example.catan.gamepieces.Resources;
+import org.example.catan.graph.Directions;
+import org.example.catan.graph.HexTile;
+import org.example.catan.graph.IntTupel;
+import org.example.catan.graph.Node;
+import org.example.catan.graph.StreetGraph;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Draws the board onto three stacked canvases instead of one scene node per tile, vertex and edge:
+ * the tiles (drawn once), the pieces and placement previews (redrawn once per pulse after pieces were
+ * placed, through a {@link ViewUpdateScheduler}) and the hover highlight (redrawn when the hovered element
+ * changes). The pieces layer can also show a yield heatmap below the pieces. Clicks are resolved analytically
+ * by converting the mouse position back to a tile with {@link HexLayout#tileAt(double, double)} and testing
+ * only the corners and sides of that tile and its neighbors, so picking cost does not grow with the board.
+ */
+public final class BoardCanvas {
+    private static final double VERTEX_RADIUS = 8;
+    private static final double VERTEX_HIT_RADIUS = 12;
+    private static final double EDGE_HIT_DISTANCE = 8;
+    private static final double ROAD_MARGIN = 12;
+    private static final double BANDIT_RADIUS = 20;
+    private static final double SETTLEMENT_SIZE = 16;
+    private static final double HEAT_MIN_RADIUS = 8;
+    private static final double HEAT_MAX_RADIUS = 22;
+    private static final double HEAT_OPACITY = 0.55;
+    private static final Directions[] DIRECTIONS = Directions.values();
+
+    private final Map<IntTupel, HexTile> tiles;
+    private final StreetGraph graph;
+    private final Group layers = new Group();
+    private final Canvas tileLayer;
+    private final Canvas pieceLayer;
+    private final Canvas hoverLayer;
+    private final double originX;
+    private final double originY;
+    private final double[] vertexX;
+    private final double[] vertexY;
+    private final boolean[] vertexHidden;
+    private final Color[] settlementColors;
+    private final Color[] roadColors;
+    private final ViewUpdateScheduler updates;
+    private IntTupel banditPosition;
+    private VertexYield heatmap;
+    private boolean banditPrompt;
+    private int hoveredVertex = -1;
+    private int hoveredEdge = -1;
+    private IntTupel hoveredTile;
+    @Setter
+    private Consumer<Integer> onVertexClicked;
+    @Setter
+    private Consumer<Integer> onEdgeClicked;
+    @Setter
+    private Consumer<IntTupel> onBanditTileClicked;
+
+    /**
+     * Creates the canvases for a board and draws the tiles.
+     *
+     * @param catanBoard the board model to render
+     * @param updates    the scheduler coalescing redraws of the pieces
+     */
+    public BoardCanvas(CatanBoard catanBoard, ViewUpdateScheduler updates) {
+        this.updates = updates;
+        this.tiles = catanBoard.getBoard();
+        this.graph = catanBoard.getGraph();
+        this.vertexX = new double[graph.getNodeCount()];
+        this.vertexY = new double[graph.getNodeCount()];
+        this.vertexHidden = new boolean[graph.getNodeCount()];
+        this.settlementColors = new Color[graph.getNodeCount()];
+        this.roadColors = new Color[graph.getEdgeCount()];
+
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (Map.Entry<IntTupel, HexTile> entry : tiles.entrySet()) {
+            double cx = HexLayout.centerX(entry.getKey());
+            double cy = HexLayout.centerY(entry.getKey());
+            Node[] corners = entry.getValue().getHexTileNodes();
+            for (int i = 0; i < corners.length; i++) {
+                vertexX[corners[i].getId()] = HexLayout.cornerX(cx, i);
+                vertexY[corners[i].getId()] = HexLayout.cornerY(cy, i);
+            }
+            minX = Math.min(minX, cx - HexLayout.HEX_SIZE);
+            minY = Math.min(minY, cy - HexLayout.HEX_SIZE);
+            maxX = Math.max(maxX, cx + HexLayout.HEX_SIZE);
+            maxY = Math.max(maxY, cy + HexLayout.HEX_SIZE);
+        }
+        this.originX = minX - BANDIT_RADIUS;
+        this.originY = minY - BANDIT_RADIUS;
+        double width = maxX - minX + 2 * BANDIT_RADIUS;
+        double height = maxY - minY + 2 * BANDIT_RADIUS;
+
+        tileLayer = createLayer(width, height);
+        pieceLayer = createLayer(width, height);
+        hoverLayer = createLayer(width, height);
+        layers.getChildren().addAll(tileLayer, pieceLayer, hoverLayer);
+
+        hoverLayer.setOnMouseMoved(e -> updateHover(originX + e.getX(), originY + e.getY()));
+        hoverLayer.setOnMouseExited(e -> updateHover(Double.NaN, Double.NaN));
+        hoverLayer.setOnMouseClicked(e -> handleClick(originX + e.getX(), originY + e.getY()));
+
+        drawTiles();
+        drawPieces();
+        updates.setRenderer(ViewUpdateScheduler.Region.PIECES, this::drawPieces);
+    }
+
+    /**
+     * Creates one canvas layer positioned at the board's origin.
+     *
+     * @param width  the width of the canvas
+     * @param height the height of the canvas
+     * @return the canvas
+     */
+    private Canvas createLayer(double width, double height) {
+        Canvas canvas = new Canvas(width, height);
+        canvas.setLayoutX(originX);
+        canvas.setLayoutY(originY);
+        return canvas;
+    }
+
+    /**
+     * Returns the scene node holding all layers, to be added to the board in board coordinates.
+     *
+     * @return the group of canvases
+     */
+    public Group getNode() {
+        return layers;
+    }
+
+    /**
+     * Draws a settlement and removes the placement preview of its vertex.
+     *
+     * @param nodeId      the vertex of the settlement
+     * @param playerColor the owner's color
+     */
+    public void placeSettlement(int nodeId, Color playerColor) {
+        settlementColors[nodeId] = playerColor;
+        vertexHidden[nodeId] = true;
+        updates.markDirty(ViewUpdateScheduler.Region.PIECES);
+    }
+
+    /**
+     * Draws a road and removes the placement preview of its edge.
+     *
+     * @param edge        the edge of the road
+     * @param playerColor the owner's color
+     */
+    public void placeRoad(int edge, Color playerColor) {
+        roadColors[edge] = playerColor;
+        updates.markDirty(ViewUpdateScheduler.Region.PIECES);
+    }
+
+    /**
+     * Removes the placement preview of a vertex, e.g. because of the distance rule.
+     *
+     * @param nodeId the vertex to hide
+     */
+    public void hideVertex(int nodeId) {
+        vertexHidden[nodeId] = true;
+        updates.markDirty(ViewUpdateScheduler.Region.PIECES);
+    }
+
+    /**
+     * Draws the bandit on a tile.
+     *
+     * @param coord the axial coordinate of the tile
+     */
+    public void placeBandit(IntTupel coord) {
+        banditPosition = coord;
+        updates.markDirty(ViewUpdateScheduler.Region.PIECES);
+    }
+
+    /**
+     * Shows the yield heatmap below the pieces, or hides it.
+     *
+     * @param yield the yields to show, or null to hide the heatmap
+     */
+    public void setHeatmap(VertexYield yield) {
+        heatmap = yield;
+        updates.markDirty(ViewUpdateScheduler.Region.PIECES);
+    }
+
+    /**
+     * Returns the radius of a heatmap disc.
+     *
+     * @param share the vertex's pips relative to the best vertex, 0 to 1
+     * @return the radius in board coordinates
+     */
+    static double heatRadius(double share) {
+        return HEAT_MIN_RADIUS + (HEAT_MAX_RADIUS - HEAT_MIN_RADIUS) * share;
+    }
+
+    /**
+     * Returns the color of a heatmap disc, from a pale yellow for poor vertices to red for the best ones.
+     *
+     * @param share the vertex's pips relative to the best vertex, 0 to 1
+     * @return the translucent color
+     */
+    static Color heatColor(double share) {
+        return Color.hsb(60 * (1 - share), 0.3 + 0.7 * share, 1, HEAT_OPACITY);
+    }
+
+    /**
+     * Shows or hides the bandit placement markers. While they are shown, clicks select a tile
+     * instead of a vertex or edge.
+     *
+     * @param prompt true to ask for a bandit tile
+     */
+    public void setBanditPrompt(boolean prompt) {
+        banditPrompt = prompt;
+        hoveredTile = null;
+        updates.markDirty(ViewUpdateScheduler.Region.PIECES);
+        drawHover();
+    }
+
+    /**
+     * Finds the vertex with an unplaced settlement preview near a point.
+     *
+     * @param x the x coordinate in board coordinates
+     * @param y the y coordinate in board coordinates
+     * @return the node ID, or -1 if no visible vertex is within reach
+     */
+    public int vertexAt(double x, double y) {
+        IntTupel center = HexLayout.tileAt(x, y);
+        int best = -1;
+        double bestDistance = VERTEX_HIT_RADIUS * VERTEX_HIT_RADIUS;
+        for (int d = -1; d < DIRECTIONS.length; d++) {
+            HexTile tile = tiles.get(d < 0 ? center : neighbor(center, d));
+            if (tile == null) {
+                continue;
+            }
+            for (Node corner : tile.getHexTileNodes()) {
+                int id = corner.getId();
+                double dx = vertexX[id] - x;
+                double dy = vertexY[id] - y;
+                double distance = dx * dx + dy * dy;
+                if (!vertexHidden[id] && distance <= bestDistance) {
+                    best = id;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the free edge near a point.
+     *
+     * @param x the x coordinate in board coordinates
+     * @param y the y coordinate in board coordinates
+     * @return the edge ID, or -1 if no free edge is within reach
+     */
+    public int edgeAt(double x, double y) {
+        IntTupel center = HexLayout.tileAt(x, y);
+        int best = -1;
+        double bestDistance = EDGE_HIT_DISTANCE * EDGE_HIT_DISTANCE;
+        for (int d = -1; d < DIRECTIONS.length; d++) {
+            HexTile tile = tiles.get(d < 0 ? center : neighbor(center, d));
+            if (tile == null) {
+                continue;
+            }
+            Node[] corners = tile.getHexTileNodes();
+            for (int i = 0; i < corners.length; i++) {
+                int edge = graph.getEdgeId(corners[i].getId(), corners[(i + 1) % corners.length].getId());
+                if (edge < 0 || roadColors[edge] != null) {
+                    continue;
+                }
+                double distance = squaredDistanceToEdge(edge, x, y);
+                if (distance <= bestDistance) {
+                    best = edge;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the tile under a point.
+     *
+     * @param x the x coordinate in board coordinates
+     * @param y the y coordinate in board coordinates
+     * @return the axial coordinate of the tile, or null if the point is outside the board
+     */
+    public IntTupel tileAt(double x, double y) {
+        IntTupel coord = HexLayout.tileAt(x, y);
+        return tiles.containsKey(coord) ? coord : null;
+    }
+
+    /**
+     * Returns the neighbor of a tile coordinate.
+     *
+     * @param coord     the tile coordinate
+     * @param direction index into {@link Directions#values()}
+     * @return the neighboring coordinate
+     */
+    private static IntTupel neighbor(IntTupel coord, int direction) {
+        return new IntTupel(coord.q() + DIRECTIONS[direction].getDq(), coord.r() + DIRECTIONS[direction].getDr());
+    }
+
+    /**
+     * Computes the squared distance from a point to the segment of an edge.
+     *
+     * @param edge the edge
+     * @param x    the x coordinate of the point
+     * @param y    the y coordinate of the point
+     * @return the squared distance
+     */
+    private double squaredDistanceToEdge(int edge, double x, double y) {
+        int a = graph.getNodeA(edge);
+        int b = graph.getNodeB(edge);
+        double dx = vertexX[b] - vertexX[a];
+        double dy = vertexY[b] - vertexY[a];
+        double t = ((x - vertexX[a]) * dx + (y - vertexY[a]) * dy) / (dx * dx + dy * dy);
+        t = Math.max(0, Math.min(1, t));
+        double px = vertexX[a] + t * dx - x;
+        double py = vertexY[a] + t * dy - y;
+        return px * px + py * py;
+    }
+
+    /**
+     * Resolves a click to a bandit tile, a vertex or an edge and notifies the matching handler.
+     *
+     * @param x the x coordinate in board coordinates
+     * @param y the y coordinate in board coordinates
+     */
+    private void handleClick(double x, double y) {
+        if (banditPrompt) {
+            IntTupel coord = tileAt(x, y);
+            if (coord != null && tiles.get(coord).getResourceType() != Resources.NONE && onBanditTileClicked != null) {
+                onBanditTileClicked.accept(coord);
+            }
+            return;
+        }
+        int vertex = vertexAt(x, y);
+        if (vertex >= 0) {
+            if (onVertexClicked != null) {
+                onVertexClicked.accept(vertex);
+            }
+            return;
+        }
+        int edge = edgeAt(x, y);
+        if (edge >= 0 && onEdgeClicked != null) {
+            onEdgeClicked.accept(edge);
+        }
+    }
+
+    /**
+     * Updates the hovered element and redraws the hover layer if it changed.
+     *
+     * @param x the x coordinate in board coordinates, NaN if the mouse left the board
+     * @param y the y coordinate in board coordinates, NaN if the mouse left the board
+     */
+    private void updateHover(double x, double y) {
+        boolean outside = Double.isNaN(x);
+        IntTupel tile = null;
+        int vertex = -1;
+        int edge = -1;
+        if (!outside && banditPrompt) {
+            tile = tileAt(x, y);
+        } else if (!outside) {
+            vertex = vertexAt(x, y);
+            edge = vertex < 0 ? edgeAt(x, y) : -1;
+        }
+        if (vertex == hoveredVertex && edge == hoveredEdge && Objects.equals(tile, hoveredTile)) {
+            return;
+        }
+        hoveredVertex = vertex;
+        hoveredEdge = edge;
+        hoveredTile = tile;
+        drawHover();
+    }
+
+    /**
+     * Draws the tiles and their dice numbers. Tiles never change, so this happens once.
+     */
+    private void drawTiles() {
+        GraphicsContext gc = tileLayer.getGraphicsContext2D();
+        gc.translate(-originX, -originY);
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(2);
+        gc.setFont(Font.font("Verdana", FontWeight.BOLD, 18));
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+
+        double[] xs = new double[6];
+        double[] ys = new double[6];
+        for (Map.Entry<IntTupel, HexTile> entry : tiles.entrySet()) {
+            double cx = HexLayout.centerX(entry.getKey());
+            double cy = HexLayout.centerY(entry.getKey());
+            for (int i = 0; i < 6; i++) {
+                xs[i] = HexLayout.cornerX(cx, i);
+                ys[i] = HexLayout.cornerY(cy, i);
+            }
+            gc.setFill(BoardView.resourceToColor(entry.getValue().getResourceType()));
+            gc.fillPolygon(xs, ys, 6);
+            gc.strokePolygon(xs, ys, 6);
+
+            int diceNumber = entry.getValue().getDiceNumber();
+            if (diceNumber != 0) {
+                gc.setFill(Color.BLACK);
+                gc.fillText(String.valueOf(diceNumber), cx, cy);
+            }
+        }
+    }
+
+    /**
+     * Redraws roads, settlements, placement previews and the bandit.
+     */
+    private void drawPieces() {
+        GraphicsContext gc = pieceLayer.getGraphicsContext2D();
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+        gc.clearRect(0, 0, pieceLayer.getWidth(), pieceLayer.getHeight());
+        gc.translate(-originX, -originY);
+        gc.setLineCap(StrokeLineCap.ROUND);
+
+        if (heatmap != null) {
+            int max = Math.max(1, heatmap.getMaxTotalPips());
+            for (int v = 0; v < vertexX.length; v++) {
+                int total = heatmap.getTotalPips(v);
+                if (total > 0) {
+                    double share = (double) total / max;
+                    double radius = heatRadius(share);
+                    gc.setFill(heatColor(share));
+                    gc.fillOval(vertexX[v] - radius, vertexY[v] - radius, 2 * radius, 2 * radius);
+                }
+            }
+        }
+
+        gc.setGlobalAlpha(0.5);
+        gc.setStroke(Color.LIGHTGRAY);
+        gc.setLineWidth(10);
+        for (int edge = 0; edge < roadColors.length; edge++) {
+            if (roadColors[edge] == null) {
+                strokeRoad(gc, edge);
+            }
+        }
+        gc.setFill(Color.LIGHTGRAY);
+        gc.setStroke(Color.GRAY);
+        gc.setLineWidth(1);
+        for (int v = 0; v < vertexHidden.length; v++) {
+            if (!vertexHidden[v]) {
+                fillVertex(gc, v);
+            }
+        }
+
+        gc.setGlobalAlpha(1);
+        gc.setLineWidth(6);
+        for (int edge = 0; edge < roadColors.length; edge++) {
+            if (roadColors[edge] != null) {
+                gc.setStroke(roadColors[edge]);
+                strokeRoad(gc, edge);
+            }
+        }
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1);
+        for (int v = 0; v < settlementColors.length; v++) {
+            if (settlementColors[v] != null) {
+                double x = vertexX[v] - SETTLEMENT_SIZE / 2;
+                double y = vertexY[v] - SETTLEMENT_SIZE / 2;
+                gc.setFill(settlementColors[v]);
+                gc.fillRect(x, y, SETTLEMENT_SIZE, SETTLEMENT_SIZE);
+                gc.strokeRect(x, y, SETTLEMENT_SIZE, SETTLEMENT_SIZE);
+            }
+        }
+
+        if (banditPrompt) {
+            gc.setGlobalAlpha(0.3);
+            gc.setFill(Color.DARKGREY);
+            for (Map.Entry<IntTupel, HexTile> entry : tiles.entrySet()) {
+                if (entry.getValue().getResourceType() != Resources.NONE) {
+                    fillBandit(gc, entry.getKey());
+                }
+            }
+            gc.setGlobalAlpha(1);
+        }
+        if (banditPosition != null) {
+            gc.setFill(Color.BLACK);
+            fillBandit(gc, banditPosition);
+        }
+    }
+
+    /**
+     * Redraws the highlight of the hovered vertex, edge or bandit tile.
+     */
+    private void drawHover() {
+        GraphicsContext gc = hoverLayer.getGraphicsContext2D();
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+        gc.clearRect(0, 0, hoverLayer.getWidth(), hoverLayer.getHeight());
+        gc.translate(-originX, -originY);
+        gc.setLineCap(StrokeLineCap.ROUND);
+
+        if (hoveredTile != null) {
+            gc.setFill(Color.DARKGREY);
+            fillBandit(gc, hoveredTile);
+        } else if (hoveredVertex >= 0) {
+            gc.setGlobalAlpha(0.8);
+            gc.setFill(Color.LIGHTGRAY);
+            gc.setStroke(Color.GRAY);
+            fillVertex(gc, hoveredVertex);
+            gc.setGlobalAlpha(1);
+        } else if (hoveredEdge >= 0) {
+            gc.setGlobalAlpha(0.8);
+            gc.setStroke(Color.LIGHTGRAY);
+            gc.setLineWidth(10);
+            strokeRoad(gc, hoveredEdge);
+            gc.setGlobalAlpha(1);
+        }
+    }
+
+    /**
+     * Strokes an edge, leaving a margin at both vertices.
+     *
+     * @param gc   the graphics context
+     * @param edge the edge
+     */
+    private void strokeRoad(GraphicsContext gc, int edge) {
+        int a = graph.getNodeA(edge);
+        int b = graph.getNodeB(edge);
+        double dx = vertexX[b] - vertexX[a];
+        double dy = vertexY[b] - vertexY[a];
+        double length = Math.sqrt(dx * dx + dy * dy);
+        double ux = dx / length * ROAD_MARGIN;
+        double uy = dy / length * ROAD_MARGIN;
+        gc.strokeLine(vertexX[a] + ux, vertexY[a] + uy, vertexX[b] - ux, vertexY[b] - uy);
+    }
+
+    /**
+     * Draws the placement preview circle of a vertex.
+     *
+     * @param gc     the graphics context
+     * @param vertex the vertex
+     */
+    private void fillVertex(GraphicsContext gc, int vertex) {
+        gc.fillOval(vertexX[vertex] - VERTEX_RADIUS, vertexY[vertex] - VERTEX_RADIUS, 2 * VERTEX_RADIUS, 2 * VERTEX_RADIUS);
+        gc.strokeOval(vertexX[vertex] - VERTEX_RADIUS, vertexY[vertex] - VERTEX_RADIUS, 2 * VERTEX_RADIUS, 2 * VERTEX_RADIUS);
+    }
+
+    /**
+     * Draws a bandit-sized circle on a tile.
+     *
+     * @param gc    the graphics context
+     * @param coord the axial coordinate of the tile
+     */
+    private void fillBandit(GraphicsContext gc, IntTupel coord) {
+        double cx = HexLayout.centerX(coord);
+        double cy = HexLayout.centerY(coord);
+        gc.fillOval(cx - BANDIT_RADIUS, cy - BANDIT_RADIUS, 2 * BANDIT_RADIUS, 2 * BANDIT_RADIUS);
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.catan;
+
+import java.util.Locale;
+
+/**
+ * How {@link BoardView} renders the board.
+ */
+public enum BoardRenderMode {
+    /** One scene node per tile, vertex and edge, each with its own mouse handlers. */
+    NODES,
+
+    /** Layered canvases with analytic hit-testing, see {@link BoardCanvas}; scales to large boards. */
+    CANVAS;
+
+    /** Boards of at least this radius are drawn on a canvas unless a mode is requested explicitly. */
+    public static final int CANVAS_MIN_RADIUS = 8;
+
+    /**
+     * Selects the render mode from the {@code catan.renderer} system property ({@code nodes} or {@code canvas}),
+     * falling back to {@link #CANVAS} for large boards and {@link #NODES} otherwise. An unknown property value
+     * is reported on standard error and the fallback is used.
+     *
+     * @param radius the board radius
+     * @return the render mode to use
+     */
+    public static BoardRenderMode select(int radius) {
+        BoardRenderMode fallback = radius >= CANVAS_MIN_RADIUS ? CANVAS : NODES;
+        String requested = System.getProperty("catan.renderer");
+        if (requested == null || requested.isBlank()) {
+            return fallback;
+        }
+        try {
+            return valueOf(requested.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown catan.renderer '" + requested + "', using "
+                    + fallback.name().toLowerCase(Locale.ROOT));
+            return fallback;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package org.example.catan;
 
 import javafx.application.Platform;
+import javafx.geometry.Bounds;
 import javafx.geometry.Pos;
+import javafx.scene.Group;
 import javafx.scene.control.*;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
@@ -10,13 +12,21 @@ import javafx.scene.shape.Circle;
 import javafx.scene.shape.Line;
 import javafx.scene.shape.Polygon;
 import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Translate;
 import lombok.Setter;
+import org.example.catan.engine.ActionResult;
+import org.example.catan.engine.VertexYield;
 import org.example.catan.gamepieces.Player;
+import org.example.catan.gamepieces.ResourceVector;
 import org.example.catan.gamepieces.Resources;
 import org.example.catan.gamepieces.TradeOffer;
 import org.example.catan.graph.HexTile;
 import org.example.catan.graph.IntTupel;
 import org.example.catan.graph.Node;
+import org.example.catan.graph.StreetGraph;
+import org.example.catan.metrics.GameAction;
+import org.example.catan.metrics.GameMetrics;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -28,25 +38,41 @@ import java.util.function.Consumer;
  * The {@code BoardView} class represents the graphical interface for the Catan game board.
  * It handles the rendering of hex tiles, roads, settlements, player UI, trade offers, and bandit interactions.
  * This class is tightly coupled with JavaFX UI elements and interacts with the game model.
+ * The board is built once in its own coordinate system centered on the middle tile; resizing the pane only
+ * updates a scale/translate transform. All refreshes go through a {@link ViewUpdateScheduler}, so the
+ * layout, labels and trade list are rebuilt at most once per pulse however often they change.
+ * Depending on the {@link BoardRenderMode}, the board consists of one node per element or of a {@link BoardCanvas}.
+ * An optional heatmap colors every vertex by the expected yield of a settlement there (see {@link VertexYield}).
  */
 public class BoardView {
-    private static final double HEX_SIZE = 50;
-    private static final double[] CORNER_ANGLES_DEG = {-90, -30, 30, 90, 150, 210};
-    private final Map<String, Line> ghostRoads = new HashMap<>();
+    /** Space kept free around the board when it is scaled down to fit the pane. */
+    private static final double BOARD_PADDING = 20;
+    private static final double TRADE_VIEWER_WIDTH = 250;
+    private final Map<Integer, Line> ghostRoads = new HashMap<>();
     private final Pane boardPane;
+    private final Group boardLayer = new Group();
+    private final Scale boardScale = new Scale(1, 1);
+    private final Translate boardTranslate = new Translate();
+    private Bounds boardBounds;
+    private final ViewUpdateScheduler updates = new ViewUpdateScheduler(Platform::runLater);
     private final Map<Integer, Circle> nodeCircles = new HashMap<>();
     private final Map<Circle, Rectangle> placedSettlements = new HashMap<>();
-    private final int[][] adjacencyMatrix;
+    private final StreetGraph streetGraph;
+    private final BoardRenderMode renderMode;
+    private BoardCanvas boardCanvas;
     private final Map<Polygon, IntTupel> tileByPolygon = new HashMap<>();
     private final List<Circle> ghostBanditMarkers = new ArrayList<>();
-    private Consumer<Line> onRoadClickCallback;
-    private Consumer<Circle> onVertexClickCallback;
+    private Consumer<Integer> onRoadClickCallback;
+    private Consumer<Integer> onVertexClickCallback;
     private VBox playerUIBox;
     private Label resourceLabel;
     private Button rollDiceButton;
     private Label diceNumberLabel;
     private Button endTurnButton;
     private Player currentPlayer;
+    private int diceNumber;
+    private List<TradeOffer> activeTrades = List.of();
+    private Consumer<TradeOffer> onAcceptTrade;
     private Label playerColorLabel;
     private Circle banditCircle = null;
     @Setter
@@ -58,21 +84,81 @@ public class BoardView {
     private javafx.scene.control.Spinner<Integer> wantAmountSpinner;
     private Button offerTradeButton;
     private CheckBox bankTradeCheckbox;
+    private CheckBox heatmapCheckbox;
+    private final Group heatmapLayer = new Group();
+    private VertexYield yieldSource;
     private VBox activeTradesBox;
 
+    /**
+     * Constructs the game board UI with one scene node per board element.
+     *
+     * @param boardPane  the JavaFX pane to which all game components are rendered
+     * @param catanBoard the model representation of the Catan board
+     */
+    public BoardView(Pane boardPane, CatanBoard catanBoard) {
+        this(boardPane, catanBoard, BoardRenderMode.NODES);
+    }
+
     /**
      * Constructs the game board UI and initializes player controls and rendering.
      *
-     * @param boardPane       the JavaFX pane to which all game components are rendered
-     * @param catanBoard      the model representation of the Catan board
-     * @param adjacencyMatrix the graph structure indicating node-to-node connectivity
+     * @param boardPane  the JavaFX pane to which all game components are rendered
+     * @param catanBoard the model representation of the Catan board
+     * @param renderMode how the board itself is rendered
      */
-    public BoardView(Pane boardPane, CatanBoard catanBoard, int[][] adjacencyMatrix) {
+    public BoardView(Pane boardPane, CatanBoard catanBoard, BoardRenderMode renderMode) {
         this.boardPane = boardPane;
-        this.adjacencyMatrix = adjacencyMatrix;
+        this.streetGraph = catanBoard.getGraph();
+        this.renderMode = renderMode;
+        boardLayer.getTransforms().setAll(boardTranslate, boardScale);
+        boardPane.getChildren().add(boardLayer);
         createPlayerUI();
-        Platform.runLater(this::updateResourceDisplay);
+        updates.setRenderer(ViewUpdateScheduler.Region.CURRENT_PLAYER, this::renderCurrentPlayer);
+        updates.setRenderer(ViewUpdateScheduler.Region.RESOURCES, this::renderResources);
+        updates.setRenderer(ViewUpdateScheduler.Region.DICE, this::renderDiceNumber);
+        updates.setRenderer(ViewUpdateScheduler.Region.TRADES, this::renderActiveTrades);
+        updates.setRenderer(ViewUpdateScheduler.Region.LAYOUT, this::relayout);
+        updates.setRenderer(ViewUpdateScheduler.Region.HEATMAP, this::renderHeatmap);
+        updateResourceDisplay();
         loadBoardFromModel(catanBoard);
+
+        boardPane.widthProperty().addListener((obs, oldVal, newVal) -> requestRelayout());
+        boardPane.heightProperty().addListener((obs, oldVal, newVal) -> requestRelayout());
+        tradeFormBox.heightProperty().addListener((obs, oldVal, newVal) -> requestRelayout());
+        requestRelayout();
+    }
+
+    /**
+     * Schedules a relayout for the next pulse. Any number of size changes before that pulse
+     * result in a single relayout.
+     */
+    private void requestRelayout() {
+        updates.markDirty(ViewUpdateScheduler.Region.LAYOUT);
+    }
+
+    /**
+     * Fits the board into the current pane size and moves the control panels to the pane's edges.
+     * The board is centered and scaled down if it does not fit, but never scaled up.
+     */
+    private void relayout() {
+        double width = boardPane.getWidth();
+        double height = boardPane.getHeight();
+
+        double scale = 1;
+        if (boardBounds.getWidth() > 0 && boardBounds.getHeight() > 0) {
+            double fit = Math.min((width - 2 * BOARD_PADDING) / boardBounds.getWidth(),
+                    (height - 2 * BOARD_PADDING) / boardBounds.getHeight());
+            scale = Math.max(0.05, Math.min(1, fit));
+        }
+        boardScale.setX(scale);
+        boardScale.setY(scale);
+        boardTranslate.setX(width / 2 - boardBounds.getCenterX() * scale);
+        boardTranslate.setY(height / 2 - boardBounds.getCenterY() * scale);
+
+        playerUIBox.setLayoutX(width - 160);
+        playerUIBox.setLayoutY(height - 120);
+        tradeFormBox.setLayoutY(height - tradeFormBox.getHeight() - 10);
+        activeTradesBox.setLayoutX(width - TRADE_VIEWER_WIDTH - 10);
     }
 
     /**
@@ -142,6 +228,22 @@ public class BoardView {
      * @param catanBoard the model of the game board to render
      */
     public void loadBoardFromModel(CatanBoard catanBoard) {
+        long start = GameMetrics.start();
+        if (renderMode == BoardRenderMode.CANVAS) {
+            loadBoardCanvas(catanBoard);
+        } else {
+            loadBoardNodes(catanBoard);
+        }
+        boardBounds = boardLayer.getLayoutBounds();
+        GameMetrics.record(GameAction.LOAD_BOARD, GameMetrics.NO_GAME, start, ActionResult.OK);
+    }
+
+    /**
+     * Renders the board with one scene node per tile, dice number, vertex and ghost road.
+     *
+     * @param catanBoard the model of the game board to render
+     */
+    private void loadBoardNodes(CatanBoard catanBoard) {
         // First pass: create and add all hexagons + dice numbers
         for (Map.Entry<IntTupel, HexTile> entry : catanBoard.getBoard().entrySet()) {
             IntTupel coord = entry.getKey();
@@ -157,7 +259,7 @@ public class BoardView {
             hex.setFill(resourceToColor(tile.getResourceType()));
             hex.setStroke(Color.BLACK);
             hex.setStrokeWidth(2);
-            boardPane.getChildren().add(hex);
+            boardLayer.getChildren().add(hex);
             tileByPolygon.put(hex, coord);
 
 
@@ -171,12 +273,15 @@ public class BoardView {
                 diceText.setX(centerX - textWidth / 2);
                 diceText.setY(centerY + 6);
                 diceText.setFill(Color.BLACK);
-                boardPane.getChildren().add(diceText);
+                boardLayer.getChildren().add(diceText);
 
             }
         }
 
 
+        heatmapLayer.setMouseTransparent(true);
+        boardLayer.getChildren().add(heatmapLayer);
+
         // Second pass: place node circles
         for (Map.Entry<IntTupel, HexTile> entry : catanBoard.getBoard().entrySet()) {
             IntTupel coord = entry.getKey();
@@ -192,7 +297,7 @@ public class BoardView {
                 if (!nodeCircles.containsKey(node.getId())) {
                     Circle vertex = createVertexCircle(node, i, centerX, centerY);
                     nodeCircles.put(node.getId(), vertex);
-                    boardPane.getChildren().add(vertex);
+                    boardLayer.getChildren().add(vertex);
                 }
             }
 
@@ -204,54 +309,77 @@ public class BoardView {
             house.setLayoutX(vertex.getCenterX() - house.getWidth() / 2);
             house.setLayoutY(vertex.getCenterY() - house.getHeight() / 2);
         }
-        generateGhostRoadsFromAdjacencyMatrix();
+        generateGhostRoads();
     }
 
     /**
-     * Generates semi-transparent interactive lines between adjacent nodes based on the adjacency matrix.
-     * These represent "ghost roads" used for road placement preview and interaction.
+     * Renders the board onto a {@link BoardCanvas} and forwards its resolved clicks to the handlers.
+     *
+     * @param catanBoard the model of the game board to render
      */
-    private void generateGhostRoadsFromAdjacencyMatrix() {
-        if (adjacencyMatrix == null) return;
-
-        int size = adjacencyMatrix.length;
+    private void loadBoardCanvas(CatanBoard catanBoard) {
+        boardCanvas = new BoardCanvas(catanBoard, updates);
+        boardCanvas.setOnVertexClicked(nodeId -> {
+            if (onVertexClickCallback != null) {
+                onVertexClickCallback.accept(nodeId);
+            }
+        });
+        boardCanvas.setOnEdgeClicked(edge -> {
+            if (onRoadClickCallback != null) {
+                onRoadClickCallback.accept(edge);
+            }
+        });
+        boardCanvas.setOnBanditTileClicked(coord -> {
+            if (onBanditPlaced != null) {
+                onBanditPlaced.accept(coord);
+            }
+            boardCanvas.placeBandit(coord);
+            boardCanvas.setBanditPrompt(false);
+        });
+        boardLayer.getChildren().add(boardCanvas.getNode());
+    }
 
-        for (int i = 0; i < size; i++) {
-            for (int j = i + 1; j < size; j++) {
-                if (adjacencyMatrix[i][j] == 1) {
-                    Circle c1 = nodeCircles.get(i);
-                    Circle c2 = nodeCircles.get(j);
+    /**
+     * Generates semi-transparent interactive lines for every unowned edge of the street graph.
+     * These represent "ghost roads" used for road placement preview and interaction.
+     */
+    private void generateGhostRoads() {
+        if (streetGraph == null) return;
 
-                    if (c1 == null || c2 == null) {
-                        continue;
-                    }
+        for (int edge = 0; edge < streetGraph.getEdgeCount(); edge++) {
+            if (streetGraph.getOwner(edge) != StreetGraph.NO_OWNER) continue;
 
+            int i = streetGraph.getNodeA(edge);
+            int j = streetGraph.getNodeB(edge);
+            Circle c1 = nodeCircles.get(i);
+            Circle c2 = nodeCircles.get(j);
 
-                    String key = i + "-" + j;
-                    if (ghostRoads.containsKey(key)) continue;
+            if (c1 == null || c2 == null) {
+                continue;
+            }
 
-                    Line ghost = getGhostRoadLine(c1, c2);
+            if (ghostRoads.containsKey(edge)) continue;
 
-                    ghost.setStroke(Color.LIGHTGRAY);
-                    ghost.setStrokeWidth(10);
-                    ghost.setOpacity(0.5);
-                    ghost.setStrokeLineCap(javafx.scene.shape.StrokeLineCap.ROUND);
+            Line ghost = getGhostRoadLine(c1, c2);
+            int edgeId = edge;
 
-                    ghost.setOnMouseEntered(e -> ghost.setOpacity(0.8));
-                    ghost.setOnMouseExited(e -> ghost.setOpacity(0.5));
+            ghost.setStroke(Color.LIGHTGRAY);
+            ghost.setStrokeWidth(10);
+            ghost.setOpacity(0.5);
+            ghost.setStrokeLineCap(javafx.scene.shape.StrokeLineCap.ROUND);
 
-                    ghost.setOnMouseClicked(e -> {
-                        if (onRoadClickCallback != null) {
-                            onRoadClickCallback.accept(ghost);
-                        }
-                    });
+            ghost.setOnMouseEntered(e -> ghost.setOpacity(0.8));
+            ghost.setOnMouseExited(e -> ghost.setOpacity(0.5));
 
-                    ghost.setUserData(new int[]{i, j});
-                    ghostRoads.put(key, ghost);
-                    boardPane.getChildren().add(ghost);
+            ghost.setOnMouseClicked(e -> {
+                if (onRoadClickCallback != null) {
+                    onRoadClickCallback.accept(edgeId);
                 }
-            }
+            });
 
+            ghost.setUserData(new int[]{i, j});
+            ghostRoads.put(edge, ghost);
+            boardLayer.getChildren().add(ghost);
         }
 
     }
@@ -276,18 +404,18 @@ public class BoardView {
         rollDiceButton = new Button("🎲 Roll Dice");
         endTurnButton = new Button("➡ End Turn");
 
-        playerUIBox = new VBox(10, playerColorLabel, resourceLabel, diceNumberLabel, rollDiceButton, endTurnButton);
+        heatmapCheckbox = new CheckBox("Show yields");
+        heatmapCheckbox.setDisable(true);
+        heatmapCheckbox.selectedProperty().addListener((obs, oldVal, newVal) -> updateYieldHeatmap());
+
+        playerUIBox = new VBox(10, playerColorLabel, resourceLabel, diceNumberLabel, rollDiceButton, endTurnButton,
+                heatmapCheckbox);
         playerUIBox.setStyle("-fx-background-color: rgba(255,255,255,0.9); -fx-padding: 10; -fx-border-color: gray;");
         playerUIBox.setAlignment(Pos.CENTER);
         playerUIBox.setLayoutX(10);
         playerUIBox.setLayoutY(10);
 
         boardPane.getChildren().add(playerUIBox);
-
-        boardPane.widthProperty().addListener((obs, oldVal, newVal) ->
-                playerUIBox.setLayoutX(newVal.doubleValue() - 160));
-        boardPane.heightProperty().addListener((obs, oldVal, newVal) ->
-                playerUIBox.setLayoutY(newVal.doubleValue() - 120));
         createTradeUI();
         createTradeViewer();
 
@@ -329,11 +457,6 @@ public class BoardView {
                 bankTradeCheckbox, offerTradeButton);
         tradeFormBox.setStyle("-fx-background-color: rgba(255,255,255,0.9); -fx-padding: 10; -fx-border-color: gray;");
         tradeFormBox.setLayoutX(10);
-        Platform.runLater(() -> tradeFormBox.setLayoutY(boardPane.getHeight() - tradeFormBox.getHeight() - 10));
-
-        boardPane.heightProperty().addListener((obs, oldVal, newVal) -> tradeFormBox.setLayoutY(newVal.doubleValue() - tradeFormBox.getHeight() - 10));
-
-
         boardPane.getChildren().add(tradeFormBox);
         bankTradeCheckbox.selectedProperty().addListener((obs, wasSelected, isSelected) -> {
             if (isSelected) {
@@ -362,29 +485,32 @@ public class BoardView {
                     -fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.1), 5, 0, 2, 2);
                 """);
 
-        double boxWidth = 250;
-        activeTradesBox.setPrefWidth(boxWidth);
-        activeTradesBox.setMinWidth(boxWidth);
-        activeTradesBox.setMaxWidth(boxWidth);
+        activeTradesBox.setPrefWidth(TRADE_VIEWER_WIDTH);
+        activeTradesBox.setMinWidth(TRADE_VIEWER_WIDTH);
+        activeTradesBox.setMaxWidth(TRADE_VIEWER_WIDTH);
 
         activeTradesBox.setLayoutY(10);
 
         boardPane.getChildren().add(activeTradesBox);
-
-        Platform.runLater(() -> activeTradesBox.setLayoutX(boardPane.getWidth() - boxWidth - 10));
-
-        boardPane.widthProperty().addListener((obs, oldVal, newVal) -> activeTradesBox.setLayoutX(newVal.doubleValue() - boxWidth - 10));
     }
 
     /**
-     * Updates the current player's resource counts in the resource display area.
+     * Schedules a refresh of the current player's resource counts in the resource display area.
      */
     public void updateResourceDisplay() {
+        updates.markDirty(ViewUpdateScheduler.Region.RESOURCES);
+    }
+
+    /**
+     * Shows the current player's resource counts in the resource display area.
+     */
+    private void renderResources() {
         if (currentPlayer == null) return;
 
         StringBuilder sb = new StringBuilder("Resources:\n");
 
-        for (Resources res : currentPlayer.getInventorySnapshot().keySet()) {
+        for (int i = 0; i < ResourceVector.SIZE; i++) {
+            Resources res = ResourceVector.resourceAt(i);
             sb.append(res.name()).append(": ").append(currentPlayer.getResourceCount(res)).append("\n");
         }
 
@@ -397,6 +523,10 @@ public class BoardView {
      * @param catanBoard the current board state used to determine valid tile positions
      */
     public void promptBanditPlacement(CatanBoard catanBoard) {
+        if (boardCanvas != null) {
+            boardCanvas.setBanditPrompt(true);
+            return;
+        }
         ghostBanditMarkers.clear();
 
         for (Map.Entry<Polygon, IntTupel> entry : tileByPolygon.entrySet()) {
@@ -410,7 +540,7 @@ public class BoardView {
             Circle ghost = getGhostBanditCircle(hex, centerX);
 
             ghostBanditMarkers.add(ghost);
-            boardPane.getChildren().add(ghost);
+            boardLayer.getChildren().add(ghost);
         }
     }
 
@@ -420,6 +550,15 @@ public class BoardView {
      * @param catanBoard the board model containing tile and resource information
      */
     public void placeInitialBandit(CatanBoard catanBoard) {
+        if (boardCanvas != null) {
+            for (Map.Entry<IntTupel, HexTile> entry : catanBoard.getBoard().entrySet()) {
+                if (entry.getValue().getResourceType() == Resources.NONE) {
+                    boardCanvas.placeBandit(entry.getKey());
+                    break;
+                }
+            }
+            return;
+        }
         for (Map.Entry<Polygon, IntTupel> entry : tileByPolygon.entrySet()) {
             IntTupel coord = entry.getValue();
             HexTile tile = catanBoard.getBoard().get(coord);
@@ -445,11 +584,25 @@ public class BoardView {
      */
     public void placeBanditOnTile(double centerX, double centerY) {
         if (banditCircle != null) {
-            boardPane.getChildren().remove(banditCircle);
+            boardLayer.getChildren().remove(banditCircle);
         }
 
         banditCircle = new Circle(centerX, centerY, 20, Color.BLACK);
-        boardPane.getChildren().add(banditCircle);
+        boardLayer.getChildren().add(banditCircle);
+    }
+
+    /**
+     * Moves the bandit to a tile chosen without a prompt, e.g. by a computer player.
+     *
+     * @param coord the coordinate of the target tile
+     */
+    public void placeBandit(IntTupel coord) {
+        if (boardCanvas != null) {
+            boardCanvas.placeBandit(coord);
+            return;
+        }
+        double[] center = getHexCenter(coord);
+        placeBanditOnTile(center[0], center[1]);
     }
 
     /**
@@ -457,7 +610,7 @@ public class BoardView {
      */
     public void hideBanditGhosts() {
         for (Circle ghost : ghostBanditMarkers) {
-            boardPane.getChildren().remove(ghost);
+            boardLayer.getChildren().remove(ghost);
         }
         ghostBanditMarkers.clear();
     }
@@ -465,16 +618,23 @@ public class BoardView {
     /**
      * Visually places a player's settlement at the selected node and updates board state.
      *
-     * @param clickedVertex the vertex where the player places the settlement
-     * @param playerColor   the color representing the player's pieces
+     * @param nodeId      the node where the player places the settlement
+     * @param playerColor the color representing the player's pieces
      */
-    public void placeSettlement(Circle clickedVertex, Color playerColor) {
+    public void placeSettlement(int nodeId, Color playerColor) {
+        if (boardCanvas != null) {
+            boardCanvas.placeSettlement(nodeId, playerColor);
+            return;
+        }
+        Circle clickedVertex = nodeCircles.get(nodeId);
+        if (clickedVertex == null) return;
+
         Rectangle house = new Rectangle(16, 16);
         house.setFill(playerColor);
         house.setStroke(Color.BLACK);
         house.setLayoutX(clickedVertex.getCenterX() - house.getWidth() / 2);
         house.setLayoutY(clickedVertex.getCenterY() - house.getHeight() / 2);
-        boardPane.getChildren().add(house);
+        boardLayer.getChildren().add(house);
 
         placedSettlements.put(clickedVertex, house);
         clickedVertex.setVisible(false);
@@ -483,12 +643,16 @@ public class BoardView {
     /**
      * Replaces a ghost road with a solid colored road for the given player.
      *
-     * @param ghostLine   the preview line indicating road placement
+     * @param edge        the edge of the street graph the road is built on
      * @param playerColor the color representing the player
      */
-    public void placeRoad(Line ghostLine, Color playerColor) {
-        int[] nodes = (int[]) ghostLine.getUserData();
-        if (nodes == null) return;
+    public void placeRoad(int edge, Color playerColor) {
+        if (boardCanvas != null) {
+            boardCanvas.placeRoad(edge, playerColor);
+            return;
+        }
+        Line ghostLine = ghostRoads.remove(edge);
+        if (ghostLine == null) return;
 
         Line solidRoad = new Line(
                 ghostLine.getStartX(), ghostLine.getStartY(),
@@ -498,9 +662,8 @@ public class BoardView {
         solidRoad.setStrokeWidth(6);
         solidRoad.setStrokeLineCap(javafx.scene.shape.StrokeLineCap.ROUND);
 
-        boardPane.getChildren().add(solidRoad);
-        boardPane.getChildren().remove(ghostLine);
-        ghostRoads.remove(nodes[0] + "-" + nodes[1]);
+        boardLayer.getChildren().add(solidRoad);
+        boardLayer.getChildren().remove(ghostLine);
     }
 
     /**
@@ -509,6 +672,10 @@ public class BoardView {
      * @param nodeId the ID of the node to disable
      */
     public void hideVertexByNodeId(int nodeId) {
+        if (boardCanvas != null) {
+            boardCanvas.hideVertex(nodeId);
+            return;
+        }
         Circle circle = nodeCircles.get(nodeId);
         if (circle != null) {
             circle.setVisible(false);
@@ -518,12 +685,74 @@ public class BoardView {
 
     /**
      * Updates the dice number display in the player UI.
-     * Runs the update on the JavaFX application thread.
+     * The label is refreshed on the JavaFX application thread with the next flush.
      *
      * @param number The number rolled by the dice to display.
      */
     public void updateDiceNumber(int number) {
-        Platform.runLater(() -> diceNumberLabel.setText("Dice: " + number));
+        diceNumber = number;
+        updates.markDirty(ViewUpdateScheduler.Region.DICE);
+    }
+
+    /**
+     * Sets the yields shown by the heatmap and enables its checkbox.
+     *
+     * @param yield the yields of the displayed game's vertices
+     */
+    public void setYieldSource(VertexYield yield) {
+        this.yieldSource = yield;
+        heatmapCheckbox.setDisable(false);
+        updateYieldHeatmap();
+    }
+
+    /**
+     * Shows or hides the yield heatmap, as if its checkbox was clicked.
+     *
+     * @param visible true to show the heatmap
+     */
+    public void setYieldHeatmapVisible(boolean visible) {
+        heatmapCheckbox.setSelected(visible);
+    }
+
+    /**
+     * Schedules a redraw of the yield heatmap, e.g. after the robber moved.
+     */
+    public void updateYieldHeatmap() {
+        updates.markDirty(ViewUpdateScheduler.Region.HEATMAP);
+    }
+
+    /**
+     * Draws a disc on every producing vertex, sized and colored by its share of the best vertex's pips,
+     * or clears the heatmap if it is switched off.
+     */
+    private void renderHeatmap() {
+        VertexYield yield = heatmapCheckbox.isSelected() ? yieldSource : null;
+        if (boardCanvas != null) {
+            boardCanvas.setHeatmap(yield);
+            return;
+        }
+        heatmapLayer.getChildren().clear();
+        if (yield == null) {
+            return;
+        }
+        int max = Math.max(1, yield.getMaxTotalPips());
+        for (Map.Entry<Integer, Circle> entry : nodeCircles.entrySet()) {
+            int total = yield.getTotalPips(entry.getKey());
+            if (total > 0) {
+                Circle vertex = entry.getValue();
+                double share = (double) total / max;
+                Circle heat = new Circle(vertex.getCenterX(), vertex.getCenterY(), BoardCanvas.heatRadius(share),
+                        BoardCanvas.heatColor(share));
+                heatmapLayer.getChildren().add(heat);
+            }
+        }
+    }
+
+    /**
+     * Shows the last rolled number in the dice display.
+     */
+    private void renderDiceNumber() {
+        diceNumberLabel.setText("Dice: " + diceNumber);
     }
 
     /**
@@ -547,18 +776,18 @@ public class BoardView {
     /**
      * Sets the handler to respond when a vertex is clicked.
      *
-     * @param callback the logic to execute when a vertex is selected
+     * @param callback the logic to execute with the ID of the selected node
      */
-    public void setOnVertexClickHandler(Consumer<Circle> callback) {
+    public void setOnVertexClickHandler(Consumer<Integer> callback) {
         this.onVertexClickCallback = callback;
     }
 
     /**
      * Sets the handler to respond when a ghost road is clicked.
      *
-     * @param callback the logic to execute when a road edge is selected
+     * @param callback the logic to execute with the ID of the selected edge
      */
-    public void setOnRoadClickHandler(Consumer<Line> callback) {
+    public void setOnRoadClickHandler(Consumer<Integer> callback) {
         this.onRoadClickCallback = callback;
     }
 
@@ -577,10 +806,10 @@ public class BoardView {
 
             if (give == Resources.NONE || want == Resources.NONE) return;
 
-            Map<Resources, Integer> offerMap = Map.of(give, giveAmt);
-            Map<Resources, Integer> wantMap = Map.of(want, wantAmt);
+            ResourceVector offerVector = ResourceVector.of(give, giveAmt);
+            ResourceVector wantVector = ResourceVector.of(want, wantAmt);
 
-            TradeOffer offer = new TradeOffer(currentPlayer, offerMap, wantMap, isBank);
+            TradeOffer offer = new TradeOffer(currentPlayer, offerVector, wantVector, isBank);
             handler.accept(offer);
         });
     }
@@ -592,12 +821,15 @@ public class BoardView {
      */
     public void setCurrentPlayer(Player player) {
         this.currentPlayer = player;
+        updates.markDirty(ViewUpdateScheduler.Region.CURRENT_PLAYER);
+        updates.markDirty(ViewUpdateScheduler.Region.RESOURCES);
+    }
 
-        String colorName = convertColorToName(player.getColor());
-        Platform.runLater(() -> {
-            playerColorLabel.setText("Player: " + colorName);
-            updateResourceDisplay();
-        });
+    /**
+     * Shows the color of the current player.
+     */
+    private void renderCurrentPlayer() {
+        playerColorLabel.setText("Player: " + convertColorToName(currentPlayer.getColor()));
     }
 
     /**
@@ -616,24 +848,30 @@ public class BoardView {
 
     /**
      * Displays a list of active trade offers and provides a button to accept each.
+     * The list is rebuilt with the next flush, showing the offers of the last call.
      *
      * @param offers   the list of trade offers from other players
      * @param onAccept the handler to invoke when a trade is accepted
      */
     public void showActiveTrades(List<TradeOffer> offers, Consumer<TradeOffer> onAccept) {
+        activeTrades = List.copyOf(offers);
+        onAcceptTrade = onAccept;
+        updates.markDirty(ViewUpdateScheduler.Region.TRADES);
+    }
+
+    /**
+     * Rebuilds the trade viewer from the offers passed last to {@link #showActiveTrades(List, Consumer)}.
+     */
+    private void renderActiveTrades() {
         activeTradesBox.getChildren().clear();
 
-        for (TradeOffer offer : offers) {
+        for (TradeOffer offer : activeTrades) {
             String colorEmoji = getColorEmoji(offer.getSender().getColor());
 
             String offerText = colorEmoji + " " + offer.getSender().getName() + " offers " +
-                    offer.getOffer().entrySet().iterator().next().getValue() + " " +
-                    offer.getOffer().keySet().iterator().next().name() +
-                    " for " +
-                    offer.getRequest().entrySet().iterator().next().getValue() + " " +
-                    offer.getRequest().keySet().iterator().next().name();
+                    offer.getOffer() + " for " + offer.getRequest();
 
-            VBox tradeCard = getTradeCardVBox(onAccept, offer, offerText);
+            VBox tradeCard = getTradeCardVBox(onAcceptTrade, offer, offerText);
 
             activeTradesBox.getChildren().add(tradeCard);
         }
@@ -651,8 +889,8 @@ public class BoardView {
         for (int i = 0; i < 6; i++) {
             double angle_deg = 60 * i + 30;
             double angle_rad = Math.toRadians(angle_deg);
-            double x = centerX + HEX_SIZE * Math.cos(angle_rad);
-            double y = centerY + HEX_SIZE * Math.sin(angle_rad);
+            double x = centerX + HexLayout.HEX_SIZE * Math.cos(angle_rad);
+            double y = centerY + HexLayout.HEX_SIZE * Math.sin(angle_rad);
             hex.getPoints().addAll(x, y);
         }
         hex.setStroke(Color.BLACK);
@@ -680,7 +918,7 @@ public class BoardView {
      * @param resource the type of resource (e.g., WOOD, WHEAT)
      * @return the associated JavaFX color
      */
-    private Color resourceToColor(Resources resource) {
+    static Color resourceToColor(Resources resource) {
         return switch (resource) {
             case WOOD -> Color.DARKGREEN;
             case WHEAT -> Color.WHEAT;
@@ -692,20 +930,14 @@ public class BoardView {
     }
 
     /**
-     * Calculates the pixel coordinates for the center of a hex tile on the game board,
-     * based on its axial coordinates.
+     * Calculates the board coordinates for the center of a hex tile, based on its axial coordinates.
+     * The middle tile is centered at the origin; the board layer's transform maps it to the pane.
      *
      * @param coord the {@link IntTupel} axial coordinate (q, r) of the hex tile
-     * @return a double array containing the x and y pixel coordinates: [centerX, centerY]
+     * @return a double array containing the x and y board coordinates: [centerX, centerY]
      */
     private double[] getHexCenter(IntTupel coord) {
-        double paneWidth = boardPane.getWidth();
-        double paneHeight = boardPane.getHeight();
-        double offsetX = paneWidth / 2.0;
-        double offsetY = paneHeight / 2.0;
-        double centerX = offsetX + HEX_SIZE * Math.sqrt(3) * (coord.q() + coord.r() / 2.0);
-        double centerY = offsetY + HEX_SIZE * 1.5 * coord.r();
-        return new double[]{centerX, centerY};
+        return new double[]{HexLayout.centerX(coord), HexLayout.centerY(coord)};
     }
 
     /**
@@ -719,11 +951,8 @@ public class BoardView {
      * @return Configured JavaFX Circle for the vertex.
      */
     private Circle createVertexCircle(Node node, int angleIndex, double centerX, double centerY) {
-        double angle_deg = CORNER_ANGLES_DEG[angleIndex];
-        double angle_rad = Math.toRadians(angle_deg);
-
-        double vx = centerX + HEX_SIZE * Math.cos(angle_rad);
-        double vy = centerY + HEX_SIZE * Math.sin(angle_rad);
+        double vx = HexLayout.cornerX(centerX, angleIndex);
+        double vy = HexLayout.cornerY(centerY, angleIndex);
 
         Circle vertex = new Circle(8);
         vertex.setFill(Color.LIGHTGRAY.deriveColor(1, 1, 1, 0.5));
@@ -738,7 +967,7 @@ public class BoardView {
 
         vertex.setOnMouseClicked(event -> {
             if (onVertexClickCallback != null) {
-                onVertexClickCallback.accept(vertex);
+                onVertexClickCallback.accept(node.getId());
             }
         });
 
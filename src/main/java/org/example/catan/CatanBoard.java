@@ -2,72 +2,90 @@ package org.example.catan;
 
 import lombok.Getter;
 import org.example.catan.gamepieces.Resources;
-import org.example.catan.graph.Directions;
+import org.example.catan.graph.BoardTopology;
 import org.example.catan.graph.HexTile;
 import org.example.catan.graph.IntTupel;
 import org.example.catan.graph.Node;
+import org.example.catan.graph.StreetGraph;
 
 import java.util.*;
 
 /**
  * Represents the game board for Settlers of Catan.
  * Manages the hex tiles, nodes (vertices), and streets (edges) that form the playable area.
+ * The nodes, tile coordinates and street layout come from the {@link BoardTopology} of the radius and
+ * are shared with all other boards of that size; a board only owns its tiles and street owners.
  */
 @Getter
 public class CatanBoard {
-    private static final int STREET = 0;
-    private static final int PLAYER = 1;
-    static Node[] nodes;
+    int radius;
+    BoardTopology topology;
+    Node[] nodes;
     IntTupel[] hex_coords;
     Map<IntTupel, HexTile> board = new HashMap<>();
-    int[][][] graph;
+    StreetGraph graph;
 
     /**
-     * Constructs a new CatanBoard with the given radius.
-     * Initializes the nodes, graph, hex tile coordinates, and the full board graph.
+     * Constructs a new CatanBoard with the given radius and a random layout.
      *
      * @param radius Number of hex rings from the center outward.
      */
     public CatanBoard(int radius) {
-        initNodes(radius);
-        initGraph();
-        initHexCoords(radius);
-        createGraph();
+        this(radius, new Random());
     }
 
     /**
-     * Recursively calculates the number of nodes required for a hexagonal grid of radius n.
+     * Constructs a new CatanBoard with the given radius whose layout is drawn from the given random source,
+     * so that the same seed always produces the same board.
      *
-     * @param n The radius of the board.
-     * @return The total number of nodes.
+     * @param radius Number of hex rings from the center outward.
+     * @param random Source for the placement of resources and dice numbers.
      */
-    private static int calcNumNodes(int n) {
-        if (n <= 0) return 0;
-        return calcNumNodes(n - 1) + (2 * n - 1) * 6;
+    public CatanBoard(int radius, Random random) {
+        this.radius = radius;
+        this.topology = BoardTopology.of(radius);
+        this.nodes = topology.getNodes();
+        this.hex_coords = topology.getTileCoords();
+        this.graph = new StreetGraph(topology);
+        createTiles(random);
     }
 
     /**
-     * Initializes the static array of nodes.
+     * Constructs a new CatanBoard with the given radius and a fixed layout, e.g. one produced by a board generator.
      *
-     * @param n The radius of the board.
+     * @param radius      Number of hex rings from the center outward.
+     * @param resources   Resource type of every tile, indexed like {@link #getHex_coords()}.
+     * @param diceNumbers Dice number of every tile, 0 for the desert, indexed like {@link #getHex_coords()}.
      */
-    public static void initNodes(int n) {
-        int numNodes = calcNumNodes(n);
-        nodes = new Node[numNodes];
-        for (int i = 0; i < numNodes; i++) {
-            nodes[i] = new Node(i);
+    public CatanBoard(int radius, Resources[] resources, int[] diceNumbers) {
+        this.radius = radius;
+        this.topology = BoardTopology.of(radius);
+        this.nodes = topology.getNodes();
+        this.hex_coords = topology.getTileCoords();
+        this.graph = new StreetGraph(topology);
+        for (int tile = 0; tile < hex_coords.length; tile++) {
+            board.put(hex_coords[tile], new HexTile(diceNumbers[tile], resources[tile], topology.getTileNodes(tile)));
         }
     }
 
     /**
-     * Recursively calculates the number of hex tiles needed for a given radius.
+     * Creates an independent copy of another board with the same layout, street owners and blocked tiles.
+     * Listeners registered on the other board's tiles are not copied.
      *
-     * @param n The radius of the board.
-     * @return The number of hex tiles.
+     * @param other the board to copy
      */
-    private static int calcNumHexTiles(int n) {
-        if (n == 1) return 1;
-        return calcNumHexTiles(n - 1) + 6 * (n - 1);
+    public CatanBoard(CatanBoard other) {
+        this.radius = other.radius;
+        this.topology = other.topology;
+        this.nodes = other.nodes;
+        this.hex_coords = other.hex_coords;
+        this.graph = new StreetGraph(other.graph);
+        for (Map.Entry<IntTupel, HexTile> entry : other.board.entrySet()) {
+            HexTile tile = entry.getValue();
+            HexTile copy = new HexTile(tile.getDiceNumber(), tile.getResourceType(), tile.getHexTileNodes());
+            copy.setBlocked(tile.isBlocked());
+            board.put(entry.getKey(), copy);
+        }
     }
 
     /**
@@ -76,7 +94,7 @@ public class CatanBoard {
      * @param numTiles Number of resource-producing tiles.
      * @return List of resource types.
      */
-    private static ArrayList<Resources> generateResourceTypes(int numTiles) {
+    public static ArrayList<Resources> generateResourceTypes(int numTiles) {
         ArrayList<Resources> allResources = new ArrayList<>();
         Resources[] values = Resources.values();
 
@@ -91,130 +109,72 @@ public class CatanBoard {
     }
 
     /**
-     * Returns a shuffled list of dice numbers used for hex tiles.
+     * Returns the dice numbers used for hex tiles, in order.
+     * The standard set of 18 numbers is repeated as often as needed for larger boards.
      *
-     * @return A shuffled list of dice numbers (excluding desert).
+     * @param numTiles Number of resource-producing tiles.
+     * @return A list of dice numbers (excluding desert).
      */
-    private static ArrayList<Integer> generateDiceNumbers() {
-        ArrayList<Integer> diceNumbers = new ArrayList<>(Arrays.asList(
+    public static ArrayList<Integer> generateDiceNumbers(int numTiles) {
+        List<Integer> standardNumbers = Arrays.asList(
                 2, 3, 3, 4, 4, 5, 5, 6, 6,
                 8, 8, 9, 9, 10, 10, 11, 11, 12
-        ));
-
-        Collections.shuffle(diceNumbers);
-        return diceNumbers;
-    }
-
-    /**
-     * Initializes the street graph with no existing roads and no ownership.
-     */
-    private void initGraph() {
-        graph = new int[nodes.length][nodes.length][2];
-        for (int i = 0; i < nodes.length; i++) {
-            for (int j = 0; j < nodes.length; j++) {
-                graph[i][j][STREET] = 0;
-                graph[i][j][PLAYER] = -1;
-            }
+        );
+        ArrayList<Integer> diceNumbers = new ArrayList<>(numTiles);
+        for (int i = 0; i < numTiles; i++) {
+            diceNumbers.add(standardNumbers.get(i % standardNumbers.size()));
         }
+        return diceNumbers;
     }
 
     /**
-     * Updates the street connection between two nodes and assigns it to a player.
+     * Returns a shuffled list of dice numbers used for hex tiles.
      *
-     * @param i        Node ID 1
-     * @param j        Node ID 2
-     * @param existenz 1 if road exists, 0 otherwise
-     * @param spieler  ID of owning player, -1 if none
+     * @param numTiles Number of resource-producing tiles.
+     * @param random   Source for the shuffle.
+     * @return A shuffled list of dice numbers (excluding desert).
      */
-    public void updateGraph(int i, int j, int existenz, int spieler) {
-        graph[i][j][STREET] = existenz;
-        graph[i][j][PLAYER] = spieler;
-        graph[j][i][STREET] = existenz;
-        graph[j][i][PLAYER] = spieler;
+    private static ArrayList<Integer> generateDiceNumbers(int numTiles, Random random) {
+        ArrayList<Integer> diceNumbers = generateDiceNumbers(numTiles);
+        Collections.shuffle(diceNumbers, random);
+        return diceNumbers;
     }
 
     /**
-     * Initializes axial coordinates for all hex tiles based on the board radius.
+     * Assigns the street between two adjacent nodes to a player.
      *
-     * @param radius Radius of the board.
+     * @param i       Node ID 1
+     * @param j       Node ID 2
+     * @param spieler ID of owning player, -1 if none
+     * @return true if the nodes are connected by an edge, false otherwise
      */
-    private void initHexCoords(int radius) {
-        hex_coords = new IntTupel[calcNumHexTiles(radius)];
-        int index = 0;
-        for (int i = -radius + 1; i < radius; i++) {
-            for (int j = -radius + 1; j < radius; j++) {
-                if (Math.abs(i + j) < radius) {
-                    hex_coords[index] = new IntTupel(j, i);
-                    index++;
-                }
-            }
+    public boolean updateGraph(int i, int j, int spieler) {
+        int edge = graph.getEdgeId(i, j);
+        if (edge < 0) {
+            return false;
         }
+        graph.setOwner(edge, spieler);
+        return true;
     }
 
     /**
-     * Creates all hex tiles and connects their corner nodes in the graph.
+     * Creates all hex tiles on the corners given by the topology.
      * Randomly assigns resources and dice numbers.
+     *
+     * @param rand Source for the placement of resources and dice numbers.
      */
-    private void createGraph() {
-        int index = 0;
-        Directions[] DIR = {
-                Directions.NORTH_WEST,
-                Directions.NORTH_EAST,
-                Directions.WEST
-        };
-
+    private void createTiles(Random rand) {
         ArrayList<Resources> allResources = generateResourceTypes(hex_coords.length - 1);
-        ArrayList<Integer> allDiceNumbers = generateDiceNumbers();
+        ArrayList<Integer> allDiceNumbers = generateDiceNumbers(hex_coords.length - 1, rand);
         allResources.add(Resources.NONE);
 
-        Random rand = new Random();
-
-        for (IntTupel coords : hex_coords) {
-            Node[] HexNodes = new Node[6];
-
-            for (Directions dir : DIR) {
-                IntTupel neighbor = new IntTupel(coords.q() + dir.getDq(), coords.r() + dir.getDr());
-                if (board.containsKey(neighbor)) {
-                    switch (dir) {
-                        case NORTH_WEST:
-                            HexNodes[5] = board.get(neighbor).getHexTileNodes()[3];
-                            HexNodes[0] = board.get(neighbor).getHexTileNodes()[2];
-                            break;
-                        case NORTH_EAST:
-                            HexNodes[0] = board.get(neighbor).getHexTileNodes()[4];
-                            HexNodes[1] = board.get(neighbor).getHexTileNodes()[3];
-                            break;
-                        case WEST:
-                            HexNodes[4] = board.get(neighbor).getHexTileNodes()[2];
-                            HexNodes[5] = board.get(neighbor).getHexTileNodes()[1];
-                            break;
-                    }
-                }
-            }
-
-            for (int i = 0; i < HexNodes.length; i++) {
-                if (HexNodes[i] == null) {
-                    HexNodes[i] = nodes[index];
-                    int nextIndex = (i + 1 + HexNodes.length) % HexNodes.length;
-                    if (HexNodes[nextIndex] != null) {
-                        updateGraph(index, HexNodes[nextIndex].id, 1, -1);
-                    }
-                    int prevIndex = (i - 1 + HexNodes.length) % HexNodes.length;
-                    if (HexNodes[prevIndex] != null) {
-                        updateGraph(index, HexNodes[prevIndex].id, 1, -1);
-                    }
-                    index++;
-                }
-            }
-
+        for (int tile = 0; tile < hex_coords.length; tile++) {
             int randomIndex = rand.nextInt(allResources.size());
             Resources selectedResource = allResources.get(randomIndex);
             int diceNumber = selectedResource.equals(Resources.NONE) ? 0 : allDiceNumbers.removeFirst();
 
-            board.put(coords, new HexTile(diceNumber, selectedResource, HexNodes));
+            board.put(hex_coords[tile], new HexTile(diceNumber, selectedResource, topology.getTileNodes(tile)));
             allResources.remove(randomIndex);
         }
-
     }
-
 }
@@ -1,160 +1,483 @@
 package org.example.catan;
 
 import javafx.application.Platform;
-import javafx.beans.value.ChangeListener;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
-import javafx.scene.shape.Line;
+import org.example.catan.bot.MctsBot;
+import org.example.catan.engine.ActionResult;
+import org.example.catan.engine.GameEngine;
+import org.example.catan.engine.Move;
+import org.example.catan.engine.StealOutcome;
 import org.example.catan.gamepieces.*;
-import org.example.catan.graph.HexTile;
 import org.example.catan.graph.IntTupel;
-import org.example.catan.graph.Node;
-
+import org.example.catan.graph.StreetGraph;
+import org.example.catan.metrics.GameAction;
+import org.example.catan.metrics.GameMetrics;
+import org.example.catan.replay.GameEvent;
+import org.example.catan.server.GameClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 /**
- * Controls the core game flow for the Catan board game, including initialization, turn logic,
- * dice rolls, resource distribution, bandit placement, and player interaction.
- * Coordinates between the UI (BoardView) and game logic (CatanBoard, Players, Dice).
+ * Connects the JavaFX board (BoardView) to the headless {@link GameEngine}.
+ * Translates clicks and button presses into engine commands and reflects the results in the UI,
+ * including alerts for rejected actions, bandit placement and the victory screen.
+ * Seats listed in the system property {@code catan.bots} (comma-separated seat numbers starting at 0)
+ * are played by an {@link MctsBot} thinking {@code catan.bot.millis} milliseconds per move.
+ * <p>
+ * If the system property {@code catan.server} names a game server ({@code host:port}), the game is played
+ * remotely through a {@link GameClient}: the window joins the game {@code catan.game}, or creates a new one
+ * if none is given, and takes the seats listed in {@code catan.seats} (default {@code 0}). Input for those
+ * seats is sent to the server, and the board is updated from the events the server broadcasts.
  */
 public class GameController {
-    private final Set<Integer> blockedNodes = new HashSet<>();
-    private final List<Player> players = new ArrayList<>();
-    private final List<TradeOffer> activeTrades = new ArrayList<>();
+    private static final int BOARD_RADIUS = 3;
+    private static final String BOTS_PROPERTY = "catan.bots";
+    private static final String BOT_MILLIS_PROPERTY = "catan.bot.millis";
+    private static final long DEFAULT_BOT_MILLIS = 1000;
+    private static final String SERVER_PROPERTY = "catan.server";
+    private static final String GAME_PROPERTY = "catan.game";
+    private static final String SEATS_PROPERTY = "catan.seats";
+    private static final String HEATMAP_PROPERTY = "catan.heatmap";
+    private static final List<Color> PLAYER_COLORS = List.of(Color.BLUE, Color.RED, Color.YELLOW, Color.WHITE);
+
     @FXML
     private Pane boardPane;
     private CatanBoard board;
     private BoardView boardView;
-    private Player currentPlayer;
-    private int[][] adjacencyMatrix;
-    private int currentPlayerIndex;
-    private int currentPlayerDiceRolls;
-    private Bank bank;
-    private boolean waitingForBandit = false;
-
+    private GameEngine engine;
+    private final Set<Integer> botSeats = new HashSet<>();
+    private MctsBot bot;
+    private boolean botThinking;
+    private GameClient client;
+    private long gameId;
+    private final Set<Integer> localSeats = new HashSet<>();
 
     /**
      * Sets up the visual board, event handlers, and interactive elements for gameplay.
      * Includes click handling for roads, settlements, turn transitions, and dice rolls.
      */
     private void setupBoardView() {
-        this.boardView = new BoardView(boardPane, board, adjacencyMatrix);
-        boardView.setCurrentPlayer(currentPlayer);
-        boardView.setOnVertexClickHandler(this::handleVertexClick);
-        boardView.setOnRoadClickHandler(this::handleEdgeClick);
-        boardView.setOnRollDice(this::rollDice);
-        boardView.setOnEndTurn(this::nextPlayer);
-        boardView.setOnTradeOfferSubmitted(this::handleTradeOffer);
+        this.boardView = new BoardView(boardPane, board, BoardRenderMode.select(BOARD_RADIUS));
+        boardView.setCurrentPlayer(engine.getCurrentPlayer());
+        boardView.setOnVertexClickHandler(humanOnly(this::handleVertexClick));
+        boardView.setOnRoadClickHandler(humanOnly(this::handleEdgeClick));
+        boardView.setOnRollDice(humanOnly(this::rollDice));
+        boardView.setOnEndTurn(humanOnly(() -> {
+            nextPlayer();
+            playBotTurn();
+        }));
+        boardView.setOnTradeOfferSubmitted(humanOnly(this::handleTradeOffer));
+        boardView.setYieldSource(engine.getVertexYield());
+        boardView.setYieldHeatmapVisible(Boolean.getBoolean(HEATMAP_PROPERTY));
         Platform.runLater(() -> boardView.placeInitialBandit(board));
     }
 
     /**
      * Called automatically by JavaFX after FXML loading.
      * Initializes player list, board state, and game flow.
-     * Also populates the adjacency matrix used for graph logic.
      */
     @FXML
     public void initialize() {
-        currentPlayerIndex = 0;
-        bank = new Bank();
+        boardPane.setStyle("-fx-background-color: LIGHTBLUE;");
 
+        String server = System.getProperty(SERVER_PROPERTY);
+        if (server != null) {
+            joinRemoteGame(server);
+            return;
+        }
 
-        players.add(new Player(Color.BLUE));
-        players.add(new Player(Color.RED));
-        players.add(new Player(Color.YELLOW));
-        players.add(new Player(Color.WHITE));
+        engine = GameEngine.newGame(BOARD_RADIUS, PLAYER_COLORS, new Random().nextLong());
+        board = engine.getBoard();
 
-        currentPlayer = players.getFirst();
+        setupBoardView();
+        startBots();
+    }
 
-        board = new CatanBoard(3);
-        adjacencyMatrix = new int[54][54];
-        for (int i = 0; i < 54; i++) {
-            for (int j = 0; j < 54; j++) {
-                adjacencyMatrix[i][j] = board.graph[i][j][0];
-            }
+    /**
+     * Creates the bot for the seats listed in {@code catan.bots} and lets it move if it is on turn.
+     * In a remote game, only seats taken by this window are played by the bot.
+     */
+    private void startBots() {
+        botSeats.addAll(parseSeats(System.getProperty(BOTS_PROPERTY, ""), engine.getPlayers().size()));
+        if (client != null) {
+            botSeats.retainAll(localSeats);
+        }
+        if (!botSeats.isEmpty()) {
+            bot = new MctsBot(Duration.ofMillis(Long.getLong(BOT_MILLIS_PROPERTY, DEFAULT_BOT_MILLIS)));
+            Platform.runLater(this::playBotTurn);
+        }
+    }
+
+    /**
+     * Connects to a game server, creates or joins the game and takes this window's seats.
+     * The board is shown once the local copy of the game has caught up with the server.
+     *
+     * @param server the server address, {@code host:port}
+     */
+    private void joinRemoteGame(String server) {
+        try {
+            int colon = server.lastIndexOf(':');
+            InetSocketAddress address = new InetSocketAddress(server.substring(0, colon),
+                    Integer.parseInt(server.substring(colon + 1)));
+            client = new GameClient(address, Platform::runLater, this::handleRemoteEvent);
+        } catch (IOException | RuntimeException e) {
+            Platform.runLater(() -> {
+                showAlert("Cannot connect to the game server " + server + ": " + e.getMessage());
+                Platform.exit();
+            });
+            return;
+        }
+
+        localSeats.addAll(parseSeats(System.getProperty(SEATS_PROPERTY, "0"), PLAYER_COLORS.size()));
+        if (localSeats.isEmpty()) {
+            localSeats.add(0);
         }
+        Long requestedGame = Long.getLong(GAME_PROPERTY);
+        CompletableFuture<Long> game = requestedGame != null
+                ? CompletableFuture.completedFuture(requestedGame)
+                : client.createGame(BOARD_RADIUS, PLAYER_COLORS.size(), new Random().nextLong());
+        game.thenCompose(id -> {
+            gameId = id;
+            CompletableFuture<?> joined = CompletableFuture.completedFuture(null);
+            for (int seat : localSeats) {
+                joined = joined.thenCompose(ignored -> client.join(id, seat));
+            }
+            return joined;
+        }).whenComplete((ignored, error) -> {
+            if (error != null) {
+                showAlert("Cannot join the game: " + causeOf(error).getMessage());
+                Platform.exit();
+                return;
+            }
+            showRemoteGame(requestedGame == null);
+        });
+    }
 
+    /**
+     * Shows the local copy of a joined remote game, including the pieces built before this window joined.
+     *
+     * @param created true if this window created the game, so that its ID is shown for other players
+     */
+    private void showRemoteGame(boolean created) {
+        engine = client.getGame(gameId);
+        board = engine.getBoard();
         setupBoardView();
 
+        StreetGraph graph = board.getGraph();
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            if (graph.getOwner(edge) != StreetGraph.NO_OWNER) {
+                boardView.placeRoad(edge, colorOf(graph.getOwner(edge)));
+            }
+        }
+        for (int node = 0; node < engine.getOccupancy().getVertexCount(); node++) {
+            int owner = engine.getOccupancy().getSettlementOwner(node);
+            if (owner != StreetGraph.NO_OWNER) {
+                showSettlement(node, colorOf(owner));
+            }
+        }
+        IntTupel robber = engine.getRobberPosition();
+        Platform.runLater(() -> boardView.placeBandit(robber));
+        if (engine.hasRolled()) {
+            boardView.updateDiceNumber(engine.getLastRoll());
+        }
+        updateTradeViewerUI();
+        boardView.updateResourceDisplay();
 
-        Platform.runLater(() -> boardView.setCurrentPlayer(currentPlayer));
+        if (created) {
+            showAlert("Hosting game " + gameId + ". Other players join it with -D" + GAME_PROPERTY + "=" + gameId
+                    + " and -D" + SEATS_PROPERTY + "=<seats>.");
+        }
+        startBots();
+    }
 
+    /**
+     * Reflects an event of the remote game in the UI. The local copy of the game has already applied it.
+     *
+     * @param event the event broadcast by the server
+     * @param game  the local copy of its game
+     */
+    private void handleRemoteEvent(GameEvent event, GameEngine game) {
+        if (boardView == null || event.getGameId() != gameId) {
+            return;
+        }
+        switch (event.getType()) {
+            case DICE_ROLLED -> {
+                boardView.updateDiceNumber(event.getValue());
+                if (engine.isWaitingForBandit()) {
+                    showStealOutcome(engine.getLastSteal());
+                    if (isHumanTurn()) {
+                        boardView.promptBanditPlacement(board);
+                        boardView.setOnBanditPlaced(this::handleBanditPlaced);
+                    }
+                }
+            }
+            case STREET_BUILT -> boardView.placeRoad(event.getValue(), colorOf(event.getPlayer()));
+            case SETTLEMENT_BUILT -> showSettlement(event.getValue(), colorOf(event.getPlayer()));
+            case BANDIT_PLACED -> {
+                boardView.placeBandit(new IntTupel(event.getFirst(), event.getSecond()));
+                boardView.updateYieldHeatmap();
+            }
+            case TRADE_OFFERED, TRADE_ACCEPTED -> updateTradeViewerUI();
+            case TURN_ENDED -> {
+                if (event.getValue() == 1) {
+                    showVictory(engine.getPlayers().get(event.getPlayer()));
+                    return;
+                }
+                updateTradeViewerUI();
+                boardView.setCurrentPlayer(engine.getCurrentPlayer());
+                playBotTurn();
+            }
+            default -> {
+                // Steals are reported with the roll; bank trades only change the resources.
+            }
+        }
+        boardView.updateResourceDisplay();
+    }
 
-        ChangeListener<Number> sizeListener = (obs, oldVal, newVal) -> {
-            boardPane.getChildren().clear();
-            this.boardView = new BoardView(boardPane, board, adjacencyMatrix);
-            boardView.setCurrentPlayer(currentPlayer);
-            boardView.setOnVertexClickHandler(this::handleVertexClick);
-            boardView.setOnRoadClickHandler(this::handleEdgeClick);
-            boardView.setOnEndTurn(this::nextPlayer);
-            boardView.setOnRollDice(this::rollDice);
-            boardView.setOnTradeOfferSubmitted(this::handleTradeOffer);
-            updateTradeViewerUI();
-        };
+    /**
+     * Sends a move of the current player to the server. The board is updated by the resulting events.
+     *
+     * @param move the encoded move
+     * @return the future of the reply, completed after the reply was handled
+     */
+    private CompletableFuture<ActionResult> sendMove(int move) {
+        long start = GameMetrics.start();
+        return awaitReply(GameAction.ofMove(move), start, client.move(gameId, move));
+    }
 
+    /**
+     * Records the round trip of a remote command and reports a rejection or failure to the player.
+     *
+     * @param action the command's action
+     * @param start  the timestamp taken with {@link GameMetrics#start()} before the command was sent
+     * @param reply  the future of the server's reply
+     * @return a future completed after the reply was handled
+     */
+    private CompletableFuture<ActionResult> awaitReply(GameAction action, long start,
+                                                       CompletableFuture<ActionResult> reply) {
+        return reply.whenComplete((result, error) -> {
+            GameMetrics.record(action, gameId, start, result);
+            handleReply(result, error);
+        });
+    }
 
-        boardPane.widthProperty().addListener(sizeListener);
-        boardPane.heightProperty().addListener(sizeListener);
+    /**
+     * Records a local action of this window's game.
+     *
+     * @param action the action
+     * @param start  the timestamp taken with {@link GameMetrics#start()} before the action
+     * @param result the outcome
+     */
+    private static void recordLocal(GameAction action, long start, ActionResult result) {
+        GameMetrics.record(action, GameMetrics.NO_GAME, start, result);
+    }
 
-        boardPane.setStyle("-fx-background-color: LIGHTBLUE;");
+    /**
+     * Reports a rejected or failed remote command to the player.
+     *
+     * @param result the result of the command, or null if it failed
+     * @param error  the failure, or null if the server replied with a result
+     */
+    private void handleReply(ActionResult result, Throwable error) {
+        if (error != null) {
+            showAlert(causeOf(error).getMessage());
+        } else if (!result.isAccepted()) {
+            showAlert(result.getMessage());
+        } else if (result == ActionResult.TRADE_MATCHED) {
+            showAlert("✅ " + result.getMessage());
+        }
+    }
 
+    /**
+     * Unwraps the failure of a chained future.
+     *
+     * @param error the failure
+     * @return the underlying cause
+     */
+    private static Throwable causeOf(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
 
     /**
-     * Removes trade offers from the UI and backend that are no longer valid
-     * for the given player.
+     * Returns the color of a player.
      *
-     * @param player The player whose trades should be cleared.
+     * @param player the player index
+     * @return the player's color
      */
-    private void removeExpiredTrades(Player player) {
-        activeTrades.removeIf(offer -> offer.getSender().equals(player));
+    private Color colorOf(int player) {
+        return engine.getPlayers().get(player).getColor();
     }
 
     /**
-     * Processes the acceptance of a trade offer.
-     * Updates resources of involved players and refreshes the trade UI.
+     * Returns the index of a tile among the board's tile coordinates, as used by {@link Move#PLACE_BANDIT}.
      *
-     * @param offer The trade offer being accepted.
+     * @param coord the tile coordinate
+     * @return the tile index, or -1 if the coordinate is not on the board
      */
-    private void acceptTradeOffer(TradeOffer offer) {
-        Player receiver = currentPlayer;
-        Player sender = offer.getSender();
+    private int tileIndex(IntTupel coord) {
+        IntTupel[] coords = board.getHex_coords();
+        for (int i = 0; i < coords.length; i++) {
+            if (coords[i].equals(coord)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a list of seat numbers.
+     *
+     * @param property  comma-separated seat numbers, e.g. {@code "1,2,3"}
+     * @param seatCount number of seats in the game
+     * @return the valid seat numbers
+     */
+    private static Set<Integer> parseSeats(String property, int seatCount) {
+        Set<Integer> seats = new HashSet<>();
+        for (String part : property.split(",")) {
+            try {
+                int seat = Integer.parseInt(part.trim());
+                if (seat >= 0 && seat < seatCount) {
+                    seats.add(seat);
+                }
+            } catch (NumberFormatException ignored) {
+                // Blank or malformed entries are skipped.
+            }
+        }
+        return seats;
+    }
+
+    /**
+     * Checks whether the current player is played by the computer.
+     *
+     * @return true during a bot's turn
+     */
+    private boolean isBotTurn() {
+        return botSeats.contains(engine.getCurrentPlayerIndex());
+    }
 
-        Resources giveRes = offer.getOffer().keySet().iterator().next();
-        int giveAmt = offer.getOffer().get(giveRes);
+    /**
+     * Checks whether the current player is a human playing in this window.
+     *
+     * @return true unless a bot or, in a remote game, another window is on turn
+     */
+    private boolean isHumanTurn() {
+        return !isBotTurn() && (client == null || localSeats.contains(engine.getCurrentPlayerIndex()));
+    }
+
+    /**
+     * Wraps a UI handler so that it ignores input while a bot or a remote player is playing.
+     *
+     * @param handler the handler for human input
+     * @param <T>     the type of the handler's argument
+     * @return a handler that only runs during a human player's turn
+     */
+    private <T> Consumer<T> humanOnly(Consumer<T> handler) {
+        return value -> {
+            if (isHumanTurn()) {
+                handler.accept(value);
+            }
+        };
+    }
 
-        Resources wantRes = offer.getRequest().keySet().iterator().next();
-        int wantAmt = offer.getRequest().get(wantRes);
+    /**
+     * Wraps a UI action so that it is ignored while a bot or a remote player is playing.
+     *
+     * @param action the action triggered by a human player
+     * @return an action that only runs during a human player's turn
+     */
+    private Runnable humanOnly(Runnable action) {
+        return () -> {
+            if (isHumanTurn()) {
+                action.run();
+            }
+        };
+    }
 
-        if (waitingForBandit) {
-            showAlert("Please place the bandit before continuing.");
+    /**
+     * Lets the bot choose the current player's next move in the background and plays it on the UI thread,
+     * until it is a human player's turn again or the game is over. In a remote game the move is sent to the
+     * server, and the bot thinks about the next one once the server replied. If the search fails, the bot
+     * is released and the error is shown, instead of leaving the turn waiting silently.
+     */
+    private void playBotTurn() {
+        if (bot == null || botThinking || engine.isGameOver() || !isBotTurn()) {
             return;
         }
-        if (currentPlayerDiceRolls == 0) {
-            showAlert("You must roll the dice before interacting with anything else.");
-            return;
+        botThinking = true;
+        bot.chooseMoveAsync(engine).whenComplete((move, failure) -> Platform.runLater(() -> {
+            if (failure != null) {
+                botThinking = false;
+                showAlert("The bot could not choose a move: " + causeOf(failure).getMessage());
+                return;
+            }
+            if (client != null) {
+                sendMove(move).whenComplete((result, error) -> {
+                    botThinking = false;
+                    playBotTurn();
+                });
+                return;
+            }
+            botThinking = false;
+            applyBotMove(move);
+            playBotTurn();
+        }));
+    }
+
+    /**
+     * Plays a move chosen by the bot through the same paths as the matching human input.
+     *
+     * @param move the encoded move
+     */
+    private void applyBotMove(int move) {
+        switch (Move.type(move)) {
+            case Move.ROLL -> rollDice();
+            case Move.SETTLEMENT -> handleVertexClick(Move.argument(move));
+            case Move.STREET -> handleEdgeClick(Move.argument(move));
+            case Move.BANK_TRADE -> {
+                long start = GameMetrics.start();
+                recordLocal(GameAction.BANK_TRADE, start, engine.applyMove(move));
+                boardView.updateResourceDisplay();
+            }
+            case Move.PLACE_BANDIT -> {
+                IntTupel coord = board.getHex_coords()[Move.argument(move)];
+                handleBanditPlaced(coord);
+                boardView.placeBandit(coord);
+            }
+            case Move.END_TURN -> nextPlayer();
+            default -> throw new IllegalArgumentException("Unknown move: " + move);
         }
-        if (!receiver.removeResource(wantRes, wantAmt)) {
-            showAlert("You don't have enough resources to accept this trade.");
+    }
+
+    /**
+     * Processes the acceptance of a trade offer by the current player.
+     * Refreshes resources and the trade UI if the engine executed the trade.
+     *
+     * @param offer The trade offer being accepted.
+     */
+    private void acceptTradeOffer(TradeOffer offer) {
+        if (client != null) {
+            long start = GameMetrics.start();
+            awaitReply(GameAction.ACCEPT_TRADE, start,
+                    client.acceptTrade(gameId, engine.getActiveTrades().indexOf(offer)));
             return;
         }
-
-        if (!sender.removeResource(giveRes, giveAmt)) {
-            showAlert("Sender doesn't have enough resources anymore.");
-            receiver.addResource(wantRes, wantAmt);
+        long start = GameMetrics.start();
+        ActionResult result = engine.acceptTrade(offer);
+        recordLocal(GameAction.ACCEPT_TRADE, start, result);
+        if (!result.isAccepted()) {
+            showAlert(result.getMessage());
             return;
         }
 
-
-        receiver.addResource(giveRes, giveAmt);
-        sender.addResource(wantRes, wantAmt);
-
-        offer.accept(receiver);
-        activeTrades.remove(offer);
-
         boardView.updateResourceDisplay();
         updateTradeViewerUI();
         showAlert("✅ Trade accepted.");
@@ -164,275 +487,232 @@ public class GameController {
      * Refreshes the trade UI to show all currently available offers from other players.
      */
     private void updateTradeViewerUI() {
-        boardView.showActiveTrades(activeTrades, this::acceptTradeOffer);
+        boardView.showActiveTrades(engine.getActiveTrades(), this::acceptTradeOffer);
     }
 
     /**
      * Handles rolling the dice for the current player.
-     * Prevents rolling if already rolled or if waiting for bandit placement.
-     * Rolls two dice, updates the dice display, and distributes resources.
-     * If a 7 is rolled, triggers bandit placement. Otherwise, gives resources to players with settlements on
-     * matching tiles.
-     * Increments the dice roll counter and updates the resource display.
+     * Updates the dice display and the resource display. If a 7 is rolled, reports the steal
+     * and prompts the player to place the bandit.
      */
     private void rollDice() {
-        if (currentPlayerDiceRolls > 0) {
-            return;
-        }
-        if (waitingForBandit) {
-            showAlert("Please place the bandit before continuing.");
+        if (client != null) {
+            sendMove(Move.of(Move.ROLL, 0));
             return;
         }
-
-        int result = new Dice(2).rollDice();
-
-        Platform.runLater(() -> boardView.updateDiceNumber(result));
-
-
-        if (result == 7) {
-            waitingForBandit = true;
-            stealFromRandomPlayer(currentPlayer, players);
-            boardView.promptBanditPlacement(board);
-            boardView.setOnBanditPlaced(this::handleBanditPlaced);
+        long start = GameMetrics.start();
+        ActionResult result = engine.rollDice();
+        recordLocal(GameAction.ROLL_DICE, start, result);
+        if (!result.isAccepted()) {
+            showAlert(result.getMessage());
             return;
         }
 
-        for (HexTile tile : board.getBoard().values()) {
-            if (tile.getDiceNumber() == result && !tile.isBlocked()) {
-                Resources resource = tile.getResourceType();
-                Node[] nodes = tile.getHexTileNodes();
-
-                for (Node node : nodes) {
-                    int nodeId = node.getId();
+        boardView.updateDiceNumber(engine.getLastRoll());
 
-                    for (Player player : players) {
-                        if (player.ownsSettlementAt(nodeId)) {
-                            if (bank.takeResource(resource, 1)) {
-                                player.addResource(resource, 1);
-                            }
-                        }
-                    }
-                }
+        if (engine.isWaitingForBandit()) {
+            showStealOutcome(engine.getLastSteal());
+            if (!isBotTurn()) {
+                boardView.promptBanditPlacement(board);
+                boardView.setOnBanditPlaced(this::handleBanditPlaced);
             }
+            return;
         }
 
-        currentPlayerDiceRolls++;
-        Platform.runLater(() -> boardView.updateResourceDisplay());
+        boardView.updateResourceDisplay();
     }
 
     /**
-     * Switches to the next player's turn in the game.
-     * Advances the index, sets the current player, updates the UI,
-     * and prompts the player to roll dice. Also cleans up expired trades.
+     * Switches to the next player's turn in the game, or shows the victory screen
+     * if the current player has won.
      */
     private void nextPlayer() {
-        if (currentPlayer.getVictoryPoints() >= 5) {
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("🎉 Victory!");
-            alert.setHeaderText("🏆 " + currentPlayer.getName() + " wins the game!");
-            alert.setContentText("Congratulations to player " + currentPlayer.getName() + " for reaching 5 victory points!");
-            alert.showAndWait();
-            Platform.exit();
+        if (client != null) {
+            sendMove(Move.of(Move.END_TURN, 0));
             return;
         }
-        if (currentPlayerDiceRolls == 0) {
-            showAlert("Please roll the dice before ending your turn.");
+        Player player = engine.getCurrentPlayer();
+        long start = GameMetrics.start();
+        ActionResult result = engine.endTurn();
+        recordLocal(GameAction.END_TURN, start, result);
+        if (result == ActionResult.GAME_WON) {
+            showVictory(player);
             return;
         }
-        if (waitingForBandit) {
-            showAlert("Please place the bandit before continuing.");
+        if (!result.isAccepted()) {
+            showAlert(result.getMessage());
             return;
         }
-        currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
-        currentPlayer = players.get(currentPlayerIndex);
-        currentPlayerDiceRolls = 0;
-        removeExpiredTrades(currentPlayer);
         updateTradeViewerUI();
-        boardView.setCurrentPlayer(currentPlayer);
+        boardView.setCurrentPlayer(engine.getCurrentPlayer());
         boardView.updateResourceDisplay();
     }
 
+    /**
+     * Shows the victory screen and closes the application.
+     *
+     * @param player the winner
+     */
+    private void showVictory(Player player) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("🎉 Victory!");
+        alert.setHeaderText("🏆 " + player.getName() + " wins the game!");
+        alert.setContentText("Congratulations to player " + player.getName() + " for reaching "
+                + GameEngine.VICTORY_POINTS_TO_WIN + " victory points!");
+        alert.showAndWait();
+        Platform.exit();
+    }
+
     /**
      * Handles an incoming trade offer from a player.
-     * If the trade is with the bank, processes it directly.
-     * Otherwise, adds the trade offer to the list of active trades.
+     * Bank trades are executed directly, offers to other players are either matched with a compatible
+     * open offer or listed in the trade viewer.
      *
      * @param offer the trade offer to be processed
      */
     private void handleTradeOffer(TradeOffer offer) {
-        if (currentPlayerDiceRolls == 0) {
-            showAlert("You must roll the dice before interacting with anything else.");
+        if (client != null) {
+            sendTradeOffer(offer);
             return;
         }
-        if (waitingForBandit) {
-            showAlert("Please place the bandit before continuing.");
+        long start = GameMetrics.start();
+        ActionResult result = engine.offerTrade(offer);
+        recordLocal(offer.isBankTrade() ? GameAction.BANK_TRADE : GameAction.OFFER_TRADE, start, result);
+        if (!result.isAccepted()) {
+            showAlert(result.getMessage());
             return;
         }
         if (offer.isBankTrade()) {
-            handleBankTrade(offer);
+            boardView.updateResourceDisplay();
+            showAlert("✅ Trade with bank successful.");
+        } else if (result == ActionResult.TRADE_MATCHED) {
+            boardView.updateResourceDisplay();
+            updateTradeViewerUI();
+            showAlert("✅ " + result.getMessage());
         } else {
-            activeTrades.add(offer);
             updateTradeViewerUI();
         }
     }
 
     /**
-     * Handles user interaction when clicking a ghost road (edge).
-     * Validates game state, player resources, and street placement before
-     * updating both the model and view.
+     * Sends a trade offer to the server. Bank trades are sent as {@link Move#BANK_TRADE} moves.
      *
-     * @param ghostLine the line representing the clicked edge
+     * @param offer the trade offer
      */
-    private void handleEdgeClick(Line ghostLine) {
-        int[] nodes = (int[]) ghostLine.getUserData();
-        if (waitingForBandit) {
-            showAlert("Please place the bandit before continuing.");
-            return;
-        }
-
-
-        if (nodes == null || nodes.length != 2) {
+    private void sendTradeOffer(TradeOffer offer) {
+        if (!offer.isBankTrade()) {
+            long start = GameMetrics.start();
+            awaitReply(GameAction.OFFER_TRADE, start, client.offerTrade(gameId, offer.getOffer(), offer.getRequest()));
             return;
         }
-        if (currentPlayerDiceRolls == 0) {
-            showAlert("You must roll the dice before interacting with anything else.");
+        ResourceVector give = offer.getOffer();
+        ResourceVector want = offer.getRequest();
+        if (give.distinct() != 1 || give.total() != GameEngine.BANK_TRADE_RATE || want.total() != 1) {
+            showAlert(ActionResult.INVALID_BANK_TRADE.getMessage());
             return;
         }
+        sendMove(Move.bankTrade(give.first().ordinal(), want.first().ordinal()));
+    }
 
-
-        if (!canBuildStreet(currentPlayer) || !bank.useStreet()) {
+    /**
+     * Handles user interaction when clicking a ghost road (edge).
+     * Asks the engine to build the street and replaces the ghost road on success.
+     *
+     * @param edge the ID of the clicked edge in the street graph
+     */
+    private void handleEdgeClick(int edge) {
+        if (client != null) {
+            sendMove(Move.of(Move.STREET, edge));
             return;
         }
-
-
-        boolean placed = currentPlayer.placeStreet(nodes[0], nodes[1]);
-        if (!placed) {
+        StreetGraph graph = board.getGraph();
+        long start = GameMetrics.start();
+        ActionResult result = engine.buildStreet(graph.getNodeA(edge), graph.getNodeB(edge));
+        recordLocal(GameAction.BUILD_STREET, start, result);
+        if (!result.isAccepted()) {
+            showAlert(result.getMessage());
             return;
         }
 
-        boardView.placeRoad(ghostLine, currentPlayer.getColor());
-        Platform.runLater(() -> boardView.updateResourceDisplay());
+        boardView.placeRoad(edge, engine.getCurrentPlayer().getColor());
+        boardView.updateResourceDisplay();
     }
 
     /**
      * Handles user interaction when clicking a vertex (node) to place a settlement.
-     * Checks if placement is allowed, updates the game model and view,
-     * and blocks surrounding nodes according to Catan rules.
+     * Asks the engine to build the settlement and hides the vertex and its neighbors,
+     * which are blocked by the distance rule.
      *
-     * @param clickedVertex the circle representing the clicked vertex
+     * @param nodeId the ID of the clicked node
      */
-    private void handleVertexClick(Circle clickedVertex) {
-        Node node = (Node) clickedVertex.getUserData();
-        int nodeId = node.getId();
-        if (waitingForBandit) {
-            showAlert("Please place the bandit before continuing.");
-            return;
-        }
-        if (!canBuildSettlement(currentPlayer) || !bank.useSettlement()) {
-            showAlert("Not enough resources to build settlement or no more settlements in the bank.");
-            return;
-        }
-
-        if (currentPlayerDiceRolls == 0) {
-            showAlert("You must roll the dice before interacting with anything else.");
+    private void handleVertexClick(int nodeId) {
+        if (client != null) {
+            sendMove(Move.of(Move.SETTLEMENT, nodeId));
             return;
         }
-
-        if (blockedNodes.contains(nodeId)) {
+        long start = GameMetrics.start();
+        ActionResult result = engine.buildSettlement(nodeId);
+        recordLocal(GameAction.BUILD_SETTLEMENT, start, result);
+        if (!result.isAccepted()) {
+            showAlert(result.getMessage());
             return;
         }
-        boolean placed = currentPlayer.placeSettlement(nodeId);
-        if (!placed) {
-            return;
-        }
-
-        boardView.placeSettlement(clickedVertex, currentPlayer.getColor());
-
-        blockedNodes.add(nodeId);
-        boardView.hideVertexByNodeId(nodeId);
 
-        for (int i = 0; i < adjacencyMatrix[nodeId].length; i++) {
-            if (adjacencyMatrix[nodeId][i] == 1) {
-                blockedNodes.add(i);
-                boardView.hideVertexByNodeId(i);
-            }
-        }
-        Platform.runLater(() -> boardView.updateResourceDisplay());
+        showSettlement(nodeId, engine.getCurrentPlayer().getColor());
+        boardView.updateResourceDisplay();
     }
 
     /**
-     * Processes a trade with the bank.
-     * Validates that the player gives exactly 4 of one resource and has enough in inventory.
-     * If valid, completes the trade by removing and adding resources accordingly.
+     * Draws a settlement and hides the vertex and its neighbors, which are blocked by the distance rule.
      *
-     * @param offer the trade offer directed at the bank
+     * @param nodeId the node of the settlement
+     * @param color  the owner's color
      */
-    private void handleBankTrade(TradeOffer offer) {
-        Player player = offer.getSender();
-
-        Map<Resources, Integer> offerMap = offer.getOffer();
-        Map<Resources, Integer> wantMap = offer.getRequest();
-
-        Resources giveRes = offerMap.keySet().iterator().next();
-        int giveAmt = offerMap.get(giveRes);
-
-        Resources wantRes = wantMap.keySet().iterator().next();
+    private void showSettlement(int nodeId, Color color) {
+        boardView.placeSettlement(nodeId, color);
+        boardView.hideVertexByNodeId(nodeId);
 
-        if (giveAmt != 4) {
-            showAlert("Bank trades require giving exactly 4 of one resource.");
-            return;
+        StreetGraph graph = board.getGraph();
+        for (int k = 0; k < graph.getDegree(nodeId); k++) {
+            boardView.hideVertexByNodeId(graph.getNeighbor(nodeId, k));
         }
-
-        if (!player.removeResource(giveRes, giveAmt)) {
-            showAlert("You don't have enough resources for this bank trade.");
-            return;
-        }
-
-        player.addResource(wantRes, 1);
-        boardView.updateResourceDisplay();
-        showAlert("✅ Trade with bank successful.");
     }
 
     /**
      * Handles logic after the bandit is placed on a tile.
-     * Updates game model by marking the selected tile as blocked and unblocking all others.
+     * The engine moves the robber to the selected tile and releases the previous one.
      *
      * @param coord the coordinate of the tile where the bandit was placed
      */
     private void handleBanditPlaced(IntTupel coord) {
-        waitingForBandit = false;
-        HexTile selectedTile = board.getBoard().get(coord);
-        if (selectedTile != null) {
-            selectedTile.setBlocked(true);
+        if (client != null) {
+            sendMove(Move.of(Move.PLACE_BANDIT, tileIndex(coord)));
+            return;
         }
-
-        currentPlayerDiceRolls++;
-        Platform.runLater(() -> boardView.updateResourceDisplay());
-    }
-
-    /**
-     * Checks if a player has enough resources to build a street.
-     *
-     * @param player the player to check
-     * @return true if the player has at least 1 wood and 1 brick, false otherwise
-     */
-    private boolean canBuildStreet(Player player) {
-        return player.getResourceCount(Resources.WOOD) >= 1 &&
-                player.getResourceCount(Resources.BRICK) >= 1;
+        long start = GameMetrics.start();
+        ActionResult result = engine.placeBandit(coord);
+        recordLocal(GameAction.PLACE_BANDIT, start, result);
+        if (!result.isAccepted()) {
+            showAlert(result.getMessage());
+            return;
+        }
+        boardView.updateResourceDisplay();
+        boardView.updateYieldHeatmap();
     }
 
     /**
-     * Checks if a player has enough resources to build a settlement.
+     * Informs the players about the card stolen after a rolled 7.
      *
-     * @param player the player to check
-     * @return true if the player has at least 1 wood, brick, wheat, and sheep, false otherwise
+     * @param steal the outcome of the steal
      */
-    private boolean canBuildSettlement(Player player) {
-        return player.getResourceCount(Resources.WOOD) >= 1 &&
-                player.getResourceCount(Resources.BRICK) >= 1 &&
-                player.getResourceCount(Resources.WHEAT) >= 1 &&
-                player.getResourceCount(Resources.SHEEP) >= 1;
-
+    private void showStealOutcome(StealOutcome steal) {
+        if (!steal.isSuccessful()) {
+            showAlert("No player has any resources to steal.");
+            return;
+        }
+        showAlert(steal.thief().getName() + " stole 1 " + steal.resource().toString().toLowerCase()
+                + " from " + steal.victim().getName() + "!");
+        boardView.updateResourceDisplay();
     }
 
     /**
@@ -447,55 +727,4 @@ public class GameController {
         alert.setContentText(message);
         alert.showAndWait();
     }
-
-    /**
-     * Steals a random resource from a random other player.
-     * This method selects a random player from the provided player list (excluding the current player),
-     * who has at least one resource card. It then steals a random resource type (that the victim actually owns)
-     * and transfers one card of that type from the victim to the current player. If no eligible victims exist,
-     * the method displays an alert and does nothing.
-     *
-     * @param playerList    The list of all players in the game.
-     * @param currentPlayer The player who is performing the steal (the one who rolled a 7).
-     */
-    private void stealFromRandomPlayer(Player currentPlayer, List<Player> playerList) {
-        List<Player> candidates = new ArrayList<>();
-        for (Player p : playerList) {
-            if (!p.equals(currentPlayer)) {
-                int total = 0;
-                for (Resources res : Resources.values()) {
-                    if (res != Resources.NONE) {
-                        total += p.getResourceCount(res);
-                    }
-                }
-                if (total > 0) {
-                    candidates.add(p);
-                }
-            }
-        }
-        if (candidates.isEmpty()) {
-            showAlert("No player has any resources to steal.");
-            return;
-        }
-
-        Player victim = candidates.get(new Random().nextInt(candidates.size()));
-
-        List<Resources> victimResources = new ArrayList<>();
-        for (Resources res : Resources.values()) {
-            if (res != Resources.NONE && victim.getResourceCount(res) > 0) {
-                victimResources.add(res);
-            }
-        }
-        if (victimResources.isEmpty()) {
-            showAlert(victim.getName() + " has no resources to steal.");
-            return;
-        }
-
-        Resources stolen = victimResources.get(new Random().nextInt(victimResources.size()));
-        victim.removeResource(stolen, 1);
-        currentPlayer.addResource(stolen, 1);
-
-        showAlert(currentPlayer.getName() + " stole 1 " + stolen.toString().toLowerCase() + " from " + victim.getName() + "!");
-        Platform.runLater(() -> boardView.updateResourceDisplay());
-    }
 }
@@ -0,0 +1,94 @@
+package org.example.catan;
+
+import org.example.catan.graph.IntTupel;
+
+/**
+ * Pixel geometry of the pointy-top hex board, shared by both board renderers.
+ * Converts axial tile coordinates to board coordinates (the middle tile is centered at the origin)
+ * and back, which lets the canvas renderer resolve clicks analytically instead of picking scene nodes.
+ */
+public final class HexLayout {
+    /** Distance from a tile's center to its corners, in board coordinates. */
+    public static final double HEX_SIZE = 50;
+
+    /** Angle of each tile corner, in the order of {@code HexTile.getHexTileNodes()}. */
+    private static final double[] CORNER_ANGLES_DEG = {-90, -30, 30, 90, 150, 210};
+
+    private static final double SQRT_3 = Math.sqrt(3);
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private HexLayout() {
+    }
+
+    /**
+     * Returns the x coordinate of a tile's center.
+     *
+     * @param coord the axial coordinate of the tile
+     * @return the x coordinate in board coordinates
+     */
+    public static double centerX(IntTupel coord) {
+        return HEX_SIZE * SQRT_3 * (coord.q() + coord.r() / 2.0);
+    }
+
+    /**
+     * Returns the y coordinate of a tile's center.
+     *
+     * @param coord the axial coordinate of the tile
+     * @return the y coordinate in board coordinates
+     */
+    public static double centerY(IntTupel coord) {
+        return HEX_SIZE * 1.5 * coord.r();
+    }
+
+    /**
+     * Returns the x coordinate of a tile corner.
+     *
+     * @param centerX     the x coordinate of the tile's center
+     * @param cornerIndex index of the corner, as in {@code HexTile.getHexTileNodes()}
+     * @return the x coordinate in board coordinates
+     */
+    public static double cornerX(double centerX, int cornerIndex) {
+        return centerX + HEX_SIZE * Math.cos(Math.toRadians(CORNER_ANGLES_DEG[cornerIndex]));
+    }
+
+    /**
+     * Returns the y coordinate of a tile corner.
+     *
+     * @param centerY     the y coordinate of the tile's center
+     * @param cornerIndex index of the corner, as in {@code HexTile.getHexTileNodes()}
+     * @return the y coordinate in board coordinates
+     */
+    public static double cornerY(double centerY, int cornerIndex) {
+        return centerY + HEX_SIZE * Math.sin(Math.toRadians(CORNER_ANGLES_DEG[cornerIndex]));
+    }
+
+    /**
+     * Finds the tile containing a point by inverting the axial-to-pixel conversion and rounding
+     * the fractional cube coordinate to the nearest tile.
+     *
+     * @param x the x coordinate in board coordinates
+     * @param y the y coordinate in board coordinates
+     * @return the axial coordinate of the tile, which may lie outside the board
+     */
+    public static IntTupel tileAt(double x, double y) {
+        double r = y / (HEX_SIZE * 1.5);
+        double q = x / (HEX_SIZE * SQRT_3) - r / 2;
+        double s = -q - r;
+
+        long rq = Math.round(q);
+        long rr = Math.round(r);
+        long rs = Math.round(s);
+        double dq = Math.abs(rq - q);
+        double dr = Math.abs(rr - r);
+        double ds = Math.abs(rs - s);
+
+        if (dq > dr && dq > ds) {
+            rq = -rr - rs;
+        } else if (dr > ds) {
+            rr = -rq - rs;
+        }
+        return new IntTupel((int) rq, (int) rr);
+    }
+}
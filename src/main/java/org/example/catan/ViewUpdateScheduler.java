@@ -0,0 +1,86 @@
+package org.example.catan;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces refreshes of the game UI. A change only marks the {@link Region} it affects as dirty; the first
+ * mark after a flush posts a single flush to the JavaFX thread, which redraws every dirty region once, in the
+ * order the regions are declared. However many changes one action or a burst of bot moves makes before the
+ * next pulse, each region is rebuilt at most once for them.
+ * Regions may be marked from any thread; renderers always run on the thread of the executor.
+ */
+public final class ViewUpdateScheduler {
+    /**
+     * Parts of the UI that are redrawn as a whole.
+     */
+    public enum Region {
+        /** Settlements, roads, the bandit and the placement previews. */
+        PIECES,
+        /** The overlay showing the expected yield of every vertex. */
+        HEATMAP,
+        /** The label of the player on turn. */
+        CURRENT_PLAYER,
+        /** The resource counts of the player on turn. */
+        RESOURCES,
+        /** The last dice roll. */
+        DICE,
+        /** The list of open trade offers. */
+        TRADES,
+        /** The size and position of the board and the control panels. */
+        LAYOUT
+    }
+
+    private static final Region[] REGIONS = Region.values();
+
+    private final Executor fxExecutor;
+    private final Runnable[] renderers = new Runnable[REGIONS.length];
+    private final AtomicInteger dirty = new AtomicInteger();
+    private final Runnable flush = this::flush;
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param fxExecutor runs the flushes, {@code Platform::runLater} for the JavaFX thread
+     */
+    public ViewUpdateScheduler(Executor fxExecutor) {
+        this.fxExecutor = fxExecutor;
+    }
+
+    /**
+     * Sets the code redrawing a region. A region without renderer is ignored when flushed.
+     *
+     * @param region   the region
+     * @param renderer redraws the region from the current state
+     */
+    public void setRenderer(Region region, Runnable renderer) {
+        renderers[region.ordinal()] = renderer;
+    }
+
+    /**
+     * Marks a region as dirty, so that it is redrawn with the next flush.
+     *
+     * @param region the changed region
+     */
+    public void markDirty(Region region) {
+        int before = dirty.getAndAccumulate(1 << region.ordinal(), (regions, bit) -> regions | bit);
+        if (before == 0) {
+            fxExecutor.execute(flush);
+        }
+    }
+
+    /**
+     * Redraws all dirty regions now. Regions marked by a renderer are redrawn by the following flush.
+     */
+    public void flush() {
+        int regions = dirty.getAndSet(0);
+        while (regions != 0) {
+            int region = Integer.numberOfTrailingZeros(regions);
+            regions &= regions - 1;
+            Runnable renderer = renderers[region];
+            if (renderer != null) {
+                renderer.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.catan.bot;
+
+import org.example.catan.engine.GameEngine;
+import org.example.catan.engine.Move;
+import org.example.catan.gamepieces.Dice;
+import org.example.catan.gamepieces.Player;
+import org.example.catan.gamepieces.ResourceVector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The possible outcomes of a roll as seen by the search: the dice total and, for a 7, the card stolen.
+ * The steal follows {@link GameEngine#rollDice()}: a random other player with cards is robbed of one of
+ * the resource types they hold, each with equal probability.
+ */
+final class ChanceOutcomes {
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private ChanceOutcomes() {
+    }
+
+    /**
+     * Lists all outcomes of the current player's roll as chance nodes.
+     *
+     * @param engine the game, waiting for the current player to roll
+     * @return the outcomes with their probabilities
+     */
+    static SearchNode[] expand(GameEngine engine) {
+        int roller = engine.getCurrentPlayerIndex();
+        List<SearchNode> outcomes = new ArrayList<>();
+        for (int total = 2; total <= 12; total++) {
+            if (total != 7) {
+                double probability = (double) Dice.ways(total) / Dice.TWO_DICE_OUTCOMES;
+                outcomes.add(new SearchNode(Move.roll(total), roller, probability));
+            }
+        }
+
+        double seven = (double) Dice.ways(7) / Dice.TWO_DICE_OUTCOMES;
+        int victims = countVictims(engine);
+        if (victims == 0) {
+            outcomes.add(new SearchNode(Move.roll(7), roller, seven));
+        }
+        for (int p = 0; p < engine.getPlayers().size(); p++) {
+            ResourceVector hand = engine.getPlayers().get(p).getInventory();
+            if (p == roller || hand.isEmpty()) {
+                continue;
+            }
+            double perResource = seven / victims / hand.distinct();
+            for (int r = 0; r < ResourceVector.SIZE; r++) {
+                if (hand.get(r) > 0) {
+                    outcomes.add(new SearchNode(Move.rollSeven(p, r), roller, perResource));
+                }
+            }
+        }
+        return outcomes.toArray(new SearchNode[0]);
+    }
+
+    /**
+     * Draws one outcome of the current player's roll without allocating.
+     *
+     * @param engine the game, waiting for the current player to roll
+     * @param random the random source of the calling thread
+     * @return the encoded roll
+     */
+    static int sample(GameEngine engine, SplittableRandom random) {
+        int total = 2 + random.nextInt(6) + random.nextInt(6);
+        if (total != 7) {
+            return Move.roll(total);
+        }
+        int victims = countVictims(engine);
+        if (victims == 0) {
+            return Move.roll(7);
+        }
+
+        int pick = random.nextInt(victims);
+        int roller = engine.getCurrentPlayerIndex();
+        for (int p = 0; p < engine.getPlayers().size(); p++) {
+            ResourceVector hand = engine.getPlayers().get(p).getInventory();
+            if (p == roller || hand.isEmpty() || pick-- > 0) {
+                continue;
+            }
+            int resourcePick = random.nextInt(hand.distinct());
+            for (int r = 0; r < ResourceVector.SIZE; r++) {
+                if (hand.get(r) > 0 && resourcePick-- == 0) {
+                    return Move.rollSeven(p, r);
+                }
+            }
+        }
+        throw new IllegalStateException("No victim found for the steal.");
+    }
+
+    /**
+     * Counts the players the current player can steal from.
+     *
+     * @param engine the game
+     * @return the number of other players holding at least one card
+     */
+    private static int countVictims(GameEngine engine) {
+        int victims = 0;
+        List<Player> players = engine.getPlayers();
+        for (int p = 0; p < players.size(); p++) {
+            if (p != engine.getCurrentPlayerIndex() && !players.get(p).getInventory().isEmpty()) {
+                victims++;
+            }
+        }
+        return victims;
+    }
+}
@@ -0,0 +1,440 @@
+package org.example.catan.bot;
+
+import lombok.Getter;
+import org.example.catan.engine.GameEngine;
+import org.example.catan.engine.Move;
+import org.example.catan.engine.MoveGenerator;
+import org.example.catan.engine.MoveList;
+import org.example.catan.engine.VertexYield;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Computer player choosing its moves by parallel Monte Carlo tree search.
+ * Every search thread works on its own copy of the game, making and taking back moves in place, and all
+ * threads grow one shared tree whose statistics are updated lock-free (see {@link SearchNode}).
+ * Rolls are chance nodes: their outcomes, including the card stolen on a 7, are sampled with their
+ * probabilities instead of being chosen. Playouts pick random moves, preferring settlements (weighted by
+ * the expected yield of their vertex) and continuing the turn over ending it, and are scored by the winner
+ * or, if they are cut off, by the victory points reached, and the tree learns the result of every playout.
+ * The results are also averaged in a {@link TranspositionTable} entry for the position the playout started
+ * from. When a search reaches a node for the first time, the average stored for its position enters the node
+ * once as a prior visit, so positions reached by several threads or through different move orders (e.g.
+ * building a street before or after a settlement) share their evaluations without counting any playout twice.
+ */
+public class MctsBot implements AutoCloseable {
+    /** Default weight of the exploration term in the UCT formula. */
+    public static final double DEFAULT_EXPLORATION = 0.7;
+
+    /** A leaf is expanded once it has been visited this often. */
+    private static final int EXPANSION_VISITS = 2;
+
+    /** Playouts are cut off after this many moves. */
+    private static final int MAX_PLAYOUT_MOVES = 600;
+
+    /** A playout ends the turn with a probability of 1 in this number while other moves are possible. */
+    private static final int END_TURN_ODDS = 3;
+
+    /** Size of the default transposition table: 2^18 buckets, 8 MiB. */
+    private static final int DEFAULT_TABLE_BITS = 18;
+
+    private final Duration timeBudget;
+    private final double exploration;
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final SplittableRandom seeds;
+    private final TranspositionTable table;
+
+    /** Number of playouts of the last search, 0 if the last move needed no search. */
+    @Getter
+    private volatile long lastPlayouts;
+
+    /**
+     * Creates a bot searching on one thread per available processor.
+     *
+     * @param timeBudget the thinking time per move
+     */
+    public MctsBot(Duration timeBudget) {
+        this(timeBudget, DEFAULT_EXPLORATION, new ForkJoinPool(Runtime.getRuntime().availableProcessors()),
+                true, new TranspositionTable(DEFAULT_TABLE_BITS), new SplittableRandom());
+    }
+
+    /**
+     * Creates a bot searching on one thread per worker of the given pool. The pool is not shut down by the bot.
+     *
+     * @param timeBudget  the thinking time per move
+     * @param exploration weight of the exploration term in the UCT formula
+     * @param pool        the pool running the search threads
+     * @param table       the table shared by the search threads, or null to evaluate every playout on its own
+     * @param seed        seed for the copies of the game and the playouts
+     */
+    public MctsBot(Duration timeBudget, double exploration, ForkJoinPool pool, TranspositionTable table, long seed) {
+        this(timeBudget, exploration, pool, false, table, new SplittableRandom(seed));
+    }
+
+    /**
+     * Creates a bot.
+     *
+     * @param timeBudget  the thinking time per move
+     * @param exploration weight of the exploration term in the UCT formula
+     * @param pool        the pool running the search threads
+     * @param ownsPool    true if {@link #close()} shuts the pool down
+     * @param table       the table shared by the search threads, or null
+     * @param seeds       source of the seeds for the search threads
+     */
+    private MctsBot(Duration timeBudget, double exploration, ForkJoinPool pool, boolean ownsPool,
+                    TranspositionTable table, SplittableRandom seeds) {
+        this.timeBudget = timeBudget;
+        this.exploration = exploration;
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.table = table;
+        this.seeds = seeds;
+    }
+
+    /**
+     * Chooses the next move of the current player and waits for the search to finish.
+     *
+     * @param engine the game
+     * @return the encoded move, to be passed to {@link GameEngine#applyMove(int)}
+     */
+    public int chooseMove(GameEngine engine) {
+        return chooseMoveAsync(engine).join();
+    }
+
+    /**
+     * Chooses the next move of the current player in the background. The game is copied before this
+     * method returns, so the caller may keep using it while the search runs.
+     * A roll is returned without searching, with its outcome left to the dice.
+     *
+     * @param engine the game
+     * @return a future completed with the encoded move, to be passed to {@link GameEngine#applyMove(int)}
+     * @throws IllegalStateException if the game is over
+     */
+    public CompletableFuture<Integer> chooseMoveAsync(GameEngine engine) {
+        MoveList moves = new MoveList(MoveGenerator.maxMoves(engine.getBoard()));
+        MoveGenerator.generate(engine, moves);
+        if (moves.isEmpty()) {
+            throw new IllegalStateException("The game is over.");
+        }
+        if (moves.size() == 1) {
+            lastPlayouts = 0;
+            return CompletableFuture.completedFuture(moves.get(0));
+        }
+
+        SearchNode root = new SearchNode(0, SearchNode.NO_PLAYER, 0);
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        LongAdder playouts = new LongAdder();
+        CompletableFuture<?>[] searches = new CompletableFuture<?>[pool.getParallelism()];
+        for (int i = 0; i < searches.length; i++) {
+            Worker worker = new Worker(engine.copy(new Random(seeds.nextLong())), seeds.split(), root);
+            searches[i] = CompletableFuture.runAsync(() -> playouts.add(worker.search(deadline)), pool);
+        }
+        return CompletableFuture.allOf(searches).thenApply(ignored -> {
+            lastPlayouts = playouts.sum();
+            return mostVisited(root);
+        });
+    }
+
+    /**
+     * Picks the move of the root that was searched most.
+     *
+     * @param root the searched root
+     * @return the encoded move
+     */
+    private static int mostVisited(SearchNode root) {
+        SearchNode best = null;
+        for (SearchNode child : root.getChildren()) {
+            if (best == null || child.getVisits() > best.getVisits()) {
+                best = child;
+            }
+        }
+        return best.move;
+    }
+
+    /**
+     * Shuts the thread pool down if the bot created it.
+     */
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * One search thread with its own copy of the game, move buffer and random source.
+     */
+    private final class Worker {
+        private final GameEngine engine;
+        private final SplittableRandom random;
+        private final SearchNode root;
+        private final MoveList moves;
+        private final double[] rewards;
+        private final double[] stored;
+        private final boolean sharing;
+        private SearchNode[] path = new SearchNode[64];
+        private int pathLength;
+
+        /**
+         * Creates a search thread.
+         *
+         * @param engine the thread's copy of the game
+         * @param random the thread's random source
+         * @param root   the shared root of the tree
+         */
+        Worker(GameEngine engine, SplittableRandom random, SearchNode root) {
+            this.engine = engine;
+            this.random = random;
+            this.root = root;
+            this.moves = new MoveList(MoveGenerator.maxMoves(engine.getBoard()));
+            this.rewards = new double[engine.getPlayers().size()];
+            this.stored = new double[rewards.length];
+            this.sharing = table != null && rewards.length <= TranspositionTable.MAX_PLAYERS;
+        }
+
+        /**
+         * Runs playouts until the deadline; at least one.
+         *
+         * @param deadline the {@link System#nanoTime()} at which to stop
+         * @return the number of playouts
+         */
+        long search(long deadline) {
+            long count = 0;
+            do {
+                iterate();
+                count++;
+            } while (System.nanoTime() < deadline);
+            return count;
+        }
+
+        /**
+         * Walks down the tree, expands a leaf, plays the game out and propagates the result back up.
+         *
+         * @throws IllegalStateException if the game rejects a move of the tree, i.e. tree and game diverged
+         */
+        private void iterate() {
+            pathLength = 0;
+            SearchNode node = root;
+            int visits = visit(node);
+            while (!engine.isGameOver()) {
+                SearchNode[] children = node.getChildren();
+                if (children == null) {
+                    if (node != root && visits < EXPANSION_VISITS) {
+                        break;
+                    }
+                    children = node.publishChildren(expand());
+                }
+                node = SearchNode.isChance(children) ? sample(children) : select(node, children);
+                if (!engine.makeMove(node.move).isAccepted()) {
+                    throw new IllegalStateException("The game rejected move " + node.move + " of the search tree.");
+                }
+                visits = visit(node);
+            }
+
+            long leaf = engine.getHash();
+            if (sharing && visits == 1 && node != root) {
+                seed(node, leaf);
+            }
+            playout();
+            score();
+            if (sharing) {
+                share(leaf);
+            }
+            for (int i = 1; i < pathLength; i++) {
+                path[i].addReward(rewards[path[i].player]);
+            }
+            while (engine.getUndoDepth() > 0) {
+                engine.unmakeMove();
+            }
+        }
+
+        /**
+         * Counts a visit and appends the node to the current path.
+         *
+         * @param node the visited node
+         * @return the node's visit count including this visit
+         */
+        private int visit(SearchNode node) {
+            int visits = node.addVisit();
+            if (pathLength == path.length) {
+                path = Arrays.copyOf(path, path.length * 2);
+            }
+            path[pathLength++] = node;
+            return visits;
+        }
+
+        /**
+         * Builds the children of the current position: the outcomes of a roll, or the legal moves.
+         *
+         * @return the new children
+         */
+        private SearchNode[] expand() {
+            MoveGenerator.generate(engine, moves);
+            if (moves.size() == 1 && Move.type(moves.get(0)) == Move.ROLL) {
+                return ChanceOutcomes.expand(engine);
+            }
+            int player = engine.getCurrentPlayerIndex();
+            SearchNode[] children = new SearchNode[moves.size()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = new SearchNode(moves.get(i), player, 0);
+            }
+            return children;
+        }
+
+        /**
+         * Draws a chance outcome according to the probabilities.
+         *
+         * @param children the outcomes
+         * @return the drawn outcome
+         */
+        private SearchNode sample(SearchNode[] children) {
+            double u = random.nextDouble();
+            for (SearchNode child : children) {
+                u -= child.probability;
+                if (u < 0) {
+                    return child;
+                }
+            }
+            return children[children.length - 1];
+        }
+
+        /**
+         * Chooses the child with the best upper confidence bound; unvisited children come first.
+         *
+         * @param parent   the node to choose from
+         * @param children its children
+         * @return the chosen child
+         */
+        private SearchNode select(SearchNode parent, SearchNode[] children) {
+            double logVisits = Math.log(Math.max(1, parent.getVisits()));
+            SearchNode best = children[0];
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (SearchNode child : children) {
+                int visits = child.getVisits();
+                if (visits == 0) {
+                    return child;
+                }
+                double score = child.getMeanReward(visits) + exploration * Math.sqrt(logVisits / visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Plays random moves until the game is over or the playout is cut off.
+         */
+        private void playout() {
+            for (int i = 0; i < MAX_PLAYOUT_MOVES && !engine.isGameOver(); i++) {
+                MoveGenerator.generate(engine, moves);
+                engine.makeMove(playoutMove());
+            }
+        }
+
+        /**
+         * Picks one of the settlement moves at the start of the move list with a probability proportional to
+         * the pips of its vertex plus one, so that productive vertices are preferred but none is ruled out.
+         *
+         * @param settlements the number of settlement moves
+         * @return the encoded move
+         */
+        private int settlementByYield(int settlements) {
+            VertexYield yield = engine.getVertexYield();
+            int total = 0;
+            for (int i = 0; i < settlements; i++) {
+                total += yield.getTotalPips(Move.argument(moves.get(i))) + 1;
+            }
+            int pick = random.nextInt(total);
+            for (int i = 0; i < settlements - 1; i++) {
+                pick -= yield.getTotalPips(Move.argument(moves.get(i))) + 1;
+                if (pick < 0) {
+                    return moves.get(i);
+                }
+            }
+            return moves.get(settlements - 1);
+        }
+
+        /**
+         * Picks a move for the playout: a roll outcome by its probability, a settlement if one can be
+         * built, and otherwise a random move, ending the turn only now and then.
+         *
+         * @return the encoded move
+         */
+        private int playoutMove() {
+            int first = moves.get(0);
+            if (Move.type(first) == Move.ROLL) {
+                return ChanceOutcomes.sample(engine, random);
+            }
+            if (Move.type(first) == Move.SETTLEMENT) {
+                int settlements = 1;
+                while (settlements < moves.size() && Move.type(moves.get(settlements)) == Move.SETTLEMENT) {
+                    settlements++;
+                }
+                return settlementByYield(settlements);
+            }
+            int last = moves.get(moves.size() - 1);
+            if (Move.type(last) != Move.END_TURN) {
+                return moves.get(random.nextInt(moves.size()));
+            }
+            if (moves.size() == 1 || random.nextInt(END_TURN_ODDS) == 0) {
+                return last;
+            }
+            return moves.get(random.nextInt(moves.size() - 1));
+        }
+
+        /**
+         * Gives a node reached for the first time the evaluation stored for its position as one prior visit.
+         * Must be called before the node's own playout is shared, so that the prior only holds playouts of
+         * other threads or other move orders.
+         *
+         * @param node the new node
+         * @param hash the hash of its position
+         */
+        private void seed(SearchNode node, long hash) {
+            if (table.probe(hash, stored) > 0) {
+                node.addVisit();
+                node.addReward(stored[node.player]);
+            }
+        }
+
+        /**
+         * Merges the playout result into the table entry of the position it started from. The rewards
+         * themselves are left as they are, since they are what the tree learns.
+         *
+         * @param hash the hash of the playout's starting position
+         */
+        private void share(long hash) {
+            int depth = table.probe(hash, stored);
+            for (int p = 0; p < rewards.length; p++) {
+                stored[p] = (stored[p] * depth + rewards[p]) / (depth + 1);
+            }
+            table.store(hash, depth + 1, stored);
+        }
+
+        /**
+         * Scores the end of the playout for every player: 1 for the winner and 0 for everybody else,
+         * or half the share of the victory points needed if nobody has won yet.
+         */
+        private void score() {
+            if (engine.isGameOver()) {
+                int winner = engine.getPlayers().indexOf(engine.getWinner());
+                for (int p = 0; p < rewards.length; p++) {
+                    rewards[p] = p == winner ? 1 : 0;
+                }
+                return;
+            }
+            for (int p = 0; p < rewards.length; p++) {
+                rewards[p] = Math.min(1.0, engine.getVictoryPoints(p) / (double) GameEngine.VICTORY_POINTS_TO_WIN) / 2;
+            }
+        }
+    }
+}
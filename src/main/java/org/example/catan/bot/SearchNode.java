@@ -0,0 +1,128 @@
+package org.example.catan.bot;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Node of the search tree shared by all search threads of a {@link MctsBot}.
+ * The statistics are updated with atomic additions and the children are published once with a
+ * compare-and-set, so threads never lock while walking or growing the tree.
+ * A thread counts its visit on the way down and adds its reward on the way back, so a node that is
+ * being searched looks like a loss to the other threads until the result arrives (a "virtual loss"),
+ * which spreads the threads over different branches.
+ */
+final class SearchNode {
+    /** Player index of the root, which was not reached by a move. */
+    static final int NO_PLAYER = -1;
+
+    /** Rewards in [0, 1] are summed as fixed-point numbers with this scale. */
+    private static final double REWARD_SCALE = 1 << 20;
+
+    private static final VarHandle VISITS;
+    private static final VarHandle REWARD;
+    private static final VarHandle CHILDREN;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            VISITS = lookup.findVarHandle(SearchNode.class, "visits", int.class);
+            REWARD = lookup.findVarHandle(SearchNode.class, "reward", long.class);
+            CHILDREN = lookup.findVarHandle(SearchNode.class, "children", SearchNode[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** The move leading to this node. */
+    final int move;
+
+    /** Index of the player who made the move, whose reward this node accumulates. */
+    final int player;
+
+    /** Probability of this node among its siblings if it is a chance outcome, 0 if it is a choice. */
+    final double probability;
+
+    private volatile int visits;
+    private volatile long reward;
+    private volatile SearchNode[] children;
+
+    /**
+     * Creates an unvisited node.
+     *
+     * @param move        the move leading to this node
+     * @param player      index of the player who made the move
+     * @param probability probability of the chance outcome, 0 for a choice
+     */
+    SearchNode(int move, int player, double probability) {
+        this.move = move;
+        this.player = player;
+        this.probability = probability;
+    }
+
+    /**
+     * Counts a visit of a search thread passing through this node.
+     *
+     * @return the visit count including this visit, 1 for the first visit of any thread
+     */
+    int addVisit() {
+        return (int) VISITS.getAndAdd(this, 1) + 1;
+    }
+
+    /**
+     * Adds the result of a playout through this node.
+     *
+     * @param value the reward for {@link #player}, between 0 and 1
+     */
+    void addReward(double value) {
+        REWARD.getAndAdd(this, (long) (value * REWARD_SCALE));
+    }
+
+    /**
+     * Returns the number of visits, including those of searches still running.
+     *
+     * @return the visit count
+     */
+    int getVisits() {
+        return visits;
+    }
+
+    /**
+     * Returns the average reward over a number of visits.
+     *
+     * @param visitCount the visit count read before, must be positive
+     * @return the mean reward between 0 and 1
+     */
+    double getMeanReward(int visitCount) {
+        return reward / REWARD_SCALE / visitCount;
+    }
+
+    /**
+     * Returns the children of this node.
+     *
+     * @return the children, or null if the node was not expanded yet
+     */
+    SearchNode[] getChildren() {
+        return children;
+    }
+
+    /**
+     * Publishes the children of this node unless another thread was faster.
+     *
+     * @param candidate the children built by the calling thread
+     * @return the children now stored in the node
+     */
+    SearchNode[] publishChildren(SearchNode[] candidate) {
+        SearchNode[] existing = (SearchNode[]) CHILDREN.compareAndExchange(this, null, candidate);
+        return existing == null ? candidate : existing;
+    }
+
+    /**
+     * Checks whether children are chance outcomes, which are sampled instead of chosen.
+     *
+     * @param children the non-empty children of a node
+     * @return true if the children are dice outcomes
+     */
+    static boolean isChance(SearchNode[] children) {
+        return children[0].probability > 0;
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.catan.bot;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Fixed-size table of position evaluations keyed by {@link org.example.catan.engine.GameEngine#getHash()},
+ * shared lock-free by all search threads.
+ * Every bucket has two entries: the first is only replaced by an evaluation based on at least as many
+ * playouts ("depth"), the second is always replaced, so valuable entries survive while new positions
+ * still find room. An entry is stored as two longs, the data and the hash XOR the data, so a torn
+ * write by two racing threads is detected on reading and treated as a miss instead of returning
+ * another position's evaluation.
+ * The data packs the depth into 16 bits and the average reward of up to {@link #MAX_PLAYERS} players
+ * into 12 bits each.
+ */
+public final class TranspositionTable {
+    /** Number of players whose rewards fit into an entry. */
+    public static final int MAX_PLAYERS = 4;
+
+    /** Largest depth that can be stored; deeper evaluations are capped. */
+    public static final int MAX_DEPTH = (1 << 16) - 1;
+
+    private static final int REWARD_BITS = 12;
+    private static final int REWARD_MASK = (1 << REWARD_BITS) - 1;
+    private static final int DEPTH_SHIFT = MAX_PLAYERS * REWARD_BITS;
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int ENTRIES_PER_BUCKET = 2;
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] slots;
+    private final int bucketMask;
+
+    /**
+     * Creates an empty table.
+     *
+     * @param bucketBits the table holds {@code 2^bucketBits} buckets of two entries, 32 bytes each
+     */
+    public TranspositionTable(int bucketBits) {
+        if (bucketBits < 1 || bucketBits > 26) {
+            throw new IllegalArgumentException("bucketBits must be between 1 and 26: " + bucketBits);
+        }
+        this.slots = new long[(LONGS_PER_ENTRY * ENTRIES_PER_BUCKET) << bucketBits];
+        this.bucketMask = (1 << bucketBits) - 1;
+    }
+
+    /**
+     * Looks up the evaluation of a position.
+     *
+     * @param hash    the position's hash
+     * @param rewards receives the average reward of every player on a hit
+     * @return the depth of the stored evaluation, or 0 if the position is not in the table
+     */
+    public int probe(long hash, double[] rewards) {
+        int base = bucket(hash);
+        for (int entry = 0; entry < ENTRIES_PER_BUCKET; entry++) {
+            int slot = base + entry * LONGS_PER_ENTRY;
+            long data = (long) SLOTS.getOpaque(slots, slot);
+            long check = (long) SLOTS.getOpaque(slots, slot + 1);
+            if (data != 0 && (check ^ data) == hash) {
+                for (int p = 0; p < rewards.length; p++) {
+                    rewards[p] = (double) (data >>> p * REWARD_BITS & REWARD_MASK) / REWARD_MASK;
+                }
+                return depth(data);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the evaluation of a position, replacing the first entry of the bucket if it holds the same
+     * position or a shallower evaluation, and the second entry otherwise.
+     *
+     * @param hash    the position's hash
+     * @param depth   number of playouts the evaluation is based on, at least 1
+     * @param rewards the average reward of every player, between 0 and 1
+     */
+    public void store(long hash, int depth, double[] rewards) {
+        long data = (long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT;
+        for (int p = 0; p < rewards.length; p++) {
+            data |= Math.round(rewards[p] * REWARD_MASK) << p * REWARD_BITS;
+        }
+
+        int slot = bucket(hash);
+        long stored = (long) SLOTS.getOpaque(slots, slot);
+        long storedHash = stored ^ (long) SLOTS.getOpaque(slots, slot + 1);
+        if (stored != 0 && storedHash != hash && depth(stored) > depth) {
+            slot += LONGS_PER_ENTRY;
+        }
+        SLOTS.setOpaque(slots, slot, data);
+        SLOTS.setOpaque(slots, slot + 1, hash ^ data);
+    }
+
+    /**
+     * Removes all entries. Must not run concurrently with a search.
+     */
+    public void clear() {
+        Arrays.fill(slots, 0);
+    }
+
+    /**
+     * Returns the number of entries the table can hold.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return slots.length / LONGS_PER_ENTRY;
+    }
+
+    /**
+     * Returns the index of the first long of a position's bucket.
+     *
+     * @param hash the position's hash
+     * @return the slot index
+     */
+    private int bucket(long hash) {
+        return ((int) (hash ^ hash >>> 32) & bucketMask) * (LONGS_PER_ENTRY * ENTRIES_PER_BUCKET);
+    }
+
+    /**
+     * Extracts the depth of an entry.
+     *
+     * @param data the packed data
+     * @return the depth
+     */
+    private static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.catan.engine;
+
+import lombok.Getter;
+
+/**
+ * Outcome of a command issued to the {@link GameEngine}.
+ * Every value except {@link #OK} and {@link #GAME_WON} is a rejection code; a rejected command
+ * leaves the game state unchanged.
+ */
+@Getter
+public enum ActionResult {
+    /** The command was executed. */
+    OK("Action successful."),
+
+    /** The turn could not be ended because the current player has won the game. */
+    GAME_WON("The game has been won."),
+
+    /** The trade offer matched a listed offer of another player, which was accepted instead of listing it. */
+    TRADE_MATCHED("Your offer matched an open trade and was executed."),
+
+    /** The game is already over, no more commands are accepted. */
+    GAME_OVER("The game is already over."),
+
+    /** A 7 was rolled and the bandit has to be placed first. */
+    WAITING_FOR_BANDIT("Please place the bandit before continuing."),
+
+    /** The bandit can only be placed after a 7 was rolled. */
+    NOT_WAITING_FOR_BANDIT("The bandit can only be moved after rolling a 7."),
+
+    /** The current player has to roll the dice before building or trading. */
+    NOT_ROLLED("You must roll the dice before interacting with anything else."),
+
+    /** The current player has to roll the dice before ending the turn. */
+    END_TURN_NOT_ROLLED("Please roll the dice before ending your turn."),
+
+    /** A dice outcome chosen by a search is not possible. */
+    INVALID_ROLL("This dice outcome is not possible."),
+
+    /** The dice were already rolled in this turn. */
+    ALREADY_ROLLED("You have already rolled the dice this turn."),
+
+    /** The player cannot pay for the action. */
+    INSUFFICIENT_RESOURCES("You don't have enough resources for this action."),
+
+    /** The other party of a trade cannot pay anymore. */
+    SENDER_INSUFFICIENT_RESOURCES("Sender doesn't have enough resources anymore."),
+
+    /** The bank has no more pieces of the requested type. */
+    NO_PIECES_LEFT("There are no more pieces of this type in the bank."),
+
+    /** The bank has no card left of the resource asked for. */
+    BANK_EMPTY("The bank has no cards of this resource left."),
+
+    /** The player has already placed all pieces of the requested type. */
+    PIECE_LIMIT_REACHED("You have already placed all pieces of this type."),
+
+    /** The node is occupied or too close to another settlement. */
+    NODE_BLOCKED("A settlement cannot be placed here."),
+
+    /** The two nodes are not connected by a street slot. */
+    INVALID_EDGE("These nodes are not connected by a street slot."),
+
+    /** There is already a street on this edge. */
+    EDGE_OCCUPIED("There is already a street here."),
+
+    /** There is no tile at the given coordinate. */
+    INVALID_TILE("There is no tile at this position."),
+
+    /** Bank trades must give exactly four cards of one resource for a single card. */
+    INVALID_BANK_TRADE("Bank trades require giving exactly 4 of one resource for 1 card."),
+
+    /** The trade offer is not (or no longer) listed. */
+    TRADE_NOT_AVAILABLE("This trade offer is no longer available."),
+
+    /** Players cannot accept their own trade offers. */
+    OWN_TRADE("You cannot accept your own trade offer."),
+
+    /** Only the player whose turn it is can offer trades. */
+    NOT_CURRENT_PLAYER("Only the player whose turn it is can offer trades.");
+
+    /** Human-readable description of the outcome. */
+    private final String message;
+
+    /**
+     * Creates a result with its description.
+     *
+     * @param message human-readable description of the outcome
+     */
+    ActionResult(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Checks whether the command was executed.
+     *
+     * @return true for {@link #OK}, {@link #GAME_WON} and {@link #TRADE_MATCHED}, false for all rejection codes
+     */
+    public boolean isAccepted() {
+        return this == OK || this == GAME_WON || this == TRADE_MATCHED;
+    }
+}
@@ -0,0 +1,367 @@
+package org.example.catan.engine;
+
+import org.example.catan.graph.StreetGraph;
+
+/**
+ * Bitboards for the pieces on a board: one bitset of vertices (settlements) and one bitset of edges
+ * (streets) per player, plus the union of all settlements.
+ * The closed neighborhood of every vertex (the vertex and its neighbors) is precomputed as at most four
+ * (word, mask) pairs, so the distance rule, ownership lookups and piece counts are a few bitwise operations.
+ */
+public class BoardOccupancy {
+    /** A vertex and its up to three neighbors can touch at most four words. */
+    private static final int MAX_MASK_WORDS = StreetGraph.MAX_DEGREE + 1;
+
+    private final int numPlayers;
+    private final int numVertices;
+    private final int numEdges;
+    private final long[][] settlements;
+    private final long[][] streets;
+    private final long[] occupiedVertices;
+    private final long[] occupiedEdges;
+    private final int[] maskCount;
+    private final int[] maskWord;
+    private final long[] maskBits;
+
+    /**
+     * Creates empty bitboards for a board and precomputes the vertex neighborhood masks.
+     *
+     * @param graph      the street graph of the board
+     * @param numPlayers number of players in the game
+     */
+    public BoardOccupancy(StreetGraph graph, int numPlayers) {
+        this.numPlayers = numPlayers;
+        this.numVertices = graph.getNodeCount();
+        this.numEdges = graph.getEdgeCount();
+        int vertexWords = words(numVertices);
+        int edgeWords = words(numEdges);
+        this.settlements = new long[numPlayers][vertexWords];
+        this.streets = new long[numPlayers][edgeWords];
+        this.occupiedVertices = new long[vertexWords];
+        this.occupiedEdges = new long[edgeWords];
+        this.maskCount = new int[numVertices];
+        this.maskWord = new int[numVertices * MAX_MASK_WORDS];
+        this.maskBits = new long[numVertices * MAX_MASK_WORDS];
+
+        for (int v = 0; v < numVertices; v++) {
+            addToMask(v, v);
+            for (int k = 0; k < graph.getDegree(v); k++) {
+                addToMask(v, graph.getNeighbor(v, k));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of 64-bit words needed for a bitset.
+     *
+     * @param bits number of bits
+     * @return number of words
+     */
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    /**
+     * Adds a vertex to the neighborhood mask of another vertex, merging bits that share a word.
+     *
+     * @param v      the vertex whose mask is extended
+     * @param member the vertex to add
+     */
+    private void addToMask(int v, int member) {
+        int word = member >>> 6;
+        int base = v * MAX_MASK_WORDS;
+        for (int i = 0; i < maskCount[v]; i++) {
+            if (maskWord[base + i] == word) {
+                maskBits[base + i] |= 1L << member;
+                return;
+            }
+        }
+        maskWord[base + maskCount[v]] = word;
+        maskBits[base + maskCount[v]] = 1L << member;
+        maskCount[v]++;
+    }
+
+    /**
+     * Tests a bit.
+     *
+     * @param bits  the bitset
+     * @param index the bit index
+     * @return true if the bit is set
+     */
+    private static boolean test(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Counts the set bits of a bitset.
+     *
+     * @param bits the bitset
+     * @return the population count
+     */
+    private static int count(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Checks the distance rule: a settlement may not be placed on or next to another settlement.
+     *
+     * @param vertex the vertex to check
+     * @return true if the vertex or one of its neighbors holds a settlement
+     */
+    public boolean isVertexBlocked(int vertex) {
+        int base = vertex * MAX_MASK_WORDS;
+        for (int i = 0; i < maskCount[vertex]; i++) {
+            if ((occupiedVertices[maskWord[base + i]] & maskBits[base + i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a vertex holds a settlement.
+     *
+     * @param vertex the vertex to check
+     * @return true if any player has a settlement there
+     */
+    public boolean isVertexOccupied(int vertex) {
+        return test(occupiedVertices, vertex);
+    }
+
+    /**
+     * Checks whether an edge holds a street.
+     *
+     * @param edge the edge to check
+     * @return true if any player has a street there
+     */
+    public boolean isEdgeOccupied(int edge) {
+        return test(occupiedEdges, edge);
+    }
+
+    /**
+     * Checks whether a player has a settlement on a vertex.
+     *
+     * @param player index of the player
+     * @param vertex the vertex to check
+     * @return true if the settlement belongs to the player
+     */
+    public boolean ownsSettlement(int player, int vertex) {
+        return test(settlements[player], vertex);
+    }
+
+    /**
+     * Checks whether a player has a street on an edge.
+     *
+     * @param player index of the player
+     * @param edge   the edge to check
+     * @return true if the street belongs to the player
+     */
+    public boolean ownsStreet(int player, int edge) {
+        return test(streets[player], edge);
+    }
+
+    /**
+     * Returns the owner of the settlement on a vertex.
+     *
+     * @param vertex the vertex to check
+     * @return the player index, or {@link StreetGraph#NO_OWNER} if the vertex is empty
+     */
+    public int getSettlementOwner(int vertex) {
+        if (!isVertexOccupied(vertex)) {
+            return StreetGraph.NO_OWNER;
+        }
+        for (int p = 0; p < numPlayers; p++) {
+            if (test(settlements[p], vertex)) {
+                return p;
+            }
+        }
+        return StreetGraph.NO_OWNER;
+    }
+
+    /**
+     * Counts the settlements of a player.
+     *
+     * @param player index of the player
+     * @return the number of settlements
+     */
+    public int countSettlements(int player) {
+        return count(settlements[player]);
+    }
+
+    /**
+     * Counts the streets of a player.
+     *
+     * @param player index of the player
+     * @return the number of streets
+     */
+    public int countStreets(int player) {
+        return count(streets[player]);
+    }
+
+    /**
+     * Finds a player's next settlement, for iterating over all settlements of a player.
+     *
+     * @param player index of the player
+     * @param from   the first vertex to consider
+     * @return the smallest vertex ID {@code >= from} holding a settlement of the player, or -1 if there is none
+     */
+    public int nextSettlement(int player, int from) {
+        return nextSetBit(settlements[player], from);
+    }
+
+    /**
+     * Finds a player's next street, for iterating over all streets of a player.
+     *
+     * @param player index of the player
+     * @param from   the first edge to consider
+     * @return the smallest edge ID {@code >= from} holding a street of the player, or -1 if there is none
+     */
+    public int nextStreet(int player, int from) {
+        return nextSetBit(streets[player], from);
+    }
+
+    /**
+     * Finds the next set bit of a bitset.
+     *
+     * @param bits the bitset
+     * @param from the first bit to consider
+     * @return the smallest set bit {@code >= from}, or -1 if there is none
+     */
+    private static int nextSetBit(long[] bits, int from) {
+        int word = from >>> 6;
+        if (word >= bits.length) {
+            return -1;
+        }
+        long current = bits[word] & (-1L << from);
+        while (current == 0) {
+            if (++word == bits.length) {
+                return -1;
+            }
+            current = bits[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(current);
+    }
+
+    /**
+     * Finds the next edge without a street, for iterating over all free street slots.
+     *
+     * @param from the first edge to consider
+     * @return the smallest free edge ID {@code >= from}, or -1 if there is none
+     */
+    public int nextFreeEdge(int from) {
+        int word = from >>> 6;
+        if (from >= numEdges) {
+            return -1;
+        }
+        long current = ~occupiedEdges[word] & (-1L << from);
+        while (current == 0) {
+            if (++word == occupiedEdges.length) {
+                return -1;
+            }
+            current = ~occupiedEdges[word];
+        }
+        int edge = (word << 6) + Long.numberOfTrailingZeros(current);
+        return edge < numEdges ? edge : -1;
+    }
+
+    /**
+     * Records a settlement.
+     *
+     * @param player index of the owning player
+     * @param vertex the vertex built on
+     */
+    public void placeSettlement(int player, int vertex) {
+        long bit = 1L << vertex;
+        settlements[player][vertex >>> 6] |= bit;
+        occupiedVertices[vertex >>> 6] |= bit;
+    }
+
+    /**
+     * Records a street.
+     *
+     * @param player index of the owning player
+     * @param edge   the edge built on
+     */
+    public void placeStreet(int player, int edge) {
+        long bit = 1L << edge;
+        streets[player][edge >>> 6] |= bit;
+        occupiedEdges[edge >>> 6] |= bit;
+    }
+
+    /**
+     * Removes a settlement, e.g. when a search takes back a move.
+     *
+     * @param player index of the owning player
+     * @param vertex the vertex to clear
+     */
+    public void removeSettlement(int player, int vertex) {
+        long bit = ~(1L << vertex);
+        settlements[player][vertex >>> 6] &= bit;
+        occupiedVertices[vertex >>> 6] &= bit;
+    }
+
+    /**
+     * Removes a street, e.g. when a search takes back a move.
+     *
+     * @param player index of the owning player
+     * @param edge   the edge to clear
+     */
+    public void removeStreet(int player, int edge) {
+        long bit = ~(1L << edge);
+        streets[player][edge >>> 6] &= bit;
+        occupiedEdges[edge >>> 6] &= bit;
+    }
+
+    /**
+     * Overwrites these bitboards with the pieces of another game on the same board layout.
+     *
+     * @param other the bitboards to copy
+     */
+    public void copyFrom(BoardOccupancy other) {
+        for (int p = 0; p < numPlayers; p++) {
+            System.arraycopy(other.settlements[p], 0, settlements[p], 0, settlements[p].length);
+            System.arraycopy(other.streets[p], 0, streets[p], 0, streets[p].length);
+        }
+        System.arraycopy(other.occupiedVertices, 0, occupiedVertices, 0, occupiedVertices.length);
+        System.arraycopy(other.occupiedEdges, 0, occupiedEdges, 0, occupiedEdges.length);
+    }
+
+    /**
+     * Returns the number of vertices covered by the bitboards.
+     *
+     * @return the vertex count
+     */
+    public int getVertexCount() {
+        return numVertices;
+    }
+
+    /**
+     * Returns the number of edges covered by the bitboards.
+     *
+     * @return the edge count
+     */
+    public int getEdgeCount() {
+        return numEdges;
+    }
+
+    /**
+     * Estimates the heap retained by the bitboards and masks.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateFootprint() {
+        return MemoryFootprint.object(9, 12)
+                + 2 * MemoryFootprint.referenceArray(numPlayers)
+                + numPlayers * (MemoryFootprint.longArray(occupiedVertices.length)
+                + MemoryFootprint.longArray(occupiedEdges.length))
+                + MemoryFootprint.longArray(occupiedVertices.length)
+                + MemoryFootprint.longArray(occupiedEdges.length)
+                + MemoryFootprint.intArray(maskCount.length)
+                + MemoryFootprint.intArray(maskWord.length)
+                + MemoryFootprint.longArray(maskBits.length);
+    }
+}
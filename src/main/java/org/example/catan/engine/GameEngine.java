@@ -0,0 +1,1213 @@
+package org.example.catan.engine;
+
+import javafx.scene.paint.Color;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.example.catan.CatanBoard;
+import org.example.catan.gamepieces.Bank;
+import org.example.catan.gamepieces.Dice;
+import org.example.catan.gamepieces.Player;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.gamepieces.Resources;
+import org.example.catan.gamepieces.TradeOffer;
+import org.example.catan.gamepieces.buildings.Buildings;
+import org.example.catan.graph.HexTile;
+import org.example.catan.graph.IntTupel;
+import org.example.catan.graph.StreetGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * UI-free implementation of the Catan rules.
+ * Holds the complete state of one game and executes plain commands (roll, build street, build settlement,
+ * trade, bandit placement and end turn). Every command returns an {@link ActionResult}; rejected commands
+ * leave the state untouched, so the engine can be driven by the JavaFX client, bots or simulations alike.
+ */
+@Getter
+public class GameEngine {
+    /** Victory points a player needs to win the game. */
+    public static final int VICTORY_POINTS_TO_WIN = 5;
+
+    /** Number of cards of one resource the bank takes for a single card of another. */
+    public static final int BANK_TRADE_RATE = 4;
+
+    private final CatanBoard board;
+    private final List<Player> players;
+    private final Bank bank;
+    @Getter(AccessLevel.NONE)
+    private final Random random;
+    @Getter(AccessLevel.NONE)
+    private final Dice dice;
+    @Getter(AccessLevel.NONE)
+    private final TradeBook trades;
+    private final ProductionIndex productionIndex;
+    private final VertexYield vertexYield;
+    private final BoardOccupancy occupancy;
+    private final LongestRoad longestRoad;
+    private int currentPlayerIndex;
+    private int currentPlayerDiceRolls;
+    private boolean waitingForBandit;
+    private int lastRoll;
+    private StealOutcome lastSteal;
+    private IntTupel robberPosition;
+    private Player winner;
+    @Setter
+    private GameRecorder recorder = GameRecorder.NONE;
+    @Getter(AccessLevel.NONE)
+    private final UndoStack undoStack = new UndoStack();
+    private int undoDepth;
+    @Getter(AccessLevel.NONE)
+    private final ZobristKeys zobrist;
+    @Getter(AccessLevel.NONE)
+    private long boardHash;
+    @Getter(AccessLevel.NONE)
+    private long resourceHash;
+    @Getter(AccessLevel.NONE)
+    private final long[] handHashes;
+    @Getter(AccessLevel.NONE)
+    private long bankHash;
+    @Getter(AccessLevel.NONE)
+    private final ResourceVector demand = new ResourceVector();
+
+    /**
+     * Creates a new game on the given board. The robber starts on the desert tile.
+     *
+     * @param board   the board to play on
+     * @param players the players in turn order
+     * @param random  the random source for dice rolls and steals
+     */
+    public GameEngine(CatanBoard board, List<Player> players, Random random) {
+        this.board = board;
+        this.players = List.copyOf(players);
+        this.bank = new Bank();
+        this.random = random;
+        this.dice = new Dice(2, random);
+        this.productionIndex = new ProductionIndex(board, players.size());
+        this.vertexYield = new VertexYield(board);
+        this.occupancy = new BoardOccupancy(board.getGraph(), players.size());
+        this.longestRoad = new LongestRoad(board.getGraph(), occupancy, players.size());
+        this.trades = new TradeBook(players.size());
+        this.zobrist = ZobristKeys.of(players.size(), occupancy.getVertexCount(), occupancy.getEdgeCount());
+        this.handHashes = new long[players.size()];
+
+        for (Map.Entry<IntTupel, HexTile> entry : board.getBoard().entrySet()) {
+            if (entry.getValue().getResourceType() == Resources.NONE) {
+                entry.getValue().setBlocked(true);
+                robberPosition = entry.getKey();
+                break;
+            }
+        }
+        boardHash = zobrist.robber(robberPosition) ^ zobrist.longestRoad(longestRoad.getHolder());
+        rehashResources();
+    }
+
+    /**
+     * Creates a reproducible game: the board layout, dice and steals are all drawn from one random
+     * source seeded with {@code seed}, so the same seed and the same commands always lead to the same state.
+     *
+     * @param radius       the board radius
+     * @param playerColors the colors of the seated players in turn order
+     * @param seed         seed for the board layout, dice rolls and steals
+     * @return the new game
+     */
+    public static GameEngine newGame(int radius, List<Color> playerColors, long seed) {
+        Random random = new Random(seed);
+        CatanBoard board = new CatanBoard(radius, random);
+        List<Player> players = new ArrayList<>();
+        for (Color color : playerColors) {
+            players.add(new Player(color));
+        }
+        return new GameEngine(board, players, random);
+    }
+
+    /**
+     * Creates an independent copy of this game, e.g. for a search thread that explores moves without
+     * touching the live game. The copy has its own board, players, bank and indexes, reports to no
+     * recorder, has no moves to take back and does not remember the last steal.
+     *
+     * @param random the random source for the copy's dice rolls and steals
+     * @return the copy
+     */
+    public GameEngine copy(Random random) {
+        List<Player> playerCopies = new ArrayList<>(players.size());
+        for (Player player : players) {
+            playerCopies.add(new Player(player));
+        }
+        GameEngine copy = new GameEngine(new CatanBoard(board), playerCopies, random);
+        for (IntTupel coord : board.getHex_coords()) {
+            copy.board.getBoard().get(coord).setBlocked(board.getBoard().get(coord).isBlocked());
+        }
+        copy.robberPosition = robberPosition;
+        copy.bank.copyFrom(bank);
+        copy.occupancy.copyFrom(occupancy);
+        copy.longestRoad.copyFrom(longestRoad);
+        for (int v = 0; v < occupancy.getVertexCount(); v++) {
+            int owner = occupancy.getSettlementOwner(v);
+            if (owner != StreetGraph.NO_OWNER) {
+                copy.productionIndex.addSettlement(v, owner);
+            }
+        }
+        for (TradeOffer offer : trades.asList()) {
+            int sender = players.indexOf(offer.getSender());
+            copy.trades.add(new TradeOffer(playerCopies.get(sender),
+                    offer.getOffer().copy(), offer.getRequest().copy(), offer.isBankTrade()), sender);
+        }
+        copy.currentPlayerIndex = currentPlayerIndex;
+        copy.currentPlayerDiceRolls = currentPlayerDiceRolls;
+        copy.waitingForBandit = waitingForBandit;
+        copy.lastRoll = lastRoll;
+        copy.winner = winner == null ? null : playerCopies.get(players.indexOf(winner));
+        copy.boardHash = boardHash;
+        copy.rehashResources();
+        return copy;
+    }
+
+    /**
+     * Returns the Zobrist hash of the current position: the owners of all vertices and edges, the holder of
+     * the "Longest Road" award, the robber tile, the cards of every player and of the bank, and the turn phase. Equal positions reached through
+     * different move orders have equal hashes. Open player trade offers, the last roll and the last steal
+     * are not part of the position. The hash is updated incrementally with every command and move.
+     *
+     * @return the 64-bit hash
+     */
+    public long getHash() {
+        return boardHash ^ resourceHash ^ zobrist.phase(currentPlayerIndex, hasRolled(), waitingForBandit, isGameOver());
+    }
+
+    /**
+     * Recomputes the Zobrist hash of the current position from scratch, e.g. to verify {@link #getHash()}.
+     *
+     * @return the 64-bit hash
+     */
+    public long computeHash() {
+        long hash = zobrist.robber(robberPosition) ^ zobrist.longestRoad(longestRoad.getHolder());
+        for (int p = 0; p < players.size(); p++) {
+            for (int v = occupancy.nextSettlement(p, 0); v >= 0; v = occupancy.nextSettlement(p, v + 1)) {
+                hash ^= zobrist.settlement(p, v);
+            }
+            for (int e = occupancy.nextStreet(p, 0); e >= 0; e = occupancy.nextStreet(p, e + 1)) {
+                hash ^= zobrist.street(p, e);
+            }
+        }
+        hash ^= zobrist.bank(bank);
+        for (int p = 0; p < players.size(); p++) {
+            hash ^= zobrist.hand(p, players.get(p).getInventory());
+        }
+        return hash ^ zobrist.phase(currentPlayerIndex, hasRolled(), waitingForBandit, isGameOver());
+    }
+
+    /**
+     * Updates the hash after the "Longest Road" award may have changed hands.
+     *
+     * @param previousHolder the holder before the change
+     */
+    private void rehashHolder(int previousHolder) {
+        boardHash ^= zobrist.longestRoad(previousHolder) ^ zobrist.longestRoad(longestRoad.getHolder());
+    }
+
+    /**
+     * Updates the hash after the cards of a player changed.
+     *
+     * @param playerIndex index of the player
+     */
+    private void rehashHand(int playerIndex) {
+        resourceHash ^= handHashes[playerIndex];
+        handHashes[playerIndex] = zobrist.hand(playerIndex, players.get(playerIndex).getInventory());
+        resourceHash ^= handHashes[playerIndex];
+    }
+
+    /**
+     * Updates the hash after the cards of any player or of the bank changed.
+     */
+    private void rehashResources() {
+        for (int p = 0; p < players.size(); p++) {
+            rehashHand(p);
+        }
+        rehashBank();
+    }
+
+    /**
+     * Updates the hash after the cards of the bank changed.
+     */
+    private void rehashBank() {
+        resourceHash ^= bankHash;
+        bankHash = zobrist.bank(bank);
+        resourceHash ^= bankHash;
+    }
+
+    /**
+     * Updates the hash for the cards changed by a move, after making or taking it back.
+     *
+     * @param move the encoded move
+     */
+    private void rehashAfter(int move) {
+        switch (Move.type(move)) {
+            case Move.ROLL -> {
+                if (Move.rollTotal(move) != 7) {
+                    rehashResources();
+                    return;
+                }
+                rehashHand(currentPlayerIndex);
+                if (Move.stealVictim(move) >= 0) {
+                    rehashHand(Move.stealVictim(move));
+                }
+            }
+            case Move.SETTLEMENT, Move.STREET, Move.BANK_TRADE -> {
+                rehashHand(currentPlayerIndex);
+                rehashBank();
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Returns the player whose turn it is.
+     *
+     * @return the current player
+     */
+    public Player getCurrentPlayer() {
+        return players.get(currentPlayerIndex);
+    }
+
+    /**
+     * Returns the trade offers currently open for acceptance.
+     *
+     * @return a read-only view of the active trades in the order they were made
+     */
+    public List<TradeOffer> getActiveTrades() {
+        return trades.asList();
+    }
+
+    /**
+     * Finds a listed offer of another player that is compatible with an offer and that both players
+     * can currently afford.
+     *
+     * @param offer the offer to match
+     * @return the earliest such offer, or null if there is none
+     */
+    public TradeOffer findMatchingTrade(TradeOffer offer) {
+        Player sender = offer.getSender();
+        return trades.findMatch(offer, players.indexOf(sender), match -> sender.getInventory().covers(match.getRequest())
+                && match.getSender().getInventory().covers(match.getOffer()));
+    }
+
+    /**
+     * Checks whether the current player has already rolled in this turn.
+     *
+     * @return true if the dice were rolled
+     */
+    public boolean hasRolled() {
+        return currentPlayerDiceRolls > 0;
+    }
+
+    /**
+     * Checks whether a settlement may no longer be placed on a node,
+     * because it is occupied or adjacent to an existing settlement.
+     *
+     * @param nodeId the node to check
+     * @return true if the node is blocked
+     */
+    public boolean isNodeBlocked(int nodeId) {
+        return occupancy.isVertexBlocked(nodeId);
+    }
+
+    /**
+     * Returns the victory points of a player: settlements plus the "Longest Road" award.
+     *
+     * @param playerIndex index of the player
+     * @return the player's victory points
+     */
+    public int getVictoryPoints(int playerIndex) {
+        return players.get(playerIndex).getVictoryPoints() + longestRoad.getVictoryPoints(playerIndex);
+    }
+
+    /**
+     * Checks whether a player has won the game.
+     *
+     * @return true if the game is over
+     */
+    public boolean isGameOver() {
+        return winner != null;
+    }
+
+    /**
+     * Estimates the heap retained by this game: board, players, bank, indexes, open trades and the undo stack.
+     * An attached recorder is counted as a small object; the log or statistics it feeds and the Zobrist keys,
+     * which all games of the same dimensions share, are not counted. Used to enforce per-game memory budgets
+     * when many games share one JVM.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateFootprint() {
+        long total = MemoryFootprint.object(18, 41)
+                + MemoryFootprint.board(board)
+                + productionIndex.estimateFootprint()
+                + vertexYield.estimateFootprint()
+                + occupancy.estimateFootprint()
+                + longestRoad.estimateFootprint()
+                + MemoryFootprint.object(0, 8) + MemoryFootprint.resourceVector()
+                + MemoryFootprint.object(2, 8) + MemoryFootprint.object(1, 12)
+                + trades.estimateFootprint()
+                + undoStack.estimateFootprint()
+                + MemoryFootprint.longArray(handHashes.length)
+                + (recorder == GameRecorder.NONE ? 0 : MemoryFootprint.object(2, 12));
+        for (Player player : players) {
+            total += MemoryFootprint.player(player);
+        }
+        return total;
+    }
+
+    /**
+     * Rolls the dice for the current player.
+     * On a 7 a random card is stolen for the current player and the game waits for the bandit to be placed.
+     * Otherwise, every player receives the resources of their settlements on matching, unblocked tiles,
+     * unless the bank cannot pay a resource to all of them in full.
+     *
+     * @return {@link ActionResult#OK} or a rejection code
+     */
+    public ActionResult rollDice() {
+        if (isGameOver()) {
+            return ActionResult.GAME_OVER;
+        }
+        if (waitingForBandit) {
+            return ActionResult.WAITING_FOR_BANDIT;
+        }
+        if (hasRolled()) {
+            return ActionResult.ALREADY_ROLLED;
+        }
+
+        lastRoll = dice.rollDice();
+        recorder.diceRolled(currentPlayerIndex, lastRoll);
+
+        if (lastRoll == 7) {
+            waitingForBandit = true;
+            lastSteal = stealFromRandomPlayer();
+            recorder.resourceStolen(currentPlayerIndex,
+                    lastSteal.isSuccessful() ? players.indexOf(lastSteal.victim()) : -1,
+                    lastSteal.isSuccessful() ? lastSteal.resource().ordinal() : -1);
+            rehashResources();
+            return ActionResult.OK;
+        }
+
+        distributeResources(lastRoll);
+        currentPlayerDiceRolls++;
+        rehashResources();
+        return ActionResult.OK;
+    }
+
+    /**
+     * Hands out the grants the production index holds for a dice total.
+     * A resource the bank cannot pay to every player in full is paid to nobody.
+     *
+     * @param total the rolled dice total
+     */
+    void distributeResources(int total) {
+        int covered = takeProduction(total);
+        for (int p = 0; p < players.size() && covered != 0; p++) {
+            Player player = players.get(p);
+            for (int r = 0; r < ProductionIndex.RESOURCE_COUNT; r++) {
+                int amount = productionIndex.getGrant(total, p, r);
+                if (amount > 0 && (covered & 1 << r) != 0) {
+                    player.addResource(ResourceVector.resourceAt(r), amount);
+                    recorder.resourcesProduced(p, r, amount);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the production of a dice total out of the bank in one transaction.
+     *
+     * @param total the rolled dice total
+     * @return a bit mask of the resources the bank paid in full, see {@link Bank#takeCovered(ResourceVector)}
+     */
+    private int takeProduction(int total) {
+        if (!productionIndex.hasGrants(total)) {
+            return 0;
+        }
+        demand.fill(0);
+        for (int p = 0; p < players.size(); p++) {
+            for (int r = 0; r < ProductionIndex.RESOURCE_COUNT; r++) {
+                int amount = productionIndex.getGrant(total, p, r);
+                if (amount > 0) {
+                    demand.add(ResourceVector.resourceAt(r), amount);
+                }
+            }
+        }
+        return bank.takeCovered(demand);
+    }
+
+    /**
+     * Builds a street for the current player between two adjacent nodes.
+     *
+     * @param nodeA one end of the street
+     * @param nodeB the other end of the street
+     * @return {@link ActionResult#OK} or a rejection code
+     */
+    public ActionResult buildStreet(int nodeA, int nodeB) {
+        ActionResult phase = checkBuildPhase();
+        if (phase != ActionResult.OK) {
+            return phase;
+        }
+        StreetGraph graph = board.getGraph();
+        if (nodeA < 0 || nodeB < 0 || nodeA >= graph.getNodeCount() || nodeB >= graph.getNodeCount()) {
+            return ActionResult.INVALID_EDGE;
+        }
+        int edge = graph.getEdgeId(nodeA, nodeB);
+        if (edge < 0) {
+            return ActionResult.INVALID_EDGE;
+        }
+        ActionResult check = checkStreet(edge);
+        if (check != ActionResult.OK) {
+            return check;
+        }
+        Player player = getCurrentPlayer();
+        if (!player.claimPiece(Buildings.STREET)) {
+            return ActionResult.PIECE_LIMIT_REACHED;
+        }
+
+        if (!occupyStreet(edge)) {
+            player.releasePiece(Buildings.STREET);
+            return ActionResult.NO_PIECES_LEFT;
+        }
+        rehashHand(currentPlayerIndex);
+        rehashBank();
+        recorder.streetBuilt(currentPlayerIndex, edge);
+        return ActionResult.OK;
+    }
+
+    /**
+     * Checks whether the current player may build on a free street slot, apart from the turn phase.
+     *
+     * @param edge the edge to build on
+     * @return {@link ActionResult#OK} or a rejection code
+     */
+    private ActionResult checkStreet(int edge) {
+        if (occupancy.isEdgeOccupied(edge)) {
+            return ActionResult.EDGE_OCCUPIED;
+        }
+        Player player = getCurrentPlayer();
+        if (!player.canAfford(Buildings.STREET)) {
+            return ActionResult.INSUFFICIENT_RESOURCES;
+        }
+        if (!player.hasPieceLeft(Buildings.STREET)) {
+            return ActionResult.PIECE_LIMIT_REACHED;
+        }
+        return ActionResult.OK;
+    }
+
+    /**
+     * Buys a street of the current player from the bank, puts it on the board and updates all indexes.
+     *
+     * @param edge the edge built on
+     * @return true if the bank had a street left, false if nothing changed
+     */
+    private boolean occupyStreet(int edge) {
+        if (!bank.sellPiece(Buildings.STREET)) {
+            return false;
+        }
+        boardHash ^= zobrist.street(currentPlayerIndex, edge);
+        board.getGraph().setOwner(edge, currentPlayerIndex);
+        occupancy.placeStreet(currentPlayerIndex, edge);
+        int previousHolder = longestRoad.getHolder();
+        longestRoad.onStreetPlaced(currentPlayerIndex, edge);
+        rehashHolder(previousHolder);
+        return true;
+    }
+
+    /**
+     * Builds a settlement for the current player. The node and its neighbors are blocked
+     * for further settlements according to the distance rule.
+     *
+     * @param nodeId the node to build on
+     * @return {@link ActionResult#OK} or a rejection code
+     */
+    public ActionResult buildSettlement(int nodeId) {
+        ActionResult phase = checkBuildPhase();
+        if (phase != ActionResult.OK) {
+            return phase;
+        }
+        ActionResult check = checkSettlement(nodeId);
+        if (check != ActionResult.OK) {
+            return check;
+        }
+        Player player = getCurrentPlayer();
+        if (!player.claimPiece(Buildings.SETTLEMENT)) {
+            return ActionResult.PIECE_LIMIT_REACHED;
+        }
+
+        if (!occupySettlement(nodeId)) {
+            player.releasePiece(Buildings.SETTLEMENT);
+            return ActionResult.NO_PIECES_LEFT;
+        }
+        rehashHand(currentPlayerIndex);
+        rehashBank();
+        recorder.settlementBuilt(currentPlayerIndex, nodeId);
+        return ActionResult.OK;
+    }
+
+    /**
+     * Checks whether the current player may build a settlement on a node, apart from the turn phase.
+     *
+     * @param nodeId the node to build on
+     * @return {@link ActionResult#OK} or a rejection code
+     */
+    private ActionResult checkSettlement(int nodeId) {
+        if (nodeId < 0 || nodeId >= occupancy.getVertexCount() || occupancy.isVertexBlocked(nodeId)) {
+            return ActionResult.NODE_BLOCKED;
+        }
+        Player player = getCurrentPlayer();
+        if (!player.canAfford(Buildings.SETTLEMENT)) {
+            return ActionResult.INSUFFICIENT_RESOURCES;
+        }
+        if (!player.hasPieceLeft(Buildings.SETTLEMENT)) {
+            return ActionResult.PIECE_LIMIT_REACHED;
+        }
+        return ActionResult.OK;
+    }
+
+    /**
+     * Buys a settlement of the current player from the bank, puts it on the board and updates all indexes.
+     *
+     * @param nodeId the node built on
+     * @return true if the bank had a settlement left, false if nothing changed
+     */
+    private boolean occupySettlement(int nodeId) {
+        if (!bank.sellPiece(Buildings.SETTLEMENT)) {
+            return false;
+        }
+        boardHash ^= zobrist.settlement(currentPlayerIndex, nodeId);
+        productionIndex.addSettlement(nodeId, currentPlayerIndex);
+        occupancy.placeSettlement(currentPlayerIndex, nodeId);
+        int previousHolder = longestRoad.getHolder();
+        longestRoad.onSettlementPlaced(currentPlayerIndex, nodeId);
+        rehashHolder(previousHolder);
+        return true;
+    }
+
+    /**
+     * Submits a trade offer of the current player; offers of any other player are rejected.
+     * Bank trades (4:1) are executed immediately.
+     * An offer to other players that is compatible with a listed offer both sides can afford is executed
+     * right away by accepting the listed offer; otherwise it is listed until accepted or until the sender's
+     * next turn begins.
+     *
+     * @param offer the trade offer
+     * @return {@link ActionResult#OK}, {@link ActionResult#TRADE_MATCHED} or a rejection code
+     */
+    public ActionResult offerTrade(TradeOffer offer) {
+        ActionResult phase = checkBuildPhase();
+        if (phase != ActionResult.OK) {
+            return phase;
+        }
+        if (!getCurrentPlayer().equals(offer.getSender())) {
+            return ActionResult.NOT_CURRENT_PLAYER;
+        }
+        if (!offer.isBankTrade()) {
+            TradeOffer match = findMatchingTrade(offer);
+            if (match != null) {
+                exchange(match);
+                return ActionResult.TRADE_MATCHED;
+            }
+            trades.add(offer, currentPlayerIndex);
+            recorder.tradeOffered(currentPlayerIndex, offer.getOffer(), offer.getRequest());
+            return ActionResult.OK;
+        }
+
+        Player player = offer.getSender();
+        ResourceVector give = offer.getOffer();
+        ResourceVector want = offer.getRequest();
+
+        if (give.distinct() != 1 || give.total() != BANK_TRADE_RATE || want.total() != 1) {
+            return ActionResult.INVALID_BANK_TRADE;
+        }
+        if (!player.getInventory().covers(give)) {
+            return ActionResult.INSUFFICIENT_RESOURCES;
+        }
+        if (!bank.exchange(give.first(), BANK_TRADE_RATE, want.first(), 1)) {
+            return ActionResult.BANK_EMPTY;
+        }
+
+        player.getInventory().subtract(give);
+        player.getInventory().add(want);
+        rehashHand(currentPlayerIndex);
+        rehashBank();
+        recorder.bankTraded(currentPlayerIndex, give.first().ordinal(), want.first().ordinal());
+        return ActionResult.OK;
+    }
+
+    /**
+     * Accepts a listed trade offer on behalf of the current player and swaps the resources.
+     *
+     * @param offer the trade offer to accept
+     * @return {@link ActionResult#OK} or a rejection code
+     */
+    public ActionResult acceptTrade(TradeOffer offer) {
+        ActionResult phase = checkBuildPhase();
+        if (phase != ActionResult.OK) {
+            return phase;
+        }
+        if (!trades.contains(offer)) {
+            return ActionResult.TRADE_NOT_AVAILABLE;
+        }
+        Player receiver = getCurrentPlayer();
+        Player sender = offer.getSender();
+        if (receiver.equals(sender)) {
+            return ActionResult.OWN_TRADE;
+        }
+
+        ResourceVector give = offer.getOffer();
+        ResourceVector want = offer.getRequest();
+
+        if (!receiver.getInventory().covers(want)) {
+            return ActionResult.INSUFFICIENT_RESOURCES;
+        }
+        if (!sender.getInventory().covers(give)) {
+            return ActionResult.SENDER_INSUFFICIENT_RESOURCES;
+        }
+
+        exchange(offer);
+        return ActionResult.OK;
+    }
+
+    /**
+     * Swaps the resources of a listed offer between its sender and the current player and takes it off the book.
+     *
+     * @param offer the offer, affordable for both players
+     */
+    private void exchange(TradeOffer offer) {
+        Player receiver = getCurrentPlayer();
+        Player sender = offer.getSender();
+        receiver.getInventory().subtract(offer.getRequest());
+        sender.getInventory().subtract(offer.getOffer());
+        receiver.getInventory().add(offer.getOffer());
+        sender.getInventory().add(offer.getRequest());
+
+        offer.accept(receiver);
+        int offerIndex = trades.indexOf(offer);
+        trades.remove(offer);
+        rehashHand(currentPlayerIndex);
+        rehashHand(players.indexOf(sender));
+        recorder.tradeAccepted(currentPlayerIndex, offerIndex);
+    }
+
+    /**
+     * Executes a move produced by the {@link MoveGenerator}, translating it to the matching command.
+     *
+     * @param move the encoded move
+     * @return the result of the command
+     */
+    public ActionResult applyMove(int move) {
+        int argument = Move.argument(move);
+        return switch (Move.type(move)) {
+            case Move.ROLL -> rollDice();
+            case Move.SETTLEMENT -> buildSettlement(argument);
+            case Move.STREET -> {
+                StreetGraph graph = board.getGraph();
+                if (argument >= graph.getEdgeCount()) {
+                    yield ActionResult.INVALID_EDGE;
+                }
+                yield buildStreet(graph.getNodeA(argument), graph.getNodeB(argument));
+            }
+            case Move.BANK_TRADE -> offerTrade(new TradeOffer(getCurrentPlayer(),
+                    ResourceVector.of(ResourceVector.resourceAt(Move.tradeGive(move)), BANK_TRADE_RATE),
+                    ResourceVector.of(ResourceVector.resourceAt(Move.tradeWant(move)), 1), true));
+            case Move.PLACE_BANDIT -> argument < board.getHex_coords().length
+                    ? placeBandit(board.getHex_coords()[argument])
+                    : ActionResult.INVALID_TILE;
+            case Move.END_TURN -> endTurn();
+            default -> throw new IllegalArgumentException("Unknown move: " + move);
+        };
+    }
+
+    /**
+     * Makes a move in place so that it can be taken back with {@link #unmakeMove()}, for searches that
+     * explore positions without copying the game. Only the deltas needed to revert the move are stored
+     * on an internal stack, and nothing is reported to the {@link GameRecorder}.
+     * Unlike {@link #applyMove(int)}, a {@link Move#ROLL} must name its outcome (see {@link Move#roll(int)}
+     * and {@link Move#rollSeven(int, int)}), since a search treats the dice and the steal as chance outcomes
+     * and must not consume the game's random source.
+     *
+     * @param move the encoded move
+     * @return the result of the move; rejected moves change nothing and are not pushed
+     */
+    public ActionResult makeMove(int move) {
+        int argument = Move.argument(move);
+        ActionResult result = switch (Move.type(move)) {
+            case Move.ROLL -> makeRoll(move);
+            case Move.SETTLEMENT -> makeSettlement(argument);
+            case Move.STREET -> makeStreet(argument);
+            case Move.BANK_TRADE -> makeBankTrade(Move.tradeGive(move), Move.tradeWant(move));
+            case Move.PLACE_BANDIT -> makeBandit(argument);
+            case Move.END_TURN -> makeEndTurn();
+            default -> throw new IllegalArgumentException("Unknown move: " + move);
+        };
+        if (result.isAccepted()) {
+            undoStack.push(move);
+            undoDepth++;
+            rehashAfter(move);
+        }
+        return result;
+    }
+
+    /**
+     * Takes back the last move made with {@link #makeMove(int)}, restoring the exact previous state.
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if (undoDepth == 0) {
+            throw new IllegalStateException("No move to take back.");
+        }
+        undoDepth--;
+        int move = undoStack.pop();
+        int argument = Move.argument(move);
+        switch (Move.type(move)) {
+            case Move.ROLL -> unmakeRoll(move);
+            case Move.SETTLEMENT -> unmakeSettlement(argument);
+            case Move.STREET -> unmakeStreet(argument);
+            case Move.BANK_TRADE -> {
+                ResourceVector hand = getCurrentPlayer().getInventory();
+                Resources given = ResourceVector.resourceAt(Move.tradeGive(move));
+                Resources wanted = ResourceVector.resourceAt(Move.tradeWant(move));
+                hand.remove(wanted, 1);
+                hand.add(given, BANK_TRADE_RATE);
+                bank.exchange(wanted, 1, given, BANK_TRADE_RATE);
+            }
+            case Move.PLACE_BANDIT -> unmakeBandit(argument);
+            case Move.END_TURN -> unmakeEndTurn();
+            default -> throw new IllegalStateException("Unknown move on the undo stack: " + move);
+        }
+        rehashAfter(move);
+    }
+
+    /**
+     * Rolls a given dice outcome and hands out the production, recording what each player received.
+     *
+     * @param move the encoded roll naming its outcome
+     * @return {@link ActionResult#OK} or a rejection code
+     */
+    private ActionResult makeRoll(int move) {
+        if (isGameOver()) {
+            return ActionResult.GAME_OVER;
+        }
+        if (waitingForBandit) {
+            return ActionResult.WAITING_FOR_BANDIT;
+        }
+        if (hasRolled()) {
+            return ActionResult.ALREADY_ROLLED;
+        }
+        int total = Move.rollTotal(move);
+        if (total < 2 || total > 12 || !isPossibleSteal(move)) {
+            return ActionResult.INVALID_ROLL;
+        }
+
+        undoStack.push(lastRoll);
+        lastRoll = total;
+        int grants = 0;
+        if (total == 7) {
+            int victim = Move.stealVictim(move);
+            if (victim >= 0) {
+                Resources stolen = ResourceVector.resourceAt(Move.stealResource(move));
+                players.get(victim).removeResource(stolen, 1);
+                getCurrentPlayer().addResource(stolen, 1);
+            }
+            waitingForBandit = true;
+        } else {
+            int covered = takeProduction(total);
+            for (int p = 0; p < players.size() && covered != 0; p++) {
+                for (int r = 0; r < ProductionIndex.RESOURCE_COUNT; r++) {
+                    int amount = productionIndex.getGrant(total, p, r);
+                    if (amount > 0 && (covered & 1 << r) != 0) {
+                        players.get(p).addResource(ResourceVector.resourceAt(r), amount);
+                        undoStack.push(p * ProductionIndex.RESOURCE_COUNT + r);
+                        undoStack.push(amount);
+                        grants++;
+                    }
+                }
+            }
+            currentPlayerDiceRolls++;
+        }
+        undoStack.push(grants);
+        return ActionResult.OK;
+    }
+
+    /**
+     * Checks the steal named by a roll: only a 7 steals, never from the roller, and only a resource
+     * the victim holds.
+     *
+     * @param move the encoded roll
+     * @return true if the roll steals nothing or a card that can be stolen
+     */
+    private boolean isPossibleSteal(int move) {
+        int victim = Move.stealVictim(move);
+        if (victim < 0) {
+            return true;
+        }
+        return Move.rollTotal(move) == 7
+                && victim < players.size()
+                && victim != currentPlayerIndex
+                && Move.stealResource(move) < ResourceVector.SIZE
+                && players.get(victim).getInventory().get(Move.stealResource(move)) > 0;
+    }
+
+    /**
+     * Takes back a roll: the handed out resources return to the bank and a stolen card to its owner.
+     *
+     * @param move the encoded roll
+     */
+    private void unmakeRoll(int move) {
+        int grants = undoStack.pop();
+        for (int i = 0; i < grants; i++) {
+            int taken = undoStack.pop();
+            int slot = undoStack.pop();
+            Resources resource = ResourceVector.resourceAt(slot % ProductionIndex.RESOURCE_COUNT);
+            players.get(slot / ProductionIndex.RESOURCE_COUNT).removeResource(resource, taken);
+            bank.returnResource(resource, taken);
+        }
+        if (Move.rollTotal(move) == 7) {
+            int victim = Move.stealVictim(move);
+            if (victim >= 0) {
+                Resources stolen = ResourceVector.resourceAt(Move.stealResource(move));
+                getCurrentPlayer().removeResource(stolen, 1);
+                players.get(victim).addResource(stolen, 1);
+            }
+            waitingForBandit = false;
+        } else {
+            currentPlayerDiceRolls--;
+        }
+        lastRoll = undoStack.pop();
+    }
+
+    /**
+     * Builds a settlement for the current player, remembering the previous "Longest Road" holder.
+     *
+     * @param nodeId the node to build on
+     * @return {@link ActionResult#OK} or a rejection code
+     */
+    private ActionResult makeSettlement(int nodeId) {
+        ActionResult check = checkBuildPhase();
+        if (check == ActionResult.OK) {
+            check = checkSettlement(nodeId);
+        }
+        if (check != ActionResult.OK) {
+            return check;
+        }
+        Player player = getCurrentPlayer();
+        player.claimPiece(Buildings.SETTLEMENT);
+        int holder = longestRoad.getHolder();
+        if (!occupySettlement(nodeId)) {
+            player.releasePiece(Buildings.SETTLEMENT);
+            return ActionResult.NO_PIECES_LEFT;
+        }
+        undoStack.push(holder);
+        return ActionResult.OK;
+    }
+
+    /**
+     * Takes back a settlement of the current player.
+     *
+     * @param nodeId the node it was built on
+     */
+    private void unmakeSettlement(int nodeId) {
+        int previousHolder = undoStack.pop();
+        int holder = longestRoad.getHolder();
+        boardHash ^= zobrist.settlement(currentPlayerIndex, nodeId);
+        occupancy.removeSettlement(currentPlayerIndex, nodeId);
+        productionIndex.removeSettlement(nodeId);
+        longestRoad.onSettlementRemoved(currentPlayerIndex, nodeId, previousHolder);
+        rehashHolder(holder);
+        refundPiece(Buildings.SETTLEMENT);
+        getCurrentPlayer().releasePiece(Buildings.SETTLEMENT);
+    }
+
+    /**
+     * Builds a street for the current player, remembering the previous "Longest Road" holder.
+     *
+     * @param edge the edge to build on
+     * @return {@link ActionResult#OK} or a rejection code
+     */
+    private ActionResult makeStreet(int edge) {
+        ActionResult check = checkBuildPhase();
+        if (check == ActionResult.OK) {
+            check = edge < occupancy.getEdgeCount() ? checkStreet(edge) : ActionResult.INVALID_EDGE;
+        }
+        if (check != ActionResult.OK) {
+            return check;
+        }
+        Player player = getCurrentPlayer();
+        player.claimPiece(Buildings.STREET);
+        int holder = longestRoad.getHolder();
+        if (!occupyStreet(edge)) {
+            player.releasePiece(Buildings.STREET);
+            return ActionResult.NO_PIECES_LEFT;
+        }
+        undoStack.push(holder);
+        return ActionResult.OK;
+    }
+
+    /**
+     * Takes back a street of the current player.
+     *
+     * @param edge the edge it was built on
+     */
+    private void unmakeStreet(int edge) {
+        int previousHolder = undoStack.pop();
+        int holder = longestRoad.getHolder();
+        boardHash ^= zobrist.street(currentPlayerIndex, edge);
+        board.getGraph().setOwner(edge, StreetGraph.NO_OWNER);
+        occupancy.removeStreet(currentPlayerIndex, edge);
+        longestRoad.onStreetRemoved(currentPlayerIndex, edge, previousHolder);
+        rehashHolder(holder);
+        refundPiece(Buildings.STREET);
+        getCurrentPlayer().releasePiece(Buildings.STREET);
+    }
+
+    /**
+     * Takes a piece back into the bank and pays out its cost, which the bank received when the piece was built.
+     *
+     * @param building the building type
+     * @throws IllegalStateException if the bank no longer holds the cost, i.e. moves were not taken back in order
+     */
+    private void refundPiece(Buildings building) {
+        if (!bank.refundPiece(building)) {
+            throw new IllegalStateException("The bank cannot refund a " + building + ".");
+        }
+    }
+
+    /**
+     * Trades four cards of one resource for one card of another with the bank.
+     *
+     * @param give index of the resource given
+     * @param want index of the resource received
+     * @return {@link ActionResult#OK} or a rejection code
+     */
+    private ActionResult makeBankTrade(int give, int want) {
+        ActionResult phase = checkBuildPhase();
+        if (phase != ActionResult.OK) {
+            return phase;
+        }
+        if (give >= ResourceVector.SIZE || want >= ResourceVector.SIZE) {
+            return ActionResult.INVALID_BANK_TRADE;
+        }
+        ResourceVector hand = getCurrentPlayer().getInventory();
+        Resources given = ResourceVector.resourceAt(give);
+        Resources wanted = ResourceVector.resourceAt(want);
+        if (hand.get(given) < BANK_TRADE_RATE) {
+            return ActionResult.INSUFFICIENT_RESOURCES;
+        }
+        if (!bank.exchange(given, BANK_TRADE_RATE, wanted, 1)) {
+            return ActionResult.BANK_EMPTY;
+        }
+        hand.remove(given, BANK_TRADE_RATE);
+        hand.add(wanted, 1);
+        return ActionResult.OK;
+    }
+
+    /**
+     * Moves the bandit, remembering its previous tile.
+     *
+     * @param tileIndex index of the target tile in {@code CatanBoard.getHex_coords()}
+     * @return {@link ActionResult#OK} or a rejection code
+     */
+    private ActionResult makeBandit(int tileIndex) {
+        if (isGameOver()) {
+            return ActionResult.GAME_OVER;
+        }
+        if (!waitingForBandit) {
+            return ActionResult.NOT_WAITING_FOR_BANDIT;
+        }
+        if (tileIndex >= board.getHex_coords().length) {
+            return ActionResult.INVALID_TILE;
+        }
+        IntTupel coord = board.getHex_coords()[tileIndex];
+        undoStack.pushRef(robberPosition);
+        if (robberPosition != null) {
+            board.getBoard().get(robberPosition).setBlocked(false);
+        }
+        board.getBoard().get(coord).setBlocked(true);
+        boardHash ^= zobrist.robber(robberPosition) ^ zobrist.robber(coord);
+        robberPosition = coord;
+        waitingForBandit = false;
+        currentPlayerDiceRolls++;
+        return ActionResult.OK;
+    }
+
+    /**
+     * Moves the bandit back to its previous tile.
+     *
+     * @param tileIndex index of the tile it was moved to
+     */
+    private void unmakeBandit(int tileIndex) {
+        board.getBoard().get(board.getHex_coords()[tileIndex]).setBlocked(false);
+        IntTupel previous = undoStack.popRef();
+        if (previous != null) {
+            board.getBoard().get(previous).setBlocked(true);
+        }
+        boardHash ^= zobrist.robber(robberPosition) ^ zobrist.robber(previous);
+        robberPosition = previous;
+        waitingForBandit = true;
+        currentPlayerDiceRolls--;
+    }
+
+    /**
+     * Ends the turn or wins the game, remembering the expired trade offers of the next player.
+     *
+     * @return {@link ActionResult#OK}, {@link ActionResult#GAME_WON} or a rejection code
+     */
+    private ActionResult makeEndTurn() {
+        if (isGameOver()) {
+            return ActionResult.GAME_OVER;
+        }
+        if (getVictoryPoints(currentPlayerIndex) >= VICTORY_POINTS_TO_WIN) {
+            winner = getCurrentPlayer();
+            return ActionResult.GAME_WON;
+        }
+        if (!hasRolled()) {
+            return ActionResult.END_TURN_NOT_ROLLED;
+        }
+        if (waitingForBandit) {
+            return ActionResult.WAITING_FOR_BANDIT;
+        }
+
+        undoStack.push(currentPlayerDiceRolls);
+        currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
+        currentPlayerDiceRolls = 0;
+        undoStack.push(trades.expire(currentPlayerIndex, undoStack));
+        return ActionResult.OK;
+    }
+
+    /**
+     * Takes back the end of a turn or the win.
+     */
+    private void unmakeEndTurn() {
+        if (winner != null) {
+            winner = null;
+            return;
+        }
+        int expired = undoStack.pop();
+        for (int i = 0; i < expired; i++) {
+            int sequence = undoStack.pop();
+            trades.restore(undoStack.popRef(), currentPlayerIndex, sequence);
+        }
+        currentPlayerDiceRolls = undoStack.pop();
+        currentPlayerIndex = (currentPlayerIndex - 1 + players.size()) % players.size();
+    }
+
+    /**
+     * Moves the bandit to a tile after a 7 was rolled. The new tile is blocked and the previous one released.
+     *
+     * @param coord the axial coordinate of the target tile
+     * @return {@link ActionResult#OK} or a rejection code
+     */
+    public ActionResult placeBandit(IntTupel coord) {
+        if (isGameOver()) {
+            return ActionResult.GAME_OVER;
+        }
+        if (!waitingForBandit) {
+            return ActionResult.NOT_WAITING_FOR_BANDIT;
+        }
+        HexTile selectedTile = board.getBoard().get(coord);
+        if (selectedTile == null) {
+            return ActionResult.INVALID_TILE;
+        }
+
+        if (robberPosition != null) {
+            board.getBoard().get(robberPosition).setBlocked(false);
+        }
+        selectedTile.setBlocked(true);
+        boardHash ^= zobrist.robber(robberPosition) ^ zobrist.robber(coord);
+        robberPosition = coord;
+
+        waitingForBandit = false;
+        currentPlayerDiceRolls++;
+        recorder.banditPlaced(currentPlayerIndex, coord.q(), coord.r());
+        return ActionResult.OK;
+    }
+
+    /**
+     * Ends the turn of the current player. If the player has reached the required victory points,
+     * the game is won instead. Open offers of the next player expire when their turn begins.
+     *
+     * @return {@link ActionResult#OK}, {@link ActionResult#GAME_WON} or a rejection code
+     */
+    public ActionResult endTurn() {
+        if (isGameOver()) {
+            return ActionResult.GAME_OVER;
+        }
+        Player player = getCurrentPlayer();
+        if (getVictoryPoints(currentPlayerIndex) >= VICTORY_POINTS_TO_WIN) {
+            winner = player;
+            recorder.turnEnded(currentPlayerIndex, true);
+            return ActionResult.GAME_WON;
+        }
+        if (!hasRolled()) {
+            return ActionResult.END_TURN_NOT_ROLLED;
+        }
+        if (waitingForBandit) {
+            return ActionResult.WAITING_FOR_BANDIT;
+        }
+
+        recorder.turnEnded(currentPlayerIndex, false);
+        currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
+        currentPlayerDiceRolls = 0;
+        trades.expire(currentPlayerIndex);
+        return ActionResult.OK;
+    }
+
+    /**
+     * Checks the preconditions shared by building and trading: the game is running,
+     * no bandit placement is pending and the dice were rolled.
+     *
+     * @return {@link ActionResult#OK} or a rejection code
+     */
+    private ActionResult checkBuildPhase() {
+        if (isGameOver()) {
+            return ActionResult.GAME_OVER;
+        }
+        if (waitingForBandit) {
+            return ActionResult.WAITING_FOR_BANDIT;
+        }
+        if (!hasRolled()) {
+            return ActionResult.NOT_ROLLED;
+        }
+        return ActionResult.OK;
+    }
+
+    /**
+     * Steals a random resource from a random other player who has at least one card.
+     *
+     * @return the outcome of the steal, with a null victim if no player had anything to steal
+     */
+    private StealOutcome stealFromRandomPlayer() {
+        Player thief = getCurrentPlayer();
+        List<Player> candidates = new ArrayList<>();
+        for (Player p : players) {
+            if (!p.equals(thief) && !p.getInventory().isEmpty()) {
+                candidates.add(p);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return new StealOutcome(thief, null, null);
+        }
+
+        Player victim = candidates.get(random.nextInt(candidates.size()));
+
+        List<Resources> victimResources = new ArrayList<>();
+        for (int r = 0; r < ResourceVector.SIZE; r++) {
+            if (victim.getInventory().get(r) > 0) {
+                victimResources.add(ResourceVector.resourceAt(r));
+            }
+        }
+
+        Resources stolen = victimResources.get(random.nextInt(victimResources.size()));
+        victim.removeResource(stolen, 1);
+        thief.addResource(stolen, 1);
+        return new StealOutcome(thief, victim, stolen);
+    }
+}
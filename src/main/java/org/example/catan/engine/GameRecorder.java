@@ -0,0 +1,188 @@
+package org.example.catan.engine;
+
+import org.example.catan.gamepieces.ResourceVector;
+
+/**
+ * Receives every state change of a {@link GameEngine} as it happens, e.g. to write an event log.
+ * Players and resources are passed as indexes (player order, {@link ResourceVector} index), so recording
+ * needs no lookups or allocation. Calls happen on the thread executing the command.
+ */
+public interface GameRecorder {
+    /** Recorder that drops all events. */
+    GameRecorder NONE = new GameRecorder() {
+    };
+
+    /**
+     * Called after the dice were rolled.
+     *
+     * @param player index of the rolling player
+     * @param total  the rolled total
+     */
+    default void diceRolled(int player, int total) {
+    }
+
+    /**
+     * Called after the steal that follows a rolled 7.
+     *
+     * @param thief    index of the player who rolled the 7
+     * @param victim   index of the player who lost a card, -1 if nothing was stolen
+     * @param resource index of the stolen resource, -1 if nothing was stolen
+     */
+    default void resourceStolen(int thief, int victim, int resource) {
+    }
+
+    /**
+     * Called after the dice were rolled, for every grant the bank paid, once per player and resource.
+     * Rolls that pay nothing report nothing. The grants follow from the board, so logs do not store them.
+     *
+     * @param player   index of the receiving player
+     * @param resource index of the produced resource
+     * @param amount   number of cards received
+     */
+    default void resourcesProduced(int player, int resource, int amount) {
+    }
+
+    /**
+     * Called after a street was built.
+     *
+     * @param player index of the building player
+     * @param edge   the edge built on
+     */
+    default void streetBuilt(int player, int edge) {
+    }
+
+    /**
+     * Called after a settlement was built.
+     *
+     * @param player index of the building player
+     * @param vertex the vertex built on
+     */
+    default void settlementBuilt(int player, int vertex) {
+    }
+
+    /**
+     * Called after a 4:1 trade with the bank.
+     *
+     * @param player index of the trading player
+     * @param give   index of the resource given four times
+     * @param want   index of the resource received
+     */
+    default void bankTraded(int player, int give, int want) {
+    }
+
+    /**
+     * Called after a trade offer was listed for the other players.
+     *
+     * @param player  index of the offering player
+     * @param offer   the resources offered
+     * @param request the resources requested in return
+     */
+    default void tradeOffered(int player, ResourceVector offer, ResourceVector request) {
+    }
+
+    /**
+     * Called after a listed trade offer was accepted.
+     *
+     * @param player     index of the accepting player
+     * @param offerIndex position of the offer in the list of active trades before it was removed
+     */
+    default void tradeAccepted(int player, int offerIndex) {
+    }
+
+    /**
+     * Called after the bandit was moved.
+     *
+     * @param player index of the player who moved it
+     * @param q      axial q coordinate of the new tile
+     * @param r      axial r coordinate of the new tile
+     */
+    default void banditPlaced(int player, int q, int r) {
+    }
+
+    /**
+     * Called after a turn ended, or after the current player won instead.
+     *
+     * @param player index of the player whose turn ended
+     * @param won    true if the player won the game
+     */
+    default void turnEnded(int player, boolean won) {
+    }
+
+    /**
+     * Returns a recorder that passes every event to this recorder and then to another one,
+     * e.g. to write a log and inform connected players at the same time.
+     *
+     * @param next the recorder called second
+     * @return the combined recorder
+     */
+    default GameRecorder andThen(GameRecorder next) {
+        GameRecorder first = this;
+        if (first == NONE) {
+            return next;
+        }
+        if (next == NONE) {
+            return first;
+        }
+        return new GameRecorder() {
+            @Override
+            public void diceRolled(int player, int total) {
+                first.diceRolled(player, total);
+                next.diceRolled(player, total);
+            }
+
+            @Override
+            public void resourceStolen(int thief, int victim, int resource) {
+                first.resourceStolen(thief, victim, resource);
+                next.resourceStolen(thief, victim, resource);
+            }
+
+            @Override
+            public void resourcesProduced(int player, int resource, int amount) {
+                first.resourcesProduced(player, resource, amount);
+                next.resourcesProduced(player, resource, amount);
+            }
+
+            @Override
+            public void streetBuilt(int player, int edge) {
+                first.streetBuilt(player, edge);
+                next.streetBuilt(player, edge);
+            }
+
+            @Override
+            public void settlementBuilt(int player, int vertex) {
+                first.settlementBuilt(player, vertex);
+                next.settlementBuilt(player, vertex);
+            }
+
+            @Override
+            public void bankTraded(int player, int give, int want) {
+                first.bankTraded(player, give, want);
+                next.bankTraded(player, give, want);
+            }
+
+            @Override
+            public void tradeOffered(int player, ResourceVector offer, ResourceVector request) {
+                first.tradeOffered(player, offer, request);
+                next.tradeOffered(player, offer, request);
+            }
+
+            @Override
+            public void tradeAccepted(int player, int offerIndex) {
+                first.tradeAccepted(player, offerIndex);
+                next.tradeAccepted(player, offerIndex);
+            }
+
+            @Override
+            public void banditPlaced(int player, int q, int r) {
+                first.banditPlaced(player, q, r);
+                next.banditPlaced(player, q, r);
+            }
+
+            @Override
+            public void turnEnded(int player, boolean won) {
+                first.turnEnded(player, won);
+                next.turnEnded(player, won);
+            }
+        };
+    }
+}
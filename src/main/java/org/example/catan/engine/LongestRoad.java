@@ -0,0 +1,328 @@
+package org.example.catan.engine;
+
+import org.example.catan.graph.StreetGraph;
+
+import java.util.Arrays;
+
+/**
+ * Incrementally maintained longest road of every player and the holder of the "Longest Road" award.
+ * A road is a trail over a player's streets that uses every street at most once and cannot pass
+ * through a vertex holding an opponent's settlement. Streets are grouped into connected components;
+ * a new street only recomputes its own component, and a new settlement only recomputes the
+ * opponents' components running through that vertex.
+ */
+public class LongestRoad {
+    /** Minimum road length required to claim the award. */
+    public static final int MIN_LENGTH = 5;
+
+    /** Victory points granted by the award. */
+    public static final int VICTORY_POINTS = 2;
+
+    private final StreetGraph graph;
+    private final BoardOccupancy occupancy;
+    private final int numPlayers;
+    private final int[] edgeLabel;
+    private final int[] labelLength;
+    private final int[] playerLength;
+    private final int[] edgeStamp;
+    private final int[] componentEdges;
+    private final boolean[] usedEdge;
+    private int stamp;
+    private int componentSize;
+    private int holder = StreetGraph.NO_OWNER;
+
+    /**
+     * Creates the calculator for a board without any streets.
+     *
+     * @param graph      the street graph of the board
+     * @param occupancy  the bitboards holding all placed pieces
+     * @param numPlayers number of players in the game
+     */
+    public LongestRoad(StreetGraph graph, BoardOccupancy occupancy, int numPlayers) {
+        this.graph = graph;
+        this.occupancy = occupancy;
+        this.numPlayers = numPlayers;
+        int numEdges = graph.getEdgeCount();
+        this.edgeLabel = new int[numEdges];
+        this.labelLength = new int[numEdges];
+        this.playerLength = new int[numPlayers];
+        this.edgeStamp = new int[numEdges];
+        this.componentEdges = new int[numEdges];
+        this.usedEdge = new boolean[numEdges];
+        Arrays.fill(edgeLabel, -1);
+    }
+
+    /**
+     * Returns the length of a player's longest road.
+     *
+     * @param player index of the player
+     * @return number of streets in the longest road
+     */
+    public int getLength(int player) {
+        return playerLength[player];
+    }
+
+    /**
+     * Returns the player holding the "Longest Road" award.
+     *
+     * @return the player index, or {@link StreetGraph#NO_OWNER} if nobody holds it
+     */
+    public int getHolder() {
+        return holder;
+    }
+
+    /**
+     * Returns the victory points a player earns from the award.
+     *
+     * @param player index of the player
+     * @return {@link #VICTORY_POINTS} for the holder, 0 for everybody else
+     */
+    public int getVictoryPoints(int player) {
+        return player == holder ? VICTORY_POINTS : 0;
+    }
+
+    /**
+     * Updates the road of a player after a new street. Must be called after the street was recorded
+     * in the occupancy bitboards.
+     *
+     * @param player index of the player who built the street
+     * @param edge   the edge built on
+     */
+    public void onStreetPlaced(int player, int edge) {
+        relabelComponent(player, edge);
+        updatePlayerLength(player);
+        updateHolder();
+    }
+
+    /**
+     * Updates the roads of all opponents running through a vertex after a new settlement.
+     * Must be called after the settlement was recorded in the occupancy bitboards.
+     *
+     * @param player index of the player who built the settlement
+     * @param vertex the vertex built on
+     */
+    public void onSettlementPlaced(int player, int vertex) {
+        for (int p = 0; p < numPlayers; p++) {
+            if (p == player || countIncidentStreets(p, vertex) < 2) {
+                continue;
+            }
+            relabelAround(p, vertex);
+            updatePlayerLength(p);
+        }
+        updateHolder();
+    }
+
+    /**
+     * Updates the road of a player after a street was taken back. Must be called after the street was
+     * removed from the occupancy bitboards.
+     *
+     * @param player         index of the player who owned the street
+     * @param edge           the edge that was cleared
+     * @param previousHolder the award holder before the street was placed
+     */
+    public void onStreetRemoved(int player, int edge, int previousHolder) {
+        edgeLabel[edge] = -1;
+        relabelAround(player, graph.getNodeA(edge));
+        relabelAround(player, graph.getNodeB(edge));
+        updatePlayerLength(player);
+        holder = previousHolder;
+    }
+
+    /**
+     * Updates the roads of all opponents running through a vertex after a settlement was taken back.
+     * Must be called after the settlement was removed from the occupancy bitboards.
+     *
+     * @param player         index of the player who owned the settlement
+     * @param vertex         the vertex that was cleared
+     * @param previousHolder the award holder before the settlement was placed
+     */
+    public void onSettlementRemoved(int player, int vertex, int previousHolder) {
+        for (int p = 0; p < numPlayers; p++) {
+            if (p != player && countIncidentStreets(p, vertex) >= 2) {
+                relabelAround(p, vertex);
+                updatePlayerLength(p);
+            }
+        }
+        holder = previousHolder;
+    }
+
+    /**
+     * Recomputes the components of a player's streets touching a vertex.
+     *
+     * @param player index of the player
+     * @param vertex the vertex
+     */
+    private void relabelAround(int player, int vertex) {
+        for (int k = 0; k < graph.getDegree(vertex); k++) {
+            int edge = graph.getIncidentEdge(vertex, k);
+            if (occupancy.ownsStreet(player, edge)) {
+                relabelComponent(player, edge);
+            }
+        }
+    }
+
+    /**
+     * Counts a player's streets touching a vertex.
+     *
+     * @param player index of the player
+     * @param vertex the vertex
+     * @return the number of incident streets
+     */
+    private int countIncidentStreets(int player, int vertex) {
+        int count = 0;
+        for (int k = 0; k < graph.getDegree(vertex); k++) {
+            if (occupancy.ownsStreet(player, graph.getIncidentEdge(vertex, k))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether a player's road is interrupted at a vertex by an opponent's settlement.
+     *
+     * @param player index of the player
+     * @param vertex the vertex
+     * @return true if the road cannot pass through the vertex
+     */
+    private boolean isBlocked(int player, int vertex) {
+        return occupancy.isVertexOccupied(vertex) && !occupancy.ownsSettlement(player, vertex);
+    }
+
+    /**
+     * Collects the connected streets of a player reachable from an edge, labels them with that edge's ID
+     * and stores the component's longest trail.
+     *
+     * @param player index of the player
+     * @param start  a street of the player
+     */
+    private void relabelComponent(int player, int start) {
+        stamp++;
+        componentSize = 0;
+        componentEdges[componentSize++] = start;
+        edgeStamp[start] = stamp;
+
+        for (int i = 0; i < componentSize; i++) {
+            int edge = componentEdges[i];
+            expand(player, graph.getNodeA(edge));
+            expand(player, graph.getNodeB(edge));
+        }
+
+        int longest = 0;
+        for (int i = 0; i < componentSize; i++) {
+            int edge = componentEdges[i];
+            edgeLabel[edge] = start;
+            longest = Math.max(longest, longestTrailFrom(player, graph.getNodeA(edge)));
+            longest = Math.max(longest, longestTrailFrom(player, graph.getNodeB(edge)));
+        }
+        labelLength[start] = longest;
+    }
+
+    /**
+     * Adds the unvisited streets of a player around a vertex to the current component,
+     * unless the road is interrupted at that vertex.
+     *
+     * @param player index of the player
+     * @param vertex the vertex to expand
+     */
+    private void expand(int player, int vertex) {
+        if (isBlocked(player, vertex)) {
+            return;
+        }
+        for (int k = 0; k < graph.getDegree(vertex); k++) {
+            int edge = graph.getIncidentEdge(vertex, k);
+            if (edgeStamp[edge] != stamp && occupancy.ownsStreet(player, edge)) {
+                edgeStamp[edge] = stamp;
+                componentEdges[componentSize++] = edge;
+            }
+        }
+    }
+
+    /**
+     * Finds the longest trail of a player's streets starting at a vertex by exhaustive depth-first search.
+     *
+     * @param player index of the player
+     * @param vertex the current vertex
+     * @return number of streets in the longest trail
+     */
+    private int longestTrailFrom(int player, int vertex) {
+        int best = 0;
+        for (int k = 0; k < graph.getDegree(vertex); k++) {
+            int edge = graph.getIncidentEdge(vertex, k);
+            if (usedEdge[edge] || !occupancy.ownsStreet(player, edge)) {
+                continue;
+            }
+            int next = graph.getNeighbor(vertex, k);
+            usedEdge[edge] = true;
+            int length = 1 + (isBlocked(player, next) ? 0 : longestTrailFrom(player, next));
+            usedEdge[edge] = false;
+            best = Math.max(best, length);
+        }
+        return best;
+    }
+
+    /**
+     * Recomputes a player's longest road as the maximum over the components of their streets.
+     *
+     * @param player index of the player
+     */
+    private void updatePlayerLength(int player) {
+        int longest = 0;
+        for (int edge = occupancy.nextStreet(player, 0); edge >= 0; edge = occupancy.nextStreet(player, edge + 1)) {
+            longest = Math.max(longest, labelLength[edgeLabel[edge]]);
+        }
+        playerLength[player] = longest;
+    }
+
+    /**
+     * Reassigns the award: the holder keeps it while nobody is strictly longer; otherwise a single
+     * player with the longest road of at least {@link #MIN_LENGTH} takes it, and a tie sets it aside.
+     */
+    private void updateHolder() {
+        int best = 0;
+        int leaders = 0;
+        int leader = StreetGraph.NO_OWNER;
+        for (int p = 0; p < numPlayers; p++) {
+            if (playerLength[p] > best) {
+                best = playerLength[p];
+                leaders = 1;
+                leader = p;
+            } else if (playerLength[p] == best) {
+                leaders++;
+            }
+        }
+
+        if (best < MIN_LENGTH) {
+            holder = StreetGraph.NO_OWNER;
+        } else if (holder != StreetGraph.NO_OWNER && playerLength[holder] == best) {
+            return;
+        } else {
+            holder = leaders == 1 ? leader : StreetGraph.NO_OWNER;
+        }
+    }
+
+    /**
+     * Overwrites the roads and the award holder with those of another game on the same board layout.
+     *
+     * @param other the calculator to copy
+     */
+    public void copyFrom(LongestRoad other) {
+        System.arraycopy(other.edgeLabel, 0, edgeLabel, 0, edgeLabel.length);
+        System.arraycopy(other.labelLength, 0, labelLength, 0, labelLength.length);
+        System.arraycopy(other.playerLength, 0, playerLength, 0, playerLength.length);
+        holder = other.holder;
+    }
+
+    /**
+     * Estimates the heap retained by this calculator.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateFootprint() {
+        int numEdges = edgeLabel.length;
+        return MemoryFootprint.object(9, 16)
+                + 4 * MemoryFootprint.intArray(numEdges)
+                + MemoryFootprint.booleanArray(numEdges)
+                + MemoryFootprint.intArray(numPlayers);
+    }
+}
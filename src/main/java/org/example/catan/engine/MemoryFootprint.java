@@ -0,0 +1,162 @@
+package org.example.catan.engine;
+
+import org.example.catan.CatanBoard;
+import org.example.catan.gamepieces.Player;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.graph.StreetGraph;
+
+/**
+ * Helpers for estimating the retained heap size of game state.
+ * The estimates assume a 64-bit JVM with compressed object pointers (12-byte object headers,
+ * 4-byte references, 16-byte array headers and 8-byte alignment), which is the default for heaps below 32 GB.
+ */
+public final class MemoryFootprint {
+    /** Size of a plain object header. */
+    public static final long OBJECT_HEADER = 12;
+
+    /** Size of an object reference. */
+    public static final long REFERENCE = 4;
+
+    /** Size of an array header including its length field. */
+    public static final long ARRAY_HEADER = 16;
+
+    /** Estimated size of a {@code HashMap.Node} entry. */
+    public static final long HASH_MAP_ENTRY = 32;
+
+    private MemoryFootprint() {
+    }
+
+    /**
+     * Rounds a size up to the JVM's object alignment.
+     *
+     * @param bytes the raw size
+     * @return the aligned size
+     */
+    public static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Estimates the size of an object with the given fields.
+     *
+     * @param references number of reference fields
+     * @param primitiveBytes total size of all primitive fields
+     * @return the aligned object size
+     */
+    public static long object(int references, int primitiveBytes) {
+        return align(OBJECT_HEADER + references * REFERENCE + primitiveBytes);
+    }
+
+    /**
+     * Estimates the size of an {@code int[]}.
+     *
+     * @param length the array length
+     * @return the aligned array size
+     */
+    public static long intArray(int length) {
+        return align(ARRAY_HEADER + 4L * length);
+    }
+
+    /**
+     * Estimates the size of a {@code long[]}.
+     *
+     * @param length the array length
+     * @return the aligned array size
+     */
+    public static long longArray(int length) {
+        return align(ARRAY_HEADER + 8L * length);
+    }
+
+    /**
+     * Estimates the size of a {@code boolean[]}.
+     *
+     * @param length the array length
+     * @return the aligned array size
+     */
+    public static long booleanArray(int length) {
+        return align(ARRAY_HEADER + length);
+    }
+
+    /**
+     * Estimates the size of an array of references, excluding the referenced objects.
+     *
+     * @param length the array length
+     * @return the aligned array size
+     */
+    public static long referenceArray(int length) {
+        return align(ARRAY_HEADER + REFERENCE * length);
+    }
+
+    /**
+     * Estimates the size of an {@code ArrayList} with the given capacity, excluding its elements.
+     *
+     * @param capacity the capacity of the backing array
+     * @return the estimated size
+     */
+    public static long arrayList(int capacity) {
+        return object(1, 8) + referenceArray(capacity);
+    }
+
+    /**
+     * Estimates the size of a {@code HashMap} with the given number of entries, excluding keys and values.
+     *
+     * @param entries the number of entries
+     * @return the estimated size
+     */
+    public static long hashMap(int entries) {
+        int buckets = Integer.highestOneBit(Math.max(1, (int) (entries / 0.75f)) * 2 - 1);
+        return object(4, 16) + referenceArray(Math.max(16, buckets)) + entries * HASH_MAP_ENTRY;
+    }
+
+    /**
+     * Estimates the heap retained by a board: the tile map with its tiles and the street graph.
+     * Nodes, tile coordinates and the street layout belong to the shared {@link org.example.catan.graph.BoardTopology}
+     * and are not counted.
+     *
+     * @param board the board to measure
+     * @return the estimated size in bytes
+     */
+    public static long board(CatanBoard board) {
+        int numTiles = board.getHex_coords().length;
+        long tiles = hashMap(numTiles)
+                + numTiles * (object(3, 5) + arrayList(10));
+        return object(5, 4) + tiles + streetGraph(board.getGraph());
+    }
+
+    /**
+     * Estimates the heap retained by a street graph. A graph on a shared layout only retains its edge owners.
+     *
+     * @param graph the graph to measure
+     * @return the estimated size in bytes
+     */
+    public static long streetGraph(StreetGraph graph) {
+        int numNodes = graph.getNodeCount();
+        int numEdges = graph.getEdgeCount();
+        if (graph.isShared()) {
+            return object(7, 9) + intArray(numEdges);
+        }
+        return object(7, 9)
+                + 3 * intArray(numEdges)
+                + intArray(numNodes)
+                + 2 * intArray(numNodes * StreetGraph.MAX_DEGREE);
+    }
+
+    /**
+     * Estimates the heap retained by a resource vector.
+     *
+     * @return the estimated size in bytes
+     */
+    public static long resourceVector() {
+        return object(1, 0) + intArray(ResourceVector.SIZE);
+    }
+
+    /**
+     * Estimates the heap retained by a player: the player and its inventory.
+     *
+     * @param player the player to measure
+     * @return the estimated size in bytes
+     */
+    public static long player(Player player) {
+        return object(2, 2 * Integer.BYTES) + resourceVector();
+    }
+}
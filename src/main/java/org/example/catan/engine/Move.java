@@ -0,0 +1,176 @@
+package org.example.catan.engine;
+
+import org.example.catan.gamepieces.ResourceVector;
+
+/**
+ * Encoding of the moves a player can make as plain {@code int}s, so that move lists and search code
+ * never allocate. The move type is stored in the upper byte, the argument (vertex, edge, tile index or
+ * trade) in the lower 24 bits.
+ */
+public final class Move {
+    /**
+     * Roll the dice; the argument is 0, or the outcome chosen by a search: the dice total in the lowest
+     * four bits and, for a 7, the robbed player plus one and the stolen resource in the next two nibbles.
+     */
+    public static final int ROLL = 1;
+
+    /** Build a settlement; the argument is the vertex ID. */
+    public static final int SETTLEMENT = 2;
+
+    /** Build a street; the argument is the edge ID in the street graph. */
+    public static final int STREET = 3;
+
+    /** 4:1 trade with the bank; the argument is {@code give * ResourceVector.SIZE + want}. */
+    public static final int BANK_TRADE = 4;
+
+    /** Move the bandit; the argument is the index of the tile in {@code CatanBoard.getHex_coords()}. */
+    public static final int PLACE_BANDIT = 5;
+
+    /** End the turn; no argument. */
+    public static final int END_TURN = 6;
+
+    private static final int TYPE_SHIFT = 24;
+    private static final int NIBBLE = 4;
+    private static final int NIBBLE_MASK = (1 << NIBBLE) - 1;
+    private static final int ARGUMENT_MASK = (1 << TYPE_SHIFT) - 1;
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private Move() {
+    }
+
+    /**
+     * Encodes a move.
+     *
+     * @param type     one of the move type constants
+     * @param argument the argument of the move, 0 if it has none
+     * @return the encoded move
+     */
+    public static int of(int type, int argument) {
+        return type << TYPE_SHIFT | argument;
+    }
+
+    /**
+     * Encodes a bank trade.
+     *
+     * @param give ordinal of the resource given four times
+     * @param want ordinal of the resource received
+     * @return the encoded move
+     */
+    public static int bankTrade(int give, int want) {
+        return of(BANK_TRADE, give * ResourceVector.SIZE + want);
+    }
+
+    /**
+     * Encodes a roll with a chosen dice total and, for a 7, nothing stolen.
+     *
+     * @param total the dice total
+     * @return the encoded move
+     */
+    public static int roll(int total) {
+        return of(ROLL, total);
+    }
+
+    /**
+     * Encodes a rolled 7 together with the card stolen for the roller.
+     *
+     * @param victim   index of the robbed player
+     * @param resource ordinal of the stolen resource
+     * @return the encoded move
+     */
+    public static int rollSeven(int victim, int resource) {
+        return of(ROLL, 7 | (victim + 1) << NIBBLE | resource << 2 * NIBBLE);
+    }
+
+    /**
+     * Returns the dice total of a roll with a chosen outcome.
+     *
+     * @param move an encoded {@link #ROLL} move
+     * @return the dice total, 0 if the outcome is left to the dice
+     */
+    public static int rollTotal(int move) {
+        return move & NIBBLE_MASK;
+    }
+
+    /**
+     * Returns the player robbed by a rolled 7.
+     *
+     * @param move an encoded {@link #ROLL} move
+     * @return index of the robbed player, or -1 if nothing is stolen
+     */
+    public static int stealVictim(int move) {
+        return (move >>> NIBBLE & NIBBLE_MASK) - 1;
+    }
+
+    /**
+     * Returns the resource stolen by a rolled 7.
+     *
+     * @param move an encoded {@link #ROLL} move with a victim
+     * @return the ordinal of the stolen resource
+     */
+    public static int stealResource(int move) {
+        return move >>> 2 * NIBBLE & NIBBLE_MASK;
+    }
+
+    /**
+     * Returns the type of an encoded move.
+     *
+     * @param move the encoded move
+     * @return one of the move type constants
+     */
+    public static int type(int move) {
+        return move >>> TYPE_SHIFT;
+    }
+
+    /**
+     * Returns the argument of an encoded move.
+     *
+     * @param move the encoded move
+     * @return the vertex, edge, tile index or trade code
+     */
+    public static int argument(int move) {
+        return move & ARGUMENT_MASK;
+    }
+
+    /**
+     * Returns the resource given in a bank trade.
+     *
+     * @param move an encoded {@link #BANK_TRADE} move
+     * @return the ordinal of the given resource
+     */
+    public static int tradeGive(int move) {
+        return argument(move) / ResourceVector.SIZE;
+    }
+
+    /**
+     * Returns the resource received in a bank trade.
+     *
+     * @param move an encoded {@link #BANK_TRADE} move
+     * @return the ordinal of the received resource
+     */
+    public static int tradeWant(int move) {
+        return argument(move) % ResourceVector.SIZE;
+    }
+
+    /**
+     * Describes an encoded move for logs and debugging.
+     *
+     * @param move the encoded move
+     * @return a readable description, e.g. {@code "STREET 17"}
+     */
+    public static String toString(int move) {
+        return switch (type(move)) {
+            case ROLL -> rollTotal(move) == 0 ? "ROLL"
+                    : stealVictim(move) < 0 ? "ROLL " + rollTotal(move)
+                    : "ROLL 7, steal " + ResourceVector.resourceAt(stealResource(move)) + " from " + stealVictim(move);
+            case SETTLEMENT -> "SETTLEMENT " + argument(move);
+            case STREET -> "STREET " + argument(move);
+            case BANK_TRADE -> "BANK_TRADE 4 " + ResourceVector.resourceAt(tradeGive(move))
+                    + " for 1 " + ResourceVector.resourceAt(tradeWant(move));
+            case PLACE_BANDIT -> "PLACE_BANDIT " + argument(move);
+            case END_TURN -> "END_TURN";
+            default -> "UNKNOWN " + move;
+        };
+    }
+}
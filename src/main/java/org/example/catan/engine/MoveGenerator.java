@@ -0,0 +1,97 @@
+package org.example.catan.engine;
+
+import org.example.catan.CatanBoard;
+import org.example.catan.gamepieces.Bank;
+import org.example.catan.gamepieces.Player;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.gamepieces.buildings.Buildings;
+
+/**
+ * Enumerates the legal moves of the current player.
+ * The generated moves are exactly the ones {@link GameEngine#applyMove(int)} accepts: free street slots and
+ * vertices outside the distance rule, limited by the player's hand, the player's remaining pieces and the
+ * bank's supply, plus 4:1 bank trades, dice roll, bandit placement and end of turn depending on the phase.
+ */
+public final class MoveGenerator {
+    /** Number of bank trades: every resource given for every other resource. */
+    private static final int BANK_TRADES = ResourceVector.SIZE * (ResourceVector.SIZE - 1);
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private MoveGenerator() {
+    }
+
+    /**
+     * Returns an upper bound for the number of moves generated on a board, to size a {@link MoveList}
+     * so that it never has to grow.
+     *
+     * @param board the board
+     * @return the maximum number of legal moves in any state
+     */
+    public static int maxMoves(CatanBoard board) {
+        return board.getGraph().getNodeCount() + board.getGraph().getEdgeCount() + BANK_TRADES + 1;
+    }
+
+    /**
+     * Writes all legal moves of the current player into a buffer, replacing its previous content.
+     *
+     * @param engine the game
+     * @param moves  the buffer receiving the encoded moves
+     */
+    public static void generate(GameEngine engine, MoveList moves) {
+        moves.clear();
+        if (engine.isGameOver()) {
+            return;
+        }
+        if (engine.isWaitingForBandit()) {
+            int tiles = engine.getBoard().getHex_coords().length;
+            for (int tile = 0; tile < tiles; tile++) {
+                moves.add(Move.of(Move.PLACE_BANDIT, tile));
+            }
+            return;
+        }
+        if (engine.getVictoryPoints(engine.getCurrentPlayerIndex()) >= GameEngine.VICTORY_POINTS_TO_WIN) {
+            moves.add(Move.of(Move.END_TURN, 0));
+            return;
+        }
+        if (!engine.hasRolled()) {
+            moves.add(Move.of(Move.ROLL, 0));
+            return;
+        }
+
+        Player player = engine.getCurrentPlayer();
+        Bank bank = engine.getBank();
+        BoardOccupancy occupancy = engine.getOccupancy();
+
+        if (player.canAfford(Buildings.SETTLEMENT) && player.hasPieceLeft(Buildings.SETTLEMENT)
+                && bank.getRemainingSettlements() > 0) {
+            for (int vertex = 0; vertex < occupancy.getVertexCount(); vertex++) {
+                if (!occupancy.isVertexBlocked(vertex)) {
+                    moves.add(Move.of(Move.SETTLEMENT, vertex));
+                }
+            }
+        }
+
+        if (player.canAfford(Buildings.STREET) && player.hasPieceLeft(Buildings.STREET)
+                && bank.getRemainingRoads() > 0) {
+            for (int edge = occupancy.nextFreeEdge(0); edge >= 0; edge = occupancy.nextFreeEdge(edge + 1)) {
+                moves.add(Move.of(Move.STREET, edge));
+            }
+        }
+
+        ResourceVector hand = player.getInventory();
+        for (int give = 0; give < ResourceVector.SIZE; give++) {
+            if (hand.get(give) < GameEngine.BANK_TRADE_RATE) {
+                continue;
+            }
+            for (int want = 0; want < ResourceVector.SIZE; want++) {
+                if (want != give && bank.getResourceCount(want) > 0) {
+                    moves.add(Move.bankTrade(give, want));
+                }
+            }
+        }
+
+        moves.add(Move.of(Move.END_TURN, 0));
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.catan.engine;
+
+import java.util.Arrays;
+
+/**
+ * Reusable buffer of encoded {@link Move}s. Clearing only resets the size, so a list that is
+ * refilled for every search node allocates only when it has to grow beyond its largest size so far.
+ */
+public class MoveList {
+    private int[] moves;
+    private int size;
+
+    /**
+     * Creates an empty list.
+     *
+     * @param initialCapacity the number of moves the list can hold before growing
+     */
+    public MoveList(int initialCapacity) {
+        this.moves = new int[Math.max(1, initialCapacity)];
+    }
+
+    /**
+     * Removes all moves without releasing the buffer.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends a move.
+     *
+     * @param move the encoded move
+     */
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Returns a move.
+     *
+     * @param index an index {@code 0 <= index < size()}
+     * @return the encoded move
+     */
+    public int get(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Returns the number of moves in the list.
+     *
+     * @return the move count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the list holds no moves.
+     *
+     * @return true if the list is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks whether the list holds a move.
+     *
+     * @param move the encoded move
+     * @return true if the move is in the list
+     */
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
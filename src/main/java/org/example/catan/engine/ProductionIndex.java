@@ -0,0 +1,169 @@
+package org.example.catan.engine;
+
+import org.example.catan.CatanBoard;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.gamepieces.Resources;
+import org.example.catan.graph.HexTile;
+import org.example.catan.graph.Node;
+
+import java.util.Arrays;
+
+/**
+ * Index from dice total to the resources every player receives for that roll.
+ * The grants are updated incrementally whenever a settlement is placed or the robber blocks or
+ * unblocks a tile, so distributing resources after a roll is a single pass over precomputed counts.
+ */
+public class ProductionIndex {
+    /** Number of resource types that can be produced (all except {@link Resources#NONE}). */
+    public static final int RESOURCE_COUNT = ResourceVector.SIZE;
+
+    private static final int MAX_DICE_TOTAL = 12;
+    private static final int MAX_TILES_PER_NODE = 3;
+    private static final int NO_OWNER = -1;
+
+    private final int numPlayers;
+    private final int[][] grants;
+    private final int[] grantsPerTotal;
+    private final int[] settlementOwner;
+    private final HexTile[] nodeTiles;
+    private final int[] nodeTileCount;
+
+    /**
+     * Creates an empty production index for the given board and registers itself on every tile
+     * to follow robber moves.
+     *
+     * @param board      the board whose tiles produce resources
+     * @param numPlayers number of players in the game
+     */
+    public ProductionIndex(CatanBoard board, int numPlayers) {
+        this.numPlayers = numPlayers;
+        this.grants = new int[MAX_DICE_TOTAL + 1][numPlayers * RESOURCE_COUNT];
+        this.grantsPerTotal = new int[MAX_DICE_TOTAL + 1];
+
+        int numNodes = board.getGraph().getNodeCount();
+        this.settlementOwner = new int[numNodes];
+        this.nodeTiles = new HexTile[numNodes * MAX_TILES_PER_NODE];
+        this.nodeTileCount = new int[numNodes];
+        Arrays.fill(settlementOwner, NO_OWNER);
+
+        for (HexTile tile : board.getBoard().values()) {
+            for (Node node : tile.getHexTileNodes()) {
+                nodeTiles[node.getId() * MAX_TILES_PER_NODE + nodeTileCount[node.getId()]++] = tile;
+            }
+            tile.addBlockedListener(this::onBlockedChanged);
+        }
+    }
+
+    /**
+     * Registers a newly placed settlement so that it produces from all adjacent, unblocked tiles.
+     *
+     * @param nodeId the node the settlement was placed on
+     * @param player index of the owning player
+     */
+    public void addSettlement(int nodeId, int player) {
+        settlementOwner[nodeId] = player;
+        int base = nodeId * MAX_TILES_PER_NODE;
+        for (int k = 0; k < nodeTileCount[nodeId]; k++) {
+            HexTile tile = nodeTiles[base + k];
+            if (!tile.isBlocked()) {
+                adjust(tile, player, 1);
+            }
+        }
+    }
+
+    /**
+     * Removes a settlement again, e.g. when a search takes back a move.
+     *
+     * @param nodeId the node the settlement was placed on
+     */
+    public void removeSettlement(int nodeId) {
+        int player = settlementOwner[nodeId];
+        if (player == NO_OWNER) {
+            return;
+        }
+        int base = nodeId * MAX_TILES_PER_NODE;
+        for (int k = 0; k < nodeTileCount[nodeId]; k++) {
+            HexTile tile = nodeTiles[base + k];
+            if (!tile.isBlocked()) {
+                adjust(tile, player, -1);
+            }
+        }
+        settlementOwner[nodeId] = NO_OWNER;
+    }
+
+    /**
+     * Returns how many units of a resource a player receives when the given total is rolled.
+     *
+     * @param diceTotal the rolled dice total
+     * @param player    index of the player
+     * @param resource  ordinal of the produced resource
+     * @return the number of resource cards granted
+     */
+    public int getGrant(int diceTotal, int player, int resource) {
+        return grants[diceTotal][player * RESOURCE_COUNT + resource];
+    }
+
+    /**
+     * Checks whether rolling the given total produces anything at all.
+     *
+     * @param diceTotal the rolled dice total
+     * @return true if at least one player receives a resource
+     */
+    public boolean hasGrants(int diceTotal) {
+        return grantsPerTotal[diceTotal] > 0;
+    }
+
+    /**
+     * Returns the number of players covered by this index.
+     *
+     * @return the player count
+     */
+    public int getPlayerCount() {
+        return numPlayers;
+    }
+
+    /**
+     * Estimates the heap retained by this index.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateFootprint() {
+        return MemoryFootprint.object(5, 4)
+                + MemoryFootprint.referenceArray(grants.length)
+                + grants.length * MemoryFootprint.intArray(numPlayers * RESOURCE_COUNT)
+                + MemoryFootprint.intArray(grantsPerTotal.length)
+                + MemoryFootprint.intArray(settlementOwner.length)
+                + MemoryFootprint.referenceArray(nodeTiles.length)
+                + MemoryFootprint.intArray(nodeTileCount.length);
+    }
+
+    /**
+     * Adds or removes the production of all settlements on a tile whose blocked status changed.
+     *
+     * @param tile the tile that was blocked or unblocked by the robber
+     */
+    private void onBlockedChanged(HexTile tile) {
+        int delta = tile.isBlocked() ? -1 : 1;
+        for (Node node : tile.getHexTileNodes()) {
+            int owner = settlementOwner[node.getId()];
+            if (owner != NO_OWNER) {
+                adjust(tile, owner, delta);
+            }
+        }
+    }
+
+    /**
+     * Changes the grant of a single tile for one player.
+     *
+     * @param tile   the producing tile
+     * @param player index of the player
+     * @param delta  +1 to add production, -1 to remove it
+     */
+    private void adjust(HexTile tile, int player, int delta) {
+        if (tile.getResourceType() == Resources.NONE || tile.getDiceNumber() == 0) {
+            return;
+        }
+        grants[tile.getDiceNumber()][player * RESOURCE_COUNT + tile.getResourceType().ordinal()] += delta;
+        grantsPerTotal[tile.getDiceNumber()] += delta;
+    }
+}
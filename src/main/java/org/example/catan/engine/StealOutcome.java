@@ -0,0 +1,23 @@
+package org.example.catan.engine;
+
+import org.example.catan.gamepieces.Player;
+import org.example.catan.gamepieces.Resources;
+
+/**
+ * Result of the random steal that follows a rolled 7.
+ *
+ * @param thief    the player who rolled the 7
+ * @param victim   the player who lost a card, or null if nobody had anything to steal
+ * @param resource the stolen resource, or null if nothing was stolen
+ */
+public record StealOutcome(Player thief, Player victim, Resources resource) {
+
+    /**
+     * Checks whether a card was actually stolen.
+     *
+     * @return true if a victim lost a resource, false otherwise
+     */
+    public boolean isSuccessful() {
+        return victim != null;
+    }
+}
@@ -0,0 +1,373 @@
+package org.example.catan.engine;
+
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.gamepieces.TradeOffer;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * The open player-to-player trade offers of a game, indexed so that no operation scans all offers.
+ * <ul>
+ *     <li>Every offer is filed under each (given resource, wanted resource) pair of its bundles, ordered by
+ *     listing, so a matching counter-offer is only searched among offers giving what the new offer wants,
+ *     and the search of a pair stops at its first compatible offer.</li>
+ *     <li>Every offer is filed under its sender, so the offers expiring when a player's turn begins are
+ *     found directly.</li>
+ *     <li>Offers are listed in the order they were made. Each gets a sequence number, and a Fenwick tree over
+ *     the sequence numbers turns the position of an offer into a prefix count and back, so the listing keeps
+ *     its order under removals at any position.</li>
+ * </ul>
+ */
+public final class TradeBook {
+    private static final int PAIRS = ResourceVector.SIZE * ResourceVector.SIZE;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Comparator<Entry> BY_SEQUENCE = Comparator.comparingInt(Entry::sequence);
+
+    private final Map<TradeOffer, Entry> entries = new IdentityHashMap<>();
+    private final Set<Entry>[] bySender;
+    private final Set<Entry>[] byPair;
+    private Entry[] bySequence = new Entry[INITIAL_CAPACITY];
+    private int[] tree = new int[INITIAL_CAPACITY + 1];
+    private int nextSequence;
+    private final List<TradeOffer> view = new View();
+
+    /**
+     * A listed offer with the indexes it is filed under.
+     *
+     * @param offer    the offer
+     * @param sender   index of the sending player
+     * @param sequence position in the order all offers were listed
+     */
+    private record Entry(TradeOffer offer, int sender, int sequence) {}
+
+    /**
+     * Creates an empty order book.
+     *
+     * @param numPlayers number of players in the game
+     */
+    @SuppressWarnings("unchecked")
+    public TradeBook(int numPlayers) {
+        this.bySender = (Set<Entry>[]) new Set<?>[numPlayers];
+        this.byPair = (Set<Entry>[]) new Set<?>[PAIRS];
+    }
+
+    /**
+     * Lists an offer after all others.
+     *
+     * @param offer  the offer
+     * @param sender index of the sending player
+     */
+    public void add(TradeOffer offer, int sender) {
+        insert(new Entry(offer, sender, nextSequence));
+    }
+
+    /**
+     * Lists a removed offer again at its former position, e.g. when an end of turn is taken back.
+     *
+     * @param offer    the offer
+     * @param sender   index of the sending player
+     * @param sequence the sequence number the offer had, see {@link #expire(int, UndoStack)}
+     */
+    void restore(TradeOffer offer, int sender, int sequence) {
+        insert(new Entry(offer, sender, sequence));
+    }
+
+    /**
+     * Files an entry under all its indexes.
+     *
+     * @param entry the entry
+     */
+    private void insert(Entry entry) {
+        int sequence = entry.sequence();
+        ensureCapacity(sequence + 1);
+        nextSequence = Math.max(nextSequence, sequence + 1);
+        entries.put(entry.offer(), entry);
+        bySequence[sequence] = entry;
+        updateTree(sequence, 1);
+        if (bySender[entry.sender()] == null) {
+            bySender[entry.sender()] = new LinkedHashSet<>();
+        }
+        bySender[entry.sender()].add(entry);
+
+        ResourceVector give = entry.offer().getOffer();
+        ResourceVector want = entry.offer().getRequest();
+        for (int g = 0; g < ResourceVector.SIZE; g++) {
+            for (int w = 0; w < ResourceVector.SIZE && give.get(g) > 0; w++) {
+                if (want.get(w) > 0) {
+                    int pair = g * ResourceVector.SIZE + w;
+                    if (byPair[pair] == null) {
+                        byPair[pair] = new TreeSet<>(BY_SEQUENCE);
+                    }
+                    byPair[pair].add(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes an offer off the book.
+     *
+     * @param offer the offer
+     * @return true if the offer was listed
+     */
+    public boolean remove(TradeOffer offer) {
+        Entry entry = entries.remove(offer);
+        if (entry == null) {
+            return false;
+        }
+        bySequence[entry.sequence()] = null;
+        updateTree(entry.sequence(), -1);
+        bySender[entry.sender()].remove(entry);
+
+        ResourceVector give = offer.getOffer();
+        ResourceVector want = offer.getRequest();
+        for (int g = 0; g < ResourceVector.SIZE; g++) {
+            for (int w = 0; w < ResourceVector.SIZE && give.get(g) > 0; w++) {
+                if (want.get(w) > 0) {
+                    byPair[g * ResourceVector.SIZE + w].remove(entry);
+                }
+            }
+        }
+        if (entries.isEmpty()) {
+            nextSequence = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Takes all offers of a player off the book, because the player's next turn begins.
+     *
+     * @param sender index of the player
+     * @param undo   receives every removed offer and its sequence number for {@link #restore}, or null
+     * @return the number of removed offers
+     */
+    int expire(int sender, UndoStack undo) {
+        Set<Entry> offers = bySender[sender];
+        if (offers == null || offers.isEmpty()) {
+            return 0;
+        }
+        Entry[] expired = offers.toArray(new Entry[0]);
+        for (Entry entry : expired) {
+            remove(entry.offer());
+            if (undo != null) {
+                undo.pushRef(entry.offer());
+                undo.push(entry.sequence());
+            }
+        }
+        return expired.length;
+    }
+
+    /**
+     * Takes all offers of a player off the book, because the player's next turn begins.
+     *
+     * @param sender index of the player
+     * @return the number of removed offers
+     */
+    public int expire(int sender) {
+        return expire(sender, null);
+    }
+
+    /**
+     * Finds the earliest listed offer of another player that is compatible with an offer: it gives at least
+     * everything the offer wants and wants nothing beyond what the offer gives.
+     *
+     * @param offer    the new offer
+     * @param sender   index of the player making the new offer
+     * @param eligible further condition a match has to meet, e.g. that both players can afford it
+     * @return the matching offer, or null if there is none
+     */
+    public TradeOffer findMatch(TradeOffer offer, int sender, Predicate<TradeOffer> eligible) {
+        ResourceVector give = offer.getOffer();
+        ResourceVector want = offer.getRequest();
+        if (want.isEmpty()) {
+            return null;
+        }
+        int wanted = want.first().ordinal();
+        Entry best = null;
+        for (int g = 0; g < ResourceVector.SIZE; g++) {
+            Set<Entry> candidates = give.get(g) > 0 ? byPair[wanted * ResourceVector.SIZE + g] : null;
+            if (candidates == null) {
+                continue;
+            }
+            for (Entry entry : candidates) {
+                if (best != null && entry.sequence() > best.sequence()) {
+                    break;
+                }
+                TradeOffer other = entry.offer();
+                if (entry.sender() != sender
+                        && other.getRequest().first().ordinal() == g
+                        && other.getOffer().covers(want)
+                        && give.covers(other.getRequest())
+                        && eligible.test(other)) {
+                    best = entry;
+                    break;
+                }
+            }
+        }
+        return best == null ? null : best.offer();
+    }
+
+    /**
+     * Checks whether an offer is listed.
+     *
+     * @param offer the offer
+     * @return true if the offer can still be accepted
+     */
+    public boolean contains(TradeOffer offer) {
+        return entries.containsKey(offer);
+    }
+
+    /**
+     * Returns the position of an offer in the listing.
+     *
+     * @param offer the offer
+     * @return the number of offers listed before it, or -1 if it is not listed
+     */
+    public int indexOf(TradeOffer offer) {
+        Entry entry = entries.get(offer);
+        return entry == null ? -1 : prefixCount(entry.sequence());
+    }
+
+    /**
+     * Returns the offer at a position in the listing.
+     *
+     * @param index the position, {@code 0 <= index < size()}
+     * @return the offer
+     */
+    public TradeOffer get(int index) {
+        if (index < 0 || index >= entries.size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int position = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(bySequence.length); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= bySequence.length && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return bySequence[position].offer();
+    }
+
+    /**
+     * Returns the number of listed offers.
+     *
+     * @return the offer count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns a read-only view of the listed offers in the order they were made.
+     *
+     * @return the view
+     */
+    public List<TradeOffer> asList() {
+        return view;
+    }
+
+    /**
+     * Estimates the heap retained by the book and its offers.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateFootprint() {
+        int offers = entries.size();
+        long indexed = 0;
+        for (Set<Entry>[] index : List.of(bySender, byPair)) {
+            indexed += MemoryFootprint.referenceArray(index.length);
+            for (Set<Entry> set : index) {
+                indexed += set == null ? 0 : MemoryFootprint.hashMap(set.size());
+            }
+        }
+        return MemoryFootprint.object(6, 4)
+                + MemoryFootprint.referenceArray(bySequence.length)
+                + MemoryFootprint.intArray(tree.length)
+                + MemoryFootprint.hashMap(offers)
+                + indexed
+                + offers * (MemoryFootprint.object(1, 8)
+                + MemoryFootprint.object(4, 2) + 2 * MemoryFootprint.resourceVector());
+    }
+
+
+    /**
+     * Grows the sequence table and rebuilds the Fenwick tree if a sequence number does not fit.
+     *
+     * @param size the required number of sequence numbers
+     */
+    private void ensureCapacity(int size) {
+        if (size <= bySequence.length) {
+            return;
+        }
+        int capacity = Integer.highestOneBit(size - 1) << 1;
+        bySequence = Arrays.copyOf(bySequence, capacity);
+        tree = new int[capacity + 1];
+        for (int i = 0; i < capacity; i++) {
+            if (bySequence[i] != null) {
+                updateTree(i, 1);
+            }
+        }
+    }
+
+    /**
+     * Adds to the count of a sequence number in the Fenwick tree.
+     *
+     * @param sequence the sequence number
+     * @param delta    1 when an offer is listed, -1 when it is removed
+     */
+    private void updateTree(int sequence, int delta) {
+        for (int i = sequence + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Counts the listed offers with a smaller sequence number.
+     *
+     * @param sequence the sequence number
+     * @return the number of offers listed before it
+     */
+    private int prefixCount(int sequence) {
+        int count = 0;
+        for (int i = sequence; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    /**
+     * Read-only list view of the book in listing order.
+     */
+    private final class View extends AbstractList<TradeOffer> {
+        @Override
+        public TradeOffer get(int index) {
+            return TradeBook.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return TradeBook.this.size();
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return o instanceof TradeOffer offer ? TradeBook.this.indexOf(offer) : -1;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof TradeOffer offer && TradeBook.this.contains(offer);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.catan.engine;
+
+import java.util.Arrays;
+
+/**
+ * Stack of the deltas needed to take back moves made with {@link GameEngine#makeMove(int)}.
+ * Holds plain ints plus a parallel stack of references for the few deltas that are objects
+ * (a previous robber tile, expired trade offers). Both only grow, so once a search has reached its
+ * maximum depth, making and taking back moves allocates nothing.
+ */
+class UndoStack {
+    private int[] ints = new int[256];
+    private Object[] refs = new Object[16];
+    private int intSize;
+    private int refSize;
+
+    /**
+     * Pushes an int.
+     *
+     * @param value the value
+     */
+    void push(int value) {
+        if (intSize == ints.length) {
+            ints = Arrays.copyOf(ints, ints.length * 2);
+        }
+        ints[intSize++] = value;
+    }
+
+    /**
+     * Pops the int pushed last.
+     *
+     * @return the value
+     */
+    int pop() {
+        return ints[--intSize];
+    }
+
+    /**
+     * Pushes a reference.
+     *
+     * @param value the reference, may be null
+     */
+    void pushRef(Object value) {
+        if (refSize == refs.length) {
+            refs = Arrays.copyOf(refs, refs.length * 2);
+        }
+        refs[refSize++] = value;
+    }
+
+    /**
+     * Pops the reference pushed last.
+     *
+     * @param <T> the expected type
+     * @return the reference
+     */
+    @SuppressWarnings("unchecked")
+    <T> T popRef() {
+        T value = (T) refs[--refSize];
+        refs[refSize] = null;
+        return value;
+    }
+
+    /**
+     * Checks whether the stack is empty.
+     *
+     * @return true if no deltas are stored
+     */
+    boolean isEmpty() {
+        return intSize == 0;
+    }
+
+    /**
+     * Estimates the heap retained by this stack. The arrays keep the size reached at the deepest search,
+     * the objects they refer to are counted by their owners.
+     *
+     * @return the estimated size in bytes
+     */
+    long estimateFootprint() {
+        return MemoryFootprint.object(2, 8)
+                + MemoryFootprint.intArray(ints.length)
+                + MemoryFootprint.referenceArray(refs.length);
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.catan.engine;
+
+import org.example.catan.CatanBoard;
+import org.example.catan.gamepieces.Dice;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.gamepieces.Resources;
+import org.example.catan.graph.HexTile;
+import org.example.catan.graph.Node;
+
+/**
+ * Expected production of every vertex, per resource, counted in pips: the number of the
+ * {@value Dice#TWO_DICE_OUTCOMES} equally likely outcomes of two dice that make an adjacent tile produce.
+ * A settlement on a vertex with 12 wheat pips receives 12/36 wheat per roll on average.
+ * The counts are computed once from the tile numbers and updated incrementally whenever the robber blocks
+ * or releases a tile, so placement heuristics and the yield heatmap read an array instead of scanning the
+ * tiles around a vertex.
+ */
+public class VertexYield {
+    private static final int RESOURCE_COUNT = ResourceVector.SIZE;
+
+    private final int[] pips;
+    private final int[] totalPips;
+
+    /**
+     * Computes the yields of all vertices of a board and registers itself on every tile to follow robber moves.
+     *
+     * @param board the board
+     */
+    public VertexYield(CatanBoard board) {
+        int numNodes = board.getGraph().getNodeCount();
+        this.pips = new int[numNodes * RESOURCE_COUNT];
+        this.totalPips = new int[numNodes];
+        for (HexTile tile : board.getBoard().values()) {
+            if (!tile.isBlocked()) {
+                adjust(tile, 1);
+            }
+            tile.addBlockedListener(this::onBlockedChanged);
+        }
+    }
+
+    /**
+     * Returns the pips of one resource at a vertex.
+     *
+     * @param vertex   the node ID
+     * @param resource ordinal of the resource
+     * @return the number of dice outcomes producing the resource at the vertex
+     */
+    public int getPips(int vertex, int resource) {
+        return pips[vertex * RESOURCE_COUNT + resource];
+    }
+
+    /**
+     * Returns the pips of all resources at a vertex.
+     *
+     * @param vertex the node ID
+     * @return the number of dice outcomes producing anything at the vertex, counted once per adjacent tile
+     */
+    public int getTotalPips(int vertex) {
+        return totalPips[vertex];
+    }
+
+    /**
+     * Returns the expected number of resource cards a settlement on a vertex receives per roll.
+     *
+     * @param vertex the node ID
+     * @return the expected cards per roll
+     */
+    public double getExpectedYield(int vertex) {
+        return (double) totalPips[vertex] / Dice.TWO_DICE_OUTCOMES;
+    }
+
+    /**
+     * Returns the expected number of cards of one resource a settlement on a vertex receives per roll.
+     *
+     * @param vertex   the node ID
+     * @param resource ordinal of the resource
+     * @return the expected cards per roll
+     */
+    public double getExpectedYield(int vertex, int resource) {
+        return (double) getPips(vertex, resource) / Dice.TWO_DICE_OUTCOMES;
+    }
+
+    /**
+     * Copies the pips of every resource at a vertex into a vector.
+     *
+     * @param vertex the node ID
+     * @param target receives one count per resource
+     */
+    public void copyTo(int vertex, ResourceVector target) {
+        int base = vertex * RESOURCE_COUNT;
+        for (int r = 0; r < RESOURCE_COUNT; r++) {
+            target.set(ResourceVector.resourceAt(r), pips[base + r]);
+        }
+    }
+
+    /**
+     * Returns the highest total pips of any vertex, e.g. to scale a heatmap.
+     *
+     * @return the maximum of {@link #getTotalPips(int)}
+     */
+    public int getMaxTotalPips() {
+        int max = 0;
+        for (int total : totalPips) {
+            max = Math.max(max, total);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the number of vertices covered.
+     *
+     * @return the vertex count
+     */
+    public int getVertexCount() {
+        return totalPips.length;
+    }
+
+    /**
+     * Estimates the heap retained by this index.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateFootprint() {
+        return MemoryFootprint.object(2, 0)
+                + MemoryFootprint.intArray(pips.length)
+                + MemoryFootprint.intArray(totalPips.length);
+    }
+
+    /**
+     * Removes or restores the production of a tile whose blocked status changed.
+     *
+     * @param tile the tile that was blocked or unblocked by the robber
+     */
+    private void onBlockedChanged(HexTile tile) {
+        adjust(tile, tile.isBlocked() ? -1 : 1);
+    }
+
+    /**
+     * Adds or removes the pips of a tile at its corners.
+     *
+     * @param tile  the producing tile
+     * @param delta +1 to add the tile's production, -1 to remove it
+     */
+    private void adjust(HexTile tile, int delta) {
+        if (tile.getResourceType() == Resources.NONE || tile.getDiceNumber() == 0) {
+            return;
+        }
+        int amount = delta * Dice.ways(tile.getDiceNumber());
+        int resource = tile.getResourceType().ordinal();
+        for (Node node : tile.getHexTileNodes()) {
+            pips[node.getId() * RESOURCE_COUNT + resource] += amount;
+            totalPips[node.getId()] += amount;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.catan.engine;
+
+import org.example.catan.gamepieces.Bank;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.graph.IntTupel;
+import org.example.catan.graph.StreetGraph;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Random 64-bit keys for Zobrist hashing of game positions. The hash of a position is the XOR of the keys
+ * of everything in it, so placing or removing a piece updates the hash with a single XOR.
+ * Keys are drawn from a fixed seed and shared by all games with the same dimensions, so copies of a game
+ * and games on boards of the same size hash equal positions to equal values.
+ * Card counts are hashed modulo {@link #COUNT_RANGE}; hands or stocks that differ by a multiple of it collide.
+ */
+final class ZobristKeys {
+    /** Number of distinct card counts per resource with their own key. */
+    static final int COUNT_RANGE = 64;
+
+    private static final long SEED = 0x5EED_CA7A_2025L;
+    private static final Map<List<Integer>, ZobristKeys> CACHE = new ConcurrentHashMap<>();
+
+    private final int numVertices;
+    private final int numEdges;
+    private final long[] settlements;
+    private final long[] streets;
+    private final long[] hands;
+    private final long[] bank;
+    private final long[] toMove;
+    private final long[] longestRoad;
+    private final long robberSalt;
+    private final long rolled;
+    private final long waitingForBandit;
+    private final long gameOver;
+
+    /**
+     * Draws the keys for a board and number of players.
+     *
+     * @param numPlayers  number of players
+     * @param numVertices number of vertices of the board
+     * @param numEdges    number of edges of the board
+     */
+    private ZobristKeys(int numPlayers, int numVertices, int numEdges) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        this.numVertices = numVertices;
+        this.numEdges = numEdges;
+        this.settlements = random.longs(numPlayers * numVertices).toArray();
+        this.streets = random.longs(numPlayers * numEdges).toArray();
+        this.hands = random.longs(numPlayers * ResourceVector.SIZE * COUNT_RANGE).toArray();
+        this.bank = random.longs(ResourceVector.SIZE * COUNT_RANGE).toArray();
+        this.toMove = random.longs(numPlayers).toArray();
+        this.robberSalt = random.nextLong();
+        this.rolled = random.nextLong();
+        this.waitingForBandit = random.nextLong();
+        this.gameOver = random.nextLong();
+        this.longestRoad = random.longs(numPlayers + 1).toArray();
+    }
+
+    /**
+     * Returns the shared keys for a board and number of players.
+     *
+     * @param numPlayers  number of players
+     * @param numVertices number of vertices of the board
+     * @param numEdges    number of edges of the board
+     * @return the keys
+     */
+    static ZobristKeys of(int numPlayers, int numVertices, int numEdges) {
+        return CACHE.computeIfAbsent(List.of(numPlayers, numVertices, numEdges),
+                dims -> new ZobristKeys(dims.get(0), dims.get(1), dims.get(2)));
+    }
+
+    /**
+     * Returns the key of a settlement.
+     *
+     * @param player index of the owner
+     * @param vertex the vertex
+     * @return the key
+     */
+    long settlement(int player, int vertex) {
+        return settlements[player * numVertices + vertex];
+    }
+
+    /**
+     * Returns the key of a street.
+     *
+     * @param player index of the owner
+     * @param edge   the edge
+     * @return the key
+     */
+    long street(int player, int edge) {
+        return streets[player * numEdges + edge];
+    }
+
+    /**
+     * Returns the key of the "Longest Road" holder. The award is part of the position: on a tie the holder
+     * keeps it, so equal pieces reached in different orders can be worth different victory points.
+     *
+     * @param holder index of the holder, or {@link StreetGraph#NO_OWNER} if nobody holds it
+     * @return the key
+     */
+    long longestRoad(int holder) {
+        return longestRoad[holder + 1];
+    }
+
+    /**
+     * Returns the key of the robber standing on a tile, derived from the tile's coordinate.
+     *
+     * @param coord the tile coordinate, or null if the robber is not on the board
+     * @return the key, 0 for null
+     */
+    long robber(IntTupel coord) {
+        if (coord == null) {
+            return 0;
+        }
+        long z = robberSalt + ((long) coord.q() << 32 | (coord.r() & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Combines the keys of all card counts of a player's hand.
+     *
+     * @param player index of the player
+     * @param hand   the player's cards
+     * @return the combined key
+     */
+    long hand(int player, ResourceVector hand) {
+        long key = 0;
+        int base = player * ResourceVector.SIZE;
+        for (int r = 0; r < ResourceVector.SIZE; r++) {
+            key ^= hands[(base + r) * COUNT_RANGE + (hand.get(r) & (COUNT_RANGE - 1))];
+        }
+        return key;
+    }
+
+    /**
+     * Combines the keys of all card counts of the bank.
+     *
+     * @param stock the bank
+     * @return the combined key
+     */
+    long bank(Bank stock) {
+        long key = 0;
+        for (int r = 0; r < ResourceVector.SIZE; r++) {
+            key ^= bank[r * COUNT_RANGE + (stock.getResourceCount(r) & (COUNT_RANGE - 1))];
+        }
+        return key;
+    }
+
+    /**
+     * Combines the keys of the turn phase.
+     *
+     * @param player           index of the player to move
+     * @param hasRolled        whether that player has rolled
+     * @param waitingForBandit whether the bandit has to be placed
+     * @param over             whether the game is over
+     * @return the combined key
+     */
+    long phase(int player, boolean hasRolled, boolean waitingForBandit, boolean over) {
+        return toMove[player]
+                ^ (hasRolled ? rolled : 0)
+                ^ (waitingForBandit ? this.waitingForBandit : 0)
+                ^ (over ? gameOver : 0);
+    }
+}
@@ -1,38 +1,123 @@
 package org.example.catan.gamepieces;
 
-import lombok.Getter;
+import org.example.catan.gamepieces.buildings.Buildings;
 
-import java.util.EnumMap;
-import java.util.Map;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 
 /**
  * Represents the central bank in the game of Catan.
  * The bank holds all available resources and tracks
  * the remaining roads and settlements that can be placed.
+ * <p>
+ * All counters are packed into one 64-bit word, eight bits each: the five resources, the roads and the
+ * settlements. Every operation computes the new word from the old one and publishes it with a single
+ * compare-and-set, retrying if another thread got there first, so a transaction over several counters
+ * either happens completely or not at all, without locks, and readers always see a consistent stock.
  */
-@Getter
 public class Bank {
-    /** Stores the quantity of each resource available in the bank. */
-    private final Map<Resources, Integer> resourceStock;
+    /** Largest value a single counter can hold. */
+    public static final int MAX_COUNT = 0xFF;
 
-    /** Total number of roads remaining in the game (shared across all players). */
-    private int remainingRoads = 15 * 4;
+    private static final int FIELD_BITS = 8;
+    private static final int ROADS = ResourceVector.SIZE;
+    private static final int SETTLEMENTS = ResourceVector.SIZE + 1;
+    private static final int FIELDS = ResourceVector.SIZE + 2;
+    private static final VarHandle STATE;
 
-    /** Total number of settlements remaining in the game (shared across all players). */
-    private int remainingSettlements = 5 * 4;
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Bank.class, "state", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** The packed counters. */
+    private volatile long state;
 
     /**
-     * Initializes the bank with the default number of resources (19 each, except NONE).
+     * Initializes the bank with the default number of resources (19 each, except NONE),
+     * 15 roads and 5 settlements for each of four players.
      */
     public Bank() {
-        resourceStock = new EnumMap<>(Resources.class);
-        for (Resources res : Resources.values()) {
-            if (res != Resources.NONE) {
-                resourceStock.put(res, 19);
-            }
+        long initial = field(ROADS, 15 * 4) | field(SETTLEMENTS, 5 * 4);
+        for (int r = 0; r < ResourceVector.SIZE; r++) {
+            initial |= field(r, 19);
+        }
+        state = initial;
+    }
+
+    /**
+     * Overwrites the stock and the remaining pieces with those of another bank.
+     *
+     * @param other the bank to copy
+     */
+    public void copyFrom(Bank other) {
+        state = other.state;
+    }
+
+    /**
+     * Returns a snapshot of the resources in the bank.
+     *
+     * @return a new vector with the stock of every resource
+     */
+    public ResourceVector getResourceStock() {
+        ResourceVector stock = new ResourceVector();
+        copyStockTo(stock);
+        return stock;
+    }
+
+    /**
+     * Writes a consistent snapshot of the resources in the bank into a vector.
+     *
+     * @param target the vector to overwrite
+     */
+    public void copyStockTo(ResourceVector target) {
+        long current = state;
+        for (int r = 0; r < ResourceVector.SIZE; r++) {
+            target.set(ResourceVector.resourceAt(r), count(current, r));
         }
     }
 
+    /**
+     * Returns how many cards of a resource the bank holds.
+     *
+     * @param index the resource index, {@code 0 <= index < ResourceVector.SIZE}
+     * @return the stock of the resource
+     */
+    public int getResourceCount(int index) {
+        return count(state, index);
+    }
+
+    /**
+     * Returns how many cards of a resource the bank holds.
+     *
+     * @param resource the resource
+     * @return the stock of the resource
+     */
+    public int getResourceCount(Resources resource) {
+        return getResourceCount(resource.ordinal());
+    }
+
+    /**
+     * Returns the number of roads that can still be built.
+     *
+     * @return total number of roads remaining in the game (shared across all players)
+     */
+    public int getRemainingRoads() {
+        return count(state, ROADS);
+    }
+
+    /**
+     * Returns the number of settlements that can still be built.
+     *
+     * @return total number of settlements remaining in the game (shared across all players)
+     */
+    public int getRemainingSettlements() {
+        return count(state, SETTLEMENTS);
+    }
+
     /**
      * Attempts to take the specified amount of a resource from the bank.
      *
@@ -41,37 +126,201 @@ public class Bank {
      * @return true if the bank had enough and the amount was deducted, false otherwise
      */
     public boolean takeResource(Resources resource, int amount) {
-        int current = resourceStock.getOrDefault(resource, 0);
-        if (current >= amount) {
-            resourceStock.put(resource, current - amount);
-            return true;
+        return transact(field(resource.ordinal(), amount), 0);
+    }
+
+    /**
+     * Takes as much of a resource as the bank has, up to the specified amount.
+     *
+     * @param resource the resource to take
+     * @param amount   the maximum amount to take
+     * @return the amount actually deducted
+     */
+    public int takeAvailable(Resources resource, int amount) {
+        int index = resource.ordinal();
+        while (true) {
+            long current = state;
+            int taken = Math.min(amount, count(current, index));
+            if (taken == 0 || STATE.compareAndSet(this, current, current - field(index, taken))) {
+                return taken;
+            }
         }
-        return false;
     }
 
     /**
-     * Attempts to use one available settlement piece.
+     * Puts resources back into the bank's stock, e.g. after a player spent them.
      *
-     * @return true if a settlement was available and used, false otherwise
+     * @param resource the resource to return
+     * @param amount   the amount to return
      */
-    public boolean useSettlement() {
-        if (remainingSettlements > 0) {
-            remainingSettlements--;
-            return true;
+    public void returnResource(Resources resource, int amount) {
+        transact(0, field(resource.ordinal(), amount));
+    }
+
+    /**
+     * Takes several resources at once, only if the bank holds all of them.
+     *
+     * @param cards the cards to take
+     * @return true if all cards were taken, false if nothing was taken
+     */
+    public boolean take(ResourceVector cards) {
+        return transact(pack(cards), 0);
+    }
+
+    /**
+     * Puts several resources back into the bank's stock at once.
+     *
+     * @param cards the cards to return
+     */
+    public void deposit(ResourceVector cards) {
+        transact(0, pack(cards));
+    }
+
+    /**
+     * Takes the production of a roll: every resource whose full demand the bank can cover is taken,
+     * a resource the bank cannot cover for everybody is not handed out at all.
+     *
+     * @param demand the total demand of all players per resource
+     * @return a bit mask with bit {@code r} set if resource {@code r} was taken in full
+     */
+    public int takeCovered(ResourceVector demand) {
+        while (true) {
+            long current = state;
+            long taken = 0;
+            int covered = 0;
+            for (int r = 0; r < ResourceVector.SIZE; r++) {
+                int amount = demand.get(r);
+                if (amount > 0 && amount <= count(current, r)) {
+                    taken += field(r, amount);
+                    covered |= 1 << r;
+                }
+            }
+            if (taken == 0 || STATE.compareAndSet(this, current, current - taken)) {
+                return covered;
+            }
+        }
+    }
+
+    /**
+     * Trades with the bank: takes cards of one resource and hands out cards of another in one step.
+     *
+     * @param give       the resource paid into the bank
+     * @param giveAmount the number of cards paid
+     * @param want       the resource taken from the bank
+     * @param wantAmount the number of cards taken
+     * @return true if the bank held the wanted cards and the trade took place
+     */
+    public boolean exchange(Resources give, int giveAmount, Resources want, int wantAmount) {
+        return transact(field(want.ordinal(), wantAmount), field(give.ordinal(), giveAmount));
+    }
+
+    /**
+     * Hands out a piece of a building and takes its cost into the stock in one step.
+     *
+     * @param building the building type
+     * @return true if a piece was left, false if nothing changed
+     */
+    public boolean sellPiece(Buildings building) {
+        return transact(field(pieceField(building), 1), costOf(building));
+    }
+
+    /**
+     * Takes a piece of a building back and pays out its cost in one step, e.g. when a search takes back a move.
+     *
+     * @param building the building type
+     * @return true if the cost was in the stock, false if nothing changed
+     */
+    public boolean refundPiece(Buildings building) {
+        return transact(costOf(building), field(pieceField(building), 1));
+    }
+
+    /**
+     * Atomically subtracts and adds packed counters, unless a counter would drop below zero.
+     *
+     * @param subtract the packed amounts to take
+     * @param add      the packed amounts to put in
+     * @return true if the transaction took place
+     * @throws IllegalStateException if a counter would exceed {@link #MAX_COUNT}
+     */
+    private boolean transact(long subtract, long add) {
+        while (true) {
+            long current = state;
+            for (int i = 0; i < FIELDS; i++) {
+                int next = count(current, i) - count(subtract, i);
+                if (next < 0) {
+                    return false;
+                }
+                if (next + count(add, i) > MAX_COUNT) {
+                    throw new IllegalStateException("Bank counter " + i + " would exceed " + MAX_COUNT);
+                }
+            }
+            if (STATE.compareAndSet(this, current, current - subtract + add)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Packs the counts of a resource vector.
+     *
+     * @param cards the cards
+     * @return the packed counts
+     */
+    private static long pack(ResourceVector cards) {
+        long packed = 0;
+        for (int r = 0; r < ResourceVector.SIZE; r++) {
+            packed |= field(r, cards.get(r));
         }
-        return false;
+        return packed;
     }
 
     /**
-     * Attempts to use one available road piece.
+     * Packs the cost of a building.
      *
-     * @return true if a road was available and used, false otherwise
+     * @param building the building type
+     * @return the packed cost
      */
-    public boolean useStreet() {
-        if (remainingRoads > 0) {
-            remainingRoads--;
-            return true;
+    private static long costOf(Buildings building) {
+        long packed = 0;
+        for (int r = 0; r < ResourceVector.SIZE; r++) {
+            packed |= field(r, building.getCost(ResourceVector.resourceAt(r)));
         }
-        return false;
+        return packed;
+    }
+
+    /**
+     * Returns the counter holding the pieces of a building.
+     *
+     * @param building the building type
+     * @return the field index
+     */
+    private static int pieceField(Buildings building) {
+        return building == Buildings.STREET ? ROADS : SETTLEMENTS;
+    }
+
+    /**
+     * Places a count into its field.
+     *
+     * @param index the field index
+     * @param count the count, {@code 0 <= count <= MAX_COUNT}
+     * @return the packed count
+     * @throws IllegalArgumentException if the count does not fit into a field
+     */
+    private static long field(int index, int count) {
+        if (count < 0 || count > MAX_COUNT) {
+            throw new IllegalArgumentException("Bank counts must be between 0 and " + MAX_COUNT + ": " + count);
+        }
+        return (long) count << index * FIELD_BITS;
+    }
+
+    /**
+     * Extracts a count from packed counters.
+     *
+     * @param packed the packed counters
+     * @param index  the field index
+     * @return the count
+     */
+    private static int count(long packed, int index) {
+        return (int) (packed >>> index * FIELD_BITS) & MAX_COUNT;
     }
 }
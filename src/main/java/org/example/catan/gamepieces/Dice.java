@@ -7,6 +7,11 @@ import java.util.Random;
  * Allows rolling a specified number of standard 6-sided dice.
  */
 public class Dice {
+    /** Number of equally likely outcomes of two six-sided dice. */
+    public static final int TWO_DICE_OUTCOMES = 36;
+
+    private static final int[] TWO_DICE_WAYS = {0, 0, 1, 2, 3, 4, 5, 6, 5, 4, 3, 2, 1};
+
     private final int amount;
     private final Random random;
 
@@ -16,8 +21,29 @@ public class Dice {
      * @param amount the number of 6-sided dice to roll
      */
     public Dice(int amount) {
+        this(amount, new Random());
+    }
+
+    /**
+     * Constructs a Die object with the given number of dice that draws from the given random source.
+     *
+     * @param amount the number of 6-sided dice to roll
+     * @param random the random number generator used for all rolls
+     */
+    public Dice(int amount, Random random) {
         this.amount = amount;
-        this.random = new Random();
+        this.random = random;
+    }
+
+    /**
+     * Returns the number of the {@value #TWO_DICE_OUTCOMES} outcomes of two dice that add up to a total.
+     * For the number on a tile this is its count of pips.
+     *
+     * @param total the sum of two dice, or 0 for the desert
+     * @return the number of outcomes, 0 for the desert
+     */
+    public static int ways(int total) {
+        return TWO_DICE_WAYS[total];
     }
 
     /**
@@ -3,18 +3,13 @@ package org.example.catan.gamepieces;
 import javafx.scene.paint.Color;
 import lombok.Getter;
 import lombok.ToString;
-import org.example.catan.gamepieces.buildings.BuildingPlacement;
 import org.example.catan.gamepieces.buildings.Buildings;
 
-import java.util.ArrayList;
-import java.util.EnumMap;
-import java.util.List;
-import java.util.Map;
-
 /**
  * Represents a player in the game "The Settlers of Catan".
- * Tracks the player's color, inventory of resources, buildings placed, and allows actions such as
- * placing settlements and streets, collecting and spending resources, and computing victory points.
+ * Tracks the player's color, inventory of resources and pieces used, and allows actions such as
+ * buying settlements and streets, collecting and spending resources, and computing victory points.
+ * Where the pieces stand is kept by the engine's {@code BoardOccupancy}.
  */
 @Getter
 @ToString
@@ -24,8 +19,9 @@ public class Player {
     private static final int MAX_STREETS = 15;
 
     private final Color color;
-    private final Map<Resources, Integer> inventory;
-    private final List<BuildingPlacement> buildings;
+    private final ResourceVector inventory;
+    private int settlementCount;
+    private int streetCount;
 
     /**
      * Creates a new player with the given color and initializes their inventory.
@@ -35,9 +31,7 @@ public class Player {
      */
     public Player(Color color) {
         this.color = color;
-        this.inventory = new EnumMap<>(Resources.class);
-        this.buildings = new ArrayList<>();
-        initializeInventory();
+        this.inventory = new ResourceVector();
         addResource(Resources.WOOD, 4);
         addResource(Resources.BRICK, 4);
         addResource(Resources.WHEAT, 2);
@@ -45,25 +39,24 @@ public class Player {
     }
 
     /**
-     * Calculates the player's current victory points based on their buildings.
+     * Creates an independent copy of another player with the same color, hand and piece counts.
      *
-     * @return total victory points from settlements
+     * @param other the player to copy
      */
-    public int getVictoryPoints() {
-        return (int) buildings.stream()
-                .filter(b -> b.type() == Buildings.SETTLEMENT)
-                .count();
+    public Player(Player other) {
+        this.color = other.color;
+        this.inventory = other.inventory.copy();
+        this.settlementCount = other.settlementCount;
+        this.streetCount = other.streetCount;
     }
 
     /**
-     * Initializes the player's inventory with 0 for all resource types except NONE.
+     * Calculates the player's current victory points based on their settlements.
+     *
+     * @return total victory points from settlements
      */
-    private void initializeInventory() {
-        for (Resources resource : Resources.values()) {
-            if (resource != Resources.NONE) {
-                inventory.put(resource, 0);
-            }
-        }
+    public int getVictoryPoints() {
+        return settlementCount;
     }
 
     /**
@@ -73,7 +66,7 @@ public class Player {
      * @return the quantity of that resource
      */
     public int getResourceCount(Resources resource) {
-        return inventory.getOrDefault(resource, 0);
+        return inventory.get(resource);
     }
 
     /**
@@ -83,7 +76,7 @@ public class Player {
      * @param amount   the quantity to add
      */
     public void addResource(Resources resource, int amount) {
-        inventory.put(resource, getResourceCount(resource) + amount);
+        inventory.add(resource, amount);
     }
 
     /**
@@ -94,87 +87,69 @@ public class Player {
      * @return true if removal succeeded, false otherwise
      */
     public boolean removeResource(Resources resource, int amount) {
-        int current = getResourceCount(resource);
-        if (current >= amount) {
-            inventory.put(resource, current - amount);
-            return true;
-        }
-        return false;
+        return inventory.remove(resource, amount);
     }
 
     /**
-     * Returns a copy of the player's inventory for safe access.
+     * Copies the player's inventory into the given vector, e.g. for display, without allocating.
      *
-     * @return a defensive copy of the resource inventory
+     * @param target the vector receiving the current resource counts
      */
-    public Map<Resources, Integer> getInventorySnapshot() {
-        return new EnumMap<>(inventory);
+    public void copyInventoryTo(ResourceVector target) {
+        inventory.copyTo(target);
     }
 
     /**
-     * Attempts to place a settlement at the given node.
-     * Requires wood, brick, wheat, and sheep.
+     * Checks whether the player can pay for a building.
      *
-     * @param nodeId the node where the settlement is to be placed
-     * @return true if placement was successful, false otherwise
+     * @param building the building type
+     * @return true if the inventory covers the building's cost
      */
-    public boolean placeSettlement(int nodeId) {
-        long current = buildings.stream()
-                .filter(b -> b.type() == Buildings.SETTLEMENT)
-                .count();
-
-        if (current >= MAX_SETTLEMENTS) {
-            return false;
-        }
-        try {
-            removeResource(Resources.WOOD, 1);
-            removeResource(Resources.BRICK, 1);
-            removeResource(Resources.WHEAT, 1);
-            removeResource(Resources.SHEEP, 1);
-        } catch (Exception e) {
-            return false;
-        }
-
-        buildings.add(new BuildingPlacement(Buildings.SETTLEMENT, nodeId, null));
-        return true;
+    public boolean canAfford(Buildings building) {
+        return building.isAffordable(inventory);
     }
 
     /**
-     * Attempts to place a street between two nodes.
-     * Requires wood and brick.
+     * Checks whether the player still has a piece of a building type in their supply.
      *
-     * @param nodeA one end of the street
-     * @param nodeB the other end of the street
-     * @return true if placement was successful, false otherwise
+     * @param building the building type
+     * @return true if the player has not yet placed all pieces of that type
      */
-    public boolean placeStreet(int nodeA, int nodeB) {
-        long current = buildings.stream()
-                .filter(b -> b.type() == Buildings.STREET)
-                .count();
+    public boolean hasPieceLeft(Buildings building) {
+        return switch (building) {
+            case STREET -> streetCount < MAX_STREETS;
+            case SETTLEMENT -> settlementCount < MAX_SETTLEMENTS;
+        };
+    }
 
-        if (current >= MAX_STREETS) {
+    /**
+     * Takes a piece from the player's supply and pays for it. Where it is placed is up to the caller.
+     *
+     * @param building the building type
+     * @return true if a piece was left and the player could pay for it, false otherwise
+     */
+    public boolean claimPiece(Buildings building) {
+        if (!hasPieceLeft(building) || !building.payFrom(inventory)) {
             return false;
         }
-        try {
-            removeResource(Resources.WOOD, 1);
-            removeResource(Resources.BRICK, 1);
-        } catch (Exception e) {
-            return false;
+        switch (building) {
+            case STREET -> streetCount++;
+            case SETTLEMENT -> settlementCount++;
         }
-
-        buildings.add(new BuildingPlacement(Buildings.STREET, nodeA, nodeB));
         return true;
     }
 
     /**
-     * Checks if the player owns a settlement at the specified node.
+     * Reverts {@link #claimPiece(Buildings)}: the piece goes back to the supply and its cost is refunded.
      *
-     * @param nodeId the node to check
-     * @return true if a settlement is present, false otherwise
+     * @param building the building type
      */
-    public boolean ownsSettlementAt(int nodeId) {
-        return buildings.stream()
-                .anyMatch(b -> b.type() == Buildings.SETTLEMENT && b.nodeA() == nodeId);
+    public void releasePiece(Buildings building) {
+        building.refundTo(inventory);
+        switch (building) {
+            case STREET -> streetCount--;
+            case SETTLEMENT -> settlementCount--;
+        }
     }
 
     /**
@@ -0,0 +1,293 @@
+package org.example.catan.gamepieces;
+
+import java.util.Arrays;
+
+/**
+ * A mutable count per producible resource, backed by a primitive {@code int[]} indexed by
+ * {@link Resources#ordinal()}. Used for player hands, the bank's stock, trade offers and building costs,
+ * so that adding, paying and affordability checks never box integers or allocate.
+ * {@link Resources#NONE} always counts as zero and cannot be stored.
+ */
+public final class ResourceVector {
+    /** Number of producible resource types (all except {@link Resources#NONE}). */
+    public static final int SIZE = Resources.values().length - 1;
+
+    private static final Resources[] RESOURCES = Resources.values();
+
+    private final int[] counts = new int[SIZE];
+
+    /**
+     * Creates an empty vector.
+     */
+    public ResourceVector() {
+    }
+
+    /**
+     * Creates a vector with the given counts.
+     *
+     * @param wood  amount of wood
+     * @param sheep amount of sheep
+     * @param wheat amount of wheat
+     * @param brick amount of brick
+     * @param stone amount of stone
+     * @return the new vector
+     */
+    public static ResourceVector of(int wood, int sheep, int wheat, int brick, int stone) {
+        ResourceVector vector = new ResourceVector();
+        vector.counts[Resources.WOOD.ordinal()] = wood;
+        vector.counts[Resources.SHEEP.ordinal()] = sheep;
+        vector.counts[Resources.WHEAT.ordinal()] = wheat;
+        vector.counts[Resources.BRICK.ordinal()] = brick;
+        vector.counts[Resources.STONE.ordinal()] = stone;
+        return vector;
+    }
+
+    /**
+     * Creates a vector holding an amount of a single resource.
+     *
+     * @param resource the resource
+     * @param amount   the amount
+     * @return the new vector
+     */
+    public static ResourceVector of(Resources resource, int amount) {
+        ResourceVector vector = new ResourceVector();
+        vector.set(resource, amount);
+        return vector;
+    }
+
+    /**
+     * Returns the resource stored at an index of this vector.
+     *
+     * @param index an index {@code 0 <= index < SIZE}
+     * @return the resource with that ordinal
+     */
+    public static Resources resourceAt(int index) {
+        return RESOURCES[index];
+    }
+
+    /**
+     * Returns the amount of a resource.
+     *
+     * @param resource the resource
+     * @return the stored amount, 0 for {@link Resources#NONE}
+     */
+    public int get(Resources resource) {
+        return resource == Resources.NONE ? 0 : counts[resource.ordinal()];
+    }
+
+    /**
+     * Returns the amount stored at an index.
+     *
+     * @param index an index {@code 0 <= index < SIZE}
+     * @return the stored amount
+     */
+    public int get(int index) {
+        return counts[index];
+    }
+
+    /**
+     * Sets the amount of a resource.
+     *
+     * @param resource the resource, must not be {@link Resources#NONE}
+     * @param amount   the new amount
+     */
+    public void set(Resources resource, int amount) {
+        counts[resource.ordinal()] = amount;
+    }
+
+    /**
+     * Sets every resource to the same amount.
+     *
+     * @param amount the new amount for all resources
+     */
+    public void fill(int amount) {
+        Arrays.fill(counts, amount);
+    }
+
+    /**
+     * Adds an amount of a resource.
+     *
+     * @param resource the resource, must not be {@link Resources#NONE}
+     * @param amount   the amount to add
+     */
+    public void add(Resources resource, int amount) {
+        counts[resource.ordinal()] += amount;
+    }
+
+    /**
+     * Removes an amount of a resource if enough is available.
+     *
+     * @param resource the resource
+     * @param amount   the amount to remove
+     * @return true if the amount was removed, false if not enough was available
+     */
+    public boolean remove(Resources resource, int amount) {
+        if (get(resource) < amount) {
+            return false;
+        }
+        if (amount != 0) {
+            counts[resource.ordinal()] -= amount;
+        }
+        return true;
+    }
+
+    /**
+     * Removes up to an amount of a resource.
+     *
+     * @param resource the resource, must not be {@link Resources#NONE}
+     * @param amount   the maximum amount to remove
+     * @return the amount actually removed
+     */
+    public int removeUpTo(Resources resource, int amount) {
+        int removed = Math.min(amount, counts[resource.ordinal()]);
+        counts[resource.ordinal()] -= removed;
+        return removed;
+    }
+
+    /**
+     * Adds all counts of another vector to this one.
+     *
+     * @param other the vector to add
+     */
+    public void add(ResourceVector other) {
+        for (int i = 0; i < SIZE; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    /**
+     * Checks whether this vector holds at least the counts of another one, e.g. whether a hand can pay a cost.
+     *
+     * @param cost the required counts
+     * @return true if every count is at least the required one
+     */
+    public boolean covers(ResourceVector cost) {
+        for (int i = 0; i < SIZE; i++) {
+            if (counts[i] < cost.counts[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Subtracts another vector from this one, all or nothing.
+     *
+     * @param cost the counts to subtract
+     * @return true if this vector covered the cost and it was subtracted, false if nothing was changed
+     */
+    public boolean subtract(ResourceVector cost) {
+        if (!covers(cost)) {
+            return false;
+        }
+        for (int i = 0; i < SIZE; i++) {
+            counts[i] -= cost.counts[i];
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of cards in this vector.
+     *
+     * @return the sum of all counts
+     */
+    public int total() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of resource types with a non-zero count.
+     *
+     * @return the number of distinct resources
+     */
+    public int distinct() {
+        int distinct = 0;
+        for (int count : counts) {
+            if (count != 0) {
+                distinct++;
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * Returns the first resource with a non-zero count.
+     *
+     * @return the resource, or {@link Resources#NONE} if the vector is empty
+     */
+    public Resources first() {
+        for (int i = 0; i < SIZE; i++) {
+            if (counts[i] != 0) {
+                return RESOURCES[i];
+            }
+        }
+        return Resources.NONE;
+    }
+
+    /**
+     * Checks whether all counts are zero.
+     *
+     * @return true if the vector is empty
+     */
+    public boolean isEmpty() {
+        for (int count : counts) {
+            if (count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies all counts into another vector without allocating.
+     *
+     * @param target the vector to overwrite
+     */
+    public void copyTo(ResourceVector target) {
+        System.arraycopy(counts, 0, target.counts, 0, SIZE);
+    }
+
+    /**
+     * Creates an independent copy of this vector.
+     *
+     * @return the copy
+     */
+    public ResourceVector copy() {
+        ResourceVector copy = new ResourceVector();
+        copyTo(copy);
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ResourceVector other && Arrays.equals(counts, other.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+
+    /**
+     * Lists the non-zero counts, e.g. {@code "2 WOOD, 1 BRICK"}.
+     *
+     * @return a readable description of the vector
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < SIZE; i++) {
+            if (counts[i] != 0) {
+                if (!sb.isEmpty()) {
+                    sb.append(", ");
+                }
+                sb.append(counts[i]).append(' ').append(RESOURCES[i].name());
+            }
+        }
+        return sb.isEmpty() ? "nothing" : sb.toString();
+    }
+}
@@ -2,11 +2,6 @@ package org.example.catan.gamepieces;
 
 import lombok.Getter;
 
-import java.util.Map;
-
-
-
-
 /**
  * Represents a trade offer made by a player.
  * Can be a player-to-player trade or a trade with the bank.
@@ -14,16 +9,16 @@ import java.util.Map;
 @Getter
 public class TradeOffer {
     private final Player sender;
-    private final Map<Resources, Integer> offer;     // What the sender gives
-    private final Map<Resources, Integer> request;   // What the sender wants
+    private final ResourceVector offer;     // What the sender gives
+    private final ResourceVector request;   // What the sender wants
     private final boolean isBankTrade;
 
     private boolean accepted = false;
     private Player acceptedBy = null;
 
     public TradeOffer(Player sender,
-                      Map<Resources, Integer> offer,
-                      Map<Resources, Integer> request,
+                      ResourceVector offer,
+                      ResourceVector request,
                       boolean isBankTrade) {
         this.sender = sender;
         this.offer = offer;
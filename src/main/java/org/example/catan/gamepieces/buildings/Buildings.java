@@ -1,16 +1,70 @@
 package org.example.catan.gamepieces.buildings;
 
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.gamepieces.Resources;
+
 /**
  * Enum representing different types of buildings in the game "The Settlers of Catan".
+ * Each building type knows the resources it costs.
  */
 public enum Buildings {
     /**
-     * A road segment connecting two nodes.
+     * A road segment connecting two nodes. Costs one wood and one brick.
+     */
+    STREET(ResourceVector.of(1, 0, 0, 1, 0)),
+    /**
+     * A small settlement placed on a single node. Costs one wood, sheep, wheat and brick.
+     */
+    SETTLEMENT(ResourceVector.of(1, 1, 1, 1, 0));
+
+    /** The resources required to build this building; never handed out, so it cannot be modified. */
+    private final ResourceVector cost;
+
+    /**
+     * Creates a building type with its cost.
+     *
+     * @param cost the resources required to build it
+     */
+    Buildings(ResourceVector cost) {
+        this.cost = cost;
+    }
+
+    /**
+     * Returns how many cards of a resource this building costs.
+     *
+     * @param resource the resource
+     * @return the required amount
+     */
+    public int getCost(Resources resource) {
+        return cost.get(resource);
+    }
+
+    /**
+     * Checks whether a hand of resources can pay for this building.
+     *
+     * @param hand the available resources
+     * @return true if the hand covers the full cost
      */
-    STREET,
+    public boolean isAffordable(ResourceVector hand) {
+        return hand.covers(cost);
+    }
+
     /**
-     * A small settlement placed on a single node.
+     * Pays for this building from a hand of resources, all or nothing.
+     *
+     * @param hand the resources to pay from
+     * @return true if the cost was paid, false if the hand could not cover it
      */
-    SETTLEMENT
+    public boolean payFrom(ResourceVector hand) {
+        return hand.subtract(cost);
+    }
 
+    /**
+     * Gives the cost of this building back to a hand of resources.
+     *
+     * @param hand the resources to refund to
+     */
+    public void refundTo(ResourceVector hand) {
+        hand.add(cost);
+    }
 }
@@ -0,0 +1,34 @@
+package org.example.catan.generator;
+
+/**
+ * Fairness rules a generated board has to satisfy.
+ *
+ * @param separateRedNumbers       whether tiles with a 6 or an 8 may not share a side
+ * @param separateEqualNumbers     whether tiles with the same dice number may not share a side
+ * @param maxSameResourceNeighbors how many neighbors of a tile may produce the same resource as the tile
+ * @param pipTolerance             how far the average pips per tile of every resource may deviate from the
+ *                                 average of the whole board; {@link Double#POSITIVE_INFINITY} disables the rule
+ */
+public record BoardConstraints(boolean separateRedNumbers, boolean separateEqualNumbers,
+                               int maxSameResourceNeighbors, double pipTolerance) {
+
+    /** No adjacent red or equal numbers, resource pairs at most, and balanced pips. */
+    public static final BoardConstraints STANDARD = new BoardConstraints(true, true, 1, 0.75);
+
+    /** No rules at all, like a purely random board. */
+    public static final BoardConstraints NONE = new BoardConstraints(false, false, 6, Double.POSITIVE_INFINITY);
+
+    /**
+     * Validates the rules.
+     *
+     * @throws IllegalArgumentException if a limit is negative
+     */
+    public BoardConstraints {
+        if (maxSameResourceNeighbors < 0) {
+            throw new IllegalArgumentException("maxSameResourceNeighbors must not be negative: " + maxSameResourceNeighbors);
+        }
+        if (!(pipTolerance >= 0)) {
+            throw new IllegalArgumentException("pipTolerance must not be negative: " + pipTolerance);
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package org.example.catan.generator;
+
+import org.example.catan.CatanBoard;
+import org.example.catan.gamepieces.Dice;
+import org.example.catan.gamepieces.Resources;
+import org.example.catan.graph.BoardTopology;
+import org.example.catan.graph.HexTile;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * Generates boards that satisfy {@link BoardConstraints}, using the same resources and dice numbers as
+ * {@link CatanBoard} for the radius.
+ * The resources are assigned by a randomized backtracking search that visits the tiles row by row, so three
+ * of a tile's neighbors are already assigned when it is reached and the resource spread can be checked
+ * right away. The dice numbers are then dealt at random and repaired by min-conflicts swaps, which scales to
+ * large boards where backtracking would have to undo long runs of choices to fit the last red numbers in.
+ * An attempt is abandoned after a fixed number of steps and restarted with new random choices.
+ * The generator is immutable and can be used from several threads at once.
+ */
+public final class FairBoardGenerator {
+    /** Number of restarts before the constraints are considered unsatisfiable. */
+    public static final int MAX_ATTEMPTS = 10_000;
+
+    private static final int STEPS_PER_TILE = 64;
+    private static final int REPAIRS_PER_TILE = 4;
+    private static final int DICE_VALUES = 13;
+    private static final int MIN_PIPS = 1;
+    private static final int MAX_PIPS = 5;
+    private static final Resources[] RESOURCES = Resources.values();
+    private static final int DESERT = Resources.NONE.ordinal();
+
+    private final int radius;
+    private final BoardConstraints constraints;
+    private final BoardTopology topology;
+    private final int numTiles;
+    private final int[] resourceSupply = new int[RESOURCES.length];
+    private final int[] numberSupply = new int[DICE_VALUES];
+    private final int[] pipMin = new int[RESOURCES.length];
+    private final int[] pipMax = new int[RESOURCES.length];
+
+    /**
+     * Creates a generator for boards of one radius.
+     *
+     * @param radius      number of hex rings from the center outward
+     * @param constraints the rules every board has to satisfy
+     */
+    public FairBoardGenerator(int radius, BoardConstraints constraints) {
+        this.radius = radius;
+        this.constraints = constraints;
+        this.topology = BoardTopology.of(radius);
+        this.numTiles = topology.getTileCount();
+
+        for (Resources resource : CatanBoard.generateResourceTypes(numTiles - 1)) {
+            resourceSupply[resource.ordinal()]++;
+        }
+        resourceSupply[DESERT]++;
+        int totalPips = 0;
+        for (int number : CatanBoard.generateDiceNumbers(numTiles - 1)) {
+            numberSupply[number]++;
+            totalPips += Dice.ways(number);
+        }
+
+        double average = numTiles > 1 ? (double) totalPips / (numTiles - 1) : 0;
+        for (int r = 0; r < RESOURCES.length; r++) {
+            int tiles = resourceSupply[r];
+            double low = Math.ceil(tiles * (average - constraints.pipTolerance()) - 1e-9);
+            double high = Math.floor(tiles * (average + constraints.pipTolerance()) + 1e-9);
+            pipMin[r] = (int) Math.max(tiles * MIN_PIPS, low);
+            pipMax[r] = (int) Math.min(tiles * MAX_PIPS, high);
+        }
+        pipMin[DESERT] = 0;
+        pipMax[DESERT] = 0;
+    }
+
+    /**
+     * Generates one board.
+     *
+     * @param random source for all choices
+     * @return a board satisfying the constraints
+     * @throws IllegalStateException if no such board was found within {@link #MAX_ATTEMPTS} attempts
+     */
+    public CatanBoard generate(RandomGenerator random) {
+        Search search = new Search(random);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            if (search.run()) {
+                return search.toBoard();
+            }
+        }
+        throw new IllegalStateException("No board of radius " + radius + " satisfies " + constraints
+                + " after " + MAX_ATTEMPTS + " attempts.");
+    }
+
+    /**
+     * Generates many boards in parallel on the common fork/join pool. The random source of board {@code i} is
+     * the {@code i}-th {@link SplittableRandom#split() split} of a source seeded with {@code seed}, taken in
+     * index order before the boards are generated, so the boards are seeded independently and the result is
+     * the same for any number of threads.
+     *
+     * @param count number of boards
+     * @param seed  seed of the whole batch
+     * @return the boards in order
+     * @throws IllegalStateException if the constraints cannot be satisfied
+     */
+    public List<CatanBoard> generate(int count, long seed) {
+        SplittableRandom batch = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[count];
+        for (int i = 0; i < count; i++) {
+            randoms[i] = batch.split();
+        }
+        return IntStream.range(0, count)
+                .parallel()
+                .mapToObj(i -> generate(randoms[i]))
+                .toList();
+    }
+
+    /**
+     * Checks whether a board of this generator's radius satisfies the constraints.
+     *
+     * @param board the board to check
+     * @return true if every rule holds
+     * @throws IllegalArgumentException if the board has another radius
+     */
+    public boolean isFair(CatanBoard board) {
+        if (board.getRadius() != radius) {
+            throw new IllegalArgumentException("Cannot check a board of radius " + board.getRadius()
+                    + " with a generator for radius " + radius + ".");
+        }
+        int[] resource = new int[numTiles];
+        int[] number = new int[numTiles];
+        int[] pipSum = new int[RESOURCES.length];
+        for (int t = 0; t < numTiles; t++) {
+            HexTile tile = board.getBoard().get(board.getHex_coords()[t]);
+            resource[t] = tile.getResourceType().ordinal();
+            number[t] = tile.getDiceNumber();
+            pipSum[resource[t]] += Dice.ways(number[t]);
+        }
+
+        for (int t = 0; t < numTiles; t++) {
+            int same = 0;
+            for (int k = 0; k < topology.getTileNeighborCount(t); k++) {
+                int n = topology.getTileNeighbor(t, k);
+                if (resource[n] == resource[t] && resource[t] != DESERT) {
+                    same++;
+                }
+                if (number[t] > 0 && number[n] > 0 && violatesNumberRules(number[t], number[n])) {
+                    return false;
+                }
+            }
+            if (same > constraints.maxSameResourceNeighbors()) {
+                return false;
+            }
+        }
+        for (int r = 0; r < RESOURCES.length; r++) {
+            if (pipSum[r] < pipMin[r] || pipSum[r] > pipMax[r]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether two dice numbers may not lie on neighboring tiles.
+     *
+     * @param a the number of one tile
+     * @param b the number of the other tile
+     * @return true if the combination breaks a number rule
+     */
+    private boolean violatesNumberRules(int a, int b) {
+        return constraints.separateEqualNumbers() && a == b
+                || constraints.separateRedNumbers() && Dice.ways(a) == MAX_PIPS && Dice.ways(b) == MAX_PIPS;
+    }
+
+    /**
+     * The state of one search. Reused for all attempts of a {@link #generate(RandomGenerator)} call.
+     */
+    private final class Search {
+        private final RandomGenerator random;
+        private final int[] resource = new int[numTiles];
+        private final int[] number = new int[numTiles];
+        private final int[] sameNeighbors = new int[numTiles];
+        private final int[] resourceLeft = new int[RESOURCES.length];
+        private final int[] pipSum = new int[RESOURCES.length];
+        private final int[] order = new int[numTiles * RESOURCES.length];
+        private final int[] dealt = new int[numTiles];
+        private final int[] conflicted = new int[numTiles];
+        private int steps;
+
+        /**
+         * Creates the search state.
+         *
+         * @param random source for all choices
+         */
+        Search(RandomGenerator random) {
+            this.random = random;
+        }
+
+        /**
+         * Runs one attempt from an empty board.
+         *
+         * @return true if all tiles were assigned
+         */
+        boolean run() {
+            Arrays.fill(resource, -1);
+            Arrays.fill(sameNeighbors, 0);
+            Arrays.fill(pipSum, 0);
+            System.arraycopy(resourceSupply, 0, resourceLeft, 0, resourceLeft.length);
+
+            steps = numTiles * STEPS_PER_TILE;
+            if (!placeResource(0)) {
+                return false;
+            }
+            steps = numTiles * REPAIRS_PER_TILE;
+            return placeNumbers();
+        }
+
+        /**
+         * Assigns resources to a tile and all tiles after it.
+         *
+         * @param tile the tile index
+         * @return true if a valid assignment was found
+         */
+        private boolean placeResource(int tile) {
+            if (tile == numTiles) {
+                return true;
+            }
+            int candidates = shuffleCandidates(tile);
+            for (int i = 0; i < candidates && steps-- > 0; i++) {
+                int r = order[tile * RESOURCES.length + i];
+                if (!fitsResource(tile, r)) {
+                    continue;
+                }
+                setResource(tile, r, 1);
+                if (placeResource(tile + 1)) {
+                    return true;
+                }
+                setResource(tile, r, -1);
+            }
+            return false;
+        }
+
+        /**
+         * Checks the resource spread of a tile and its assigned neighbors for a candidate resource.
+         *
+         * @param tile     the tile index
+         * @param resource the candidate resource
+         * @return true if no tile would exceed the allowed number of equal neighbors
+         */
+        private boolean fitsResource(int tile, int resource) {
+            if (resource == DESERT) {
+                return true;
+            }
+            int same = 0;
+            for (int k = 0; k < topology.getTileNeighborCount(tile); k++) {
+                int n = topology.getTileNeighbor(tile, k);
+                if (this.resource[n] == resource) {
+                    if (sameNeighbors[n] >= constraints.maxSameResourceNeighbors()) {
+                        return false;
+                    }
+                    same++;
+                }
+            }
+            return same <= constraints.maxSameResourceNeighbors();
+        }
+
+        /**
+         * Assigns or takes back the resource of a tile and updates the equal-neighbor counts.
+         *
+         * @param tile     the tile index
+         * @param resource the resource
+         * @param delta    1 to assign, -1 to take back
+         */
+        private void setResource(int tile, int resource, int delta) {
+            resourceLeft[resource] -= delta;
+            this.resource[tile] = delta > 0 ? resource : -1;
+            if (resource == DESERT) {
+                return;
+            }
+            for (int k = 0; k < topology.getTileNeighborCount(tile); k++) {
+                int n = topology.getTileNeighbor(tile, k);
+                if (this.resource[n] == resource) {
+                    sameNeighbors[n] += delta;
+                    sameNeighbors[tile] += delta;
+                }
+            }
+        }
+
+        /**
+         * Deals the dice numbers to the tiles in random order and repairs them by swapping: a tile that breaks
+         * a rule is picked at random and swapped with the tile that lowers the number of broken rules most.
+         * Swaps keep the set of numbers intact, and sideways swaps let the search leave plateaus.
+         *
+         * @return true if all rules hold before the step budget is used up
+         */
+        private boolean placeNumbers() {
+            int count = 0;
+            for (int t = 0; t < numTiles; t++) {
+                if (resource[t] == DESERT) {
+                    number[t] = 0;
+                } else {
+                    dealt[count++] = t;
+                }
+            }
+            for (int d = 0, i = 0; d < DICE_VALUES; d++) {
+                for (int c = 0; c < numberSupply[d]; c++, i++) {
+                    int slot = random.nextInt(i + 1);
+                    number[dealt[i]] = number[dealt[slot]];
+                    number[dealt[slot]] = d;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                pipSum[resource[dealt[i]]] += Dice.ways(number[dealt[i]]);
+            }
+
+            while (steps-- > 0) {
+                int conflicts = collectConflicts(count);
+                if (conflicts == 0) {
+                    return true;
+                }
+                int a = conflicted[random.nextInt(conflicts)];
+                int best = -1;
+                int bestDelta = Integer.MAX_VALUE;
+                int ties = 0;
+                for (int i = 0; i < count; i++) {
+                    int b = dealt[i];
+                    if (number[b] == number[a]) {
+                        continue;
+                    }
+                    int delta = swapDelta(a, b);
+                    if (delta < bestDelta) {
+                        best = b;
+                        bestDelta = delta;
+                        ties = 1;
+                    } else if (delta == bestDelta && random.nextInt(++ties) == 0) {
+                        best = b;
+                    }
+                }
+                if (best >= 0) {
+                    swap(a, best);
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Collects the tiles that break a number rule or whose resource misses its pip window.
+         *
+         * @param count number of tiles with a dice number
+         * @return the number of collected tiles
+         */
+        private int collectConflicts(int count) {
+            int conflicts = 0;
+            for (int i = 0; i < count; i++) {
+                int t = dealt[i];
+                if (pipPenalty(resource[t], pipSum[resource[t]]) > 0 || brokenRules(t, number[t], -1) > 0) {
+                    conflicted[conflicts++] = t;
+                }
+            }
+            return conflicts;
+        }
+
+        /**
+         * Counts the neighbors of a tile whose numbers break a rule together with a candidate number.
+         *
+         * @param tile    the tile index
+         * @param number  the candidate dice number
+         * @param ignored a neighbor to leave out, or -1
+         * @return the number of broken rules
+         */
+        private int brokenRules(int tile, int number, int ignored) {
+            int broken = 0;
+            for (int k = 0; k < topology.getTileNeighborCount(tile); k++) {
+                int n = topology.getTileNeighbor(tile, k);
+                if (n != ignored && this.number[n] > 0 && violatesNumberRules(number, this.number[n])) {
+                    broken++;
+                }
+            }
+            return broken;
+        }
+
+        /**
+         * Computes by how much swapping the numbers of two tiles changes the broken rules and pip penalties.
+         *
+         * @param a one tile
+         * @param b the other tile
+         * @return the change, negative if the swap is an improvement
+         */
+        private int swapDelta(int a, int b) {
+            int da = number[a];
+            int db = number[b];
+            int delta = brokenRules(a, db, b) + brokenRules(b, da, a) - brokenRules(a, da, b) - brokenRules(b, db, a);
+            int ra = resource[a];
+            int rb = resource[b];
+            if (ra != rb) {
+                int shift = Dice.ways(db) - Dice.ways(da);
+                delta += pipPenalty(ra, pipSum[ra] + shift) - pipPenalty(ra, pipSum[ra])
+                        + pipPenalty(rb, pipSum[rb] - shift) - pipPenalty(rb, pipSum[rb]);
+            }
+            return delta;
+        }
+
+        /**
+         * Swaps the numbers of two tiles.
+         *
+         * @param a one tile
+         * @param b the other tile
+         */
+        private void swap(int a, int b) {
+            int shift = Dice.ways(number[b]) - Dice.ways(number[a]);
+            pipSum[resource[a]] += shift;
+            pipSum[resource[b]] -= shift;
+            int d = number[a];
+            number[a] = number[b];
+            number[b] = d;
+        }
+
+        /**
+         * Measures how far a resource's pip total lies outside its window.
+         *
+         * @param resource the resource
+         * @param sum      the pip total
+         * @return 0 inside the window, otherwise the distance to it
+         */
+        private int pipPenalty(int resource, int sum) {
+            return Math.max(0, pipMin[resource] - sum) + Math.max(0, sum - pipMax[resource]);
+        }
+
+        /**
+         * Writes the resources still available into the tile's slice of the candidate buffer in random order.
+         *
+         * @param tile the tile index
+         * @return the number of candidates
+         */
+        private int shuffleCandidates(int tile) {
+            int base = tile * RESOURCES.length;
+            int count = 0;
+            for (int value = 0; value < RESOURCES.length; value++) {
+                if (resourceLeft[value] > 0) {
+                    int slot = random.nextInt(count + 1);
+                    order[base + count] = order[base + slot];
+                    order[base + slot] = value;
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Builds the board of the last successful attempt.
+         *
+         * @return the board
+         */
+        CatanBoard toBoard() {
+            Resources[] resources = new Resources[numTiles];
+            for (int t = 0; t < numTiles; t++) {
+                resources[t] = RESOURCES[resource[t]];
+            }
+            return new CatanBoard(radius, resources, number.clone());
+        }
+    }
+}
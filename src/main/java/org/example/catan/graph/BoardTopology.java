@@ -0,0 +1,283 @@
+package org.example.catan.graph;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The fixed geometry of a hexagonal board of a given radius: tile coordinates, the nodes at the tile
+ * corners (shared by up to three tiles), the streets between them and all incidences as int arrays.
+ * It only depends on the radius, so it is computed once per radius, cached and shared read-only by all
+ * boards; a new board only assigns resources and dice numbers to the tiles.
+ * Node and edge IDs are numbered exactly as boards always numbered them, so seeded boards and recorded
+ * games keep their meaning.
+ */
+public final class BoardTopology {
+    /** Number of corners of a tile. */
+    public static final int CORNERS = 6;
+
+    /** Maximum number of tiles touching a node. */
+    public static final int MAX_TILES_PER_NODE = 3;
+
+    private static final Map<Integer, BoardTopology> CACHE = new ConcurrentHashMap<>();
+
+    private final int radius;
+    private final IntTupel[] tileCoords;
+    private final Node[] nodes;
+    private final Node[][] tileNodes;
+    private final int[] tileVertices;
+    private final int[] vertexTiles;
+    private final int[] vertexTileCount;
+    private final int[] tileNeighbors;
+    private final int[] tileNeighborCount;
+    final StreetGraph layout;
+
+    /**
+     * Computes the topology of a board.
+     *
+     * @param radius number of hex rings from the center outward
+     */
+    private BoardTopology(int radius) {
+        this.radius = radius;
+        int numNodes = 6 * radius * radius;
+        this.tileCoords = createTileCoords(radius);
+        this.nodes = new Node[numNodes];
+        for (int i = 0; i < numNodes; i++) {
+            nodes[i] = new Node(i);
+        }
+
+        int numTiles = tileCoords.length;
+        this.layout = new StreetGraph(numNodes, numNodes + numTiles - 1);
+        this.tileNodes = new Node[numTiles][];
+        linkCorners();
+
+        this.tileVertices = new int[numTiles * CORNERS];
+        this.vertexTiles = new int[numNodes * MAX_TILES_PER_NODE];
+        this.vertexTileCount = new int[numNodes];
+        for (int t = 0; t < numTiles; t++) {
+            for (int c = 0; c < CORNERS; c++) {
+                int vertex = tileNodes[t][c].getId();
+                tileVertices[t * CORNERS + c] = vertex;
+                vertexTiles[vertex * MAX_TILES_PER_NODE + vertexTileCount[vertex]++] = t;
+            }
+        }
+
+        Map<IntTupel, Integer> tileIndex = new HashMap<>();
+        for (int t = 0; t < numTiles; t++) {
+            tileIndex.put(tileCoords[t], t);
+        }
+        this.tileNeighbors = new int[numTiles * CORNERS];
+        this.tileNeighborCount = new int[numTiles];
+        for (int t = 0; t < numTiles; t++) {
+            for (Directions direction : Directions.values()) {
+                Integer neighbor = tileIndex.get(neighbor(tileCoords[t], direction));
+                if (neighbor != null) {
+                    tileNeighbors[t * CORNERS + tileNeighborCount[t]++] = neighbor;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the shared topology of a radius, computing it on first use.
+     *
+     * @param radius number of hex rings from the center outward
+     * @return the topology
+     */
+    public static BoardTopology of(int radius) {
+        return CACHE.computeIfAbsent(radius, BoardTopology::new);
+    }
+
+    /**
+     * Lists the axial coordinates of all tiles, row by row.
+     *
+     * @param radius radius of the board
+     * @return the coordinates, {@code 3r(r-1)+1} tiles
+     */
+    private static IntTupel[] createTileCoords(int radius) {
+        IntTupel[] coords = new IntTupel[3 * radius * (radius - 1) + 1];
+        int index = 0;
+        for (int r = -radius + 1; r < radius; r++) {
+            for (int q = Math.max(-radius + 1, -radius + 1 - r); q <= Math.min(radius - 1, radius - 1 - r); q++) {
+                coords[index++] = new IntTupel(q, r);
+            }
+        }
+        return coords;
+    }
+
+    /**
+     * Assigns the corner nodes of every tile, reusing the corners shared with the already placed
+     * neighbors to the north-west, north-east and west, and connects new corners to their neighbors.
+     * A hexagonal board is a planar graph with one face per tile plus the outer face,
+     * so by Euler's formula it has exactly {@code nodes + tiles - 1} edges.
+     */
+    private void linkCorners() {
+        Map<IntTupel, Node[]> placed = new HashMap<>();
+        int index = 0;
+        for (int t = 0; t < tileCoords.length; t++) {
+            IntTupel coords = tileCoords[t];
+            Node[] corners = new Node[CORNERS];
+
+            Node[] northWest = placed.get(neighbor(coords, Directions.NORTH_WEST));
+            if (northWest != null) {
+                corners[5] = northWest[3];
+                corners[0] = northWest[2];
+            }
+            Node[] northEast = placed.get(neighbor(coords, Directions.NORTH_EAST));
+            if (northEast != null) {
+                corners[0] = northEast[4];
+                corners[1] = northEast[3];
+            }
+            Node[] west = placed.get(neighbor(coords, Directions.WEST));
+            if (west != null) {
+                corners[4] = west[2];
+                corners[5] = west[1];
+            }
+
+            for (int i = 0; i < CORNERS; i++) {
+                if (corners[i] == null) {
+                    corners[i] = nodes[index];
+                    Node next = corners[(i + 1) % CORNERS];
+                    if (next != null) {
+                        layout.addEdge(index, next.id);
+                    }
+                    Node previous = corners[(i - 1 + CORNERS) % CORNERS];
+                    if (previous != null) {
+                        layout.addEdge(index, previous.id);
+                    }
+                    index++;
+                }
+            }
+            tileNodes[t] = corners;
+            placed.put(coords, corners);
+        }
+    }
+
+    /**
+     * Returns the coordinate of a neighboring tile.
+     *
+     * @param coords    the tile
+     * @param direction the direction of the neighbor
+     * @return the neighbor's coordinate
+     */
+    private static IntTupel neighbor(IntTupel coords, Directions direction) {
+        return new IntTupel(coords.q() + direction.getDq(), coords.r() + direction.getDr());
+    }
+
+    /**
+     * Returns the radius of the board.
+     *
+     * @return number of hex rings from the center outward
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Returns the axial coordinates of all tiles. The array is shared and must not be modified.
+     *
+     * @return the tile coordinates, indexed by tile index, row by row
+     */
+    public IntTupel[] getTileCoords() {
+        return tileCoords;
+    }
+
+    /**
+     * Returns all nodes. The array is shared and must not be modified.
+     *
+     * @return the nodes, indexed by node ID
+     */
+    public Node[] getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the corner nodes of a tile. The array is shared and must not be modified.
+     *
+     * @param tile the tile index
+     * @return the six corners, clockwise from the top
+     */
+    public Node[] getTileNodes(int tile) {
+        return tileNodes[tile];
+    }
+
+    /**
+     * Returns the number of tiles.
+     *
+     * @return the tile count
+     */
+    public int getTileCount() {
+        return tileCoords.length;
+    }
+
+    /**
+     * Returns the number of nodes.
+     *
+     * @return the node count
+     */
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    /**
+     * Returns the number of edges.
+     *
+     * @return the edge count
+     */
+    public int getEdgeCount() {
+        return layout.getEdgeCount();
+    }
+
+    /**
+     * Returns a corner of a tile.
+     *
+     * @param tile   the tile index
+     * @param corner the corner, {@code 0 <= corner < CORNERS}
+     * @return the node ID
+     */
+    public int getTileVertex(int tile, int corner) {
+        return tileVertices[tile * CORNERS + corner];
+    }
+
+    /**
+     * Returns the number of tiles touching a node.
+     *
+     * @param vertex the node ID
+     * @return 1 to 3
+     */
+    public int getVertexTileCount(int vertex) {
+        return vertexTileCount[vertex];
+    }
+
+    /**
+     * Returns a tile touching a node.
+     *
+     * @param vertex the node ID
+     * @param k      index of the tile, {@code 0 <= k < getVertexTileCount(vertex)}
+     * @return the tile index
+     */
+    public int getVertexTile(int vertex, int k) {
+        return vertexTiles[vertex * MAX_TILES_PER_NODE + k];
+    }
+
+    /**
+     * Returns the number of tiles sharing a side with a tile.
+     *
+     * @param tile the tile index
+     * @return 0 to 6
+     */
+    public int getTileNeighborCount(int tile) {
+        return tileNeighborCount[tile];
+    }
+
+    /**
+     * Returns a tile sharing a side with a tile.
+     *
+     * @param tile the tile index
+     * @param k    index of the neighbor, {@code 0 <= k < getTileNeighborCount(tile)}
+     * @return the index of the neighboring tile
+     */
+    public int getTileNeighbor(int tile, int k) {
+        return tileNeighbors[tile * CORNERS + k];
+    }
+}
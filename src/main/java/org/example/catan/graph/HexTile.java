@@ -1,10 +1,14 @@
 package org.example.catan.graph;
 
-import lombok.Setter;
+import lombok.AccessLevel;
 import lombok.ToString;
 import lombok.Getter;
 import org.example.catan.gamepieces.Resources;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * Represents a hexagonal tile on the board.
  * Each tile has a dice number, a resource type, six corner nodes, and a blocked status.
@@ -23,9 +27,13 @@ public class HexTile {
     private final Node[] HexTileNodes;
 
     /** Indicates whether the tile is blocked (e.g. by the robber). */
-    @Setter
     private boolean blocked;
 
+    /** Listeners notified whenever the blocked status of this tile changes. */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final List<Consumer<HexTile>> blockedListeners = new ArrayList<>();
+
     /**
      * Creates a new hex tile with given dice number, resource type and corner nodes.
      *
@@ -39,4 +47,28 @@ public class HexTile {
         this.HexTileNodes = nodes;
         this.blocked = false;
     }
+
+    /**
+     * Sets the blocked status of this tile and notifies all listeners if it changed.
+     *
+     * @param blocked true if the robber blocks this tile, false otherwise
+     */
+    public void setBlocked(boolean blocked) {
+        if (this.blocked == blocked) {
+            return;
+        }
+        this.blocked = blocked;
+        for (Consumer<HexTile> listener : blockedListeners) {
+            listener.accept(this);
+        }
+    }
+
+    /**
+     * Registers a listener that is called after the blocked status of this tile changed.
+     *
+     * @param listener the callback receiving this tile
+     */
+    public void addBlockedListener(Consumer<HexTile> listener) {
+        blockedListeners.add(listener);
+    }
 }
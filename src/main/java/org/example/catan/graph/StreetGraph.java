@@ -0,0 +1,249 @@
+package org.example.catan.graph;
+
+import java.util.Arrays;
+
+/**
+ * Sparse, edge-indexed representation of the street network of a Catan board.
+ * Every street slot between two adjacent nodes gets a dense edge ID. Endpoints and owners are stored
+ * in flat per-edge arrays, and the node adjacency is kept in a fixed-stride table (a node on a hex grid
+ * has at most three neighbors), so memory grows linearly with the board instead of quadratically.
+ * A graph created from a {@link BoardTopology} shares the immutable endpoint and adjacency arrays with
+ * every other board of the same radius and only owns its edge owners.
+ */
+public class StreetGraph {
+    /** Owner value of an edge that has no street on it. */
+    public static final int NO_OWNER = -1;
+
+    /** Maximum number of neighbors a node can have on a hex grid. */
+    public static final int MAX_DEGREE = 3;
+
+    private final int numNodes;
+    private final int[] edgeNodeA;
+    private final int[] edgeNodeB;
+    private final int[] edgeOwner;
+    private final int[] degree;
+    private final int[] neighborNodes;
+    private final int[] neighborEdges;
+    private final boolean shared;
+    private int numEdges;
+
+    /**
+     * Creates an empty street graph.
+     *
+     * @param numNodes     number of nodes on the board
+     * @param edgeCapacity maximum number of edges that will be added
+     */
+    public StreetGraph(int numNodes, int edgeCapacity) {
+        this.numNodes = numNodes;
+        this.edgeNodeA = new int[edgeCapacity];
+        this.edgeNodeB = new int[edgeCapacity];
+        this.edgeOwner = new int[edgeCapacity];
+        this.degree = new int[numNodes];
+        this.neighborNodes = new int[numNodes * MAX_DEGREE];
+        this.neighborEdges = new int[numNodes * MAX_DEGREE];
+        Arrays.fill(edgeOwner, NO_OWNER);
+        this.shared = false;
+    }
+
+    /**
+     * Creates a street graph without any streets on the shared layout of a board topology.
+     * Edges cannot be added to it.
+     *
+     * @param topology the topology of the board
+     */
+    public StreetGraph(BoardTopology topology) {
+        StreetGraph layout = topology.layout;
+        this.numNodes = layout.numNodes;
+        this.edgeNodeA = layout.edgeNodeA;
+        this.edgeNodeB = layout.edgeNodeB;
+        this.edgeOwner = new int[layout.numEdges];
+        this.degree = layout.degree;
+        this.neighborNodes = layout.neighborNodes;
+        this.neighborEdges = layout.neighborEdges;
+        this.numEdges = layout.numEdges;
+        this.shared = true;
+        Arrays.fill(edgeOwner, NO_OWNER);
+    }
+
+    /**
+     * Creates an independent copy of another street graph, including the owners of all edges.
+     * A shared layout stays shared.
+     *
+     * @param other the graph to copy
+     */
+    public StreetGraph(StreetGraph other) {
+        this.numNodes = other.numNodes;
+        this.shared = other.shared;
+        this.edgeNodeA = shared ? other.edgeNodeA : other.edgeNodeA.clone();
+        this.edgeNodeB = shared ? other.edgeNodeB : other.edgeNodeB.clone();
+        this.edgeOwner = other.edgeOwner.clone();
+        this.degree = shared ? other.degree : other.degree.clone();
+        this.neighborNodes = shared ? other.neighborNodes : other.neighborNodes.clone();
+        this.neighborEdges = shared ? other.neighborEdges : other.neighborEdges.clone();
+        this.numEdges = other.numEdges;
+    }
+
+    /**
+     * Adds an edge between two nodes, unless it already exists.
+     *
+     * @param a Node ID 1
+     * @param b Node ID 2
+     * @return the ID of the new or already existing edge
+     * @throws IllegalStateException if the graph shares the layout of a board topology
+     */
+    public int addEdge(int a, int b) {
+        if (shared) {
+            throw new IllegalStateException("The layout of a shared board topology cannot be changed.");
+        }
+        int existing = getEdgeId(a, b);
+        if (existing >= 0) {
+            return existing;
+        }
+        int edge = numEdges++;
+        edgeNodeA[edge] = Math.min(a, b);
+        edgeNodeB[edge] = Math.max(a, b);
+        link(a, b, edge);
+        link(b, a, edge);
+        return edge;
+    }
+
+    /**
+     * Registers {@code to} as neighbor of {@code from} through the given edge.
+     *
+     * @param from the node whose adjacency list is extended
+     * @param to   the neighboring node
+     * @param edge the edge connecting both nodes
+     */
+    private void link(int from, int to, int edge) {
+        int slot = from * MAX_DEGREE + degree[from]++;
+        neighborNodes[slot] = to;
+        neighborEdges[slot] = edge;
+    }
+
+    /**
+     * Looks up the edge between two nodes.
+     *
+     * @param a Node ID 1
+     * @param b Node ID 2
+     * @return the edge ID, or -1 if the nodes are not adjacent
+     */
+    public int getEdgeId(int a, int b) {
+        int base = a * MAX_DEGREE;
+        for (int k = 0; k < degree[a]; k++) {
+            if (neighborNodes[base + k] == b) {
+                return neighborEdges[base + k];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether two nodes are connected by an edge.
+     *
+     * @param a Node ID 1
+     * @param b Node ID 2
+     * @return true if a street can be built between the nodes
+     */
+    public boolean areAdjacent(int a, int b) {
+        return getEdgeId(a, b) >= 0;
+    }
+
+    /**
+     * Returns the number of nodes in the graph.
+     *
+     * @return the node count
+     */
+    public int getNodeCount() {
+        return numNodes;
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     *
+     * @return the edge count
+     */
+    public int getEdgeCount() {
+        return numEdges;
+    }
+
+    /**
+     * Checks whether the endpoint and adjacency arrays are shared with a board topology.
+     *
+     * @return true if only the edge owners belong to this graph
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Returns the first endpoint of an edge.
+     *
+     * @param edge the edge ID
+     * @return the smaller node ID of the edge
+     */
+    public int getNodeA(int edge) {
+        return edgeNodeA[edge];
+    }
+
+    /**
+     * Returns the second endpoint of an edge.
+     *
+     * @param edge the edge ID
+     * @return the larger node ID of the edge
+     */
+    public int getNodeB(int edge) {
+        return edgeNodeB[edge];
+    }
+
+    /**
+     * Returns the player owning the street on an edge.
+     *
+     * @param edge the edge ID
+     * @return the owning player, or {@link #NO_OWNER}
+     */
+    public int getOwner(int edge) {
+        return edgeOwner[edge];
+    }
+
+    /**
+     * Assigns the street on an edge to a player.
+     *
+     * @param edge   the edge ID
+     * @param player the owning player, or {@link #NO_OWNER} to clear the street
+     */
+    public void setOwner(int edge, int player) {
+        edgeOwner[edge] = player;
+    }
+
+    /**
+     * Returns the number of neighbors of a node.
+     *
+     * @param node the node ID
+     * @return the degree of the node
+     */
+    public int getDegree(int node) {
+        return degree[node];
+    }
+
+    /**
+     * Returns a neighbor of a node.
+     *
+     * @param node the node ID
+     * @param k    neighbor index, {@code 0 <= k < getDegree(node)}
+     * @return the ID of the k-th neighbor
+     */
+    public int getNeighbor(int node, int k) {
+        return neighborNodes[node * MAX_DEGREE + k];
+    }
+
+    /**
+     * Returns the edge leading from a node to one of its neighbors.
+     *
+     * @param node the node ID
+     * @param k    neighbor index, {@code 0 <= k < getDegree(node)}
+     * @return the ID of the edge leading to the k-th neighbor
+     */
+    public int getIncidentEdge(int node, int k) {
+        return neighborEdges[node * MAX_DEGREE + k];
+    }
+}
@@ -0,0 +1,202 @@
+package org.example.catan.lobby;
+
+import javafx.scene.paint.Color;
+import org.example.catan.engine.GameEngine;
+import org.example.catan.replay.GameLogWriter;
+import org.example.catan.stats.GameStatistics;
+import org.example.catan.stats.StatisticsAggregator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of the games hosted in this process.
+ * Every game has its own board, players and engine; no state is shared between games.
+ * All sessions run their commands on one shared thread pool.
+ * If the lobby has a {@link GameLogWriter}, every game records its events to that log.
+ * If it has a {@link StatisticsAggregator}, every game on a board of the aggregator's radius is tracked into it;
+ * a game counts as unfinished if it is removed before it is won.
+ */
+public class GameLobby implements AutoCloseable {
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final GameLogWriter log;
+    private final StatisticsAggregator statistics;
+    private final Map<Long, GameStatistics.Tracker> trackers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a lobby with a thread pool sized to the available processors.
+     */
+    public GameLobby() {
+        this(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()), true, null, null);
+    }
+
+    /**
+     * Creates a lobby that runs its games on the given executor. The executor is not shut down by the lobby.
+     *
+     * @param executor the shared executor for all games
+     */
+    public GameLobby(ExecutorService executor) {
+        this(executor, false, null, null);
+    }
+
+    /**
+     * Creates a lobby that runs its games on the given executor and records them to a log.
+     * Neither the executor nor the log are closed by the lobby.
+     *
+     * @param executor the shared executor for all games
+     * @param log      the log receiving the events of all games
+     */
+    public GameLobby(ExecutorService executor, GameLogWriter log) {
+        this(executor, false, log, null);
+    }
+
+    /**
+     * Creates a lobby that runs its games on the given executor and tracks their statistics.
+     * Neither the executor nor the log are closed by the lobby.
+     *
+     * @param executor   the shared executor for all games
+     * @param log        the log receiving the events of all games, or null
+     * @param statistics the aggregator tracking the games of its radius
+     */
+    public GameLobby(ExecutorService executor, GameLogWriter log, StatisticsAggregator statistics) {
+        this(executor, false, log, statistics);
+    }
+
+    /**
+     * Creates a lobby on an executor.
+     *
+     * @param executor     the shared executor for all games
+     * @param ownsExecutor true if {@link #close()} shuts the executor down
+     * @param log          the log receiving the events of all games, or null
+     * @param statistics   the aggregator tracking the games of its radius, or null
+     */
+    private GameLobby(ExecutorService executor, boolean ownsExecutor, GameLogWriter log,
+                      StatisticsAggregator statistics) {
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.log = log;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Creates and registers a new game.
+     *
+     * @param radius       the board radius
+     * @param playerColors the colors of the seated players in turn order
+     * @param seed         seed for the board layout, dice rolls and steals
+     * @return the session hosting the new game
+     */
+    public GameSession createGame(int radius, List<Color> playerColors, long seed) {
+        GameEngine engine = GameEngine.newGame(radius, playerColors, seed);
+        long id = nextId.getAndIncrement();
+        if (log != null) {
+            engine.setRecorder(log.startGame(id, radius, playerColors, seed));
+        }
+        if (statistics != null && statistics.getRadius() == radius) {
+            GameStatistics.Tracker tracker = statistics.track(engine);
+            engine.setRecorder(engine.getRecorder().andThen(tracker));
+            trackers.put(id, tracker);
+        }
+        GameSession session = new GameSession(id, engine, executor);
+        sessions.put(id, session);
+        return session;
+    }
+
+    /**
+     * Looks up a hosted game.
+     *
+     * @param id the game ID
+     * @return the session, or null if no such game is hosted
+     */
+    public GameSession getGame(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Removes a game from the lobby. Commands already queued for it still run; its statistics tracker is
+     * finished after them.
+     *
+     * @param id the game ID
+     * @return true if the game was hosted, false otherwise
+     */
+    public boolean removeGame(long id) {
+        GameSession session = sessions.remove(id);
+        if (session == null) {
+            return false;
+        }
+        finishTracker(session);
+        return true;
+    }
+
+    /**
+     * Returns all hosted games.
+     *
+     * @return a live, read-only view of the sessions
+     */
+    public Collection<GameSession> getGames() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    /**
+     * Returns the number of hosted games.
+     *
+     * @return the game count
+     */
+    public int getGameCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Sums the estimated footprint of all hosted games.
+     *
+     * @return a future completed with the total size in bytes
+     */
+    public CompletableFuture<Long> estimateTotalFootprint() {
+        List<CompletableFuture<Long>> footprints = new ArrayList<>();
+        for (GameSession session : sessions.values()) {
+            footprints.add(session.estimateFootprint());
+        }
+        return CompletableFuture.allOf(footprints.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> footprints.stream().mapToLong(CompletableFuture::join).sum());
+    }
+
+    /**
+     * Removes all games and shuts down the thread pool if the lobby created it.
+     */
+    @Override
+    public void close() {
+        for (GameSession session : sessions.values()) {
+            finishTracker(session);
+        }
+        sessions.clear();
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Finishes the statistics tracker of a game, if it has one, after the commands queued for it.
+     *
+     * @param session the game's session
+     */
+    private void finishTracker(GameSession session) {
+        GameStatistics.Tracker tracker = trackers.remove(session.getId());
+        if (tracker != null) {
+            session.submit(engine -> {
+                tracker.finish();
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.catan.lobby;
+
+import lombok.Getter;
+import org.example.catan.engine.GameEngine;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * One hosted game inside a {@link GameLobby}.
+ * Commands for the game are queued in a mailbox and executed one after another on the lobby's shared
+ * executor, so the engine is never touched by two threads at once, while many sessions share few threads.
+ */
+public class GameSession {
+    /** Maximum number of commands executed in one go before the thread is handed back to the pool. */
+    private static final int BATCH_SIZE = 64;
+
+    @Getter
+    private final long id;
+    private final GameEngine engine;
+    private final Executor executor;
+    private final Queue<Command<?>> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Creates a session for an engine.
+     *
+     * @param id       the unique game ID within the lobby
+     * @param engine   the game state, owned exclusively by this session
+     * @param executor the shared executor that runs the commands
+     */
+    GameSession(long id, GameEngine engine, Executor executor) {
+        this.id = id;
+        this.engine = engine;
+        this.executor = executor;
+    }
+
+    /**
+     * Queues a command for this game. Commands of one session run in submission order and never concurrently.
+     *
+     * @param command the command to execute against the engine
+     * @param <T>     the result type of the command
+     * @return a future completed with the command's result, or exceptionally if it threw a runtime exception
+     * or the executor rejected the session
+     */
+    public <T> CompletableFuture<T> submit(Function<GameEngine, T> command) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        mailbox.add(new Command<>(command, future));
+        schedule();
+        return future;
+    }
+
+    /**
+     * Returns the estimated heap size of this game's state.
+     *
+     * @return a future completed with the footprint in bytes
+     */
+    public CompletableFuture<Long> estimateFootprint() {
+        return submit(GameEngine::estimateFootprint);
+    }
+
+    /**
+     * Hands the mailbox to the executor unless it is already scheduled or running.
+     * If the executor rejects it, e.g. because the lobby was closed, all queued commands fail with the
+     * rejection instead of waiting forever.
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException e) {
+                scheduled.set(false);
+                for (Command<?> command = mailbox.poll(); command != null; command = mailbox.poll()) {
+                    command.future().completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes up to {@link #BATCH_SIZE} queued commands and reschedules itself if more are waiting, also
+     * when a command threw an error.
+     */
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                Command<?> command = mailbox.poll();
+                if (command == null) {
+                    break;
+                }
+                command.run(engine);
+            }
+        } finally {
+            scheduled.set(false);
+            if (!mailbox.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * A queued command together with the future receiving its outcome.
+     *
+     * @param action the command to execute against the engine
+     * @param future the future completed with the command's result
+     * @param <T>    the result type of the command
+     */
+    private record Command<T>(Function<GameEngine, T> action, CompletableFuture<T> future) {
+        /**
+         * Executes the command and completes the future. A runtime exception thrown by the command completes
+         * the future exceptionally, so the mailbox keeps draining; errors such as {@link OutOfMemoryError}
+         * propagate to the executor.
+         *
+         * @param engine the session's engine
+         */
+        void run(GameEngine engine) {
+            try {
+                future.complete(action.apply(engine));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.catan.metrics;
+
+import lombok.Getter;
+import org.example.catan.engine.ActionResult;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters of one {@link GameAction}, safe to record from any thread.
+ */
+public final class ActionMetrics implements ActionMetricsMXBean {
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    /** The latencies of all recorded actions in nanoseconds. */
+    @Getter
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Records one action.
+     *
+     * @param nanos  the latency in nanoseconds
+     * @param result the outcome, or null if the action failed without a result
+     */
+    void record(long nanos, ActionResult result) {
+        latency.record(nanos);
+        if (result == null) {
+            failed.increment();
+        } else if (result.isAccepted()) {
+            accepted.increment();
+        } else {
+            rejected.increment();
+        }
+    }
+
+    @Override
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    @Override
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latency.getMean() / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latency.getQuantile(0.5) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latency.getQuantile(0.99) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latency.getQuantile(0.999) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latency.getMax() / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        accepted.reset();
+        rejected.reset();
+        failed.reset();
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.catan.metrics;
+
+/**
+ * JMX view of the latency histogram and outcome counters of one {@link GameAction}.
+ * Latencies are reported in microseconds.
+ */
+public interface ActionMetricsMXBean {
+    /**
+     * Returns the number of recorded actions.
+     *
+     * @return the count
+     */
+    long getCount();
+
+    /**
+     * Returns the number of actions the game accepted.
+     *
+     * @return the accepted count
+     */
+    long getAccepted();
+
+    /**
+     * Returns the number of actions the game rejected with a reason.
+     *
+     * @return the rejected count
+     */
+    long getRejected();
+
+    /**
+     * Returns the number of actions that failed without a result, e.g. because the server connection broke.
+     *
+     * @return the failed count
+     */
+    long getFailed();
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return the mean in microseconds
+     */
+    double getMeanMicros();
+
+    /**
+     * Returns the median latency.
+     *
+     * @return the median in microseconds
+     */
+    double getP50Micros();
+
+    /**
+     * Returns the 99th percentile of the latency.
+     *
+     * @return the percentile in microseconds
+     */
+    double getP99Micros();
+
+    /**
+     * Returns the 99.9th percentile of the latency.
+     *
+     * @return the percentile in microseconds
+     */
+    double getP999Micros();
+
+    /**
+     * Returns the largest latency.
+     *
+     * @return the maximum in microseconds
+     */
+    double getMaxMicros();
+
+    /**
+     * Clears the histogram and the counters.
+     */
+    void reset();
+}
@@ -0,0 +1,54 @@
+package org.example.catan.metrics;
+
+import org.example.catan.engine.Move;
+
+/**
+ * The instrumented actions, each with its own latency histogram and outcome counters in {@link GameMetrics}.
+ */
+public enum GameAction {
+    /** Rolling the dice, including production or the steal after a 7. */
+    ROLL_DICE,
+
+    /** Building a settlement. */
+    BUILD_SETTLEMENT,
+
+    /** Building a street, including the longest road update. */
+    BUILD_STREET,
+
+    /** A 4:1 trade with the bank. */
+    BANK_TRADE,
+
+    /** Offering a trade to the other players, which may be matched right away. */
+    OFFER_TRADE,
+
+    /** Accepting a listed trade offer. */
+    ACCEPT_TRADE,
+
+    /** Moving the bandit. */
+    PLACE_BANDIT,
+
+    /** Ending a turn. */
+    END_TURN,
+
+    /** Building the scene of a board in the desktop client. */
+    LOAD_BOARD;
+
+    /**
+     * Returns the action performed by an encoded move.
+     *
+     * @param move the move, encoded with {@link Move}
+     * @return the action
+     * @throws IllegalArgumentException if the move type is unknown
+     */
+    public static GameAction ofMove(int move) {
+        return switch (Move.type(move)) {
+            case Move.ROLL -> ROLL_DICE;
+            case Move.SETTLEMENT -> BUILD_SETTLEMENT;
+            case Move.STREET -> BUILD_STREET;
+            case Move.BANK_TRADE -> BANK_TRADE;
+            case Move.PLACE_BANDIT -> PLACE_BANDIT;
+            case Move.END_TURN -> END_TURN;
+            default -> throw new IllegalArgumentException("Unknown move: " + move);
+        };
+    }
+}
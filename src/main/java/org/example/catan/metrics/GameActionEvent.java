@@ -0,0 +1,38 @@
+package org.example.catan.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event committed for every instrumented action while a recording enables {@value #NAME}.
+ * It is committed when the action finished and carries the measured latency as a field.
+ */
+@Name(GameActionEvent.NAME)
+@Label("Game Action")
+@Category("Catan")
+@Description("A game action with its latency and outcome")
+@StackTrace(false)
+final class GameActionEvent extends Event {
+    /** Name of the event type, used to enable it in a recording. */
+    static final String NAME = "org.example.catan.GameAction";
+
+    @Label("Action")
+    String action;
+
+    @Label("Game ID")
+    @Description("ID of the game in the lobby, -1 for a local game")
+    long gameId;
+
+    @Label("Outcome")
+    @Description("The action result, or FAILED if there was none")
+    String outcome;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+}
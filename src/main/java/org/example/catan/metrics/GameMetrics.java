@@ -0,0 +1,153 @@
+package org.example.catan.metrics;
+
+import jdk.jfr.EventType;
+import org.example.catan.engine.ActionResult;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Instrumentation of the game actions on the server and in the desktop client.
+ * An instrumented call site takes a timestamp with {@link #start()} and passes it to
+ * {@link #record(GameAction, long, long, ActionResult)} when the action is done. The latency is then added
+ * to the action's {@link ActionMetrics}, if enabled with {@code -Dcatan.metrics=true} or over JMX, and
+ * committed as a {@code org.example.catan.GameAction} JFR event, if a recording enables it.
+ * While both are off, {@link #start()} returns 0 without reading the clock and recording returns at once.
+ * <p>
+ * The histograms are registered with the platform MBean server as
+ * {@code org.example.catan:type=ActionMetrics,name=<action>}, next to the switch
+ * {@code org.example.catan:type=GameMetrics}.
+ */
+public final class GameMetrics {
+    /** Game ID recorded for actions of a game that is not hosted in a lobby. */
+    public static final long NO_GAME = -1;
+
+    /** System property that enables the in-process histograms at startup. */
+    public static final String ENABLED_PROPERTY = "catan.metrics";
+
+    private static final String DOMAIN = "org.example.catan";
+    private static final EventType EVENT_TYPE = EventType.getEventType(GameActionEvent.class);
+    private static final GameAction[] ACTIONS = GameAction.values();
+    private static final ActionMetrics[] METRICS = new ActionMetrics[ACTIONS.length];
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    static {
+        for (int i = 0; i < METRICS.length; i++) {
+            METRICS[i] = new ActionMetrics();
+        }
+        registerMBeans();
+    }
+
+    private GameMetrics() {
+    }
+
+    /**
+     * Takes the start timestamp of an action.
+     *
+     * @return the current {@link System#nanoTime()}, or 0 if nothing would be recorded
+     */
+    public static long start() {
+        return enabled || EVENT_TYPE.isEnabled() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records a finished action.
+     *
+     * @param action the action
+     * @param gameId the ID of the game, or {@link #NO_GAME}
+     * @param start  the timestamp returned by {@link #start()} when the action began
+     * @param result the outcome, or null if the action failed without a result
+     */
+    public static void record(GameAction action, long gameId, long start, ActionResult result) {
+        if (start == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        if (enabled) {
+            METRICS[action.ordinal()].record(nanos, result);
+        }
+        if (EVENT_TYPE.isEnabled()) {
+            GameActionEvent event = new GameActionEvent();
+            event.action = action.name();
+            event.gameId = gameId;
+            event.outcome = result == null ? "FAILED" : result.name();
+            event.latency = nanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns the histogram and counters of an action.
+     *
+     * @param action the action
+     * @return its metrics
+     */
+    public static ActionMetrics get(GameAction action) {
+        return METRICS[action.ordinal()];
+    }
+
+    /**
+     * Checks whether actions are recorded into the histograms and counters.
+     *
+     * @return true if recording is on
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns recording into the histograms and counters on or off.
+     *
+     * @param enabled true to record
+     */
+    public static void setEnabled(boolean enabled) {
+        GameMetrics.enabled = enabled;
+    }
+
+    /**
+     * Clears the histograms and counters of all actions.
+     */
+    public static void reset() {
+        for (ActionMetrics metrics : METRICS) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * Registers the switch and the metrics of every action with the platform MBean server.
+     * Metrics stay usable in process if the registration fails.
+     */
+    private static void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new Control(), new ObjectName(DOMAIN + ":type=GameMetrics"));
+            for (GameAction action : ACTIONS) {
+                server.registerMBean(get(action), new ObjectName(DOMAIN + ":type=ActionMetrics,name=" + action));
+            }
+        } catch (JMException e) {
+            // Already registered by another class loader, or JMX is unavailable.
+        }
+    }
+
+    /**
+     * The JMX switch, forwarding to the static methods.
+     */
+    private static final class Control implements GameMetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return GameMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            GameMetrics.setEnabled(enabled);
+        }
+
+        @Override
+        public void reset() {
+            GameMetrics.reset();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.catan.metrics;
+
+/**
+ * JMX switch of the in-process {@link GameMetrics}.
+ */
+public interface GameMetricsMXBean {
+    /**
+     * Checks whether actions are recorded into the histograms and counters.
+     *
+     * @return true if recording is on
+     */
+    boolean isEnabled();
+
+    /**
+     * Turns recording into the histograms and counters on or off. JFR events are controlled by the recording
+     * settings instead.
+     *
+     * @param enabled true to record
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Clears the histograms and counters of all actions.
+     */
+    void reset();
+}
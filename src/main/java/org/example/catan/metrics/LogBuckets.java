@@ -0,0 +1,58 @@
+package org.example.catan.metrics;
+
+/**
+ * Logarithmic bucketing of non-negative longs shared by {@link LatencyHistogram} and the statistics sketches.
+ * Values below {@code 2^subBucketBits} have a bucket each; every larger power of two is split into
+ * {@code 2^subBucketBits} linear sub-buckets, so a value is known to within {@code 2^-subBucketBits} of itself.
+ * The methods take the sub-bucket bits as an argument so that callers passing a constant get it folded in.
+ */
+public final class LogBuckets {
+    private LogBuckets() {
+    }
+
+    /**
+     * Returns the number of buckets covering all non-negative longs.
+     *
+     * @param subBucketBits log2 of the number of sub-buckets per power of two
+     * @return the bucket count
+     */
+    public static int count(int subBucketBits) {
+        return (Long.SIZE - subBucketBits) << subBucketBits;
+    }
+
+    /**
+     * Returns the bucket of a value: small values have a bucket each, larger ones are grouped by their highest
+     * bit and the {@code subBucketBits} bits below it.
+     *
+     * @param value         a non-negative value
+     * @param subBucketBits log2 of the number of sub-buckets per power of two
+     * @return the bucket index
+     */
+    public static int bucketOf(long value, int subBucketBits) {
+        int subBuckets = 1 << subBucketBits;
+        if (value < subBuckets) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int mantissa = (int) (value >>> (exponent - subBucketBits)) & (subBuckets - 1);
+        return ((exponent - subBucketBits + 1) << subBucketBits) + mantissa;
+    }
+
+    /**
+     * Returns the largest value falling into a bucket.
+     *
+     * @param bucket        the bucket index
+     * @param subBucketBits log2 of the number of sub-buckets per power of two
+     * @return the inclusive upper bound
+     */
+    public static long upperBound(int bucket, int subBucketBits) {
+        int subBuckets = 1 << subBucketBits;
+        if (bucket < subBuckets) {
+            return bucket;
+        }
+        int exponent = (bucket >>> subBucketBits) + subBucketBits - 1;
+        long mantissa = bucket & (subBuckets - 1);
+        long width = 1L << (exponent - subBucketBits);
+        return (subBuckets + mantissa) * width + width - 1;
+    }
+}
@@ -0,0 +1,279 @@
+package org.example.catan.replay;
+
+import javafx.scene.paint.Color;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.example.catan.engine.ActionResult;
+import org.example.catan.engine.GameEngine;
+import org.example.catan.engine.Move;
+import org.example.catan.engine.StealOutcome;
+import org.example.catan.gamepieces.Resources;
+import org.example.catan.graph.HexTile;
+import org.example.catan.graph.IntTupel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One game decoded from a {@link GameArchiveReader}. A reader overwrites the instance passed to it, reusing its
+ * arrays, so scanning an archive allocates nothing per game once the arrays have grown to the longest game;
+ * copy values out if they are needed later. See {@link GameArchiveWriter} for the record layout.
+ */
+@Getter
+public class ArchivedGame {
+    private static final Resources[] RESOURCES = Resources.values();
+    private static final int MOVE_TYPE_BITS = 3;
+    private static final int MOVE_TYPE_MASK = (1 << MOVE_TYPE_BITS) - 1;
+
+    private long gameId;
+    private long seed;
+    private int radius;
+    private int[] colors = new int[0];
+    private int tileCount;
+    private int moveCount;
+    @Getter(AccessLevel.NONE)
+    private byte[] tiles = new byte[64];
+    @Getter(AccessLevel.NONE)
+    private int[] moves = new int[1024];
+    @Getter(AccessLevel.NONE)
+    private final int[] previous = new int[1 << MOVE_TYPE_BITS];
+    @Getter(AccessLevel.NONE)
+    private int position;
+
+    /**
+     * Returns the resource of a tile.
+     *
+     * @param tile index of the tile in {@code CatanBoard.getHex_coords()}
+     * @return the resource type, {@link Resources#NONE} for the desert
+     */
+    public Resources getTileResource(int tile) {
+        return RESOURCES[(tiles[checkTile(tile)] & 0xFF) >>> 4];
+    }
+
+    /**
+     * Returns the dice number of a tile.
+     *
+     * @param tile index of the tile in {@code CatanBoard.getHex_coords()}
+     * @return the dice number, 0 for the desert
+     */
+    public int getTileNumber(int tile) {
+        return tiles[checkTile(tile)] & 0x0F;
+    }
+
+    /**
+     * Returns a move of the game. Rolls carry their outcome.
+     *
+     * @param index position of the move, from 0 to {@link #getMoveCount()} - 1
+     * @return the encoded move
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= moveCount) {
+            throw new IndexOutOfBoundsException("Move " + index + " of " + moveCount);
+        }
+        return moves[index];
+    }
+
+    /**
+     * Returns the colors of the players.
+     *
+     * @return the colors in turn order
+     */
+    public List<Color> getPlayerColors() {
+        List<Color> playerColors = new ArrayList<>(colors.length);
+        for (int argb : colors) {
+            playerColors.add(GameLogWriter.fromArgb(argb));
+        }
+        return playerColors;
+    }
+
+    /**
+     * Rebuilds the game: it is recreated from its seed with {@link GameEngine#newGame} and all moves are executed
+     * again. The board layout and the outcome of every roll are compared with the archived ones, so an archive
+     * written by a different engine version fails instead of producing a wrong state.
+     *
+     * @return the game in its final archived state
+     * @throws IllegalStateException if the rebuilt game does not match the archive
+     */
+    public GameEngine rebuild() {
+        GameEngine engine = GameEngine.newGame(radius, getPlayerColors(), seed);
+        IntTupel[] coords = engine.getBoard().getHex_coords();
+        if (coords.length != tileCount) {
+            throw diverged(-1, "the board has " + coords.length + " tiles");
+        }
+        for (int tile = 0; tile < tileCount; tile++) {
+            HexTile hex = engine.getBoard().getBoard().get(coords[tile]);
+            if (hex.getResourceType() != getTileResource(tile) || hex.getDiceNumber() != getTileNumber(tile)) {
+                throw diverged(-1, "tile " + tile + " is " + hex.getResourceType() + " " + hex.getDiceNumber());
+            }
+        }
+        for (int i = 0; i < moveCount; i++) {
+            int move = moves[i];
+            ActionResult result = engine.applyMove(move);
+            if (!result.isAccepted()) {
+                throw diverged(i, "rejected with " + result);
+            }
+            if (Move.type(move) == Move.ROLL && Move.rollTotal(move) != 0) {
+                if (engine.getLastRoll() != Move.rollTotal(move)) {
+                    throw diverged(i, "rolled " + engine.getLastRoll());
+                }
+                if (engine.getLastRoll() == 7) {
+                    checkSteal(engine, i);
+                }
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * Compares the steal after a rolled 7 with the archived one.
+     *
+     * @param engine the rebuilt game
+     * @param move   index of the roll
+     * @throws IllegalStateException if another card was stolen
+     */
+    private void checkSteal(GameEngine engine, int move) {
+        StealOutcome steal = engine.getLastSteal();
+        int victim = steal.isSuccessful() ? engine.getPlayers().indexOf(steal.victim()) : -1;
+        int resource = steal.isSuccessful() ? steal.resource().ordinal() : -1;
+        int archivedVictim = Move.stealVictim(moves[move]);
+        if (victim != archivedVictim || victim >= 0 && resource != Move.stealResource(moves[move])) {
+            throw diverged(move, "stole resource " + resource + " from player " + victim);
+        }
+    }
+
+    /**
+     * Decodes a record into this game.
+     *
+     * @param gameId the ID of the game
+     * @param buffer the buffer holding the record; only absolute reads are used, so it may be shared
+     * @param offset position of the record in the buffer
+     * @throws IOException if the record is corrupt
+     */
+    void decode(long gameId, ByteBuffer buffer, int offset) throws IOException {
+        this.gameId = gameId;
+        try {
+            decodeRecord(buffer, offset);
+        } catch (IndexOutOfBoundsException e) {
+            throw corrupt(gameId, "record ends after the end of the data");
+        }
+    }
+
+    /**
+     * Decodes the fields of a record.
+     *
+     * @param buffer the buffer holding the record
+     * @param offset position of the record in the buffer
+     * @throws IOException if the record is corrupt
+     */
+    private void decodeRecord(ByteBuffer buffer, int offset) throws IOException {
+        position = offset;
+        int length = readVarint(buffer);
+        int start = position;
+        int end = start + length;
+        if (length < 0 || end > buffer.limit()) {
+            throw corrupt(gameId, "length " + length);
+        }
+        seed = buffer.getLong(position);
+        radius = buffer.get(position + 8);
+        int players = buffer.get(position + 9);
+        position += 10;
+        if (players < 0) {
+            throw corrupt(gameId, "player count " + players);
+        }
+        if (colors.length != players) {
+            colors = new int[players];
+        }
+        for (int i = 0; i < players; i++) {
+            colors[i] = buffer.getInt(position);
+            position += Integer.BYTES;
+        }
+
+        tileCount = readVarint(buffer);
+        if (tileCount < 0 || position + tileCount > end) {
+            throw corrupt(gameId, "tile count " + tileCount);
+        }
+        if (tiles.length < tileCount) {
+            tiles = new byte[tileCount];
+        }
+        buffer.get(position, tiles, 0, tileCount);
+        position += tileCount;
+
+        moveCount = readVarint(buffer);
+        if (moveCount < 0 || moveCount > end - position) {
+            throw corrupt(gameId, "move count " + moveCount);
+        }
+        if (moves.length < moveCount) {
+            moves = new int[Math.max(moveCount, moves.length * 2)];
+        }
+        Arrays.fill(previous, 0);
+        for (int i = 0; i < moveCount; i++) {
+            int encoded = readVarint(buffer);
+            int type = encoded & MOVE_TYPE_MASK;
+            int zigzag = encoded >>> MOVE_TYPE_BITS;
+            int argument = previous[type] + (zigzag >>> 1 ^ -(zigzag & 1));
+            previous[type] = argument;
+            moves[i] = Move.of(type, argument);
+        }
+        if (position != end) {
+            throw corrupt(gameId, "length " + length + ", decoded " + (position - start));
+        }
+    }
+
+    /**
+     * Reads a varint at the current decoding position and advances it.
+     *
+     * @param buffer the buffer holding the record
+     * @return the value
+     * @throws IOException if the varint is longer than five bytes
+     */
+    private int readVarint(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte b = buffer.get(position++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw corrupt(gameId, "varint at " + (position - 5));
+    }
+
+    /**
+     * Checks a tile index.
+     *
+     * @param tile the tile index
+     * @return the tile index
+     */
+    private int checkTile(int tile) {
+        if (tile < 0 || tile >= tileCount) {
+            throw new IndexOutOfBoundsException("Tile " + tile + " of " + tileCount);
+        }
+        return tile;
+    }
+
+    /**
+     * Creates the error for a rebuilt game that no longer matches the archive.
+     *
+     * @param move   index of the mismatching move, -1 for the board
+     * @param actual what happened in the rebuilt game instead
+     * @return the exception to throw
+     */
+    private IllegalStateException diverged(int move, String actual) {
+        String at = move < 0 ? "the board" : "move " + move + " (" + Move.toString(moves[move]) + ")";
+        return new IllegalStateException("Rebuild of archived game " + gameId + " diverged at " + at + ": " + actual);
+    }
+
+    /**
+     * Creates the error for a record that cannot be decoded.
+     *
+     * @param gameId the game
+     * @param detail what is wrong
+     * @return the exception to throw
+     */
+    private static IOException corrupt(long gameId, String detail) {
+        return new IOException("Corrupt record of archived game " + gameId + ": " + detail);
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.catan.replay;
+
+import org.example.catan.engine.GameEngine;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Random access to the games of an archive written by {@link GameArchiveWriter}.
+ * The data and index file are memory-mapped in segments of {@value #SEGMENT_SIZE} bytes when the reader is
+ * opened; loading a game is one index lookup and the decoding of one record straight from the mapped file,
+ * without reading anything else and without copying the file onto the heap. Since the segment size is a multiple
+ * of {@link GameArchiveWriter#CHUNK_SIZE}, every record lies in a single segment.
+ * The reader sees the games archived when it was opened. It only uses absolute reads, so any number of threads
+ * may load games at the same time, each into its own {@link ArchivedGame}.
+ */
+public class GameArchiveReader implements AutoCloseable {
+    /** Size of the mapped segments. */
+    public static final int SEGMENT_SIZE = 1 << 30;
+
+    private static final int SEGMENT_BITS = Integer.numberOfTrailingZeros(SEGMENT_SIZE);
+
+    private final FileChannel dataChannel;
+    private final FileChannel indexChannel;
+    private final MappedByteBuffer[] data;
+    private final MappedByteBuffer[] index;
+    private final long gameCount;
+    private final long dataEnd;
+
+    /**
+     * Opens an archive and maps its files.
+     *
+     * @param path the data file; the index is expected at {@link GameArchiveWriter#indexPathOf(Path)}
+     * @throws IOException if the files cannot be read or are not a game archive
+     */
+    public GameArchiveReader(Path path) throws IOException {
+        this.dataChannel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.indexChannel = FileChannel.open(GameArchiveWriter.indexPathOf(path), StandardOpenOption.READ);
+        } catch (IOException e) {
+            dataChannel.close();
+            throw e;
+        }
+        try {
+            if (indexChannel.size() < GameArchiveWriter.INDEX_HEADER_SIZE
+                    || dataChannel.size() < GameArchiveWriter.FILE_HEADER_SIZE) {
+                throw new IOException("Not a game archive: " + path);
+            }
+            MappedByteBuffer header = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    GameArchiveWriter.INDEX_HEADER_SIZE);
+            MappedByteBuffer fileHeader = dataChannel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    GameArchiveWriter.FILE_HEADER_SIZE);
+            if (header.getInt(0) != GameArchiveWriter.INDEX_MAGIC || fileHeader.getInt(0) != GameArchiveWriter.MAGIC) {
+                throw new IOException("Not a game archive: " + path);
+            }
+            short version = fileHeader.getShort(4);
+            if (version != GameArchiveWriter.VERSION || header.getShort(4) != GameArchiveWriter.VERSION) {
+                throw new IOException("Unsupported game archive version " + version + ": " + path);
+            }
+            this.gameCount = header.getLong(8);
+            this.dataEnd = header.getLong(16);
+            long indexEnd = GameArchiveWriter.INDEX_HEADER_SIZE + gameCount * GameArchiveWriter.INDEX_ENTRY_SIZE;
+            if (gameCount < 0 || indexEnd > indexChannel.size() || dataEnd > dataChannel.size()) {
+                throw new IOException("Truncated game archive: " + path);
+            }
+            this.data = map(dataChannel, dataEnd);
+            this.index = map(indexChannel, indexEnd);
+        } catch (IOException e) {
+            dataChannel.close();
+            indexChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of games in the archive.
+     *
+     * @return the game count
+     */
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Returns the number of bytes used by the archived games, including the file header.
+     *
+     * @return the end of the last record in the data file
+     */
+    public long getDataSize() {
+        return dataEnd;
+    }
+
+    /**
+     * Decodes a game into a reused instance.
+     *
+     * @param gameId the ID of the game, from 0 to {@link #getGameCount()} - 1
+     * @param game   the instance to overwrite with the game
+     * @throws IOException if the record is corrupt
+     */
+    public void read(long gameId, ArchivedGame game) throws IOException {
+        if (gameId < 0 || gameId >= gameCount) {
+            throw new IllegalArgumentException("Unknown archived game " + gameId + " of " + gameCount);
+        }
+        long entry = GameArchiveWriter.INDEX_HEADER_SIZE + gameId * GameArchiveWriter.INDEX_ENTRY_SIZE;
+        long offset = index[(int) (entry >>> SEGMENT_BITS)].getLong((int) (entry & (SEGMENT_SIZE - 1)));
+        if (offset < GameArchiveWriter.FILE_HEADER_SIZE || offset >= dataEnd) {
+            throw new IOException("Corrupt index entry of archived game " + gameId + ": offset " + offset);
+        }
+        game.decode(gameId, data[(int) (offset >>> SEGMENT_BITS)], (int) (offset & (SEGMENT_SIZE - 1)));
+    }
+
+    /**
+     * Loads a game and rebuilds it, see {@link ArchivedGame#rebuild()}.
+     *
+     * @param gameId the ID of the game
+     * @return the game in its final archived state
+     * @throws IOException if the record is corrupt
+     */
+    public GameEngine load(long gameId) throws IOException {
+        ArchivedGame game = new ArchivedGame();
+        read(gameId, game);
+        return game.rebuild();
+    }
+
+    /**
+     * Closes the files. Mapped segments stay valid until they are garbage collected, but must not be used.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            dataChannel.close();
+        } finally {
+            indexChannel.close();
+        }
+    }
+
+    /**
+     * Maps the start of a file in read-only segments.
+     *
+     * @param channel the file
+     * @param size    number of bytes to map
+     * @return the segments, all but the last one {@value #SEGMENT_SIZE} bytes long
+     * @throws IOException if mapping fails
+     */
+    private static MappedByteBuffer[] map(FileChannel channel, long size) throws IOException {
+        MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS)];
+        for (int i = 0; i < segments.length; i++) {
+            long start = (long) i << SEGMENT_BITS;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+        }
+        return segments;
+    }
+}
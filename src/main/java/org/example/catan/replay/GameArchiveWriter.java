@@ -0,0 +1,501 @@
+package org.example.catan.replay;
+
+import javafx.scene.paint.Color;
+import org.example.catan.CatanBoard;
+import org.example.catan.engine.GameEngine;
+import org.example.catan.engine.GameRecorder;
+import org.example.catan.engine.Move;
+import org.example.catan.gamepieces.Player;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.graph.HexTile;
+import org.example.catan.graph.IntTupel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only archive of completed games, e.g. the results of a self-play batch, with random access by game ID
+ * through a {@link GameArchiveReader}. Games are numbered in the order they are appended, starting at 0.
+ * <p>
+ * The archive consists of two files. The data file holds one record per game, written through memory-mapped
+ * chunks of {@value #CHUNK_SIZE} bytes; a record never crosses a chunk boundary, so a reader can map the file
+ * in large segments and decode every record from a single buffer. A record is
+ * {@code length (varint), seed (8), radius (1), player count (1), ARGB colors (4 each), tile count (varint),
+ * tiles (1 each: resource ordinal << 4 | dice number, in CatanBoard.getHex_coords() order), move count (varint),
+ * moves (varint each)}. A move is stored as {@code zigzag(argument delta) << 3 | type}, where the delta is taken
+ * to the argument of the previous move of the same type, so streets built along a road and repeated rolls
+ * take one or two bytes. The index file holds a header with the game count and the end of the data, followed by
+ * the data offset of every game as a fixed-width big-endian long, so finding a game is a single lookup.
+ * <p>
+ * Appends are serialized by a lock; encoding happens before taking it. Appended games are published in the
+ * header only by {@link #flush()} and {@link #close()}, which first force the records and index entries to
+ * disk and then update and force the header. The operating system may write dirty mapped pages back in any
+ * order, so the header is never changed while it could reach the disk ahead of the games it counts. After a
+ * crash, including a power failure, the archive therefore ends with the last flushed game, and a reopened writer
+ * overwrites anything written after it. Readers opened meanwhile see the games up to the last flush.
+ * Chunks and index windows that are complete are forced when the next one is mapped.
+ * The data file grows by whole chunks and is not truncated on close; the unused tail is sparse on most file
+ * systems and ignored by readers.
+ */
+public class GameArchiveWriter implements AutoCloseable {
+    /** Data file magic, "CTNA". */
+    public static final int MAGIC = 0x43544E41;
+
+    /** Index file magic, "CTNI". */
+    public static final int INDEX_MAGIC = 0x43544E49;
+
+    /** Version of the record and index layout. */
+    public static final short VERSION = 1;
+
+    /** Size of the data file header: magic and version. */
+    public static final int FILE_HEADER_SIZE = 6;
+
+    /** Size of the index file header: magic (4), version (2), padding (2), game count (8), data end (8). */
+    public static final int INDEX_HEADER_SIZE = 24;
+
+    /** Size of one index entry, the data offset of a game. */
+    public static final int INDEX_ENTRY_SIZE = Long.BYTES;
+
+    /** Size of the mapped data chunks; no record crosses a multiple of it. */
+    public static final int CHUNK_SIZE = 1 << 26;
+
+    private static final int INDEX_WINDOW_ENTRIES = 1 << 20;
+    private static final int COUNT_OFFSET = 8;
+    private static final int DATA_END_OFFSET = 16;
+    private static final int MOVE_TYPE_BITS = 3;
+    private static final int MOVE_TYPES = 1 << MOVE_TYPE_BITS;
+    private static final int MAX_VARINT_SIZE = 5;
+
+    private final FileChannel dataChannel;
+    private final FileChannel indexChannel;
+    private final MappedByteBuffer header;
+    private final ReentrantLock lock = new ReentrantLock();
+    private MappedByteBuffer chunk;
+    private long chunkStart = -1;
+    private MappedByteBuffer indexWindow;
+    private long windowStart = -1;
+    private long gameCount;
+    private long dataEnd;
+    private boolean closed;
+
+    /**
+     * Opens an archive for appending, creating its data and index file if they do not exist.
+     *
+     * @param path the data file; the index is kept next to it, see {@link #indexPathOf(Path)}
+     * @throws IOException if the files cannot be opened or are not a game archive
+     */
+    public GameArchiveWriter(Path path) throws IOException {
+        this.dataChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            this.indexChannel = FileChannel.open(indexPathOf(path), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            dataChannel.close();
+            throw e;
+        }
+        try {
+            if (dataChannel.size() == 0 && indexChannel.size() == 0) {
+                ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putShort(VERSION).flip();
+                while (fileHeader.hasRemaining()) {
+                    dataChannel.write(fileHeader, fileHeader.position());
+                }
+                dataChannel.force(true);
+                this.header = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_SIZE);
+                header.putInt(0, INDEX_MAGIC).putShort(4, VERSION)
+                        .putLong(COUNT_OFFSET, 0).putLong(DATA_END_OFFSET, FILE_HEADER_SIZE);
+                header.force();
+            } else {
+                checkHeaders(path);
+                this.header = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_SIZE);
+            }
+            this.gameCount = header.getLong(COUNT_OFFSET);
+            this.dataEnd = header.getLong(DATA_END_OFFSET);
+        } catch (IOException e) {
+            dataChannel.close();
+            indexChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the path of the index file belonging to a data file.
+     *
+     * @param path the data file
+     * @return the data file's path with {@code .idx} appended
+     */
+    public static Path indexPathOf(Path path) {
+        return path.resolveSibling(path.getFileName() + ".idx");
+    }
+
+    /**
+     * Starts recording a game. The engine must have been created with {@link GameEngine#newGame(int, List, long)}
+     * and the same seed, and the returned recording must be attached to it before the first command.
+     *
+     * @param game the new game
+     * @param seed the seed the game was created with
+     * @return the recording, to be {@linkplain Recording#commit() committed} once the game is over
+     */
+    public Recording startGame(GameEngine game, long seed) {
+        return new Recording(game, seed);
+    }
+
+    /**
+     * Appends a game given by its setup and moves.
+     * Rolls may carry their outcome (see {@link Move#roll(int)} and {@link Move#rollSeven(int, int)}); loading
+     * the game then checks that the dice repeated it.
+     *
+     * @param seed         the seed the game was created with
+     * @param board        the board of the game, for its radius and tile layout
+     * @param playerColors the colors of the players in turn order
+     * @param moves        the moves in the order they were executed
+     * @param moveCount    the number of moves to take from {@code moves}
+     * @return the ID of the archived game
+     * @throws IOException if the archive cannot be extended
+     */
+    public long append(long seed, CatanBoard board, List<Color> playerColors, int[] moves, int moveCount)
+            throws IOException {
+        IntTupel[] coords = board.getHex_coords();
+        ByteBuffer body = ByteBuffer.allocate(Long.BYTES + 2 + Integer.BYTES * playerColors.size()
+                + MAX_VARINT_SIZE + coords.length + MAX_VARINT_SIZE * (1 + moveCount));
+        body.putLong(seed).put((byte) board.getRadius()).put((byte) playerColors.size());
+        for (Color color : playerColors) {
+            body.putInt(GameLogWriter.toArgb(color));
+        }
+        putVarint(body, coords.length);
+        for (IntTupel coord : coords) {
+            HexTile tile = board.getBoard().get(coord);
+            body.put((byte) (tile.getResourceType().ordinal() << 4 | tile.getDiceNumber()));
+        }
+        putVarint(body, moveCount);
+        int[] previous = new int[MOVE_TYPES];
+        for (int i = 0; i < moveCount; i++) {
+            int type = Move.type(moves[i]);
+            int argument = Move.argument(moves[i]);
+            int delta = argument - previous[type];
+            previous[type] = argument;
+            putVarint(body, (delta << 1 ^ delta >> 31) << MOVE_TYPE_BITS | type);
+        }
+        body.flip();
+        return write(body);
+    }
+
+    /**
+     * Returns the number of games archived so far.
+     *
+     * @return the game count
+     */
+    public long getGameCount() {
+        lock.lock();
+        try {
+            return gameCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes used by the archived games, including the file header.
+     *
+     * @return the end of the last record in the data file
+     */
+    public long getDataSize() {
+        lock.lock();
+        try {
+            return dataEnd;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces all archived games to disk and publishes them in the header.
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces all archived games to disk, publishes them in the header and closes the files. Later appends fail.
+     *
+     * @throws IOException if closing the files fails
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            publish();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            dataChannel.close();
+        } finally {
+            indexChannel.close();
+        }
+    }
+
+    /**
+     * Writes an encoded record and its index entry; the header is left to {@link #publish()}.
+     *
+     * @param body the encoded record without its length
+     * @return the ID of the archived game
+     * @throws IOException if a chunk cannot be mapped
+     */
+    private long write(ByteBuffer body) throws IOException {
+        int size = varintSize(body.remaining()) + body.remaining();
+        if (size > CHUNK_SIZE) {
+            throw new IllegalArgumentException("Game record of " + size + " bytes exceeds the chunk size");
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The archive is closed.");
+            }
+            long offset = dataEnd;
+            if (offset / CHUNK_SIZE != (offset + size - 1) / CHUNK_SIZE) {
+                offset = (offset / CHUNK_SIZE + 1) * CHUNK_SIZE;
+            }
+            ByteBuffer target = mapChunk(offset);
+            int position = (int) (offset - chunkStart);
+            target.position(position);
+            putVarint(target, body.remaining());
+            target.put(body);
+
+            long gameId = gameCount;
+            mapIndexWindow(gameId).putLong((int) ((gameId - windowStart) * INDEX_ENTRY_SIZE), offset);
+            gameCount = gameId + 1;
+            dataEnd = offset + size;
+            return gameId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the mapped chunk containing an offset, mapping it and forcing the previous one if needed.
+     * Must be called while holding the lock.
+     *
+     * @param offset the offset in the data file
+     * @return the mapped chunk
+     * @throws IOException if the chunk cannot be mapped
+     */
+    private MappedByteBuffer mapChunk(long offset) throws IOException {
+        long start = offset / CHUNK_SIZE * CHUNK_SIZE;
+        if (start != chunkStart) {
+            if (chunk != null) {
+                chunk.force();
+            }
+            chunk = dataChannel.map(FileChannel.MapMode.READ_WRITE, start, CHUNK_SIZE);
+            chunkStart = start;
+        }
+        return chunk;
+    }
+
+    /**
+     * Returns the mapped window of the index containing a game's entry, mapping it and forcing the previous one
+     * if needed. Must be called while holding the lock.
+     *
+     * @param gameId the game
+     * @return the mapped window, starting at the entry of game {@code windowStart}
+     * @throws IOException if the window cannot be mapped
+     */
+    private MappedByteBuffer mapIndexWindow(long gameId) throws IOException {
+        long start = gameId / INDEX_WINDOW_ENTRIES * INDEX_WINDOW_ENTRIES;
+        if (start != windowStart) {
+            if (indexWindow != null) {
+                indexWindow.force();
+            }
+            indexWindow = indexChannel.map(FileChannel.MapMode.READ_WRITE,
+                    INDEX_HEADER_SIZE + start * INDEX_ENTRY_SIZE, (long) INDEX_WINDOW_ENTRIES * INDEX_ENTRY_SIZE);
+            windowStart = start;
+        }
+        return indexWindow;
+    }
+
+    /**
+     * Forces the current chunk and index window, then records the game count and data end in the header and
+     * forces it, so the header never counts games that are not on disk. Must be called while holding the lock.
+     */
+    private void publish() {
+        if (chunk != null) {
+            chunk.force();
+        }
+        if (indexWindow != null) {
+            indexWindow.force();
+        }
+        header.putLong(COUNT_OFFSET, gameCount).putLong(DATA_END_OFFSET, dataEnd);
+        header.force();
+    }
+
+    /**
+     * Checks the headers of an existing archive.
+     *
+     * @param path the data file, for error messages
+     * @throws IOException if a header is missing or belongs to another format or version
+     */
+    private void checkHeaders(Path path) throws IOException {
+        ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        ByteBuffer indexHeader = ByteBuffer.allocate(INDEX_HEADER_SIZE);
+        dataChannel.read(fileHeader, 0);
+        indexChannel.read(indexHeader, 0);
+        if (fileHeader.hasRemaining() || indexHeader.hasRemaining()
+                || fileHeader.getInt(0) != MAGIC || indexHeader.getInt(0) != INDEX_MAGIC) {
+            throw new IOException("Not a game archive: " + path);
+        }
+        short version = fileHeader.getShort(4);
+        if (version != VERSION || indexHeader.getShort(4) != VERSION) {
+            throw new IOException("Unsupported game archive version " + version + ": " + path);
+        }
+    }
+
+    /**
+     * Writes an unsigned LEB128 varint: seven bits per byte, lowest first, with the top bit set on all but
+     * the last byte.
+     *
+     * @param buffer the target
+     * @param value  the value, treated as unsigned
+     */
+    static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Returns the encoded size of a varint.
+     *
+     * @param value the value, treated as unsigned
+     * @return the number of bytes {@link #putVarint(ByteBuffer, int)} writes
+     */
+    static int varintSize(int value) {
+        return (Integer.SIZE - Integer.numberOfLeadingZeros(value | 1) + 6) / 7;
+    }
+
+    /**
+     * Recording of one game, collecting its events as moves until it is committed to the archive.
+     * Player trades have no move encoding, so a game in which one was offered cannot be committed.
+     */
+    public final class Recording implements GameRecorder {
+        private final GameEngine game;
+        private final long seed;
+        private final List<Color> playerColors;
+        private int[] moves = new int[256];
+        private int moveCount;
+        private boolean playerTrades;
+
+        /**
+         * Creates the recording of a game.
+         *
+         * @param game the recorded game
+         * @param seed the seed the game was created with
+         */
+        private Recording(GameEngine game, long seed) {
+            this.game = game;
+            this.seed = seed;
+            this.playerColors = game.getPlayers().stream().map(Player::getColor).toList();
+        }
+
+        /**
+         * Returns the number of moves recorded so far.
+         *
+         * @return the move count
+         */
+        public int getMoveCount() {
+            return moveCount;
+        }
+
+        /**
+         * Appends the game to the archive. It is published to readers and survives a crash after the next
+         * {@link GameArchiveWriter#flush()}.
+         *
+         * @return the ID of the archived game
+         * @throws IOException           if the archive cannot be extended
+         * @throws IllegalStateException if players traded with each other during the game
+         */
+        public long commit() throws IOException {
+            if (playerTrades) {
+                throw new IllegalStateException("Games with player trades cannot be archived.");
+            }
+            return append(seed, game.getBoard(), playerColors, moves, moveCount);
+        }
+
+        @Override
+        public void diceRolled(int player, int total) {
+            add(Move.roll(total));
+        }
+
+        @Override
+        public void resourceStolen(int thief, int victim, int resource) {
+            if (victim >= 0) {
+                moves[moveCount - 1] = Move.rollSeven(victim, resource);
+            }
+        }
+
+        @Override
+        public void streetBuilt(int player, int edge) {
+            add(Move.of(Move.STREET, edge));
+        }
+
+        @Override
+        public void settlementBuilt(int player, int vertex) {
+            add(Move.of(Move.SETTLEMENT, vertex));
+        }
+
+        @Override
+        public void bankTraded(int player, int give, int want) {
+            add(Move.bankTrade(give, want));
+        }
+
+        @Override
+        public void tradeOffered(int player, ResourceVector offer, ResourceVector request) {
+            playerTrades = true;
+        }
+
+        @Override
+        public void banditPlaced(int player, int q, int r) {
+            IntTupel[] coords = game.getBoard().getHex_coords();
+            for (int tile = 0; tile < coords.length; tile++) {
+                if (coords[tile].q() == q && coords[tile].r() == r) {
+                    add(Move.of(Move.PLACE_BANDIT, tile));
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void turnEnded(int player, boolean won) {
+            add(Move.of(Move.END_TURN, 0));
+        }
+
+        /**
+         * Adds a move, growing the array if needed.
+         *
+         * @param move the encoded move
+         */
+        private void add(int move) {
+            if (moveCount == moves.length) {
+                moves = Arrays.copyOf(moves, moveCount * 2);
+            }
+            moves[moveCount++] = move;
+        }
+    }
+}
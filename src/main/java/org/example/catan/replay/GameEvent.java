@@ -0,0 +1,74 @@
+package org.example.catan.replay;
+
+import lombok.Getter;
+import org.example.catan.gamepieces.ResourceVector;
+
+/**
+ * One decoded record of a game log. A {@link GameLogReader} overwrites the same instance for every record,
+ * so reading a log allocates nothing per event; copy values out if they are needed later.
+ * Which fields are set depends on the {@link GameEventType}:
+ * <ul>
+ *     <li>{@code player}: the acting player (thief for steals), for all types except {@code GAME_STARTED}</li>
+ *     <li>{@code value}: dice total, edge, vertex, offer index or the won flag (1/0)</li>
+ *     <li>{@code first} / {@code second}: victim and resource of a steal, given and received resource of a
+ *     bank trade, tile q and r of the bandit</li>
+ *     <li>{@code offer} / {@code request}: the vectors of a trade offer</li>
+ *     <li>{@code seed}, {@code radius}, {@code colors}: the setup of a new game</li>
+ * </ul>
+ */
+@Getter
+public class GameEvent {
+    private final ResourceVector offer = new ResourceVector();
+    private final ResourceVector request = new ResourceVector();
+    private GameEventType type;
+    private long gameId;
+    private int player;
+    private int value;
+    private int first;
+    private int second;
+    private long seed;
+    private int radius;
+    private int[] colors = new int[0];
+
+    /**
+     * Sets the fields shared by all records.
+     *
+     * @param type   the record type
+     * @param gameId the game the record belongs to
+     * @param player the acting player, -1 for {@code GAME_STARTED}
+     */
+    void reset(GameEventType type, long gameId, int player) {
+        this.type = type;
+        this.gameId = gameId;
+        this.player = player;
+        this.value = 0;
+        this.first = 0;
+        this.second = 0;
+    }
+
+    /**
+     * Sets the type-specific integer fields.
+     *
+     * @param value  the main value
+     * @param first  the first additional value
+     * @param second the second additional value
+     */
+    void set(int value, int first, int second) {
+        this.value = value;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Sets the setup of a new game.
+     *
+     * @param seed   the game's seed
+     * @param radius the board radius
+     * @param colors the ARGB colors of the players in turn order
+     */
+    void setGame(long seed, int radius, int[] colors) {
+        this.seed = seed;
+        this.radius = radius;
+        this.colors = colors;
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.catan.replay;
+
+import javafx.scene.paint.Color;
+import org.example.catan.engine.GameRecorder;
+import org.example.catan.gamepieces.ResourceVector;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Recorder that encodes the events of one game into binary records, see {@link GameEventType} for the layout.
+ * Subclasses decide where a record goes: {@link #begin(int)} supplies a buffer with room for the record and
+ * {@link #end()} is called once it is complete, also if encoding failed.
+ */
+public abstract class GameEventEncoder implements GameRecorder {
+    private final long gameId;
+
+    /**
+     * Creates the encoder of a game.
+     *
+     * @param gameId ID of the game written into every record
+     */
+    protected GameEventEncoder(long gameId) {
+        this.gameId = gameId;
+    }
+
+    /**
+     * Returns the ID of the encoded game.
+     *
+     * @return the game ID
+     */
+    public long getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Supplies the buffer for the next record.
+     *
+     * @param size size of the record including its header
+     * @return a buffer with at least {@code size} bytes remaining
+     */
+    protected abstract ByteBuffer begin(int size);
+
+    /**
+     * Completes the record started by the last {@link #begin(int)}.
+     */
+    protected abstract void end();
+
+    /**
+     * Encodes the setup of the game.
+     *
+     * @param seed         the seed the game was created with
+     * @param radius       the board radius
+     * @param playerColors the colors of the players in turn order
+     */
+    public void gameStarted(long seed, int radius, List<Color> playerColors) {
+        ByteBuffer buffer = start(GameEventType.GAME_STARTED, 10 + 4 * playerColors.size());
+        try {
+            buffer.putLong(seed).put((byte) radius).put((byte) playerColors.size());
+            for (Color color : playerColors) {
+                buffer.putInt(GameLogWriter.toArgb(color));
+            }
+        } finally {
+            end();
+        }
+    }
+
+    @Override
+    public void diceRolled(int player, int total) {
+        recordBytes(GameEventType.DICE_ROLLED, player, total);
+    }
+
+    @Override
+    public void resourceStolen(int thief, int victim, int resource) {
+        recordBytes(GameEventType.RESOURCE_STOLEN, thief, victim, resource);
+    }
+
+    @Override
+    public void streetBuilt(int player, int edge) {
+        recordIndex(GameEventType.STREET_BUILT, player, edge);
+    }
+
+    @Override
+    public void settlementBuilt(int player, int vertex) {
+        recordIndex(GameEventType.SETTLEMENT_BUILT, player, vertex);
+    }
+
+    @Override
+    public void bankTraded(int player, int give, int want) {
+        recordBytes(GameEventType.BANK_TRADED, player, give, want);
+    }
+
+    @Override
+    public void tradeOffered(int player, ResourceVector offer, ResourceVector request) {
+        ByteBuffer buffer = start(GameEventType.TRADE_OFFERED, GameEventType.TRADE_OFFERED.getPayloadSize());
+        try {
+            buffer.put((byte) player);
+            for (int i = 0; i < ResourceVector.SIZE; i++) {
+                buffer.putShort((short) offer.get(i));
+            }
+            for (int i = 0; i < ResourceVector.SIZE; i++) {
+                buffer.putShort((short) request.get(i));
+            }
+        } finally {
+            end();
+        }
+    }
+
+    @Override
+    public void tradeAccepted(int player, int offerIndex) {
+        ByteBuffer buffer = start(GameEventType.TRADE_ACCEPTED, 3);
+        try {
+            buffer.put((byte) player).putShort((short) offerIndex);
+        } finally {
+            end();
+        }
+    }
+
+    @Override
+    public void banditPlaced(int player, int q, int r) {
+        ByteBuffer buffer = start(GameEventType.BANDIT_PLACED, 5);
+        try {
+            buffer.put((byte) player).putShort((short) q).putShort((short) r);
+        } finally {
+            end();
+        }
+    }
+
+    @Override
+    public void turnEnded(int player, boolean won) {
+        recordBytes(GameEventType.TURN_ENDED, player, won ? 1 : 0);
+    }
+
+    /**
+     * Starts a record and writes its header.
+     *
+     * @param type        the record type
+     * @param payloadSize size of the payload that follows
+     * @return the buffer to write the payload to
+     */
+    private ByteBuffer start(GameEventType type, int payloadSize) {
+        return begin(GameEventType.HEADER_SIZE + payloadSize).put(type.getCode()).putLong(gameId);
+    }
+
+    /**
+     * Records an event whose payload is two single-byte values.
+     *
+     * @param type   the record type
+     * @param player index of the player
+     * @param value  the second value
+     */
+    private void recordBytes(GameEventType type, int player, int value) {
+        ByteBuffer buffer = start(type, 2);
+        try {
+            buffer.put((byte) player).put((byte) value);
+        } finally {
+            end();
+        }
+    }
+
+    /**
+     * Records an event whose payload is three single-byte values.
+     *
+     * @param type   the record type
+     * @param player index of the player
+     * @param first  the second value
+     * @param second the third value
+     */
+    private void recordBytes(GameEventType type, int player, int first, int second) {
+        ByteBuffer buffer = start(type, 3);
+        try {
+            buffer.put((byte) player).put((byte) first).put((byte) second);
+        } finally {
+            end();
+        }
+    }
+
+    /**
+     * Records an event whose payload is the player and a vertex or edge index.
+     *
+     * @param type   the record type
+     * @param player index of the player
+     * @param index  the vertex or edge
+     */
+    private void recordIndex(GameEventType type, int player, int index) {
+        ByteBuffer buffer = start(type, 5);
+        try {
+            buffer.put((byte) player).putInt(index);
+        } finally {
+            end();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.catan.replay;
+
+import org.example.catan.gamepieces.ResourceVector;
+
+/**
+ * Types of the records in a game log, with their one-byte code and payload size.
+ * Every record is {@code type (1 byte), game ID (8 bytes), payload}; all multi-byte values are big-endian.
+ */
+public enum GameEventType {
+    /** A new game: seed (8), radius (1), player count (1), then one ARGB color (4) per player. */
+    GAME_STARTED(1, -1),
+
+    /** Player (1), dice total (1). */
+    DICE_ROLLED(2, 2),
+
+    /** Thief (1), victim (1, -1 if none), resource (1, -1 if none). */
+    RESOURCE_STOLEN(3, 3),
+
+    /** Player (1), edge (4). */
+    STREET_BUILT(4, 5),
+
+    /** Player (1), vertex (4). */
+    SETTLEMENT_BUILT(5, 5),
+
+    /** Player (1), given resource (1), received resource (1). */
+    BANK_TRADED(6, 3),
+
+    /** Player (1), offered counts (2 each), requested counts (2 each). */
+    TRADE_OFFERED(7, 1 + 4 * ResourceVector.SIZE),
+
+    /** Player (1), index of the offer among the active trades (2). */
+    TRADE_ACCEPTED(8, 3),
+
+    /** Player (1), tile q (2), tile r (2). */
+    BANDIT_PLACED(9, 5),
+
+    /** Player (1), 1 if the player won, 0 otherwise (1). */
+    TURN_ENDED(10, 2);
+
+    /** Size of the type code and game ID that precede every payload. */
+    public static final int HEADER_SIZE = 1 + 8;
+
+    private static final GameEventType[] BY_CODE = new GameEventType[16];
+
+    static {
+        for (GameEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+    private final int payloadSize;
+
+    /**
+     * Creates an event type.
+     *
+     * @param code        the code written to the log
+     * @param payloadSize the fixed payload size in bytes, -1 if it depends on the content
+     */
+    GameEventType(int code, int payloadSize) {
+        this.code = (byte) code;
+        this.payloadSize = payloadSize;
+    }
+
+    /**
+     * Returns the code written to the log.
+     *
+     * @return the type code
+     */
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the payload size of this type.
+     *
+     * @return the size in bytes, -1 if it depends on the content
+     */
+    public int getPayloadSize() {
+        return payloadSize;
+    }
+
+    /**
+     * Looks up an event type by its code.
+     *
+     * @param code the type code read from the log
+     * @return the event type, or null if the code is unknown
+     */
+    public static GameEventType fromCode(byte code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.catan.replay;
+
+import org.example.catan.gamepieces.ResourceVector;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sequential reader of a game log written by {@link GameLogWriter}.
+ * The file is memory-mapped in segments of at most {@value #SEGMENT_SIZE} bytes, so logs of any size can be
+ * read, and decoded into one reused {@link GameEvent}. A record that crosses the end of a segment is read
+ * from the next segment, which is mapped starting at that record. A record cut off at the end of the file
+ * (e.g. by a crash during a commit) ends the log like a regular end of file.
+ */
+public class GameLogReader implements AutoCloseable {
+    /** Maximum size of a mapped segment. */
+    public static final int SEGMENT_SIZE = 1 << 26;
+
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer segment;
+    private long segmentStart;
+
+    /**
+     * Opens a log and checks its header.
+     *
+     * @param path the log file
+     * @throws IOException if the file cannot be read or is not a game log
+     */
+    public GameLogReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            map(0);
+            if (segment.remaining() < GameLogWriter.FILE_HEADER_SIZE || segment.getInt() != GameLogWriter.MAGIC) {
+                throw new IOException("Not a game log: " + path);
+            }
+            short version = segment.getShort();
+            if (version != GameLogWriter.VERSION) {
+                throw new IOException("Unsupported game log version " + version + ": " + path);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Decodes the next record.
+     *
+     * @param event the event to overwrite with the record
+     * @return true if a record was read, false at the end of the log
+     * @throws IOException if the log contains an unknown record type
+     */
+    public boolean next(GameEvent event) throws IOException {
+        if (decode(segment, event)) {
+            return true;
+        }
+        if (segmentStart + segment.limit() >= size) {
+            return false;
+        }
+        map(getPosition());
+        return decode(segment, event);
+    }
+
+    /**
+     * Returns the offset in the file up to which records have been read.
+     *
+     * @return the offset of the end of the last record read, or of the file header before the first
+     */
+    public long getPosition() {
+        return segmentStart + segment.position();
+    }
+
+    /**
+     * Maps the segment starting at an offset.
+     *
+     * @param start the offset in the file
+     * @throws IOException if the file cannot be mapped
+     */
+    private void map(long start) throws IOException {
+        segment = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+        segmentStart = start;
+    }
+
+    /**
+     * Decodes one record at the position of a buffer, e.g. a record received over the network.
+     * The position is advanced past the record, or left unchanged if the record is incomplete.
+     *
+     * @param buffer the buffer holding the record
+     * @param event  the event to overwrite with the record
+     * @return true if a record was read, false if the buffer ends before the record does
+     * @throws IOException if the record has an unknown type
+     */
+    public static boolean decode(ByteBuffer buffer, GameEvent event) throws IOException {
+        if (buffer.remaining() < GameEventType.HEADER_SIZE) {
+            return false;
+        }
+        int start = buffer.position();
+        try {
+            byte code = buffer.get();
+            GameEventType type = GameEventType.fromCode(code);
+            if (type == null) {
+                throw new IOException("Unknown game log record type " + code + " at offset " + start);
+            }
+            long gameId = buffer.getLong();
+            if (type == GameEventType.GAME_STARTED) {
+                event.reset(type, gameId, -1);
+                long seed = buffer.getLong();
+                int radius = buffer.get();
+                int[] colors = new int[buffer.get()];
+                for (int i = 0; i < colors.length; i++) {
+                    colors[i] = buffer.getInt();
+                }
+                event.setGame(seed, radius, colors);
+                return true;
+            }
+
+            event.reset(type, gameId, buffer.get());
+            switch (type) {
+                case DICE_ROLLED, TURN_ENDED -> event.set(buffer.get(), 0, 0);
+                case RESOURCE_STOLEN, BANK_TRADED -> event.set(0, buffer.get(), buffer.get());
+                case STREET_BUILT, SETTLEMENT_BUILT -> event.set(buffer.getInt(), 0, 0);
+                case TRADE_ACCEPTED -> event.set(buffer.getShort(), 0, 0);
+                case BANDIT_PLACED -> event.set(0, buffer.getShort(), buffer.getShort());
+                case TRADE_OFFERED -> {
+                    for (int i = 0; i < ResourceVector.SIZE; i++) {
+                        event.getOffer().set(ResourceVector.resourceAt(i), buffer.getShort());
+                    }
+                    for (int i = 0; i < ResourceVector.SIZE; i++) {
+                        event.getRequest().set(ResourceVector.resourceAt(i), buffer.getShort());
+                    }
+                }
+                default -> throw new IOException("Unexpected game log record type " + type);
+            }
+            return true;
+        } catch (BufferUnderflowException e) {
+            buffer.position(start);
+            return false;
+        }
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,395 @@
+package org.example.catan.replay;
+
+import javafx.scene.paint.Color;
+import org.example.catan.engine.GameEngine;
+import org.example.catan.engine.GameRecorder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only binary log shared by any number of games, with group commit.
+ * Recording an event only encodes it into an in-memory buffer. A background thread collects events into a batch
+ * until the oldest of them has waited for the maximum commit delay or the batch holds {@value #MAX_BATCH_SIZE}
+ * bytes, then swaps the buffer with a second one, writes it to the file and forces it to disk, so a single fsync
+ * covers the whole batch. Game commands therefore never wait for the disk.
+ * {@link #flush()} commits the current batch right away and waits until everything recorded so far is durable.
+ * If writing fails, later events are dropped instead of failing the game commands that produced them, and the
+ * error is reported by {@link #flush()} and {@link #close()}.
+ * See {@link GameEventType} for the record layout.
+ */
+public class GameLogWriter implements AutoCloseable {
+    /** File magic, "CTNL". */
+    public static final int MAGIC = 0x43544E4C;
+
+    /**
+     * Version of the record layout and of the engine rules the records are replayed with. Version 2 logs come
+     * from engines where the bank takes in build costs and pays out only what it holds, and where an offer is
+     * only accepted from the player on turn and is executed at once against a matching listed offer, so they
+     * must not be replayed by an engine of version 1 or the other way round.
+     */
+    public static final short VERSION = 2;
+
+    /** Size of the file header: magic and version. */
+    public static final int FILE_HEADER_SIZE = 6;
+
+    /** Size in bytes at which a batch is committed without waiting for the commit delay. */
+    public static final int MAX_BATCH_SIZE = 64 * 1024;
+
+    private static final int INITIAL_BUFFER_SIZE = 2 * MAX_BATCH_SIZE;
+
+    private final FileChannel channel;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition dataAvailable = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final Thread flusher;
+    private final long maxCommitDelayNanos;
+    private ByteBuffer active = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private ByteBuffer flushing = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private ByteBuffer discard = ByteBuffer.allocate(256);
+    private long appendedEvents;
+    private long durableEvents;
+    private long commits;
+    private long batchStartNanos;
+    private boolean flushRequested;
+    private IOException failure;
+    private boolean closed;
+
+    /**
+     * Opens a log for appending, creating it with a file header if it does not exist,
+     * and starts the commit thread. An existing log must have been written with the current {@link #VERSION}.
+     * If it ends with a record cut off by a crash, that record is truncated, so new records follow the last
+     * complete one.
+     *
+     * @param path           the log file
+     * @param maxCommitDelay longest time a recorded event may wait before its batch is committed; 0 commits
+     *                       every batch as soon as the commit thread picks it up
+     * @param unit           unit of {@code maxCommitDelay}
+     * @throws IOException if the file cannot be opened, the header cannot be written, the existing header
+     *                     belongs to another format or version, or the existing records cannot be decoded
+     */
+    public GameLogWriter(Path path, long maxCommitDelay, TimeUnit unit) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.maxCommitDelayNanos = unit.toNanos(maxCommitDelay);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putShort(VERSION).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                channel.force(true);
+            } else {
+                channel.position(recover(path));
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.flusher = new Thread(this::runCommits, "game-log-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Checks the header of an existing log and reads all its records. Bytes after the last complete record,
+     * left by a commit that a crash cut short, are truncated and the truncation is forced to disk.
+     *
+     * @param path the log file
+     * @return the end of the last complete record, where new records are appended
+     * @throws IOException if the header is missing or belongs to another format or version, or a record
+     *                     has an unknown type
+     */
+    private long recover(Path path) throws IOException {
+        long end;
+        try (GameLogReader reader = new GameLogReader(path)) {
+            GameEvent event = new GameEvent();
+            while (reader.next(event)) {
+                // only the end of the last complete record is needed
+            }
+            end = reader.getPosition();
+        }
+        if (end < channel.size()) {
+            channel.truncate(end);
+            channel.force(true);
+        }
+        return end;
+    }
+
+    /**
+     * Records the setup of a new game and returns the recorder to attach to its engine.
+     * The engine must have been created with {@link GameEngine#newGame(int, List, long)} and the same seed.
+     *
+     * @param gameId       ID of the game, unique within this log
+     * @param radius       the board radius
+     * @param playerColors the colors of the players in turn order
+     * @param seed         the seed the game was created with
+     * @return the recorder writing the game's events to this log
+     */
+    public GameRecorder startGame(long gameId, int radius, List<Color> playerColors, long seed) {
+        Recorder recorder = new Recorder(gameId);
+        recorder.gameStarted(seed, radius, playerColors);
+        return recorder;
+    }
+
+    /**
+     * Blocks until all events recorded so far are written and forced to disk.
+     *
+     * @throws IOException if writing the log failed
+     */
+    public void flush() throws IOException {
+        lock.lock();
+        try {
+            long target = appendedEvents;
+            flushRequested = true;
+            dataAvailable.signal();
+            while (durableEvents < target && failure == null) {
+                durable.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of events recorded so far, including game starts.
+     *
+     * @return the event count
+     */
+    public long getAppendedEvents() {
+        lock.lock();
+        try {
+            return appendedEvents;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of batches forced to disk so far; compared with {@link #getAppendedEvents()}
+     * it shows how many events share one fsync.
+     *
+     * @return the commit count
+     */
+    public long getCommits() {
+        lock.lock();
+        try {
+            return commits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Commits all pending events, stops the commit thread and closes the file.
+     *
+     * @throws IOException if writing the log failed
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            dataAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Makes room for a record in the active buffer, growing it if needed. Must be called while holding the lock.
+     * Once the log is closed or has failed, the record goes to a scratch buffer and is dropped.
+     *
+     * @param needed size of the record including its header
+     * @return the buffer to write the record to
+     */
+    private ByteBuffer reserve(int needed) {
+        if (closed) {
+            if (discard.capacity() < needed) {
+                discard = ByteBuffer.allocate(needed);
+            }
+            return discard.clear();
+        }
+        if (active.remaining() < needed) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(active.capacity() * 2, active.position() + needed));
+            active.flip();
+            grown.put(active);
+            active = grown;
+        }
+        return active;
+    }
+
+    /**
+     * Finishes a record. Wakes the commit thread when the record starts a new batch, so that it can time
+     * the commit delay, or fills the batch. Must be called while holding the lock.
+     *
+     * @param start position of the record in the active buffer
+     */
+    private void commit(int start) {
+        if (closed) {
+            return;
+        }
+        appendedEvents++;
+        if (start == 0) {
+            batchStartNanos = System.nanoTime();
+            dataAvailable.signal();
+        } else if (active.position() >= MAX_BATCH_SIZE) {
+            dataAvailable.signal();
+        }
+    }
+
+    /**
+     * Waits until the active batch is due: its first event has waited for the maximum commit delay, it holds
+     * {@link #MAX_BATCH_SIZE} bytes, a flush was requested or the log is closed. Must be called while holding
+     * the lock.
+     *
+     * @throws InterruptedException if the commit thread is interrupted
+     */
+    private void awaitBatch() throws InterruptedException {
+        while (!closed && !flushRequested) {
+            if (active.position() == 0) {
+                dataAvailable.await();
+                continue;
+            }
+            long remaining = batchStartNanos + maxCommitDelayNanos - System.nanoTime();
+            if (remaining <= 0 || active.position() >= MAX_BATCH_SIZE) {
+                return;
+            }
+            dataAvailable.awaitNanos(remaining);
+        }
+    }
+
+    /**
+     * Loop of the commit thread: waits for a due batch, swaps the buffers and writes and forces
+     * the filled one outside the lock, so events keep being recorded into the other buffer meanwhile.
+     */
+    private void runCommits() {
+        while (true) {
+            long batchEnd;
+            lock.lock();
+            try {
+                awaitBatch();
+                flushRequested = false;
+                if (active.position() == 0) {
+                    if (closed) {
+                        return;
+                    }
+                    durable.signalAll();
+                    continue;
+                }
+                ByteBuffer full = active;
+                active = flushing;
+                flushing = full;
+                batchEnd = appendedEvents;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                flushing.flip();
+                while (flushing.hasRemaining()) {
+                    channel.write(flushing);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+            flushing.clear();
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                    closed = true;
+                } else {
+                    durableEvents = batchEnd;
+                    commits++;
+                }
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (error != null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Packs a color into an ARGB integer.
+     *
+     * @param color the color
+     * @return the packed color
+     */
+    static int toArgb(Color color) {
+        return (int) Math.round(color.getOpacity() * 255) << 24
+                | (int) Math.round(color.getRed() * 255) << 16
+                | (int) Math.round(color.getGreen() * 255) << 8
+                | (int) Math.round(color.getBlue() * 255);
+    }
+
+    /**
+     * Unpacks a color written by {@link #toArgb(Color)}.
+     *
+     * @param argb the packed color
+     * @return the color
+     */
+    static Color fromArgb(int argb) {
+        return Color.rgb(argb >> 16 & 0xFF, argb >> 8 & 0xFF, argb & 0xFF, (argb >>> 24) / 255.0);
+    }
+
+    /**
+     * Recorder of one game, encoding each event straight into the shared buffer while holding the lock.
+     */
+    private final class Recorder extends GameEventEncoder {
+        /**
+         * Creates the recorder of a game.
+         *
+         * @param gameId ID of the game
+         */
+        private Recorder(long gameId) {
+            super(gameId);
+        }
+
+        private int start;
+
+        @Override
+        protected ByteBuffer begin(int size) {
+            lock.lock();
+            ByteBuffer buffer = reserve(size);
+            start = buffer.position();
+            return buffer;
+        }
+
+        @Override
+        protected void end() {
+            try {
+                commit(start);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
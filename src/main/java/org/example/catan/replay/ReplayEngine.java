@@ -0,0 +1,169 @@
+package org.example.catan.replay;
+
+import javafx.scene.paint.Color;
+import org.example.catan.engine.ActionResult;
+import org.example.catan.engine.GameEngine;
+import org.example.catan.engine.StealOutcome;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.gamepieces.TradeOffer;
+import org.example.catan.graph.IntTupel;
+import org.example.catan.graph.StreetGraph;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rebuilds games from a log. Every game is recreated from its seed with {@link GameEngine#newGame},
+ * and its commands are executed again in order; because all randomness comes from the seed, dice rolls and
+ * steals repeat exactly. Logged outcomes (dice totals, stolen cards, the winner) are compared with the
+ * re-executed ones, so a replay that diverges from the original game fails instead of producing a wrong state.
+ */
+public class ReplayEngine {
+    private final Map<Long, GameEngine> games = new HashMap<>();
+    private long replayedEvents;
+
+    /**
+     * Replays all games of a log.
+     *
+     * @param path the log file
+     * @return the rebuilt games by game ID, in their final logged state
+     * @throws IOException if the log cannot be read
+     */
+    public static Map<Long, GameEngine> replay(Path path) throws IOException {
+        ReplayEngine replay = new ReplayEngine();
+        replay.replayFile(path);
+        return replay.getGames();
+    }
+
+    /**
+     * Replays all events of a log into this engine's games.
+     *
+     * @param path the log file
+     * @throws IOException if the log cannot be read
+     */
+    public void replayFile(Path path) throws IOException {
+        try (GameLogReader reader = new GameLogReader(path)) {
+            GameEvent event = new GameEvent();
+            while (reader.next(event)) {
+                apply(event);
+            }
+        }
+    }
+
+    /**
+     * Applies one logged event to the game it belongs to.
+     *
+     * @param event the event
+     * @throws IllegalStateException if the event does not match the replayed game
+     */
+    public void apply(GameEvent event) {
+        replayedEvents++;
+        if (event.getType() == GameEventType.GAME_STARTED) {
+            List<Color> colors = new ArrayList<>();
+            for (int argb : event.getColors()) {
+                colors.add(GameLogWriter.fromArgb(argb));
+            }
+            games.put(event.getGameId(), GameEngine.newGame(event.getRadius(), colors, event.getSeed()));
+            return;
+        }
+
+        GameEngine engine = games.get(event.getGameId());
+        if (engine == null) {
+            throw new IllegalStateException("Event for unknown game " + event.getGameId());
+        }
+        if (event.getType() != GameEventType.RESOURCE_STOLEN && event.getPlayer() != engine.getCurrentPlayerIndex()) {
+            throw diverged(event, "player " + engine.getCurrentPlayerIndex() + " is on turn");
+        }
+
+        switch (event.getType()) {
+            case DICE_ROLLED -> {
+                expectAccepted(event, engine.rollDice());
+                if (engine.getLastRoll() != event.getValue()) {
+                    throw diverged(event, "rolled " + engine.getLastRoll());
+                }
+            }
+            case RESOURCE_STOLEN -> {
+                StealOutcome steal = engine.getLastSteal();
+                int victim = steal.isSuccessful() ? engine.getPlayers().indexOf(steal.victim()) : -1;
+                int resource = steal.isSuccessful() ? steal.resource().ordinal() : -1;
+                if (victim != event.getFirst() || resource != event.getSecond()) {
+                    throw diverged(event, "stole resource " + resource + " from player " + victim);
+                }
+            }
+            case STREET_BUILT -> {
+                StreetGraph graph = engine.getBoard().getGraph();
+                int edge = event.getValue();
+                expectAccepted(event, engine.buildStreet(graph.getNodeA(edge), graph.getNodeB(edge)));
+            }
+            case SETTLEMENT_BUILT -> expectAccepted(event, engine.buildSettlement(event.getValue()));
+            case BANK_TRADED -> expectAccepted(event, engine.offerTrade(new TradeOffer(engine.getCurrentPlayer(),
+                    ResourceVector.of(ResourceVector.resourceAt(event.getFirst()), GameEngine.BANK_TRADE_RATE),
+                    ResourceVector.of(ResourceVector.resourceAt(event.getSecond()), 1), true)));
+            case TRADE_OFFERED -> expectAccepted(event, engine.offerTrade(new TradeOffer(engine.getCurrentPlayer(),
+                    event.getOffer().copy(), event.getRequest().copy(), false)));
+            case TRADE_ACCEPTED -> {
+                List<TradeOffer> trades = engine.getActiveTrades();
+                if (event.getValue() >= trades.size()) {
+                    throw diverged(event, "only " + trades.size() + " trades are listed");
+                }
+                expectAccepted(event, engine.acceptTrade(trades.get(event.getValue())));
+            }
+            case BANDIT_PLACED -> expectAccepted(event,
+                    engine.placeBandit(new IntTupel(event.getFirst(), event.getSecond())));
+            case TURN_ENDED -> {
+                ActionResult result = engine.endTurn();
+                if ((result == ActionResult.GAME_WON) != (event.getValue() == 1)) {
+                    throw diverged(event, "ending the turn returned " + result);
+                }
+                expectAccepted(event, result);
+            }
+            default -> throw diverged(event, "unexpected event type");
+        }
+    }
+
+    /**
+     * Returns the games rebuilt so far.
+     *
+     * @return the games by game ID
+     */
+    public Map<Long, GameEngine> getGames() {
+        return games;
+    }
+
+    /**
+     * Returns the number of events applied so far.
+     *
+     * @return the event count
+     */
+    public long getReplayedEvents() {
+        return replayedEvents;
+    }
+
+    /**
+     * Fails the replay if the engine rejected a logged command.
+     *
+     * @param event  the logged event
+     * @param result the result of re-executing it
+     */
+    private static void expectAccepted(GameEvent event, ActionResult result) {
+        if (!result.isAccepted()) {
+            throw diverged(event, "rejected with " + result);
+        }
+    }
+
+    /**
+     * Creates the error for a replay that no longer matches the log.
+     *
+     * @param event  the mismatching event
+     * @param actual what happened in the replay instead
+     * @return the exception to throw
+     */
+    private static IllegalStateException diverged(GameEvent event, String actual) {
+        return new IllegalStateException("Replay of game " + event.getGameId() + " diverged at " + event.getType()
+                + " of player " + event.getPlayer() + ": " + actual);
+    }
+}
@@ -0,0 +1,197 @@
+package org.example.catan.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One client connected to a {@link GameServer}.
+ * Reading and writing the socket happens only on the server's selector thread. Frames to send may be queued
+ * from any thread, typically the game threads broadcasting events; the first frame queued after the
+ * selector thread last drained the queue asks it for a write, so a burst of events costs one wakeup and is
+ * written with gathering writes.
+ */
+final class ClientConnection {
+    /** Size of the read buffer; several pipelined commands fit into it. */
+    private static final int READ_BUFFER_SIZE = 4096;
+
+    /** Number of queued frames written with one gathering write. */
+    private static final int WRITE_BATCH = 16;
+
+    private final GameServer server;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final ByteBuffer input = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer[] batch = new ByteBuffer[WRITE_BATCH];
+    private int batchSize;
+    private final AtomicBoolean writeRequested = new AtomicBoolean();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final Set<Long> games = ConcurrentHashMap.newKeySet();
+    private final Set<Long> unjoinedGames = ConcurrentHashMap.newKeySet();
+    private volatile boolean overloaded;
+    private volatile boolean closed;
+
+    /**
+     * Creates the connection of an accepted socket.
+     *
+     * @param server  the server the client connected to
+     * @param channel the non-blocking socket
+     * @param key     the key of the socket in the server's selector
+     */
+    ClientConnection(GameServer server, SocketChannel channel, SelectionKey key) {
+        this.server = server;
+        this.channel = channel;
+        this.key = key;
+    }
+
+    /**
+     * Queues a frame. Frames are written in the order they were queued; nothing is sent once the
+     * connection is closed. A client that lets more than {@link GameServer#MAX_QUEUED_BYTES} pile up
+     * is disconnected instead of buffering without bound.
+     *
+     * @param frame the frame, positioned at its start; it must not be modified afterwards
+     */
+    void send(ByteBuffer frame) {
+        if (closed) {
+            return;
+        }
+        if (queuedBytes.addAndGet(frame.remaining()) > GameServer.MAX_QUEUED_BYTES) {
+            overloaded = true;
+        } else {
+            outbound.add(frame);
+        }
+        if (writeRequested.compareAndSet(false, true)) {
+            server.requestWrite(this);
+        }
+    }
+
+    /**
+     * Reads what the socket has and hands every complete frame to the server.
+     * Must be called on the selector thread.
+     *
+     * @return false if the client closed the connection or broke the protocol
+     * @throws IOException if reading fails
+     */
+    boolean read() throws IOException {
+        if (channel.read(input) < 0) {
+            return false;
+        }
+        input.flip();
+        try {
+            while (input.remaining() >= Protocol.LENGTH_SIZE) {
+                int length = Short.toUnsignedInt(input.getShort(input.position()));
+                if (length == 0 || length > Protocol.MAX_COMMAND_LENGTH) {
+                    return false;
+                }
+                if (input.remaining() < Protocol.LENGTH_SIZE + length) {
+                    break;
+                }
+                int end = input.position() + Protocol.LENGTH_SIZE + length;
+                ByteBuffer command = input.slice(input.position() + Protocol.LENGTH_SIZE, length);
+                input.position(end);
+                if (!server.dispatch(this, command)) {
+                    return false;
+                }
+            }
+        } finally {
+            input.compact();
+        }
+        return true;
+    }
+
+    /**
+     * Writes queued frames until the queue is empty or the socket cannot take more.
+     * Must be called on the selector thread.
+     *
+     * @return true if everything was written, false if frames are left for the next writable event
+     * @throws IOException if writing fails or the client was disconnected for not reading
+     */
+    boolean flush() throws IOException {
+        writeRequested.set(false);
+        while (true) {
+            if (overloaded) {
+                throw new IOException("Client does not read its events");
+            }
+            while (batchSize < WRITE_BATCH) {
+                ByteBuffer frame = outbound.poll();
+                if (frame == null) {
+                    break;
+                }
+                batch[batchSize++] = frame;
+            }
+            if (batchSize == 0) {
+                return true;
+            }
+            queuedBytes.addAndGet(-channel.write(batch, 0, batchSize));
+            int done = 0;
+            while (done < batchSize && !batch[done].hasRemaining()) {
+                done++;
+            }
+            System.arraycopy(batch, done, batch, 0, batchSize - done);
+            Arrays.fill(batch, batchSize - done, batchSize, null);
+            batchSize -= done;
+            if (batchSize > 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Closes the socket and drops all queued frames. Must be called on the selector thread.
+     */
+    void close() {
+        closed = true;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // The connection is gone either way.
+        }
+        outbound.clear();
+    }
+
+    /**
+     * Checks whether the connection was closed.
+     *
+     * @return true after {@link #close()}
+     */
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns the selection key of the socket.
+     *
+     * @return the key
+     */
+    SelectionKey getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the IDs of the games this connection holds a seat in.
+     *
+     * @return a live, thread-safe set
+     */
+    Set<Long> getGames() {
+        return games;
+    }
+
+    /**
+     * Returns the IDs of the games this connection created that nobody joined yet.
+     *
+     * @return a live, thread-safe set
+     */
+    Set<Long> getUnjoinedGames() {
+        return unjoinedGames;
+    }
+}
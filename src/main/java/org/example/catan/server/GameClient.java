@@ -0,0 +1,310 @@
+package org.example.catan.server;
+
+import org.example.catan.engine.ActionResult;
+import org.example.catan.engine.GameEngine;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.replay.GameEvent;
+import org.example.catan.replay.GameLogReader;
+import org.example.catan.replay.ReplayEngine;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client side of the {@link Protocol}: sends commands to a {@link GameServer} and mirrors the games it holds
+ * seats in. Every received event is replayed into a local copy of its game, so the client can render and
+ * inspect the game with the regular {@link GameEngine} API; a copy that diverges from the server fails
+ * loudly instead of showing a wrong state.
+ * <p>
+ * A background thread reads the socket. Events and replies are handed to an executor chosen by the caller,
+ * e.g. {@code Platform::runLater} for a JavaFX client, in the order they arrived; the local games may only
+ * be used on that executor. A reply is completed after all events caused by its command were applied.
+ */
+public class GameClient implements AutoCloseable {
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final ActionResult[] RESULTS = ActionResult.values();
+
+    private final SocketChannel channel;
+    private final Executor executor;
+    private final EventListener listener;
+    private final ReplayEngine replay = new ReplayEngine();
+    private final Map<Integer, CompletableFuture<Object>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger nextRequestId = new AtomicInteger();
+    private final Thread reader;
+
+    /**
+     * Receives the events of the games the client is seated in.
+     */
+    @FunctionalInterface
+    public interface EventListener {
+        /**
+         * Called on the client's executor after an event was applied to the local copy of its game.
+         *
+         * @param event the event; it is not reused by the client
+         * @param game  the local copy of the game, in the state after the event
+         */
+        void onEvent(GameEvent event, GameEngine game);
+    }
+
+    /**
+     * Connects to a server.
+     *
+     * @param address  the server address
+     * @param executor runs the event listener and completes replies, in arrival order
+     * @param listener receives the events of the games the client is seated in
+     * @throws IOException if the connection cannot be established
+     */
+    public GameClient(InetSocketAddress address, Executor executor, EventListener listener) throws IOException {
+        this.channel = SocketChannel.open(address);
+        channel.socket().setTcpNoDelay(true);
+        this.executor = executor;
+        this.listener = listener;
+        this.reader = new Thread(this::readLoop, "game-client");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Creates a game on the server without taking a seat.
+     *
+     * @param radius  the board radius
+     * @param players the number of players
+     * @param seed    seed for the board layout, dice rolls and steals
+     * @return a future completed with the ID of the new game
+     */
+    public CompletableFuture<Long> createGame(int radius, int players, long seed) {
+        CompletableFuture<Long> reply = new CompletableFuture<>();
+        ByteBuffer frame = command(Protocol.CREATE_GAME, 10, reply);
+        send(frame.put((byte) radius).put((byte) players).putLong(seed), reply);
+        return reply;
+    }
+
+    /**
+     * Takes a seat in a game. The future completes once the local copy of the game has caught up.
+     *
+     * @param gameId the game
+     * @param seat   the seat number
+     * @return a future completed with {@link ActionResult#OK}
+     */
+    public CompletableFuture<ActionResult> join(long gameId, int seat) {
+        return seatCommand(Protocol.JOIN, gameId, seat);
+    }
+
+    /**
+     * Gives up a seat in a game.
+     *
+     * @param gameId the game
+     * @param seat   the seat number
+     * @return a future completed with {@link ActionResult#OK}
+     */
+    public CompletableFuture<ActionResult> leave(long gameId, int seat) {
+        return seatCommand(Protocol.LEAVE, gameId, seat);
+    }
+
+    /**
+     * Makes a move for the current player, who must be seated at this client.
+     *
+     * @param gameId the game
+     * @param move   the move, encoded with {@link org.example.catan.engine.Move}
+     * @return a future completed with the result of the move
+     */
+    public CompletableFuture<ActionResult> move(long gameId, int move) {
+        CompletableFuture<ActionResult> reply = new CompletableFuture<>();
+        send(command(Protocol.MOVE, 12, reply).putLong(gameId).putInt(move), reply);
+        return reply;
+    }
+
+    /**
+     * Offers a trade to the other players for the current player, who must be seated at this client.
+     *
+     * @param gameId  the game
+     * @param offer   the offered resources, at most 255 of each
+     * @param request the requested resources, at most 255 of each
+     * @return a future completed with the result of the offer
+     */
+    public CompletableFuture<ActionResult> offerTrade(long gameId, ResourceVector offer, ResourceVector request) {
+        CompletableFuture<ActionResult> reply = new CompletableFuture<>();
+        ByteBuffer frame = command(Protocol.OFFER_TRADE, 8 + 2 * ResourceVector.SIZE, reply).putLong(gameId);
+        for (int r = 0; r < ResourceVector.SIZE; r++) {
+            frame.put((byte) offer.get(r));
+        }
+        for (int r = 0; r < ResourceVector.SIZE; r++) {
+            frame.put((byte) request.get(r));
+        }
+        send(frame, reply);
+        return reply;
+    }
+
+    /**
+     * Accepts a listed trade offer for the current player, who must be seated at this client.
+     *
+     * @param gameId the game
+     * @param index  index of the offer among the active trades
+     * @return a future completed with the result of the trade
+     */
+    public CompletableFuture<ActionResult> acceptTrade(long gameId, int index) {
+        CompletableFuture<ActionResult> reply = new CompletableFuture<>();
+        send(command(Protocol.ACCEPT_TRADE, 10, reply).putLong(gameId).putShort((short) index), reply);
+        return reply;
+    }
+
+    /**
+     * Returns the local copy of a game. Must be called on the client's executor.
+     *
+     * @param gameId the game
+     * @return the local copy, or null if the client never joined the game
+     */
+    public GameEngine getGame(long gameId) {
+        return replay.getGames().get(gameId);
+    }
+
+    /**
+     * Closes the connection. Replies still outstanding complete exceptionally.
+     *
+     * @throws IOException if closing the socket fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Encodes a command that takes or gives up a seat.
+     *
+     * @param opcode {@link Protocol#JOIN} or {@link Protocol#LEAVE}
+     * @param gameId the game
+     * @param seat   the seat number
+     * @return the future of the reply
+     */
+    private CompletableFuture<ActionResult> seatCommand(byte opcode, long gameId, int seat) {
+        CompletableFuture<ActionResult> reply = new CompletableFuture<>();
+        send(command(opcode, 9, reply).putLong(gameId).put((byte) seat), reply);
+        return reply;
+    }
+
+    /**
+     * Starts a command frame and registers its reply under a fresh request ID.
+     *
+     * @param opcode      the command
+     * @param bodyLength  size of the command's arguments
+     * @param reply       the future completed by the reply
+     * @param <T>         the type of the reply
+     * @return the frame, positioned after the request ID
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ByteBuffer command(byte opcode, int bodyLength, CompletableFuture<T> reply) {
+        int requestId = nextRequestId.getAndIncrement();
+        pending.put(requestId, (CompletableFuture<Object>) reply);
+        return Protocol.frame(opcode, 4 + bodyLength).putInt(requestId);
+    }
+
+    /**
+     * Writes a complete command frame, failing its reply if the connection is broken.
+     *
+     * @param frame the frame, positioned at its end
+     * @param reply the future of the reply
+     */
+    private void send(ByteBuffer frame, CompletableFuture<?> reply) {
+        frame.flip();
+        try {
+            synchronized (channel) {
+                while (frame.hasRemaining()) {
+                    channel.write(frame);
+                }
+            }
+        } catch (IOException e) {
+            pending.remove(frame.getInt(Protocol.LENGTH_SIZE + 1));
+            reply.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Loop of the reader thread: reads frames until the connection closes, then fails all outstanding replies.
+     */
+    private void readLoop() {
+        ByteBuffer input = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        try {
+            while (channel.read(input) >= 0) {
+                input.flip();
+                while (input.remaining() >= Protocol.LENGTH_SIZE) {
+                    int length = Short.toUnsignedInt(input.getShort(input.position()));
+                    if (input.remaining() < Protocol.LENGTH_SIZE + length) {
+                        break;
+                    }
+                    ByteBuffer frame = input.slice(input.position() + Protocol.LENGTH_SIZE, length);
+                    input.position(input.position() + Protocol.LENGTH_SIZE + length);
+                    receive(frame);
+                }
+                input.compact();
+            }
+        } catch (IOException e) {
+            // Connection closed or broken; fail what is outstanding below.
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Already broken.
+        }
+        IOException closed = new IOException("Connection to the game server closed");
+        for (Integer requestId : pending.keySet()) {
+            CompletableFuture<Object> reply = pending.remove(requestId);
+            if (reply != null) {
+                executor.execute(() -> reply.completeExceptionally(closed));
+            }
+        }
+    }
+
+    /**
+     * Decodes a frame and hands it to the executor. A reply stays pending until it was decoded, so a reply
+     * that cannot be decoded fails with the connection.
+     *
+     * @param frame the frame without its length prefix
+     * @throws IOException if the frame cannot be decoded
+     */
+    private void receive(ByteBuffer frame) throws IOException {
+        byte opcode = frame.get();
+        if (opcode == Protocol.EVENT) {
+            GameEvent event = new GameEvent();
+            if (!GameLogReader.decode(frame, event)) {
+                throw new IOException("Truncated event");
+            }
+            executor.execute(() -> {
+                replay.apply(event);
+                listener.onEvent(event, replay.getGames().get(event.getGameId()));
+            });
+            return;
+        }
+        int requestId = frame.getInt();
+        CompletableFuture<Object> reply = pending.get(requestId);
+        if (reply == null) {
+            throw new IOException("Reply to unknown request");
+        }
+        switch (opcode) {
+            case Protocol.GAME_CREATED -> {
+                long gameId = frame.getLong();
+                executor.execute(() -> reply.complete(gameId));
+            }
+            case Protocol.RESULT -> {
+                int code = Byte.toUnsignedInt(frame.get());
+                if (code >= RESULTS.length) {
+                    throw new IOException("Unknown result code " + code);
+                }
+                ActionResult result = RESULTS[code];
+                executor.execute(() -> reply.complete(result));
+            }
+            case Protocol.ERROR -> {
+                ServerError error = ServerError.fromCode(frame.get());
+                executor.execute(() -> reply.completeExceptionally(new ServerErrorException(error)));
+            }
+            default -> throw new IOException("Unknown frame type " + opcode);
+        }
+        pending.remove(requestId);
+    }
+}
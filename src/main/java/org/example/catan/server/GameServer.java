@@ -0,0 +1,436 @@
+package org.example.catan.server;
+
+import javafx.scene.paint.Color;
+import org.example.catan.engine.GameEngine;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.lobby.GameLobby;
+import org.example.catan.lobby.GameSession;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hosts the games of a {@link GameLobby} for remote clients speaking the binary {@link Protocol}.
+ * A single thread runs a non-blocking selector loop that accepts connections, reads and decodes commands and
+ * writes queued frames, so thousands of idle or slow connections cost no threads. Decoded commands run as
+ * commands of the game's {@link GameSession} on the lobby's executor; replies and events are queued on the
+ * connections from there and written by the selector thread.
+ */
+public final class GameServer implements AutoCloseable {
+    /** Smallest number of players in a game. */
+    public static final int MIN_PLAYERS = 2;
+
+    /** Largest number of players in a game; the bank holds pieces for four. */
+    public static final int MAX_PLAYERS = 4;
+
+    /** Largest board radius of a game. */
+    public static final int MAX_RADIUS = 10;
+
+    /** Bytes a client may leave unread before it is disconnected. */
+    public static final long MAX_QUEUED_BYTES = 1 << 20;
+
+    /** Games a connection may have created that nobody joined yet. */
+    public static final int MAX_UNJOINED_GAMES = 8;
+
+    /** Time the server stops accepting connections after accepting one failed. */
+    static final long ACCEPT_BACKOFF_MILLIS = 100;
+
+    private static final List<Color> PLAYER_COLORS = List.of(Color.BLUE, Color.RED, Color.YELLOW, Color.WHITE);
+
+    private final GameLobby lobby;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final SelectionKey acceptKey;
+    private final Thread loop;
+    private final Map<Long, HostedGame> games = new ConcurrentHashMap<>();
+    private final Queue<ClientConnection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+    private volatile int connectionCount;
+    private boolean acceptPaused;
+    private long acceptResumeTime;
+
+    /**
+     * Binds a server and starts its selector thread.
+     *
+     * @param lobby   the lobby creating and running the games; it is not closed by the server
+     * @param address the address to listen on, e.g. {@code new InetSocketAddress(InetAddress.getLoopbackAddress(), 0)}
+     * @throws IOException if the address cannot be bound
+     */
+    public GameServer(GameLobby lobby, InetSocketAddress address) throws IOException {
+        this.lobby = lobby;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(address, 1024);
+            serverChannel.configureBlocking(false);
+            acceptKey = serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
+        this.loop = new Thread(this::run, "game-server");
+        loop.start();
+    }
+
+    /**
+     * Runs a server without UI until the process is stopped.
+     *
+     * @param args the port to listen on, on all interfaces
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: GameServer <port>");
+            return;
+        }
+        GameServer server = new GameServer(new GameLobby(), new InetSocketAddress(Integer.parseInt(args[0])));
+        System.out.println("Game server listening on port " + server.getPort());
+    }
+
+    /**
+     * Returns the port the server listens on, useful after binding to port 0.
+     *
+     * @return the local port
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Returns the number of open client connections.
+     *
+     * @return the connection count
+     */
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    /**
+     * Returns the number of games played over the network.
+     *
+     * @return the game count
+     */
+    public int getGameCount() {
+        return games.size();
+    }
+
+    /**
+     * Stops the selector thread and closes all connections. Hosted games stay in the lobby.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Asks the selector thread to write the queued frames of a connection.
+     *
+     * @param connection the connection with new frames
+     */
+    void requestWrite(ClientConnection connection) {
+        pendingWrites.add(connection);
+        if (Thread.currentThread() != loop) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Stops hosting a game whose seats were all given up, or that its creator left before anybody joined.
+     *
+     * @param game the game
+     */
+    void removeGame(HostedGame game) {
+        games.remove(game.getGameId());
+        lobby.removeGame(game.getGameId());
+    }
+
+    /**
+     * Selector loop: writes the frames queued since the last round, waits for socket events and handles them.
+     */
+    private void run() {
+        try {
+            while (running) {
+                writePending();
+                selector.select(resumeAccepting());
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        handle((ClientConnection) key.attachment(), key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // The selector failed; nothing can be served anymore.
+        } finally {
+            for (SelectionKey key : List.copyOf(selector.keys())) {
+                if (key.attachment() instanceof ClientConnection connection) {
+                    disconnect(connection);
+                }
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException ignored) {
+                // Shutting down anyway.
+            }
+        }
+    }
+
+    /**
+     * Accepts all pending connections. If accepting fails, e.g. because the process ran out of file
+     * descriptors, the remaining ones stay in the backlog and accepting pauses for
+     * {@link #ACCEPT_BACKOFF_MILLIS}; retrying right away would only spin the selector thread.
+     */
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new ClientConnection(this, channel, key));
+                connectionCount++;
+            }
+        } catch (IOException e) {
+            System.err.println("Accepting a connection failed, pausing for " + ACCEPT_BACKOFF_MILLIS + " ms: " + e);
+            acceptKey.interestOps(0);
+            acceptPaused = true;
+            acceptResumeTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ACCEPT_BACKOFF_MILLIS);
+        }
+    }
+
+    /**
+     * Accepts connections again once the pause after a failed accept is over.
+     *
+     * @return the time to wait for socket events in milliseconds, 0 to wait until one arrives
+     */
+    private long resumeAccepting() {
+        if (!acceptPaused) {
+            return 0;
+        }
+        long remaining = acceptResumeTime - System.nanoTime();
+        if (remaining > 0) {
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining));
+        }
+        acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+        acceptPaused = false;
+        return 0;
+    }
+
+    /**
+     * Reads from and writes to a connection as its key signals, disconnecting it on errors.
+     *
+     * @param connection the connection
+     * @param key        its selection key
+     */
+    private void handle(ClientConnection connection, SelectionKey key) {
+        try {
+            if (key.isReadable() && !connection.read()) {
+                disconnect(connection);
+                return;
+            }
+            if (key.isValid() && key.isWritable() && connection.flush()) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        } catch (IOException e) {
+            disconnect(connection);
+        }
+    }
+
+    /**
+     * Writes the frames of all connections that asked for it, and waits for the socket to become writable
+     * where they did not fit.
+     */
+    private void writePending() {
+        ClientConnection connection;
+        while ((connection = pendingWrites.poll()) != null) {
+            if (connection.isClosed()) {
+                continue;
+            }
+            try {
+                if (!connection.flush()) {
+                    connection.getKey().interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+            } catch (IOException e) {
+                disconnect(connection);
+            }
+        }
+    }
+
+    /**
+     * Closes a connection and frees its seats.
+     *
+     * @param connection the connection
+     */
+    private void disconnect(ClientConnection connection) {
+        if (connection.isClosed()) {
+            return;
+        }
+        connection.close();
+        connectionCount--;
+        for (long gameId : connection.getGames()) {
+            HostedGame game = games.get(gameId);
+            if (game != null) {
+                game.getSession().submit(engine -> {
+                    game.leave(connection, -1, -1);
+                    return null;
+                });
+            }
+        }
+        for (long gameId : connection.getUnjoinedGames()) {
+            HostedGame game = games.get(gameId);
+            if (game != null) {
+                game.getSession().submit(engine -> {
+                    game.abandon();
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * Decodes a command and starts its execution. Runs on the selector thread; the command buffer is only
+     * valid during the call.
+     *
+     * @param connection the sending connection
+     * @param command    the frame without its length prefix
+     * @return false if the command cannot be decoded and the connection should be closed
+     */
+    boolean dispatch(ClientConnection connection, ByteBuffer command) {
+        try {
+            byte opcode = command.get();
+            int requestId = command.getInt();
+            if (opcode == Protocol.CREATE_GAME) {
+                createGame(connection, requestId, command.get(), command.get(), command.getLong());
+                return true;
+            }
+            HostedGame game = games.get(command.getLong());
+            switch (opcode) {
+                case Protocol.JOIN -> {
+                    int seat = Byte.toUnsignedInt(command.get());
+                    inGame(connection, requestId, game, engine -> game.join(connection, requestId, seat));
+                }
+                case Protocol.LEAVE -> {
+                    int seat = Byte.toUnsignedInt(command.get());
+                    inGame(connection, requestId, game, engine -> game.leave(connection, requestId, seat));
+                }
+                case Protocol.MOVE -> {
+                    int move = command.getInt();
+                    inGame(connection, requestId, game, engine -> game.move(engine, connection, requestId, move));
+                }
+                case Protocol.OFFER_TRADE -> {
+                    ResourceVector offer = readCounts(command);
+                    ResourceVector request = readCounts(command);
+                    inGame(connection, requestId, game,
+                            engine -> game.offerTrade(engine, connection, requestId, offer, request));
+                }
+                case Protocol.ACCEPT_TRADE -> {
+                    int index = Short.toUnsignedInt(command.getShort());
+                    inGame(connection, requestId, game,
+                            engine -> game.acceptTrade(engine, connection, requestId, index));
+                }
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        } catch (BufferUnderflowException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates a game in the lobby and starts hosting it. Until somebody joins it, the game counts against the
+     * creating connection's {@link #MAX_UNJOINED_GAMES} and is dropped when that connection closes.
+     *
+     * @param connection the requesting connection
+     * @param requestId  the request ID of the command
+     * @param radius     the board radius
+     * @param players    the number of players
+     * @param seed       the seed of the game
+     */
+    private void createGame(ClientConnection connection, int requestId, int radius, int players, long seed) {
+        if (radius < 2 || radius > MAX_RADIUS || players < MIN_PLAYERS || players > MAX_PLAYERS) {
+            connection.send(Protocol.error(requestId, ServerError.INVALID_SETUP));
+            return;
+        }
+        if (connection.getUnjoinedGames().size() >= MAX_UNJOINED_GAMES) {
+            connection.send(Protocol.error(requestId, ServerError.TOO_MANY_GAMES));
+            return;
+        }
+        List<Color> colors = PLAYER_COLORS.subList(0, players);
+        GameSession session = lobby.createGame(radius, colors, seed);
+        HostedGame game = new HostedGame(this, session, connection, players);
+        games.put(game.getGameId(), game);
+        connection.getUnjoinedGames().add(game.getGameId());
+        session.submit(engine -> {
+            game.attach(engine, seed, radius, colors);
+            return null;
+        });
+        connection.send(Protocol.gameCreated(requestId, game.getGameId()));
+    }
+
+    /**
+     * Runs a command on a game's session, replying with an error if the game is unknown or the command fails.
+     *
+     * @param connection the sending connection
+     * @param requestId  the request ID of the command
+     * @param game       the game, or null if it is not hosted
+     * @param command    the command, run on the game's session with the game's engine
+     */
+    private void inGame(ClientConnection connection, int requestId, HostedGame game, Consumer<GameEngine> command) {
+        if (game == null) {
+            connection.send(Protocol.error(requestId, ServerError.UNKNOWN_GAME));
+            return;
+        }
+        game.getSession().submit(engine -> {
+            command.accept(engine);
+            return null;
+        }).exceptionally(e -> {
+            connection.send(Protocol.error(requestId, ServerError.INTERNAL));
+            return null;
+        });
+    }
+
+    /**
+     * Reads one count per resource.
+     *
+     * @param command the command buffer
+     * @return the counts
+     */
+    private static ResourceVector readCounts(ByteBuffer command) {
+        ResourceVector counts = new ResourceVector();
+        for (int r = 0; r < ResourceVector.SIZE; r++) {
+            counts.set(ResourceVector.resourceAt(r), Byte.toUnsignedInt(command.get()));
+        }
+        return counts;
+    }
+}
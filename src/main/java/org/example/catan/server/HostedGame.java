@@ -0,0 +1,304 @@
+package org.example.catan.server;
+
+import javafx.scene.paint.Color;
+import org.example.catan.engine.ActionResult;
+import org.example.catan.engine.GameEngine;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.gamepieces.TradeOffer;
+import org.example.catan.lobby.GameSession;
+import org.example.catan.metrics.GameAction;
+import org.example.catan.metrics.GameMetrics;
+import org.example.catan.replay.GameEventEncoder;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * A game of the lobby played over the network.
+ * It encodes the game's events into {@link Protocol#EVENT} frames, broadcasts them to all seated connections
+ * and appends them to a journal, which a client taking a seat later receives in one piece to catch up.
+ * All methods except the constructor run as commands of the game's {@link GameSession}, so the seats and
+ * the journal are only ever touched by one thread at a time and need no locking.
+ */
+final class HostedGame extends GameEventEncoder {
+    private static final int INITIAL_JOURNAL_SIZE = 512;
+
+    private final GameServer server;
+    private final GameSession session;
+    private final ClientConnection creator;
+    private final ClientConnection[] seats;
+    private ByteBuffer journal = ByteBuffer.allocate(INITIAL_JOURNAL_SIZE);
+    private ByteBuffer frame;
+    private boolean joined;
+
+    /**
+     * Creates the network side of a lobby game.
+     *
+     * @param server  the hosting server
+     * @param session the lobby session running the game
+     * @param creator the connection that created the game
+     * @param players number of seats
+     */
+    HostedGame(GameServer server, GameSession session, ClientConnection creator, int players) {
+        super(session.getId());
+        this.server = server;
+        this.session = session;
+        this.creator = creator;
+        this.seats = new ClientConnection[players];
+    }
+
+    /**
+     * Returns the lobby session running the game.
+     *
+     * @return the session
+     */
+    GameSession getSession() {
+        return session;
+    }
+
+    /**
+     * Starts recording the game: writes its setup to the journal and adds this game to the engine's recorders.
+     *
+     * @param engine       the game's engine
+     * @param seed         the seed the game was created with
+     * @param radius       the board radius
+     * @param playerColors the colors of the players in turn order
+     */
+    void attach(GameEngine engine, long seed, int radius, List<Color> playerColors) {
+        gameStarted(seed, radius, playerColors);
+        engine.setRecorder(engine.getRecorder().andThen(this));
+    }
+
+    /**
+     * Seats a connection. A connection new to the game first receives the journal, so it can rebuild the
+     * game from its setup before any live event arrives.
+     *
+     * @param connection the connection
+     * @param requestId  the request ID of the command
+     * @param seat       the seat number
+     */
+    void join(ClientConnection connection, int requestId, int seat) {
+        if (seat >= seats.length) {
+            connection.send(Protocol.error(requestId, ServerError.INVALID_SEAT));
+            return;
+        }
+        if (seats[seat] == connection) {
+            connection.send(Protocol.result(requestId, ActionResult.OK));
+            return;
+        }
+        if (seats[seat] != null) {
+            connection.send(Protocol.error(requestId, ServerError.SEAT_TAKEN));
+            return;
+        }
+        if (!isSeated(connection)) {
+            connection.getGames().add(getGameId());
+            if (connection.isClosed()) {
+                connection.getGames().remove(getGameId());
+                return;
+            }
+            connection.send(journal.duplicate().flip());
+        }
+        seats[seat] = connection;
+        if (!joined) {
+            joined = true;
+            creator.getUnjoinedGames().remove(getGameId());
+        }
+        connection.send(Protocol.result(requestId, ActionResult.OK));
+    }
+
+    /**
+     * Frees a seat held by a connection.
+     *
+     * @param connection the connection
+     * @param requestId  the request ID of the command, or -1 if the connection was closed
+     * @param seat       the seat number, or -1 for all seats of the connection
+     */
+    void leave(ClientConnection connection, int requestId, int seat) {
+        if (seat >= 0 && (seat >= seats.length || seats[seat] != connection)) {
+            connection.send(Protocol.error(requestId, ServerError.NOT_SEATED));
+            return;
+        }
+        for (int s = 0; s < seats.length; s++) {
+            if (seats[s] == connection && (seat < 0 || s == seat)) {
+                seats[s] = null;
+            }
+        }
+        if (!isSeated(connection)) {
+            connection.getGames().remove(getGameId());
+        }
+        if (requestId >= 0) {
+            connection.send(Protocol.result(requestId, ActionResult.OK));
+        }
+        if (joined && isEmpty()) {
+            server.removeGame(this);
+        }
+    }
+
+    /**
+     * Stops hosting the game if nobody joined it; called after its creator disconnected.
+     */
+    void abandon() {
+        if (!joined) {
+            creator.getUnjoinedGames().remove(getGameId());
+            server.removeGame(this);
+        }
+    }
+
+    /**
+     * Makes a move for the current player. A move the engine rejects as malformed is recorded in the
+     * metrics as failed.
+     *
+     * @param engine     the game's engine
+     * @param connection the connection sending the move
+     * @param requestId  the request ID of the command
+     * @param move       the encoded move
+     */
+    void move(GameEngine engine, ClientConnection connection, int requestId, int move) {
+        if (!checkTurn(engine, connection, requestId)) {
+            return;
+        }
+        GameAction action;
+        try {
+            action = GameAction.ofMove(move);
+        } catch (IllegalArgumentException e) {
+            connection.send(Protocol.error(requestId, ServerError.MALFORMED));
+            return;
+        }
+        long start = GameMetrics.start();
+        ActionResult result;
+        try {
+            result = engine.applyMove(move);
+        } catch (IllegalArgumentException e) {
+            GameMetrics.record(action, getGameId(), start, null);
+            connection.send(Protocol.error(requestId, ServerError.MALFORMED));
+            return;
+        }
+        GameMetrics.record(action, getGameId(), start, result);
+        connection.send(Protocol.result(requestId, result));
+    }
+
+    /**
+     * Lists a trade offer of the current player, or executes it right away if it matches a listed one.
+     *
+     * @param engine     the game's engine
+     * @param connection the connection sending the offer
+     * @param requestId  the request ID of the command
+     * @param offer      the offered resources
+     * @param request    the requested resources
+     */
+    void offerTrade(GameEngine engine, ClientConnection connection, int requestId,
+                    ResourceVector offer, ResourceVector request) {
+        if (checkTurn(engine, connection, requestId)) {
+            TradeOffer trade = new TradeOffer(engine.getCurrentPlayer(), offer, request, false);
+            long start = GameMetrics.start();
+            ActionResult result = engine.offerTrade(trade);
+            GameMetrics.record(GameAction.OFFER_TRADE, getGameId(), start, result);
+            connection.send(Protocol.result(requestId, result));
+        }
+    }
+
+    /**
+     * Accepts a listed trade offer for the current player.
+     *
+     * @param engine     the game's engine
+     * @param connection the connection accepting
+     * @param requestId  the request ID of the command
+     * @param index      index of the offer among the active trades
+     */
+    void acceptTrade(GameEngine engine, ClientConnection connection, int requestId, int index) {
+        if (!checkTurn(engine, connection, requestId)) {
+            return;
+        }
+        long start = GameMetrics.start();
+        List<TradeOffer> trades = engine.getActiveTrades();
+        ActionResult result = index < trades.size()
+                ? engine.acceptTrade(trades.get(index))
+                : ActionResult.TRADE_NOT_AVAILABLE;
+        GameMetrics.record(GameAction.ACCEPT_TRADE, getGameId(), start, result);
+        connection.send(Protocol.result(requestId, result));
+    }
+
+    /**
+     * Checks that a connection holds the seat of the current player, replying with an error otherwise.
+     *
+     * @param engine     the game's engine
+     * @param connection the connection
+     * @param requestId  the request ID of the command
+     * @return true if the connection may act
+     */
+    private boolean checkTurn(GameEngine engine, ClientConnection connection, int requestId) {
+        if (seats[engine.getCurrentPlayerIndex()] == connection) {
+            return true;
+        }
+        connection.send(Protocol.error(requestId, isSeated(connection) ? ServerError.NOT_YOUR_TURN
+                : ServerError.NOT_SEATED));
+        return false;
+    }
+
+    /**
+     * Checks whether a connection holds any seat.
+     *
+     * @param connection the connection
+     * @return true if it holds at least one seat
+     */
+    private boolean isSeated(ClientConnection connection) {
+        return indexOf(connection) >= 0;
+    }
+
+    /**
+     * Checks whether all seats are free.
+     *
+     * @return true if nobody is seated
+     */
+    private boolean isEmpty() {
+        for (ClientConnection seated : seats) {
+            if (seated != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected ByteBuffer begin(int size) {
+        frame = Protocol.frame(Protocol.EVENT, size);
+        return frame;
+    }
+
+    @Override
+    protected void end() {
+        frame.flip();
+        if (journal.remaining() < frame.remaining()) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(journal.capacity() * 2,
+                    journal.position() + frame.remaining()));
+            journal.flip();
+            grown.put(journal);
+            journal = grown;
+        }
+        journal.put(frame.duplicate());
+
+        for (int s = 0; s < seats.length; s++) {
+            ClientConnection seated = seats[s];
+            if (seated != null && indexOf(seated) == s) {
+                seated.send(frame.duplicate());
+            }
+        }
+        frame = null;
+    }
+
+    /**
+     * Returns the first seat held by a connection, so that a connection holding several seats receives
+     * every event once.
+     *
+     * @param connection the connection
+     * @return the lowest seat number it holds, or -1 if it holds none
+     */
+    private int indexOf(ClientConnection connection) {
+        for (int s = 0; s < seats.length; s++) {
+            if (seats[s] == connection) {
+                return s;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.catan.server;
+
+import org.example.catan.engine.ActionResult;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.replay.GameEventType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The binary protocol spoken between a {@link GameServer} and its clients.
+ * Every frame is {@code length (2), opcode (1), body}, where the length counts the opcode and the body;
+ * all multi-byte values are big-endian.
+ * <p>
+ * Commands sent by a client start with a request ID (4) chosen by the client, which the server echoes in
+ * the single reply to the command:
+ * <ul>
+ *     <li>{@link #CREATE_GAME}: radius (1), player count (1), seed (8); replied with {@link #GAME_CREATED}</li>
+ *     <li>{@link #JOIN}: game ID (8), seat (1); the game so far is sent as {@link #EVENT}s before the reply</li>
+ *     <li>{@link #LEAVE}: game ID (8), seat (1)</li>
+ *     <li>{@link #MOVE}: game ID (8), move (4) encoded with {@link org.example.catan.engine.Move}</li>
+ *     <li>{@link #OFFER_TRADE}: game ID (8), offered counts (1 each), requested counts (1 each)</li>
+ *     <li>{@link #ACCEPT_TRADE}: game ID (8), index of the offer among the active trades (2)</li>
+ * </ul>
+ * Commands that act in a game act for the current player and require the connection to hold that seat.
+ * They are replied with {@link #RESULT} or {@link #ERROR}.
+ * <p>
+ * Frames sent by the server:
+ * <ul>
+ *     <li>{@link #GAME_CREATED}: request ID (4), game ID (8)</li>
+ *     <li>{@link #RESULT}: request ID (4), {@link ActionResult} ordinal (1)</li>
+ *     <li>{@link #ERROR}: request ID (4), {@link ServerError} ordinal (1)</li>
+ *     <li>{@link #EVENT}: a game log record as described in {@link GameEventType}, sent to every connection
+ *     holding a seat in the game</li>
+ * </ul>
+ */
+public final class Protocol {
+    /** Create a game. */
+    public static final byte CREATE_GAME = 1;
+
+    /** Take a seat in a game. */
+    public static final byte JOIN = 2;
+
+    /** Give up a seat in a game. */
+    public static final byte LEAVE = 3;
+
+    /** Make a move for the current player. */
+    public static final byte MOVE = 4;
+
+    /** List a trade offer of the current player. */
+    public static final byte OFFER_TRADE = 5;
+
+    /** Accept a listed trade offer for the current player. */
+    public static final byte ACCEPT_TRADE = 6;
+
+    /** Reply to {@link #CREATE_GAME}. */
+    public static final byte GAME_CREATED = 0x41;
+
+    /** Reply with the outcome of a command. */
+    public static final byte RESULT = 0x42;
+
+    /** Reply to a command the server could not execute. */
+    public static final byte ERROR = 0x43;
+
+    /** A state change of a game. */
+    public static final byte EVENT = 0x44;
+
+    /** Size of the length prefix of every frame. */
+    public static final int LENGTH_SIZE = 2;
+
+    /** Largest frame length the prefix can express. */
+    public static final int MAX_FRAME_LENGTH = 0xFFFF;
+
+    /** Largest command a server accepts; longer frames are a protocol violation. */
+    public static final int MAX_COMMAND_LENGTH = 1 + 4 + 8 + 2 * ResourceVector.SIZE;
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private Protocol() {
+    }
+
+    /**
+     * Starts a frame in a new buffer.
+     *
+     * @param opcode     the opcode
+     * @param bodyLength size of the body that follows
+     * @return the buffer, positioned after the opcode and exactly large enough for the frame
+     */
+    public static ByteBuffer frame(byte opcode, int bodyLength) {
+        int length = 1 + bodyLength;
+        if (length > MAX_FRAME_LENGTH) {
+            throw new IllegalArgumentException("Frame too long: " + length);
+        }
+        return ByteBuffer.allocate(LENGTH_SIZE + length).putShort((short) length).put(opcode);
+    }
+
+    /**
+     * Encodes the reply to {@link #CREATE_GAME}.
+     *
+     * @param requestId the request ID of the command
+     * @param gameId    ID of the new game
+     * @return the frame, ready to be written
+     */
+    public static ByteBuffer gameCreated(int requestId, long gameId) {
+        return frame(GAME_CREATED, 12).putInt(requestId).putLong(gameId).flip();
+    }
+
+    /**
+     * Encodes the outcome of a command.
+     *
+     * @param requestId the request ID of the command
+     * @param result    the outcome
+     * @return the frame, ready to be written
+     */
+    public static ByteBuffer result(int requestId, ActionResult result) {
+        return frame(RESULT, 5).putInt(requestId).put((byte) result.ordinal()).flip();
+    }
+
+    /**
+     * Encodes the rejection of a command.
+     *
+     * @param requestId the request ID of the command
+     * @param error     the reason
+     * @return the frame, ready to be written
+     */
+    public static ByteBuffer error(int requestId, ServerError error) {
+        return frame(ERROR, 5).putInt(requestId).put((byte) error.ordinal()).flip();
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.catan.server;
+
+import lombok.Getter;
+
+/**
+ * Reasons a {@link GameServer} rejects a command before it reaches a game, sent in {@link Protocol#ERROR}
+ * frames by ordinal. New constants must be appended to keep the codes of existing clients valid.
+ */
+@Getter
+public enum ServerError {
+    /** The command is too short or has an unknown opcode. */
+    MALFORMED("The command could not be decoded."),
+
+    /** The radius or the player count of a new game is out of range. */
+    INVALID_SETUP("Games need a radius of 2 to " + GameServer.MAX_RADIUS + " and "
+            + GameServer.MIN_PLAYERS + " to " + GameServer.MAX_PLAYERS + " players."),
+
+    /** No game with the given ID is hosted. */
+    UNKNOWN_GAME("There is no game with this ID."),
+
+    /** The game has no seat with the given number. */
+    INVALID_SEAT("The game has no such seat."),
+
+    /** Another connection holds the seat. */
+    SEAT_TAKEN("This seat is already taken."),
+
+    /** The connection does not hold the seat it acts for. */
+    NOT_SEATED("You are not seated at this seat."),
+
+    /** The connection does not hold the seat of the current player. */
+    NOT_YOUR_TURN("It is not your turn."),
+
+    /** The game failed to execute the command. */
+    INTERNAL("The server failed to execute the command."),
+
+    /** The connection created too many games that nobody joined yet. */
+    TOO_MANY_GAMES("Too many games are waiting for players.");
+
+    /** Human-readable description of the error. */
+    private final String message;
+
+    /**
+     * Creates an error with its description.
+     *
+     * @param message human-readable description of the error
+     */
+    ServerError(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Looks up an error by the code sent in an {@link Protocol#ERROR} frame.
+     *
+     * @param code the ordinal
+     * @return the error, or {@link #INTERNAL} if the code is unknown
+     */
+    public static ServerError fromCode(int code) {
+        ServerError[] values = values();
+        return code >= 0 && code < values.length ? values[code] : INTERNAL;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.catan.server;
+
+import lombok.Getter;
+
+/**
+ * Completes the future of a {@link GameClient} command the server rejected before it reached the game.
+ */
+@Getter
+public class ServerErrorException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /** The reason sent by the server. */
+    private final ServerError error;
+
+    /**
+     * Creates the exception for an error reply.
+     *
+     * @param error the reason sent by the server
+     */
+    public ServerErrorException(ServerError error) {
+        super(error.getMessage());
+        this.error = error;
+    }
+}
@@ -0,0 +1,465 @@
+package org.example.catan.stats;
+
+import org.example.catan.engine.GameEngine;
+import org.example.catan.engine.GameRecorder;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.graph.BoardTopology;
+
+import java.util.Arrays;
+
+/**
+ * Accumulated statistics of many games on boards of one radius, fed directly from the engine's events:
+ * a {@link Tracker} attached to a game as its {@link GameRecorder} adds every roll and the game's outcome to
+ * this accumulator as they happen, and keeps nothing but a few counters and the game's settlements itself.
+ * The memory used is fixed by the board size, no matter how many games are tracked.
+ * <p>
+ * The statistics follow the engine's rules, as the desktop game applies them in {@code GameController}:
+ * <ul>
+ *     <li>A game is won when ending a turn reports the win, as {@code nextPlayer} shows the victory screen on
+ *     {@code GAME_WON}. Games stopped before that are counted as unfinished and only contribute their rolls.</li>
+ *     <li>A roll pays the grants the engine hands out after {@code rollDice}; a roll that pays nobody, including
+ *     every 7 and every roll whose resources the bank cannot cover, counts as starved.</li>
+ *     <li>A game lasts as many turns as were ended, counting the winning one.</li>
+ * </ul>
+ * Not thread-safe: the games tracked into one instance must be played on one thread. Games spread over a
+ * thread pool are tracked with a {@link StatisticsAggregator}, which gives every game its own instance and
+ * combines them with {@link #merge(GameStatistics)} as the games finish.
+ */
+public final class GameStatistics {
+    /** Highest number of players per game that is tracked. */
+    public static final int MAX_PLAYERS = 8;
+
+    /** Highest dice total. */
+    public static final int MAX_TOTAL = 12;
+
+    private final int radius;
+    private final int vertexCount;
+    private long games;
+    private long finishedGames;
+    private long playerGames;
+    private final long[] finishedByPlayers = new long[MAX_PLAYERS + 1];
+    private final long[][] winsBySeat = new long[MAX_PLAYERS + 1][];
+    private final RunningMoments turns = new RunningMoments();
+    private final QuantileSketch turnSketch = new QuantileSketch();
+    private final long[] rolls = new long[MAX_TOTAL + 1];
+    private final long[] starvedRolls = new long[MAX_TOTAL + 1];
+    private final long[] rollerStarvedRolls = new long[MAX_TOTAL + 1];
+    private final long[][] cards = new long[MAX_TOTAL + 1][ResourceVector.SIZE];
+    private final long[] settlements;
+    private final long[] winnerSettlements;
+
+    /**
+     * Creates empty statistics for games on boards of a radius.
+     *
+     * @param radius the board radius of all tracked games
+     */
+    public GameStatistics(int radius) {
+        this.radius = radius;
+        this.vertexCount = BoardTopology.of(radius).getNodeCount();
+        this.settlements = new long[vertexCount];
+        this.winnerSettlements = new long[vertexCount];
+        for (int players = 1; players <= MAX_PLAYERS; players++) {
+            winsBySeat[players] = new long[players];
+        }
+    }
+
+    /**
+     * Starts tracking a game. The returned tracker must be set as the game's recorder (possibly combined with
+     * others through {@link GameRecorder#andThen(GameRecorder)}) before the first command, and
+     * {@linkplain Tracker#finish() finished} once the game is no longer played.
+     *
+     * @param game the new game
+     * @return the tracker feeding this accumulator
+     * @throws IllegalArgumentException if the game's board has another radius or it has too many players
+     */
+    public Tracker track(GameEngine game) {
+        return track(game, null);
+    }
+
+    /**
+     * Starts tracking a game and runs an action once the tracker finished, after its game was added.
+     *
+     * @param game     the new game
+     * @param onFinish run when the game is won or the tracker is finished, or null
+     * @return the tracker feeding this accumulator
+     * @throws IllegalArgumentException if the game's board has another radius or it has too many players
+     */
+    Tracker track(GameEngine game, Runnable onFinish) {
+        if (game.getBoard().getRadius() != radius) {
+            throw new IllegalArgumentException("Statistics for radius " + radius + " cannot track a game of radius "
+                    + game.getBoard().getRadius());
+        }
+        if (game.getPlayers().size() > MAX_PLAYERS) {
+            throw new IllegalArgumentException("At most " + MAX_PLAYERS + " players are tracked.");
+        }
+        return new Tracker(game.getPlayers().size(), onFinish);
+    }
+
+    /**
+     * Adds all games tracked by another accumulator to this one.
+     *
+     * @param other the statistics to add; not changed
+     * @throws IllegalArgumentException if the other statistics are for another radius
+     */
+    public void merge(GameStatistics other) {
+        if (other.radius != radius) {
+            throw new IllegalArgumentException("Cannot merge statistics of radius " + other.radius + " into "
+                    + radius);
+        }
+        games += other.games;
+        finishedGames += other.finishedGames;
+        playerGames += other.playerGames;
+        for (int players = 1; players <= MAX_PLAYERS; players++) {
+            finishedByPlayers[players] += other.finishedByPlayers[players];
+            for (int seat = 0; seat < players; seat++) {
+                winsBySeat[players][seat] += other.winsBySeat[players][seat];
+            }
+        }
+        turns.merge(other.turns);
+        turnSketch.merge(other.turnSketch);
+        for (int total = 0; total <= MAX_TOTAL; total++) {
+            rolls[total] += other.rolls[total];
+            starvedRolls[total] += other.starvedRolls[total];
+            rollerStarvedRolls[total] += other.rollerStarvedRolls[total];
+            for (int r = 0; r < ResourceVector.SIZE; r++) {
+                cards[total][r] += other.cards[total][r];
+            }
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            settlements[v] += other.settlements[v];
+            winnerSettlements[v] += other.winnerSettlements[v];
+        }
+    }
+
+    /**
+     * Returns the board radius of the tracked games.
+     *
+     * @return the radius
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Returns the number of vertices of the tracked boards.
+     *
+     * @return the vertex count
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns the number of finished trackers, with or without a winner.
+     *
+     * @return the game count
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Returns the number of games that were won.
+     *
+     * @return the count of finished games
+     */
+    public long getFinishedGames() {
+        return finishedGames;
+    }
+
+    /**
+     * Returns the number of won games with a number of players.
+     *
+     * @param players the number of players
+     * @return the count of won games
+     */
+    public long getFinishedGames(int players) {
+        return finishedByPlayers[players];
+    }
+
+    /**
+     * Returns how often a seat won among the won games with a number of players.
+     *
+     * @param players the number of players
+     * @param seat    the seat, counted from 0 in turn order
+     * @return the number of wins
+     */
+    public long getWins(int players, int seat) {
+        return winsBySeat[players][seat];
+    }
+
+    /**
+     * Returns the share of the won games with a number of players that a seat won.
+     *
+     * @param players the number of players
+     * @param seat    the seat, counted from 0 in turn order
+     * @return the win rate, NaN if no game with that many players was won
+     */
+    public double getWinRate(int players, int seat) {
+        return ratio(winsBySeat[players][seat], finishedByPlayers[players]);
+    }
+
+    /**
+     * Returns the moments of the length of won games.
+     *
+     * @return the moments of the number of turns; not to be changed
+     */
+    public RunningMoments getTurns() {
+        return turns;
+    }
+
+    /**
+     * Returns the distribution of the length of won games.
+     *
+     * @return the sketch of the number of turns; not to be changed
+     */
+    public QuantileSketch getTurnSketch() {
+        return turnSketch;
+    }
+
+    /**
+     * Returns how often a dice total was rolled, in all tracked games.
+     *
+     * @param total the dice total
+     * @return the number of rolls
+     */
+    public long getRolls(int total) {
+        return rolls[total];
+    }
+
+    /**
+     * Returns how often a dice total paid nobody.
+     *
+     * @param total the dice total
+     * @return the number of starved rolls
+     */
+    public long getStarvedRolls(int total) {
+        return starvedRolls[total];
+    }
+
+    /**
+     * Returns how often a dice total paid nothing to the player who rolled it.
+     *
+     * @param total the dice total
+     * @return the number of rolls that left the roller empty-handed
+     */
+    public long getRollerStarvedRolls(int total) {
+        return rollerStarvedRolls[total];
+    }
+
+    /**
+     * Returns the share of the rolls of a dice total that paid nobody.
+     *
+     * @param total the dice total
+     * @return the starvation rate, NaN if the total was never rolled
+     */
+    public double getStarvationRate(int total) {
+        return ratio(starvedRolls[total], rolls[total]);
+    }
+
+    /**
+     * Returns the cards of a resource paid out for a dice total.
+     *
+     * @param total    the dice total
+     * @param resource index of the resource
+     * @return the number of cards
+     */
+    public long getCards(int total, int resource) {
+        return cards[total][resource];
+    }
+
+    /**
+     * Returns the cards of all resources paid out for a dice total.
+     *
+     * @param total the dice total
+     * @return the number of cards
+     */
+    public long getCards(int total) {
+        return Arrays.stream(cards[total]).sum();
+    }
+
+    /**
+     * Returns how often a settlement stood on a vertex at the end of a won game.
+     *
+     * @param vertex the node ID
+     * @return the number of settlements
+     */
+    public long getSettlements(int vertex) {
+        return settlements[vertex];
+    }
+
+    /**
+     * Returns how often the winner of a game had a settlement on a vertex.
+     *
+     * @param vertex the node ID
+     * @return the number of the winners' settlements
+     */
+    public long getWinnerSettlements(int vertex) {
+        return winnerSettlements[vertex];
+    }
+
+    /**
+     * Returns the share of the settlements on a vertex that belonged to the winner.
+     *
+     * @param vertex the node ID
+     * @return the win rate, NaN if the vertex was never settled
+     */
+    public double getVertexWinRate(int vertex) {
+        return ratio(winnerSettlements[vertex], settlements[vertex]);
+    }
+
+    /**
+     * Returns the correlation between settling a vertex and winning, over all players of all won games:
+     * the phi coefficient of the two yes/no outcomes, from -1 (only losers settle it) to 1 (exactly the
+     * winners settle it), 0 if settling it says nothing about winning.
+     *
+     * @param vertex the node ID
+     * @return the phi coefficient, NaN if the vertex was never or always settled
+     */
+    public double getVertexWinCorrelation(int vertex) {
+        double n = playerGames;
+        double settled = settlements[vertex];
+        double won = finishedGames;
+        double both = winnerSettlements[vertex];
+        double denominator = Math.sqrt(settled * (n - settled) * won * (n - won));
+        return denominator == 0 ? Double.NaN : (both * n - settled * won) / denominator;
+    }
+
+    /**
+     * Divides two counts.
+     *
+     * @param part  the numerator
+     * @param whole the denominator
+     * @return the ratio, NaN if the denominator is 0
+     */
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? Double.NaN : (double) part / whole;
+    }
+
+    /**
+     * Recorder of one game. Rolls are added to the accumulator as they happen. When the game is won, its
+     * outcome, length and settlements are added and the tracker finishes; finishing the tracker of a game
+     * that was not won only counts the game as unfinished.
+     */
+    public final class Tracker implements GameRecorder {
+        private final int players;
+        private int turnCount;
+        private int roller = -1;
+        private int total;
+        private boolean paid;
+        private boolean rollerPaid;
+        private int[] settledVertices = new int[16];
+        private int[] settledBy = new int[16];
+        private int settlementCount;
+        private boolean finished;
+        private final Runnable onFinish;
+
+        /**
+         * Creates the tracker of a game.
+         *
+         * @param players  the number of players
+         * @param onFinish run when the tracker finishes, or null
+         */
+        private Tracker(int players, Runnable onFinish) {
+            this.players = players;
+            this.onFinish = onFinish;
+        }
+
+        /**
+         * Counts the game as unfinished, unless it was won. Further events are ignored.
+         */
+        public void finish() {
+            if (!finished) {
+                games++;
+                complete();
+            }
+        }
+
+        @Override
+        public void diceRolled(int player, int total) {
+            if (finished) {
+                return;
+            }
+            this.roller = player;
+            this.total = total;
+            this.paid = false;
+            this.rollerPaid = false;
+            rolls[total]++;
+            starvedRolls[total]++;
+            rollerStarvedRolls[total]++;
+        }
+
+        @Override
+        public void resourcesProduced(int player, int resource, int amount) {
+            if (finished) {
+                return;
+            }
+            cards[total][resource] += amount;
+            if (!paid) {
+                paid = true;
+                starvedRolls[total]--;
+            }
+            if (player == roller && !rollerPaid) {
+                rollerPaid = true;
+                rollerStarvedRolls[total]--;
+            }
+        }
+
+        @Override
+        public void settlementBuilt(int player, int vertex) {
+            if (finished) {
+                return;
+            }
+            if (settlementCount == settledVertices.length) {
+                settledVertices = Arrays.copyOf(settledVertices, settlementCount * 2);
+                settledBy = Arrays.copyOf(settledBy, settlementCount * 2);
+            }
+            settledVertices[settlementCount] = vertex;
+            settledBy[settlementCount] = player;
+            settlementCount++;
+        }
+
+        @Override
+        public void turnEnded(int player, boolean won) {
+            if (finished) {
+                return;
+            }
+            turnCount++;
+            if (won) {
+                addWin(player);
+            }
+        }
+
+        /**
+         * Adds the won game to the accumulator and finishes the tracker.
+         *
+         * @param winner index of the winning player
+         */
+        private void addWin(int winner) {
+            games++;
+            finishedGames++;
+            playerGames += players;
+            finishedByPlayers[players]++;
+            winsBySeat[players][winner]++;
+            turns.add(turnCount);
+            turnSketch.add(turnCount);
+            for (int i = 0; i < settlementCount; i++) {
+                settlements[settledVertices[i]]++;
+                if (settledBy[i] == winner) {
+                    winnerSettlements[settledVertices[i]]++;
+                }
+            }
+            complete();
+        }
+
+        /**
+         * Marks the tracker as finished and runs its finish action.
+         */
+        private void complete() {
+            finished = true;
+            if (onFinish != null) {
+                onFinish.run();
+            }
+        }
+    }
+}
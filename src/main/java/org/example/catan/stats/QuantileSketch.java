@@ -0,0 +1,85 @@
+package org.example.catan.stats;
+
+import org.example.catan.metrics.LogBuckets;
+
+/**
+ * Mergeable sketch of the distribution of non-negative integers, e.g. game lengths, with {@link LogBuckets}:
+ * values below {@value #SUB_BUCKETS} are counted exactly, larger ones in {@value #SUB_BUCKETS} linear sub-buckets
+ * per power of two, so quantiles are reported with at most 1/{@value #SUB_BUCKETS} relative error.
+ * The size is fixed no matter how many values are added, and merging adds the bucket counts.
+ * Not thread-safe; give every thread its own instance and {@link #merge(QuantileSketch)} them.
+ */
+public final class QuantileSketch {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = LogBuckets.count(SUB_BUCKET_BITS);
+
+    private final long[] buckets = new long[BUCKET_COUNT];
+    private long count;
+    private long max;
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value; negative values count as 0
+     */
+    public void add(long value) {
+        long clamped = Math.max(0, value);
+        buckets[LogBuckets.bucketOf(clamped, SUB_BUCKET_BITS)]++;
+        count++;
+        max = Math.max(max, clamped);
+    }
+
+    /**
+     * Adds all values of another sketch to this one.
+     *
+     * @param other the sketch to add; not changed
+     */
+    public void merge(QuantileSketch other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] += other.buckets[i];
+        }
+        count += other.count;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the number of values added.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the largest value added.
+     *
+     * @return the maximum, 0 if nothing was added
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the value below which a fraction of the added values lie, rounded up to the end of its bucket
+     * but never above the maximum.
+     *
+     * @param quantile the fraction, e.g. 0.5 for the median
+     * @return the value, 0 if nothing was added
+     */
+    public long getQuantile(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(LogBuckets.upperBound(i, SUB_BUCKET_BITS), max);
+            }
+        }
+        return max;
+    }
+}
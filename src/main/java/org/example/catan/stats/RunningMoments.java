@@ -0,0 +1,101 @@
+package org.example.catan.stats;
+
+/**
+ * Count, mean, variance, minimum and maximum of a stream of values, kept in constant space.
+ * Values are added with Welford's update, and two instances are combined with the pairwise formula of
+ * Chan et al., so per-thread moments can be merged at the end without losing precision.
+ * Not thread-safe; give every thread its own instance and {@link #merge(RunningMoments)} them.
+ */
+public final class RunningMoments {
+    private long count;
+    private double mean;
+    private double squaredDeviations;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds all values of another instance to this one.
+     *
+     * @param other the moments to add; not changed
+     */
+    public void merge(RunningMoments other) {
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        squaredDeviations += other.squaredDeviations + delta * delta * count * other.count / total;
+        mean += delta * other.count / total;
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the number of values added.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the mean of the values.
+     *
+     * @return the mean, NaN if no value was added
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Returns the sample variance of the values.
+     *
+     * @return the variance, NaN for fewer than two values
+     */
+    public double getVariance() {
+        return count < 2 ? Double.NaN : squaredDeviations / (count - 1);
+    }
+
+    /**
+     * Returns the sample standard deviation of the values.
+     *
+     * @return the standard deviation, NaN for fewer than two values
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Returns the smallest value.
+     *
+     * @return the minimum, NaN if no value was added
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * Returns the largest value.
+     *
+     * @return the maximum, NaN if no value was added
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.catan.stats;
+
+import org.example.catan.engine.GameEngine;
+
+/**
+ * Aggregation stage for games played on several threads, such as the games of a lobby on its shared executor,
+ * where one game may run on a different thread for every command. Every tracked game feeds an accumulator of
+ * its own, which needs no locking because a game's events arrive one after another; once the game is won or
+ * its tracker finished, the accumulator is merged into the total under the aggregator's lock and dropped.
+ * Memory thus grows with the number of running games, not with the number of games tracked.
+ */
+public final class StatisticsAggregator {
+    private final int radius;
+    private final GameStatistics total;
+
+    /**
+     * Creates an aggregator for games on boards of a radius.
+     *
+     * @param radius the board radius of all tracked games
+     */
+    public StatisticsAggregator(int radius) {
+        this.radius = radius;
+        this.total = new GameStatistics(radius);
+    }
+
+    /**
+     * Returns the board radius of the tracked games.
+     *
+     * @return the radius
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Starts tracking a game into an accumulator of its own, see {@link GameStatistics#track}. The game may be
+     * played on any threads as long as its events are recorded one after another.
+     *
+     * @param game the new game
+     * @return the tracker to set as the game's recorder
+     */
+    public GameStatistics.Tracker track(GameEngine game) {
+        GameStatistics statistics = new GameStatistics(radius);
+        return statistics.track(game, () -> add(statistics));
+    }
+
+    /**
+     * Merges the statistics of the finished games into new statistics. Games still running are not included.
+     *
+     * @return the combined statistics
+     */
+    public synchronized GameStatistics combine() {
+        GameStatistics combined = new GameStatistics(radius);
+        combined.merge(total);
+        return combined;
+    }
+
+    /**
+     * Adds the accumulator of a finished game to the total.
+     *
+     * @param statistics the accumulator
+     */
+    private synchronized void add(GameStatistics statistics) {
+        total.merge(statistics);
+    }
+}
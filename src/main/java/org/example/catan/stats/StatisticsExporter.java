@@ -0,0 +1,222 @@
+package org.example.catan.stats;
+
+import org.example.catan.gamepieces.ResourceVector;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Writes {@link GameStatistics} as CSV or JSON. Both formats hold the same values:
+ * the game counts, the game length (moments and the 50th, 90th and 99th percentile), the wins of every seat
+ * for each number of players that won a game, the rolls, starved rolls and cards of every dice total, and the
+ * settlements, winner settlements and win correlation of every vertex. Undefined values (e.g. the win rate of
+ * a vertex nobody settled) are written as an empty CSV field or JSON {@code null}.
+ */
+public final class StatisticsExporter {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+    private static final String[] QUANTILE_NAMES = {"p50", "p90", "p99"};
+    private static final int MIN_TOTAL = 2;
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private StatisticsExporter() {
+    }
+
+    /**
+     * Writes statistics to a file, as JSON if its name ends with {@code .json} and as CSV otherwise.
+     *
+     * @param statistics the statistics
+     * @param path       the target file, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public static void export(GameStatistics statistics, Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            if (path.getFileName().toString().endsWith(".json")) {
+                writeJson(statistics, writer);
+            } else {
+                writeCsv(statistics, writer);
+            }
+        }
+    }
+
+    /**
+     * Writes statistics as CSV in long format: one {@code section,key,metric,value} row per value. The key is
+     * empty for the summary and game length, {@code players:seat} for seats, the dice total for dice and the
+     * node ID for vertices.
+     *
+     * @param statistics the statistics
+     * @param out        the target
+     * @throws IOException if writing fails
+     */
+    public static void writeCsv(GameStatistics statistics, Writer out) throws IOException {
+        out.write("section,key,metric,value\n");
+        csv(out, "summary", "", "radius", statistics.getRadius());
+        csv(out, "summary", "", "games", statistics.getGames());
+        csv(out, "summary", "", "finished_games", statistics.getFinishedGames());
+
+        RunningMoments turns = statistics.getTurns();
+        csv(out, "game_length", "", "count", turns.getCount());
+        csv(out, "game_length", "", "mean", turns.getMean());
+        csv(out, "game_length", "", "stddev", turns.getStandardDeviation());
+        csv(out, "game_length", "", "min", turns.getMin());
+        csv(out, "game_length", "", "max", turns.getMax());
+        for (int q = 0; q < QUANTILES.length; q++) {
+            csv(out, "game_length", "", QUANTILE_NAMES[q], statistics.getTurnSketch().getQuantile(QUANTILES[q]));
+        }
+
+        for (int players = 1; players <= GameStatistics.MAX_PLAYERS; players++) {
+            if (statistics.getFinishedGames(players) == 0) {
+                continue;
+            }
+            for (int seat = 0; seat < players; seat++) {
+                String key = players + ":" + seat;
+                csv(out, "seat", key, "games", statistics.getFinishedGames(players));
+                csv(out, "seat", key, "wins", statistics.getWins(players, seat));
+                csv(out, "seat", key, "win_rate", statistics.getWinRate(players, seat));
+            }
+        }
+
+        for (int total = MIN_TOTAL; total <= GameStatistics.MAX_TOTAL; total++) {
+            String key = Integer.toString(total);
+            csv(out, "dice", key, "rolls", statistics.getRolls(total));
+            csv(out, "dice", key, "starved_rolls", statistics.getStarvedRolls(total));
+            csv(out, "dice", key, "roller_starved_rolls", statistics.getRollerStarvedRolls(total));
+            csv(out, "dice", key, "starvation_rate", statistics.getStarvationRate(total));
+            csv(out, "dice", key, "cards", statistics.getCards(total));
+            for (int r = 0; r < ResourceVector.SIZE; r++) {
+                csv(out, "dice", key, "cards_" + resourceName(r), statistics.getCards(total, r));
+            }
+        }
+
+        for (int v = 0; v < statistics.getVertexCount(); v++) {
+            String key = Integer.toString(v);
+            csv(out, "vertex", key, "settlements", statistics.getSettlements(v));
+            csv(out, "vertex", key, "winner_settlements", statistics.getWinnerSettlements(v));
+            csv(out, "vertex", key, "win_rate", statistics.getVertexWinRate(v));
+            csv(out, "vertex", key, "win_correlation", statistics.getVertexWinCorrelation(v));
+        }
+    }
+
+    /**
+     * Writes statistics as a JSON object with the members {@code radius}, {@code games}, {@code finishedGames},
+     * {@code gameLength}, {@code seats}, {@code dice} and {@code vertices}.
+     *
+     * @param statistics the statistics
+     * @param out        the target
+     * @throws IOException if writing fails
+     */
+    public static void writeJson(GameStatistics statistics, Writer out) throws IOException {
+        out.write("{\n  \"radius\": " + statistics.getRadius()
+                + ",\n  \"games\": " + statistics.getGames()
+                + ",\n  \"finishedGames\": " + statistics.getFinishedGames());
+
+        RunningMoments turns = statistics.getTurns();
+        out.write(",\n  \"gameLength\": {\"count\": " + turns.getCount()
+                + ", \"mean\": " + json(turns.getMean())
+                + ", \"stddev\": " + json(turns.getStandardDeviation())
+                + ", \"min\": " + json(turns.getMin())
+                + ", \"max\": " + json(turns.getMax()));
+        for (int q = 0; q < QUANTILES.length; q++) {
+            out.write(", \"" + QUANTILE_NAMES[q] + "\": " + statistics.getTurnSketch().getQuantile(QUANTILES[q]));
+        }
+        out.write("}");
+
+        out.write(",\n  \"seats\": [");
+        String separator = "\n    ";
+        for (int players = 1; players <= GameStatistics.MAX_PLAYERS; players++) {
+            if (statistics.getFinishedGames(players) == 0) {
+                continue;
+            }
+            StringBuilder wins = new StringBuilder();
+            StringBuilder rates = new StringBuilder();
+            for (int seat = 0; seat < players; seat++) {
+                wins.append(seat == 0 ? "" : ", ").append(statistics.getWins(players, seat));
+                rates.append(seat == 0 ? "" : ", ").append(json(statistics.getWinRate(players, seat)));
+            }
+            out.write(separator + "{\"players\": " + players + ", \"games\": " + statistics.getFinishedGames(players)
+                    + ", \"wins\": [" + wins + "], \"winRates\": [" + rates + "]}");
+            separator = ",\n    ";
+        }
+        out.write("\n  ]");
+
+        out.write(",\n  \"dice\": [");
+        for (int total = MIN_TOTAL; total <= GameStatistics.MAX_TOTAL; total++) {
+            StringBuilder cards = new StringBuilder();
+            for (int r = 0; r < ResourceVector.SIZE; r++) {
+                cards.append(r == 0 ? "" : ", ").append('"').append(resourceName(r)).append("\": ")
+                        .append(statistics.getCards(total, r));
+            }
+            out.write((total == MIN_TOTAL ? "\n    " : ",\n    ") + "{\"total\": " + total
+                    + ", \"rolls\": " + statistics.getRolls(total)
+                    + ", \"starvedRolls\": " + statistics.getStarvedRolls(total)
+                    + ", \"rollerStarvedRolls\": " + statistics.getRollerStarvedRolls(total)
+                    + ", \"starvationRate\": " + json(statistics.getStarvationRate(total))
+                    + ", \"cards\": " + statistics.getCards(total)
+                    + ", \"cardsByResource\": {" + cards + "}}");
+        }
+        out.write("\n  ]");
+
+        out.write(",\n  \"vertices\": [");
+        for (int v = 0; v < statistics.getVertexCount(); v++) {
+            out.write((v == 0 ? "\n    " : ",\n    ") + "{\"vertex\": " + v
+                    + ", \"settlements\": " + statistics.getSettlements(v)
+                    + ", \"winnerSettlements\": " + statistics.getWinnerSettlements(v)
+                    + ", \"winRate\": " + json(statistics.getVertexWinRate(v))
+                    + ", \"winCorrelation\": " + json(statistics.getVertexWinCorrelation(v)) + "}");
+        }
+        out.write("\n  ]\n}\n");
+    }
+
+    /**
+     * Writes one CSV row with a count.
+     *
+     * @param out     the target
+     * @param section the section
+     * @param key     the key within the section
+     * @param metric  the metric
+     * @param value   the value
+     * @throws IOException if writing fails
+     */
+    private static void csv(Writer out, String section, String key, String metric, long value) throws IOException {
+        out.write(section + "," + key + "," + metric + "," + value + "\n");
+    }
+
+    /**
+     * Writes one CSV row with a measured value, leaving the value empty if it is undefined.
+     *
+     * @param out     the target
+     * @param section the section
+     * @param key     the key within the section
+     * @param metric  the metric
+     * @param value   the value, NaN if undefined
+     * @throws IOException if writing fails
+     */
+    private static void csv(Writer out, String section, String key, String metric, double value) throws IOException {
+        out.write(section + "," + key + "," + metric + "," + (Double.isFinite(value) ? value : "") + "\n");
+    }
+
+    /**
+     * Formats a measured value as a JSON number.
+     *
+     * @param value the value, NaN if undefined
+     * @return the number, or {@code null} if the value is undefined
+     */
+    private static String json(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+
+    /**
+     * Returns the lower-case name of a resource, e.g. for a column name.
+     *
+     * @param resource index of the resource
+     * @return the name
+     */
+    private static String resourceName(int resource) {
+        return ResourceVector.resourceAt(resource).name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.catan.engine;
+
+import javafx.scene.paint.Color;
+import org.example.catan.CatanBoard;
+import org.example.catan.gamepieces.Bank;
+import org.example.catan.gamepieces.Player;
+import org.example.catan.graph.IntTupel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link GameEngine#unmakeMove()} restores exactly the state before the matching
+ * {@link GameEngine#makeMove(int)}, for random move sequences over whole games.
+ */
+class MakeUnmakeTest {
+    private static final int GAMES = 60;
+    private static final int SEARCHES_PER_GAME = 30;
+    private static final int MAX_DEPTH = 40;
+
+    /**
+     * Makes random sequences of legal moves, including robberies, from positions along random games and takes
+     * them back, expecting the original state every time.
+     */
+    @Test
+    void unmakeRestoresTheStateBeforeMake() {
+        Random random = new Random(13);
+        for (int g = 0; g < GAMES; g++) {
+            GameEngine engine = newEngine(g % 3 == 0 ? 5 : 3, g);
+            MoveList moves = new MoveList(MoveGenerator.maxMoves(engine.getBoard()));
+            for (int s = 0; s < SEARCHES_PER_GAME && !engine.isGameOver(); s++) {
+                String before = snapshot(engine);
+                int depth = 1 + random.nextInt(MAX_DEPTH);
+                for (int d = 0; d < depth; d++) {
+                    MoveGenerator.generate(engine, moves);
+                    if (moves.isEmpty()) {
+                        break;
+                    }
+                    assertTrue(engine.makeMove(randomOutcome(engine, moves, random)).isAccepted());
+                }
+                while (engine.getUndoDepth() > 0) {
+                    engine.unmakeMove();
+                }
+                assertEquals(before, snapshot(engine), "game " + g + ", search " + s);
+
+                MoveGenerator.generate(engine, moves);
+                engine.applyMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    /**
+     * Rejected moves must leave nothing on the undo stack.
+     */
+    @Test
+    void rejectedMovesAreNotPushed() {
+        GameEngine engine = newEngine(3, 1);
+        assertEquals(ActionResult.END_TURN_NOT_ROLLED, engine.makeMove(Move.of(Move.END_TURN, 0)));
+        assertEquals(0, engine.getUndoDepth());
+        assertThrows(IllegalStateException.class, engine::unmakeMove);
+    }
+
+    /**
+     * Creates a three-player game on a random board.
+     *
+     * @param radius the board radius
+     * @param seed   seed of the board and the dice
+     * @return the engine
+     */
+    private static GameEngine newEngine(int radius, long seed) {
+        CatanBoard board = new CatanBoard(radius, new Random(seed));
+        List<Player> players = List.of(new Player(Color.RED), new Player(Color.BLUE), new Player(Color.WHITE));
+        return new GameEngine(board, players, new Random(seed));
+    }
+
+    /**
+     * Picks a random generated move. Rolls get a random total, and a 7 a random victim and resource
+     * when one of them can be robbed.
+     *
+     * @param engine the game
+     * @param moves  the legal moves
+     * @param random the random source
+     * @return the move to make
+     */
+    private static int randomOutcome(GameEngine engine, MoveList moves, Random random) {
+        int move = moves.get(random.nextInt(moves.size()));
+        if (Move.type(move) != Move.ROLL) {
+            return move;
+        }
+        int total = 2 + random.nextInt(6) + random.nextInt(6);
+        if (total == 7) {
+            int victim = random.nextInt(engine.getPlayers().size());
+            int resource = random.nextInt(5);
+            if (victim != engine.getCurrentPlayerIndex()
+                    && engine.getPlayers().get(victim).getInventory().get(resource) > 0) {
+                return Move.rollSeven(victim, resource);
+            }
+        }
+        return Move.roll(total);
+    }
+
+    /**
+     * Describes everything a move can change: hands, pieces, production, awards, bank, robber and turn.
+     *
+     * @param engine the game
+     * @return the description
+     */
+    private static String snapshot(GameEngine engine) {
+        StringBuilder sb = new StringBuilder();
+        BoardOccupancy occupancy = engine.getOccupancy();
+        LongestRoad longestRoad = engine.getLongestRoad();
+        for (int p = 0; p < engine.getPlayers().size(); p++) {
+            Player player = engine.getPlayers().get(p);
+            sb.append(player.getInventory()).append('|').append(player.getSettlementCount())
+                    .append(',').append(player.getStreetCount())
+                    .append('|').append(longestRoad.getLength(p))
+                    .append('|').append(engine.getVictoryPoints(p)).append('|');
+            for (int v = 0; v < occupancy.getVertexCount(); v++) {
+                if (occupancy.ownsSettlement(p, v)) {
+                    sb.append('s').append(v);
+                }
+            }
+            for (int e = 0; e < occupancy.getEdgeCount(); e++) {
+                if (occupancy.ownsStreet(p, e)) {
+                    sb.append('e').append(e);
+                }
+            }
+            for (int total = 2; total <= 12; total++) {
+                for (int r = 0; r < 5; r++) {
+                    sb.append(engine.getProductionIndex().getGrant(total, p, r));
+                }
+            }
+            sb.append('\n');
+        }
+        for (int e = 0; e < occupancy.getEdgeCount(); e++) {
+            sb.append(engine.getBoard().getGraph().getOwner(e)).append(',');
+        }
+        Bank bank = engine.getBank();
+        sb.append('\n').append(bank.getResourceStock())
+                .append('|').append(bank.getRemainingRoads()).append(',').append(bank.getRemainingSettlements())
+                .append('|').append(longestRoad.getHolder())
+                .append('|').append(engine.getRobberPosition())
+                .append('|').append(engine.getCurrentPlayerIndex())
+                .append('|').append(engine.getCurrentPlayerDiceRolls())
+                .append('|').append(engine.isWaitingForBandit())
+                .append('|').append(engine.getLastRoll())
+                .append('|').append(engine.getWinner())
+                .append('|').append(engine.getActiveTrades()).append('\n');
+        for (IntTupel coord : engine.getBoard().getHex_coords()) {
+            sb.append(engine.getBoard().getBoard().get(coord).isBlocked() ? 1 : 0);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.catan.engine;
+
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the incrementally updated Zobrist hash of {@link GameEngine} against {@link GameEngine#computeHash()}.
+ */
+class PositionHashTest {
+    private static final List<Color> COLORS = List.of(Color.BLUE, Color.RED, Color.YELLOW);
+    private static final int GAMES = 60;
+    private static final int MAX_STEPS = 300;
+    private static final int SEARCH_DEPTH = 20;
+
+    /**
+     * Plays random games and, along each, makes and takes back random move sequences, expecting the
+     * incremental hash to match a full recomputation after every move and the hash of a copy.
+     */
+    @Test
+    void incrementalHashMatchesRecomputation() {
+        Random random = new Random(15);
+        for (int g = 0; g < GAMES; g++) {
+            GameEngine engine = GameEngine.newGame(g % 2 == 0 ? 3 : 4, COLORS, g);
+            assertEquals(engine.computeHash(), engine.getHash());
+            MoveList moves = new MoveList(MoveGenerator.maxMoves(engine.getBoard()));
+            for (int step = 0; step < MAX_STEPS && !engine.isGameOver(); step++) {
+                long root = engine.getHash();
+                for (int d = 0; d < SEARCH_DEPTH; d++) {
+                    MoveGenerator.generate(engine, moves);
+                    if (moves.isEmpty()) {
+                        break;
+                    }
+                    int move = moves.get(random.nextInt(moves.size()));
+                    if (Move.type(move) == Move.ROLL) {
+                        move = Move.roll(2 + random.nextInt(6) + random.nextInt(6));
+                    }
+                    engine.makeMove(move);
+                    assertEquals(engine.computeHash(), engine.getHash(), "after " + Move.toString(move));
+                }
+                while (engine.getUndoDepth() > 0) {
+                    engine.unmakeMove();
+                    assertEquals(engine.computeHash(), engine.getHash());
+                }
+                assertEquals(root, engine.getHash());
+
+                MoveGenerator.generate(engine, moves);
+                engine.applyMove(moves.get(random.nextInt(moves.size())));
+                assertEquals(engine.computeHash(), engine.getHash());
+                assertEquals(engine.getHash(), engine.copy(new Random()).getHash());
+            }
+        }
+    }
+
+    /**
+     * Two streets built in either order lead to the same position and must hash equal.
+     */
+    @Test
+    void transpositionsHashEqual() {
+        Random random = new Random(150);
+        int transpositions = 0;
+        for (int g = 0; g < GAMES; g++) {
+            GameEngine engine = GameEngine.newGame(3, COLORS, 1000 + g);
+            MoveList moves = new MoveList(MoveGenerator.maxMoves(engine.getBoard()));
+            for (int step = 0; step < MAX_STEPS && !engine.isGameOver(); step++) {
+                MoveGenerator.generate(engine, moves);
+                int first = -1;
+                int last = -1;
+                for (int i = 0; i < moves.size(); i++) {
+                    if (Move.type(moves.get(i)) == Move.STREET) {
+                        first = first < 0 ? moves.get(i) : first;
+                        last = moves.get(i);
+                    }
+                }
+                if (first != last && engine.makeMove(first).isAccepted()) {
+                    if (engine.makeMove(last).isAccepted()) {
+                        long hash = engine.getHash();
+                        engine.unmakeMove();
+                        engine.unmakeMove();
+                        assertTrue(engine.makeMove(last).isAccepted());
+                        assertTrue(engine.makeMove(first).isAccepted());
+                        assertEquals(hash, engine.getHash());
+                        transpositions++;
+                    }
+                    while (engine.getUndoDepth() > 0) {
+                        engine.unmakeMove();
+                    }
+                }
+                engine.applyMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+        assertTrue(transpositions > 0, "no transpositions were reached");
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.catan.engine;
+
+import javafx.scene.paint.Color;
+import org.example.catan.gamepieces.Player;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.gamepieces.Resources;
+import org.example.catan.gamepieces.TradeOffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link TradeBook} against a plain list of offers in listing order, scanned from the front.
+ */
+class TradeBookTest {
+    private static final int PLAYERS = 4;
+    private static final int OPERATIONS = 20_000;
+    private static final Resources[] RESOURCES = Resources.values();
+
+    /**
+     * A listed offer of the model.
+     *
+     * @param offer  the offer
+     * @param sender index of the sending player
+     */
+    private record Listed(TradeOffer offer, int sender) {}
+
+    /**
+     * Runs random adds, removals, expiries with and without taking them back, and match searches, comparing
+     * the listing, positions and matches with the model after every step.
+     */
+    @Test
+    void behavesLikeAnOrderedList() {
+        Random random = new Random(18);
+        List<Player> players = new ArrayList<>();
+        for (int p = 0; p < PLAYERS; p++) {
+            players.add(new Player(Color.gray(p / (double) PLAYERS)));
+        }
+        TradeBook book = new TradeBook(PLAYERS);
+        List<Listed> model = new ArrayList<>();
+        Set<TradeOffer> ineligible = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            int operation = random.nextInt(10);
+            if (operation < 4 || model.isEmpty()) {
+                int sender = random.nextInt(PLAYERS);
+                TradeOffer offer = randomOffer(players.get(sender), random);
+                if (random.nextInt(4) == 0) {
+                    ineligible.add(offer);
+                }
+                book.add(offer, sender);
+                model.add(new Listed(offer, sender));
+            } else if (operation < 6) {
+                Listed removed = model.remove(random.nextInt(model.size()));
+                assertTrue(book.remove(removed.offer()));
+                assertFalse(book.remove(removed.offer()));
+            } else if (operation < 7) {
+                int sender = random.nextInt(PLAYERS);
+                List<Listed> before = new ArrayList<>(model);
+                UndoStack undo = new UndoStack();
+                int expired = book.expire(sender, undo);
+                model.removeIf(listed -> listed.sender() == sender);
+                assertEquals(before.size() - model.size(), expired);
+                if (random.nextBoolean()) {
+                    for (int e = 0; e < expired; e++) {
+                        int sequence = undo.pop();
+                        book.restore(undo.popRef(), sender, sequence);
+                    }
+                    model.clear();
+                    model.addAll(before);
+                }
+            } else {
+                int sender = random.nextInt(PLAYERS);
+                TradeOffer offer = randomOffer(players.get(sender), random);
+                assertSame(findMatch(model, offer, sender, ineligible),
+                        book.findMatch(offer, sender, other -> !ineligible.contains(other)));
+            }
+            assertListing(model, book);
+        }
+    }
+
+    /**
+     * An empty book has no offers, positions or matches.
+     */
+    @Test
+    void emptyBook() {
+        TradeBook book = new TradeBook(2);
+        TradeOffer offer = new TradeOffer(new Player(Color.RED), bundle(Resources.WOOD, 1),
+                bundle(Resources.BRICK, 1), false);
+        assertEquals(0, book.size());
+        assertEquals(-1, book.indexOf(offer));
+        assertNull(book.findMatch(offer, 0, other -> true));
+        assertThrows(IndexOutOfBoundsException.class, () -> book.get(0));
+    }
+
+    /**
+     * Compares the book's listing, positions and lookups with the model.
+     *
+     * @param model the expected offers in listing order
+     * @param book  the book
+     */
+    private static void assertListing(List<Listed> model, TradeBook book) {
+        assertEquals(model.size(), book.size());
+        List<TradeOffer> expected = model.stream().map(Listed::offer).toList();
+        assertEquals(expected, book.asList());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), book.get(i));
+            assertEquals(i, book.indexOf(expected.get(i)));
+            assertTrue(book.contains(expected.get(i)));
+        }
+    }
+
+    /**
+     * Scans the model for the earliest eligible offer of another player that gives everything the offer wants
+     * and wants nothing beyond what the offer gives.
+     *
+     * @param model      the listed offers in listing order
+     * @param offer      the new offer
+     * @param sender     index of the player making the new offer
+     * @param ineligible offers that fail the extra condition
+     * @return the match, or null
+     */
+    private static TradeOffer findMatch(List<Listed> model, TradeOffer offer, int sender,
+                                        Set<TradeOffer> ineligible) {
+        for (Listed listed : model) {
+            TradeOffer other = listed.offer();
+            if (listed.sender() != sender
+                    && other.getOffer().covers(offer.getRequest())
+                    && offer.getOffer().covers(other.getRequest())
+                    && !ineligible.contains(other)) {
+                return other;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates an offer giving and wanting one or two resource types, a few cards each.
+     *
+     * @param sender the sending player
+     * @param random the random source
+     * @return the offer
+     */
+    private static TradeOffer randomOffer(Player sender, Random random) {
+        return new TradeOffer(sender, randomBundle(random), randomBundle(random), false);
+    }
+
+    /**
+     * Creates a non-empty bundle of one or two resource types.
+     *
+     * @param random the random source
+     * @return the bundle
+     */
+    private static ResourceVector randomBundle(Random random) {
+        ResourceVector bundle = bundle(RESOURCES[random.nextInt(ResourceVector.SIZE)], 1 + random.nextInt(2));
+        if (random.nextInt(3) == 0) {
+            bundle.add(RESOURCES[random.nextInt(ResourceVector.SIZE)], 1);
+        }
+        return bundle;
+    }
+
+    /**
+     * Creates a bundle of one resource type.
+     *
+     * @param resource the resource
+     * @param amount   the number of cards
+     * @return the bundle
+     */
+    private static ResourceVector bundle(Resources resource, int amount) {
+        ResourceVector bundle = new ResourceVector();
+        bundle.add(resource, amount);
+        return bundle;
+    }
+}
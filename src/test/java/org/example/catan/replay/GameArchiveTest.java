@@ -0,0 +1,248 @@
+package org.example.catan.replay;
+
+import javafx.scene.paint.Color;
+import org.example.catan.engine.GameEngine;
+import org.example.catan.engine.Move;
+import org.example.catan.engine.MoveGenerator;
+import org.example.catan.engine.MoveList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes games with a {@link GameArchiveWriter} and reads them back with a {@link GameArchiveReader}.
+ */
+class GameArchiveTest {
+    private static final List<Color> COLORS = List.of(Color.BLUE, Color.RED, Color.YELLOW, Color.WHITE);
+    private static final int GAMES = 60;
+    private static final int THREADS = 4;
+    private static final int MAX_STEPS = 3000;
+    private static final int LARGE_GAME_MOVES = 1_500_000;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Archives games of two to four players from several threads and in a second session after reopening, and
+     * expects every game to rebuild to the position it was archived in.
+     *
+     * @throws Exception if writing or reading the archive fails
+     */
+    @Test
+    void archivedGamesRebuild() throws Exception {
+        Path path = directory.resolve("games.cga");
+        Map<Long, GameEngine> played = new ConcurrentHashMap<>();
+        Map<Long, Long> seeds = new ConcurrentHashMap<>();
+        try (GameArchiveWriter writer = new GameArchiveWriter(path)) {
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                List<Future<?>> games = new ArrayList<>();
+                for (long seed = 1; seed <= GAMES; seed++) {
+                    long gameSeed = seed;
+                    games.add(executor.submit(() -> {
+                        GameEngine engine = newGame(gameSeed);
+                        GameArchiveWriter.Recording recording = writer.startGame(engine, gameSeed);
+                        engine.setRecorder(recording);
+                        play(engine, new Random(gameSeed), MAX_STEPS);
+                        long gameId = recording.commit();
+                        played.put(gameId, engine);
+                        seeds.put(gameId, gameSeed);
+                        return null;
+                    }));
+                }
+                for (Future<?> game : games) {
+                    game.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+        try (GameArchiveWriter writer = new GameArchiveWriter(path)) {
+            assertEquals(GAMES, writer.getGameCount());
+            GameEngine engine = newGame(GAMES + 1);
+            GameArchiveWriter.Recording recording = writer.startGame(engine, GAMES + 1);
+            engine.setRecorder(recording);
+            play(engine, new Random(0), MAX_STEPS);
+            long gameId = recording.commit();
+            assertEquals(GAMES, gameId);
+            played.put(gameId, engine);
+            seeds.put(gameId, GAMES + 1L);
+        }
+
+        try (GameArchiveReader reader = new GameArchiveReader(path)) {
+            assertEquals(GAMES + 1, reader.getGameCount());
+            ArchivedGame game = new ArchivedGame();
+            for (long gameId = 0; gameId <= GAMES; gameId++) {
+                GameEngine original = played.get(gameId);
+                reader.read(gameId, game);
+                assertEquals(gameId, game.getGameId());
+                assertEquals(seeds.get(gameId), game.getSeed());
+                assertEquals(original.getPlayers().size(), game.getPlayerColors().size());
+                GameEngine rebuilt = game.rebuild();
+                assertEquals(original.getHash(), rebuilt.getHash(), "game " + gameId);
+                assertEquals(original.isGameOver(), rebuilt.isGameOver(), "game " + gameId);
+            }
+        }
+    }
+
+    /**
+     * Games too large to share the first chunk continue in the next one and come back intact, as do games
+     * archived after them.
+     *
+     * @throws Exception if writing or reading the archive fails
+     */
+    @Test
+    void gamesCrossingTheChunkBoundaryAreIntact() throws Exception {
+        Path path = directory.resolve("large.cga");
+        GameEngine board = newGame(3);
+        Random random = new Random(24);
+        int[] moves = new int[LARGE_GAME_MOVES];
+        List<Long> moveSeeds = new ArrayList<>();
+        GameEngine small;
+        try (GameArchiveWriter writer = new GameArchiveWriter(path)) {
+            while (writer.getDataSize() <= GameArchiveWriter.CHUNK_SIZE) {
+                long moveSeed = random.nextLong();
+                fillMoves(moves, moveSeed);
+                long gameId = writer.append(3, board.getBoard(), COLORS.subList(0, 3), moves, moves.length);
+                assertEquals(moveSeeds.size(), gameId);
+                moveSeeds.add(moveSeed);
+            }
+            small = newGame(5);
+            GameArchiveWriter.Recording recording = writer.startGame(small, 5);
+            small.setRecorder(recording);
+            play(small, new Random(5), MAX_STEPS);
+            assertEquals(moveSeeds.size(), recording.commit());
+        }
+
+        try (GameArchiveReader reader = new GameArchiveReader(path)) {
+            assertEquals(moveSeeds.size() + 1, reader.getGameCount());
+            assertTrue(reader.getDataSize() > GameArchiveWriter.CHUNK_SIZE);
+            ArchivedGame game = new ArchivedGame();
+            int[] archived = new int[LARGE_GAME_MOVES];
+            for (int gameId = 0; gameId < moveSeeds.size(); gameId++) {
+                reader.read(gameId, game);
+                assertEquals(LARGE_GAME_MOVES, game.getMoveCount());
+                for (int i = 0; i < LARGE_GAME_MOVES; i++) {
+                    archived[i] = game.getMove(i);
+                }
+                fillMoves(moves, moveSeeds.get(gameId));
+                assertArrayEquals(moves, archived, "game " + gameId);
+            }
+            assertEquals(small.getHash(), reader.load(moveSeeds.size()).getHash());
+        }
+    }
+
+    /**
+     * Games appended after the last flush are invisible to readers, and a writer reopening the archive after the
+     * first writer stopped without closing, as after a crash, continues after the last flushed game.
+     *
+     * @throws Exception if writing or reading the archive fails
+     */
+    @Test
+    void reopeningHidesUnflushedGames() throws Exception {
+        Path path = directory.resolve("crashed.cga");
+        // Left open like the archive of a crashed process: its last games are never published.
+        GameArchiveWriter crashed = new GameArchiveWriter(path);
+        List<GameEngine> archived = new ArrayList<>();
+        for (long seed = 0; seed < 5; seed++) {
+            archived.add(archive(crashed, seed));
+            if (seed == 2) {
+                crashed.flush();
+            }
+        }
+        try (GameArchiveReader reader = new GameArchiveReader(path)) {
+            assertEquals(3, reader.getGameCount());
+        }
+
+        GameEngine appended;
+        try (GameArchiveWriter writer = new GameArchiveWriter(path)) {
+            assertEquals(3, writer.getGameCount());
+            appended = archive(writer, 10);
+        }
+        try (GameArchiveReader reader = new GameArchiveReader(path)) {
+            assertEquals(4, reader.getGameCount());
+            for (int gameId = 0; gameId < 3; gameId++) {
+                assertEquals(archived.get(gameId).getHash(), reader.load(gameId).getHash());
+            }
+            ArchivedGame game = new ArchivedGame();
+            reader.read(3, game);
+            assertEquals(10, game.getSeed());
+            assertEquals(appended.getHash(), game.rebuild().getHash());
+        }
+    }
+
+    /**
+     * Plays a short game and archives it.
+     *
+     * @param writer the archive
+     * @param seed   the seed of the game
+     * @return the game in its archived position
+     * @throws IOException if the archive cannot be extended
+     */
+    private static GameEngine archive(GameArchiveWriter writer, long seed) throws IOException {
+        GameEngine engine = newGame(seed);
+        GameArchiveWriter.Recording recording = writer.startGame(engine, seed);
+        engine.setRecorder(recording);
+        play(engine, new Random(seed), 200);
+        recording.commit();
+        return engine;
+    }
+
+    /**
+     * Creates a game of two to four players on a board of radius 3.
+     *
+     * @param seed the seed of the game, also choosing the number of players
+     * @return the game
+     */
+    private static GameEngine newGame(long seed) {
+        return GameEngine.newGame(3, COLORS.subList(0, 2 + (int) (seed % 3)), seed);
+    }
+
+    /**
+     * Plays random moves, preferring others to ending the turn, until the game is won or the move limit is
+     * reached.
+     *
+     * @param engine the game
+     * @param random the random source
+     * @param steps  the move limit
+     */
+    private static void play(GameEngine engine, Random random, int steps) {
+        MoveList moves = new MoveList(MoveGenerator.maxMoves(engine.getBoard()));
+        for (int step = 0; step < steps && !engine.isGameOver(); step++) {
+            MoveGenerator.generate(engine, moves);
+            int move = moves.get(random.nextInt(moves.size()));
+            if (Move.type(move) == Move.END_TURN && moves.size() > 1 && random.nextInt(3) > 0) {
+                move = moves.get(0);
+            }
+            engine.applyMove(move);
+        }
+    }
+
+    /**
+     * Fills an array with random moves of all types. They are not playable; they only need to come back as
+     * written.
+     *
+     * @param moves the array
+     * @param seed  the seed choosing the moves
+     */
+    private static void fillMoves(int[] moves, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = Move.of(Move.ROLL + random.nextInt(Move.END_TURN), random.nextInt(1 << 12));
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.example.catan.replay;
+
+import javafx.scene.paint.Color;
+import org.example.catan.engine.ActionResult;
+import org.example.catan.engine.GameEngine;
+import org.example.catan.engine.GameRecorder;
+import org.example.catan.engine.Move;
+import org.example.catan.engine.MoveGenerator;
+import org.example.catan.engine.MoveList;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.gamepieces.Resources;
+import org.example.catan.gamepieces.TradeOffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Records games into a {@link GameLogWriter} and checks that {@link ReplayEngine} rebuilds them exactly.
+ */
+class GameLogRoundTripTest {
+    private static final List<Color> COLORS = List.of(Color.BLUE, Color.RED, Color.YELLOW);
+    private static final int GAMES = 200;
+    private static final int THREADS = 4;
+    private static final int MAX_STEPS = 2000;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Plays random games with player trades, some of them matched by counter-offers, on several threads into one
+     * log, then replays the log and expects every game in the same position as the original.
+     *
+     * @throws Exception if writing or reading the log fails
+     */
+    @Test
+    void replayRebuildsRecordedGames() throws Exception {
+        Path path = directory.resolve("games.log");
+        Map<Long, GameEngine> played = new ConcurrentHashMap<>();
+        AtomicInteger matches = new AtomicInteger();
+        try (GameLogWriter writer = new GameLogWriter(path, 2, TimeUnit.MILLISECONDS)) {
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                List<Future<?>> games = new ArrayList<>();
+                for (long id = 1; id <= GAMES; id++) {
+                    long gameId = id;
+                    games.add(executor.submit(() -> played.put(gameId, play(writer, gameId, matches))));
+                }
+                for (Future<?> game : games) {
+                    game.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+            writer.flush();
+        }
+        assertTrue(matches.get() > 0, "no offer was matched");
+
+        Map<Long, GameEngine> replayed = ReplayEngine.replay(path);
+        assertEquals(GAMES, replayed.size());
+        for (Map.Entry<Long, GameEngine> entry : played.entrySet()) {
+            GameEngine original = entry.getValue();
+            GameEngine copy = replayed.get(entry.getKey());
+            assertNotNull(copy, "game " + entry.getKey());
+            assertEquals(original.getHash(), copy.getHash(), "game " + entry.getKey());
+            assertEquals(original.getActiveTrades().size(), copy.getActiveTrades().size());
+            assertEquals(original.getWinner() == null, copy.getWinner() == null);
+        }
+    }
+
+    /**
+     * A writer reopening a log that ends in a record cut off by a crash truncates the partial record, so the games
+     * recorded afterwards replay like those before.
+     *
+     * @throws Exception if writing or reading the log fails
+     */
+    @Test
+    void reopeningTruncatesATornRecord() throws Exception {
+        Path path = directory.resolve("torn.log");
+        Map<Long, GameEngine> played = new ConcurrentHashMap<>();
+        try (GameLogWriter writer = new GameLogWriter(path, 0, TimeUnit.MILLISECONDS)) {
+            played.put(1L, play(writer, 1, new AtomicInteger()));
+        }
+        long complete = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(5).put(GameEventType.STREET_BUILT.getCode()).putInt(0).flip());
+        }
+        try (GameLogWriter writer = new GameLogWriter(path, 0, TimeUnit.MILLISECONDS)) {
+            assertEquals(complete, Files.size(path));
+            played.put(2L, play(writer, 2, new AtomicInteger()));
+        }
+
+        Map<Long, GameEngine> replayed = ReplayEngine.replay(path);
+        assertEquals(2, replayed.size());
+        for (long id = 1; id <= 2; id++) {
+            assertEquals(played.get(id).getHash(), replayed.get(id).getHash(), "game " + id);
+        }
+    }
+
+    /**
+     * A log larger than one mapped segment is read completely, including the record crossing the segment end.
+     *
+     * @throws Exception if writing or reading the log fails
+     */
+    @Test
+    void readsLogsSpanningSeveralSegments() throws Exception {
+        Path path = directory.resolve("large.log");
+        int recordSize = GameEventType.HEADER_SIZE + GameEventType.DICE_ROLLED.getPayloadSize();
+        int rolls = GameLogReader.SEGMENT_SIZE / recordSize + 1000;
+        try (GameLogWriter writer = new GameLogWriter(path, 10, TimeUnit.MILLISECONDS)) {
+            GameRecorder recorder = writer.startGame(7, 3, COLORS, 7);
+            for (int i = 0; i < rolls; i++) {
+                recorder.diceRolled(i % COLORS.size(), 2 + i % 11);
+            }
+        }
+        assertTrue(Files.size(path) > GameLogReader.SEGMENT_SIZE);
+
+        try (GameLogReader reader = new GameLogReader(path)) {
+            GameEvent event = new GameEvent();
+            assertTrue(reader.next(event));
+            assertEquals(GameEventType.GAME_STARTED, event.getType());
+            for (int i = 0; i < rolls; i++) {
+                assertTrue(reader.next(event), "roll " + i);
+                assertEquals(GameEventType.DICE_ROLLED, event.getType());
+                assertEquals(2 + i % 11, event.getValue(), "roll " + i);
+            }
+            assertFalse(reader.next(event));
+            assertEquals(Files.size(path), reader.getPosition());
+        }
+    }
+
+    /**
+     * A log of another version is refused by the reader and by a writer asked to append to it.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Test
+    void otherVersionsAreRejected() throws IOException {
+        Path path = directory.resolve("old.log");
+        Files.write(path, ByteBuffer.allocate(GameLogWriter.FILE_HEADER_SIZE)
+                .putInt(GameLogWriter.MAGIC).putShort((short) (GameLogWriter.VERSION - 1)).array());
+        assertThrows(IOException.class, () -> new GameLogReader(path));
+        assertThrows(IOException.class, () -> new GameLogWriter(path, 0, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Plays a random game, offering, countering and accepting player trades now and then.
+     *
+     * @param writer  the log to record to
+     * @param gameId  ID of the game, also its seed
+     * @param matches counter of offers executed against a matching open offer
+     * @return the game in its final position
+     */
+    private static GameEngine play(GameLogWriter writer, long gameId, AtomicInteger matches) {
+        long seed = gameId * 31;
+        GameEngine engine = GameEngine.newGame(3, COLORS, seed);
+        engine.setRecorder(writer.startGame(gameId, 3, COLORS, seed));
+        Random random = new Random(gameId);
+        MoveList moves = new MoveList(MoveGenerator.maxMoves(engine.getBoard()));
+        for (int step = 0; step < MAX_STEPS && !engine.isGameOver(); step++) {
+            if (engine.hasRolled() && !engine.isWaitingForBandit()) {
+                if (random.nextInt(10) == 0) {
+                    engine.offerTrade(new TradeOffer(engine.getCurrentPlayer(), ResourceVector.of(Resources.WOOD, 1),
+                            ResourceVector.of(Resources.WHEAT, 1), false));
+                }
+                if (hasOpenOffer(engine) && random.nextInt(3) == 0) {
+                    ActionResult result = engine.offerTrade(new TradeOffer(engine.getCurrentPlayer(),
+                            ResourceVector.of(Resources.WHEAT, 1), ResourceVector.of(Resources.WOOD, 1), false));
+                    if (result == ActionResult.TRADE_MATCHED) {
+                        matches.incrementAndGet();
+                    }
+                }
+                if (!engine.getActiveTrades().isEmpty() && random.nextInt(4) == 0) {
+                    engine.acceptTrade(engine.getActiveTrades().get(0));
+                }
+            }
+            MoveGenerator.generate(engine, moves);
+            int move = moves.get(random.nextInt(moves.size()));
+            if (Move.type(move) == Move.END_TURN && moves.size() > 1 && random.nextInt(3) > 0) {
+                move = moves.get(0);
+            }
+            engine.applyMove(move);
+        }
+        return engine;
+    }
+
+    /**
+     * Checks whether another player than the current one has an offer listed.
+     *
+     * @param engine the game
+     * @return true if the current player could counter an offer
+     */
+    private static boolean hasOpenOffer(GameEngine engine) {
+        return engine.getActiveTrades().stream().anyMatch(trade -> trade.getSender() != engine.getCurrentPlayer());
+    }
+}
@@ -0,0 +1,275 @@
+package org.example.catan.server;
+
+import org.example.catan.engine.ActionResult;
+import org.example.catan.engine.GameEngine;
+import org.example.catan.engine.Move;
+import org.example.catan.engine.MoveGenerator;
+import org.example.catan.engine.MoveList;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.gamepieces.TradeOffer;
+import org.example.catan.lobby.GameLobby;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Plays games through a {@link GameServer} on the loopback interface with {@link GameClient}s and raw sockets.
+ */
+class ServerLoopbackTest {
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final int MAX_STEPS = 2000;
+
+    private GameLobby lobby;
+    private GameServer server;
+    private InetSocketAddress address;
+
+    /**
+     * Starts a server on an ephemeral loopback port.
+     *
+     * @throws IOException if the port cannot be bound
+     */
+    @BeforeEach
+    void start() throws IOException {
+        lobby = new GameLobby();
+        server = new GameServer(lobby, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+    }
+
+    /**
+     * Stops the server and the lobby.
+     */
+    @AfterEach
+    void stop() {
+        server.close();
+        lobby.close();
+    }
+
+    /**
+     * Two clients create and join a game, play moves, and list and accept trades. Both local copies end in the
+     * position of the server's game.
+     *
+     * @throws Exception if the connection fails
+     */
+    @Test
+    void playsAGameWithTrades() throws Exception {
+        try (GameClient first = new GameClient(address, Runnable::run, (event, game) -> { });
+             GameClient second = new GameClient(address, Runnable::run, (event, game) -> { })) {
+            long gameId = await(first.createGame(3, 2, 42));
+            assertEquals(ActionResult.OK, await(first.join(gameId, 0)));
+            assertEquals(ActionResult.OK, await(second.join(gameId, 1)));
+            GameClient[] seats = {first, second};
+            GameClient last = second;
+
+            Random random = new Random(20);
+            MoveList moves = new MoveList(MoveGenerator.maxMoves(first.getGame(gameId).getBoard()));
+            int offered = 0;
+            int accepted = 0;
+            for (int step = 0; step < MAX_STEPS && accepted == 0; step++) {
+                // Only the client that sent the last command is known to have applied all its events.
+                GameEngine game = last.getGame(gameId);
+                GameClient client = seats[game.getCurrentPlayerIndex()];
+                if (game.hasRolled() && !game.isWaitingForBandit()) {
+                    ResourceVector hand = game.getCurrentPlayer().getInventory();
+                    if (game.getActiveTrades().isEmpty()) {
+                        int give = richest(hand);
+                        if (hand.get(give) > 0) {
+                            ResourceVector request = ResourceVector.of(ResourceVector.resourceAt((give + 1) % 5), 1);
+                            ActionResult result = await(client.offerTrade(gameId,
+                                    ResourceVector.of(ResourceVector.resourceAt(give), 1), request));
+                            assertEquals(ActionResult.OK, result);
+                            assertEquals(1, client.getGame(gameId).getActiveTrades().size());
+                            offered++;
+                        }
+                    } else {
+                        TradeOffer offer = game.getActiveTrades().get(0);
+                        if (!offer.getSender().equals(game.getCurrentPlayer())
+                                && hand.covers(offer.getRequest())
+                                && offer.getSender().getInventory().covers(offer.getOffer())) {
+                            assertEquals(ActionResult.OK, await(client.acceptTrade(gameId, 0)));
+                            accepted++;
+                        }
+                    }
+                }
+                MoveGenerator.generate(game, moves);
+                int move = moves.get(random.nextInt(moves.size()));
+                ActionResult result = await(client.move(gameId, move));
+                assertTrue(result.isAccepted(), Move.toString(move) + ": " + result);
+                last = client;
+            }
+            assertTrue(offered > 0, "no trade was offered");
+            assertTrue(accepted > 0, "no trade was accepted");
+
+            long hash = await(lobby.getGame(gameId).submit(GameEngine::getHash));
+            assertEquals(ActionResult.OK, await(first.leave(gameId, 0)));
+            assertEquals(ActionResult.OK, await(second.leave(gameId, 1)));
+            assertEquals(hash, first.getGame(gameId).getHash());
+            assertEquals(hash, second.getGame(gameId).getHash());
+        }
+    }
+
+    /**
+     * A command from a connection without the seat of the current player is answered with an error.
+     *
+     * @throws Exception if the connection fails
+     */
+    @Test
+    void rejectsMovesOutOfTurn() throws Exception {
+        try (GameClient first = new GameClient(address, Runnable::run, (event, game) -> { });
+             GameClient second = new GameClient(address, Runnable::run, (event, game) -> { })) {
+            long gameId = await(first.createGame(3, 2, 7));
+            assertEquals(ActionResult.OK, await(first.join(gameId, 0)));
+            assertEquals(ActionResult.OK, await(second.join(gameId, 1)));
+            assertEquals(ServerError.SEAT_TAKEN, error(second.join(gameId, 0)));
+
+            MoveList moves = new MoveList(MoveGenerator.maxMoves(second.getGame(gameId).getBoard()));
+            MoveGenerator.generate(second.getGame(gameId), moves);
+            assertEquals(ServerError.NOT_YOUR_TURN, error(second.move(gameId, moves.get(0))));
+            assertEquals(ServerError.UNKNOWN_GAME, error(second.move(gameId + 1000, moves.get(0))));
+        }
+    }
+
+    /**
+     * A frame that cannot be decoded closes the connection, and the server goes on serving other clients.
+     *
+     * @throws Exception if the connection fails
+     */
+    @Test
+    void closesConnectionsSendingMalformedFrames() throws Exception {
+        try (Socket socket = new Socket(address.getAddress(), address.getPort())) {
+            socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+            ByteBuffer frame = ByteBuffer.allocate(Protocol.LENGTH_SIZE + 5)
+                    .putShort((short) 5).put(Protocol.MOVE).putInt(1);
+            socket.getOutputStream().write(frame.array());
+            InputStream input = socket.getInputStream();
+            assertEquals(-1, input.read());
+        }
+        awaitCount(server::getConnectionCount, 0);
+
+        try (GameClient client = new GameClient(address, Runnable::run, (event, game) -> { })) {
+            assertNotNull(await(client.createGame(3, 2, 1)));
+        }
+    }
+
+    /**
+     * A closed connection gives up its seats; a game is dropped when its last seat is freed, and a game nobody
+     * joined is dropped when its creator disconnects.
+     *
+     * @throws Exception if the connection fails
+     */
+    @Test
+    void disconnectingFreesSeatsAndGames() throws Exception {
+        GameClient second = new GameClient(address, Runnable::run, (event, game) -> { });
+        long gameId;
+        try (GameClient first = new GameClient(address, Runnable::run, (event, game) -> { })) {
+            gameId = await(first.createGame(3, 2, 3));
+            assertEquals(ActionResult.OK, await(first.join(gameId, 0)));
+            assertEquals(ActionResult.OK, await(second.join(gameId, 1)));
+            await(first.createGame(3, 2, 4));
+            assertEquals(2, server.getGameCount());
+        }
+        awaitCount(server::getGameCount, 1);
+
+        try (GameClient third = new GameClient(address, Runnable::run, (event, game) -> { })) {
+            assertEquals(ActionResult.OK, await(third.join(gameId, 0)));
+        }
+        second.close();
+        awaitCount(server::getGameCount, 0);
+        assertEquals(0, lobby.getGameCount());
+    }
+
+    /**
+     * A connection cannot create more than {@link GameServer#MAX_UNJOINED_GAMES} games nobody joined; joining
+     * one frees its place.
+     *
+     * @throws Exception if the connection fails
+     */
+    @Test
+    void limitsUnjoinedGames() throws Exception {
+        try (GameClient client = new GameClient(address, Runnable::run, (event, game) -> { })) {
+            long gameId = 0;
+            for (int i = 0; i < GameServer.MAX_UNJOINED_GAMES; i++) {
+                gameId = await(client.createGame(3, 2, i));
+            }
+            assertEquals(ServerError.TOO_MANY_GAMES, error(client.createGame(3, 2, 99)));
+            assertEquals(ActionResult.OK, await(client.join(gameId, 0)));
+            assertNotNull(await(client.createGame(3, 2, 99)));
+        }
+    }
+
+    /**
+     * Waits for a reply.
+     *
+     * @param reply the reply
+     * @param <T>   the type of the reply
+     * @return the reply value
+     * @throws Exception if the reply failed or did not arrive in time
+     */
+    private static <T> T await(CompletableFuture<T> reply) throws Exception {
+        return reply.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Waits for a reply that must be an error.
+     *
+     * @param reply the reply
+     * @return the error sent by the server
+     * @throws Exception if the reply did not arrive in time
+     */
+    private static ServerError error(CompletableFuture<?> reply) throws Exception {
+        try {
+            Object value = await(reply);
+            return fail("expected an error, got " + value);
+        } catch (ExecutionException e) {
+            return assertInstanceOf(ServerErrorException.class, e.getCause()).getError();
+        }
+    }
+
+    /**
+     * Waits until a count reaches a value, as the server handles disconnects asynchronously.
+     *
+     * @param count    the count
+     * @param expected the value
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void awaitCount(IntSupplier count, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (count.getAsInt() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, count.getAsInt());
+    }
+
+    /**
+     * Returns the resource a hand holds most of.
+     *
+     * @param hand the hand
+     * @return the index of the resource
+     */
+    private static int richest(ResourceVector hand) {
+        int richest = 0;
+        for (int r = 1; r < ResourceVector.SIZE; r++) {
+            if (hand.get(r) > hand.get(richest)) {
+                richest = r;
+            }
+        }
+        return richest;
+    }
+}
@@ -0,0 +1,278 @@
+package org.example.catan.stats;
+
+import javafx.scene.paint.Color;
+import org.example.catan.engine.BoardOccupancy;
+import org.example.catan.engine.GameEngine;
+import org.example.catan.engine.GameRecorder;
+import org.example.catan.engine.Move;
+import org.example.catan.engine.MoveGenerator;
+import org.example.catan.engine.MoveList;
+import org.example.catan.gamepieces.ResourceVector;
+import org.example.catan.lobby.GameLobby;
+import org.example.catan.lobby.GameSession;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link GameStatistics} against the events of random games, and {@link StatisticsAggregator} on games
+ * played through a lobby on a shared thread pool.
+ */
+class GameStatisticsTest {
+    private static final List<Color> COLORS = List.of(Color.BLUE, Color.RED, Color.YELLOW);
+    private static final int RADIUS = 3;
+    private static final int GAMES = 40;
+    private static final int MAX_STEPS = 3000;
+    private static final int SHORT_STEPS = 60;
+
+    /**
+     * Tracks won and unfinished games and compares every statistic with counts taken by a plain recorder and
+     * the final board.
+     */
+    @Test
+    void trackerAddsRollsAndOutcomes() {
+        GameStatistics statistics = new GameStatistics(RADIUS);
+        Counter expected = new Counter();
+        long[] settlements = new long[statistics.getVertexCount()];
+        long[] winnerSettlements = new long[statistics.getVertexCount()];
+        long[] wins = new long[COLORS.size()];
+        RunningMoments turns = new RunningMoments();
+        int finished = 0;
+        GameStatistics.Tracker last = null;
+        for (int g = 0; g < GAMES; g++) {
+            GameEngine engine = GameEngine.newGame(RADIUS, COLORS, g);
+            GameStatistics.Tracker tracker = statistics.track(engine);
+            expected.startGame();
+            engine.setRecorder(tracker.andThen(expected));
+            play(engine, new Random(g), steps(g));
+            tracker.finish();
+            last = tracker;
+
+            if (expected.winner >= 0) {
+                finished++;
+                wins[expected.winner]++;
+                turns.add(expected.turns);
+                BoardOccupancy occupancy = engine.getOccupancy();
+                for (int v = 0; v < occupancy.getVertexCount(); v++) {
+                    int owner = occupancy.getSettlementOwner(v);
+                    if (owner >= 0) {
+                        settlements[v]++;
+                        winnerSettlements[v] += owner == expected.winner ? 1 : 0;
+                    }
+                }
+            }
+        }
+        last.finish();
+        expected.startGame();
+
+        assertEquals(GAMES, statistics.getGames());
+        assertTrue(finished > 0 && finished < GAMES, "won " + finished + " of " + GAMES);
+        assertEquals(finished, statistics.getFinishedGames());
+        assertEquals(finished, statistics.getFinishedGames(COLORS.size()));
+        for (int seat = 0; seat < COLORS.size(); seat++) {
+            assertEquals(wins[seat], statistics.getWins(COLORS.size(), seat));
+        }
+        assertEquals(finished, statistics.getTurns().getCount());
+        assertEquals(turns.getMean(), statistics.getTurns().getMean(), 1e-9);
+        assertEquals(finished, statistics.getTurnSketch().getCount());
+        assertEquals((long) turns.getMax(), statistics.getTurnSketch().getMax());
+        for (int total = 2; total <= GameStatistics.MAX_TOTAL; total++) {
+            assertEquals(expected.rolls[total], statistics.getRolls(total), "total " + total);
+            assertEquals(expected.starved[total], statistics.getStarvedRolls(total), "total " + total);
+            assertEquals(expected.rollerStarved[total], statistics.getRollerStarvedRolls(total), "total " + total);
+            for (int r = 0; r < ResourceVector.SIZE; r++) {
+                assertEquals(expected.cards[total][r], statistics.getCards(total, r), "total " + total);
+            }
+        }
+        for (int v = 0; v < statistics.getVertexCount(); v++) {
+            assertEquals(settlements[v], statistics.getSettlements(v), "vertex " + v);
+            assertEquals(winnerSettlements[v], statistics.getWinnerSettlements(v), "vertex " + v);
+        }
+    }
+
+    /**
+     * Plays games move by move through a lobby on a thread pool, so a game's commands run on changing threads,
+     * and expects the aggregated statistics to equal those of the same games tracked on one thread.
+     *
+     * @throws InterruptedException if interrupted while waiting for the pool
+     */
+    @Test
+    void lobbyAggregatesGamesOnASharedExecutor() throws InterruptedException {
+        GameStatistics expected = new GameStatistics(RADIUS);
+        for (int g = 0; g < GAMES; g++) {
+            GameEngine engine = GameEngine.newGame(RADIUS, COLORS, g);
+            GameStatistics.Tracker tracker = expected.track(engine);
+            engine.setRecorder(tracker);
+            play(engine, new Random(g), steps(g));
+            tracker.finish();
+        }
+
+        StatisticsAggregator aggregator = new StatisticsAggregator(RADIUS);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        GameLobby lobby = new GameLobby(executor, null, aggregator);
+        List<GameSession> sessions = new ArrayList<>();
+        List<Random> randoms = new ArrayList<>();
+        for (int g = 0; g < GAMES; g++) {
+            sessions.add(lobby.createGame(RADIUS, COLORS, g));
+            randoms.add(new Random(g));
+        }
+        lobby.createGame(RADIUS + 1, COLORS, 0);
+        MoveList[] moves = new MoveList[GAMES];
+        for (int step = 0; step < MAX_STEPS; step++) {
+            List<CompletableFuture<Void>> steps = new ArrayList<>();
+            for (int g = 0; g < GAMES; g++) {
+                if (step < steps(g)) {
+                    int game = g;
+                    steps.add(sessions.get(g).submit(engine -> {
+                        if (moves[game] == null) {
+                            moves[game] = new MoveList(MoveGenerator.maxMoves(engine.getBoard()));
+                        }
+                        step(engine, randoms.get(game), moves[game]);
+                        return null;
+                    }));
+                }
+            }
+            steps.forEach(CompletableFuture::join);
+        }
+        for (int g = 0; g < GAMES / 2; g++) {
+            lobby.removeGame(sessions.get(g).getId());
+        }
+        lobby.close();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        GameStatistics combined = aggregator.combine();
+        assertEquals(expected.getGames(), combined.getGames());
+        assertEquals(expected.getFinishedGames(), combined.getFinishedGames());
+        for (int seat = 0; seat < COLORS.size(); seat++) {
+            assertEquals(expected.getWins(COLORS.size(), seat), combined.getWins(COLORS.size(), seat));
+        }
+        assertEquals(expected.getTurns().getCount(), combined.getTurns().getCount());
+        assertEquals(expected.getTurns().getMean(), combined.getTurns().getMean(), 1e-9);
+        assertEquals(expected.getTurnSketch().getQuantile(0.5), combined.getTurnSketch().getQuantile(0.5));
+        for (int total = 2; total <= GameStatistics.MAX_TOTAL; total++) {
+            assertEquals(expected.getRolls(total), combined.getRolls(total));
+            assertEquals(expected.getStarvedRolls(total), combined.getStarvedRolls(total));
+            assertEquals(expected.getCards(total), combined.getCards(total));
+        }
+        for (int v = 0; v < expected.getVertexCount(); v++) {
+            assertEquals(expected.getSettlements(v), combined.getSettlements(v));
+            assertEquals(expected.getWinnerSettlements(v), combined.getWinnerSettlements(v));
+        }
+    }
+
+    /**
+     * Returns the number of moves played in a game; every fourth game is cut short before anybody can win.
+     *
+     * @param game index of the game
+     * @return the move limit
+     */
+    private static int steps(int game) {
+        return game % 4 == 0 ? SHORT_STEPS : MAX_STEPS;
+    }
+
+    /**
+     * Plays random moves until the game is won or the move limit is reached.
+     *
+     * @param engine the game
+     * @param random the random source
+     * @param steps  the move limit
+     */
+    private static void play(GameEngine engine, Random random, int steps) {
+        MoveList moves = new MoveList(MoveGenerator.maxMoves(engine.getBoard()));
+        for (int step = 0; step < steps; step++) {
+            step(engine, random, moves);
+        }
+    }
+
+    /**
+     * Makes one random move, preferring others to ending the turn, unless the game is over.
+     *
+     * @param engine the game
+     * @param random the random source
+     * @param moves  buffer for the legal moves
+     */
+    private static void step(GameEngine engine, Random random, MoveList moves) {
+        MoveGenerator.generate(engine, moves);
+        if (moves.isEmpty()) {
+            return;
+        }
+        int move = moves.get(random.nextInt(moves.size()));
+        if (Move.type(move) == Move.END_TURN && moves.size() > 1 && random.nextInt(3) > 0) {
+            move = moves.get(0);
+        }
+        engine.applyMove(move);
+    }
+
+    /**
+     * Counts rolls and payouts of all games and the winner and length of the current one, the way
+     * {@link GameStatistics} documents them.
+     */
+    private static final class Counter implements GameRecorder {
+        private final long[] rolls = new long[GameStatistics.MAX_TOTAL + 1];
+        private final long[] starved = new long[GameStatistics.MAX_TOTAL + 1];
+        private final long[] rollerStarved = new long[GameStatistics.MAX_TOTAL + 1];
+        private final long[][] cards = new long[GameStatistics.MAX_TOTAL + 1][ResourceVector.SIZE];
+        private int roller;
+        private int total;
+        private boolean paid;
+        private boolean rollerPaid;
+        private int winner;
+        private int turns;
+
+        /**
+         * Closes the last roll and forgets the winner and length of the previous game.
+         */
+        void startGame() {
+            closeRoll();
+            winner = -1;
+            turns = 0;
+        }
+
+        @Override
+        public void diceRolled(int player, int total) {
+            closeRoll();
+            this.roller = player;
+            this.total = total;
+            this.paid = false;
+            this.rollerPaid = false;
+            rolls[total]++;
+        }
+
+        @Override
+        public void resourcesProduced(int player, int resource, int amount) {
+            cards[total][resource] += amount;
+            paid = true;
+            rollerPaid |= player == roller;
+        }
+
+        @Override
+        public void turnEnded(int player, boolean won) {
+            closeRoll();
+            turns++;
+            if (won) {
+                winner = player;
+            }
+        }
+
+        /**
+         * Counts the last roll as starved if it paid nobody or not the roller.
+         */
+        private void closeRoll() {
+            if (total > 0) {
+                starved[total] += paid ? 0 : 1;
+                rollerStarved[total] += rollerPaid ? 0 : 1;
+                total = 0;
+            }
+        }
+    }
+}
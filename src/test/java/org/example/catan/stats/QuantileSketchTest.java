@@ -0,0 +1,65 @@
+package org.example.catan.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the quantiles of {@link QuantileSketch} against the exact quantiles of the added values.
+ */
+class QuantileSketchTest {
+    private static final int VALUES = 200_000;
+    private static final double[] QUANTILES = {0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1};
+
+    /**
+     * Values spread over many powers of two are reported at or above the exact quantile, by at most 1/32 of it,
+     * both from one sketch and from sketches merged from parts.
+     */
+    @Test
+    void quantilesAreWithinTheRelativeError() {
+        Random random = new Random(250);
+        long[] values = new long[VALUES];
+        QuantileSketch whole = new QuantileSketch();
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 40);
+            whole.add(values[i]);
+            (i % 3 == 0 ? first : second).add(values[i]);
+        }
+        first.merge(second);
+        Arrays.sort(values);
+
+        for (QuantileSketch sketch : new QuantileSketch[] {whole, first}) {
+            assertEquals(VALUES, sketch.getCount());
+            assertEquals(values[VALUES - 1], sketch.getMax());
+            for (double quantile : QUANTILES) {
+                long exact = values[(int) Math.ceil(quantile * VALUES) - 1];
+                long reported = sketch.getQuantile(quantile);
+                assertTrue(reported >= exact && reported <= exact + exact / 32,
+                        "quantile " + quantile + ": exact " + exact + ", reported " + reported);
+            }
+        }
+    }
+
+    /**
+     * Values below 32 are counted exactly, negative values count as 0 and an empty sketch reports 0.
+     */
+    @Test
+    void smallValuesAreExact() {
+        QuantileSketch sketch = new QuantileSketch();
+        assertEquals(0, sketch.getQuantile(0.5));
+        sketch.add(-5);
+        for (int value = 1; value < 32; value++) {
+            sketch.add(value);
+        }
+        for (int rank = 1; rank <= 32; rank++) {
+            assertEquals(rank - 1, sketch.getQuantile(rank / 32.0));
+        }
+        assertEquals(31, sketch.getMax());
+    }
+}
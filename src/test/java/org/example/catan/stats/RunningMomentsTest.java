@@ -0,0 +1,80 @@
+package org.example.catan.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link RunningMoments} against a two-pass computation, added in one go and merged from parts.
+ */
+class RunningMomentsTest {
+    private static final int VALUES = 100_000;
+    private static final double TOLERANCE = 1e-9;
+
+    /**
+     * Values added to one instance or spread over several merged ones give the exact moments of all values,
+     * even far from 0 where the naive sum of squares loses its precision.
+     */
+    @Test
+    void mergedPartsMatchTwoPassMoments() {
+        Random random = new Random(25);
+        double[] values = new double[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = 1e6 + random.nextGaussian() * 3;
+        }
+
+        RunningMoments whole = new RunningMoments();
+        RunningMoments[] parts = {new RunningMoments(), new RunningMoments(), new RunningMoments()};
+        for (int i = 0; i < VALUES; i++) {
+            whole.add(values[i]);
+            parts[i < 10 ? 0 : random.nextInt(parts.length)].add(values[i]);
+        }
+        RunningMoments merged = new RunningMoments();
+        merged.merge(new RunningMoments());
+        for (RunningMoments part : parts) {
+            merged.merge(part);
+        }
+
+        double mean = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            mean += value / VALUES;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        double variance = 0;
+        for (double value : values) {
+            variance += (value - mean) * (value - mean) / (VALUES - 1);
+        }
+        assertTrue(Math.abs(variance - 9) < 0.5, "variance " + variance);
+
+        for (RunningMoments moments : new RunningMoments[] {whole, merged}) {
+            assertEquals(VALUES, moments.getCount());
+            assertEquals(mean, moments.getMean(), mean * TOLERANCE);
+            assertEquals(variance, moments.getVariance(), variance * 1e-6);
+            assertEquals(min, moments.getMin());
+            assertEquals(max, moments.getMax());
+        }
+    }
+
+    /**
+     * Merging into an empty instance copies the other one.
+     */
+    @Test
+    void mergingIntoEmptyCopies() {
+        RunningMoments other = new RunningMoments();
+        other.add(2);
+        other.add(4);
+        RunningMoments empty = new RunningMoments();
+        empty.merge(other);
+        assertEquals(2, empty.getCount());
+        assertEquals(3, empty.getMean(), TOLERANCE);
+        assertEquals(2, empty.getVariance(), TOLERANCE);
+        assertEquals(2, empty.getMin());
+        assertEquals(4, empty.getMax());
+    }
+}